@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.cache;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import org.mule.runtime.core.DefaultMuleEvent;
+import org.mule.runtime.core.DefaultMuleMessage;
+import org.mule.runtime.core.api.DefaultMuleException;
+import org.mule.runtime.core.api.MuleEvent;
+import org.mule.runtime.core.api.MuleException;
+import org.mule.runtime.core.api.processor.MessageProcessor;
+import org.mule.runtime.core.cache.DefaultCachingStrategy.CachedResponse;
+import org.mule.runtime.core.util.store.SimpleMemoryObjectStore;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class DefaultCachingStrategyTestCase extends AbstractMuleContextTestCase
+{
+
+    private static final String RESPONSE = "response";
+
+    private final CountingProcessor processor = new CountingProcessor();
+
+    @Test
+    public void cachesResponse() throws Exception
+    {
+        DefaultCachingStrategy cachingStrategy = createCachingStrategy();
+
+        MuleEvent first = cachingStrategy.process(getTestEvent("request"), processor);
+        MuleEvent second = cachingStrategy.process(getTestEvent("request"), processor);
+
+        assertThat(first.getMessage().getPayload(), is((Object) RESPONSE));
+        assertThat(second.getMessage().getPayload(), is((Object) RESPONSE));
+        assertThat(processor.invocations.get(), is(1));
+    }
+
+    @Test
+    public void processesDifferentKeysSeparately() throws Exception
+    {
+        DefaultCachingStrategy cachingStrategy = createCachingStrategy();
+
+        cachingStrategy.process(getTestEvent("request1"), processor);
+        cachingStrategy.process(getTestEvent("request2"), processor);
+
+        assertThat(processor.invocations.get(), is(2));
+    }
+
+    @Test
+    public void usesKeyGenerationExpression() throws Exception
+    {
+        DefaultCachingStrategy cachingStrategy = new DefaultCachingStrategy();
+        cachingStrategy.setKeyGenerationExpression("#['constant']");
+        cachingStrategy.initialise();
+
+        cachingStrategy.process(getTestEvent("request1"), processor);
+        cachingStrategy.process(getTestEvent("request2"), processor);
+
+        assertThat(processor.invocations.get(), is(1));
+    }
+
+    @Test
+    public void expiresEntries() throws Exception
+    {
+        DefaultCachingStrategy cachingStrategy = new DefaultCachingStrategy();
+        cachingStrategy.setEntryTTL(1);
+        cachingStrategy.initialise();
+
+        cachingStrategy.process(getTestEvent("request"), processor);
+        Thread.sleep(10);
+        cachingStrategy.process(getTestEvent("request"), processor);
+
+        assertThat(processor.invocations.get(), is(2));
+    }
+
+    @Test
+    public void doesNotCacheFailures() throws Exception
+    {
+        DefaultCachingStrategy cachingStrategy = createCachingStrategy();
+        processor.fail = true;
+
+        try
+        {
+            cachingStrategy.process(getTestEvent("request"), processor);
+            fail("Expected the processor to fail");
+        }
+        catch (MuleException e)
+        {
+            // expected
+        }
+
+        processor.fail = false;
+        MuleEvent response = cachingStrategy.process(getTestEvent("request"), processor);
+
+        assertThat(response.getMessage().getPayload(), is((Object) RESPONSE));
+        assertThat(processor.invocations.get(), is(2));
+    }
+
+    @Test
+    public void buffersConsumableResponses() throws Exception
+    {
+        DefaultCachingStrategy cachingStrategy = createCachingStrategy();
+        processor.streaming = true;
+
+        MuleEvent first = cachingStrategy.process(getTestEvent("request"), processor);
+        MuleEvent second = cachingStrategy.process(getTestEvent("request"), processor);
+
+        assertThat(first.getMessage().getPayload(), is(instanceOf(byte[].class)));
+        assertThat(new String((byte[]) first.getMessage().getPayload()), is(RESPONSE));
+        assertThat(new String((byte[]) second.getMessage().getPayload()), is(RESPONSE));
+        assertThat(processor.invocations.get(), is(1));
+    }
+
+    @Test
+    public void processesConcurrentMissesOnce() throws Exception
+    {
+        final DefaultCachingStrategy cachingStrategy = createCachingStrategy();
+        processor.latch = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<MuleEvent>> responses = new ArrayList<>();
+            for (int i = 0; i < 4; i++)
+            {
+                responses.add(executor.submit(() -> cachingStrategy.process(getTestEvent("request"), processor)));
+            }
+
+            Thread.sleep(200);
+            processor.latch.countDown();
+
+            for (Future<MuleEvent> response : responses)
+            {
+                assertThat(response.get(RECEIVE_TIMEOUT, TimeUnit.MILLISECONDS).getMessage().getPayload(), is((Object) RESPONSE));
+            }
+            assertThat(processor.invocations.get(), is(1));
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void stopsWaitingForHungResponse() throws Exception
+    {
+        final DefaultCachingStrategy cachingStrategy = createCachingStrategy();
+        cachingStrategy.setMaxWait(100);
+        final CountingProcessor hungProcessor = new CountingProcessor();
+        hungProcessor.latch = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            executor.submit(() -> cachingStrategy.process(getTestEvent("request"), hungProcessor));
+            while (hungProcessor.invocations.get() == 0)
+            {
+                Thread.sleep(10);
+            }
+
+            MuleEvent response = cachingStrategy.process(getTestEvent("request"), processor);
+
+            assertThat(response.getMessage().getPayload(), is((Object) RESPONSE));
+            assertThat(processor.invocations.get(), is(1));
+        }
+        finally
+        {
+            hungProcessor.latch.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void releasesWaitersWhenProcessingThrowsError() throws Exception
+    {
+        final DefaultCachingStrategy cachingStrategy = createCachingStrategy();
+        cachingStrategy.setMaxWait(60 * 1000);
+        final CountDownLatch failureLatch = new CountDownLatch(1);
+        final AtomicInteger failingInvocations = new AtomicInteger();
+        final MessageProcessor failingProcessor = new MessageProcessor()
+        {
+            @Override
+            public MuleEvent process(MuleEvent event) throws MuleException
+            {
+                failingInvocations.incrementAndGet();
+                try
+                {
+                    failureLatch.await(RECEIVE_TIMEOUT, TimeUnit.MILLISECONDS);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                throw new StackOverflowError();
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            executor.submit(() -> cachingStrategy.process(getTestEvent("request"), failingProcessor));
+            while (failingInvocations.get() == 0)
+            {
+                Thread.sleep(10);
+            }
+            Future<MuleEvent> response = executor.submit(() -> cachingStrategy.process(getTestEvent("request"), processor));
+
+            Thread.sleep(200);
+            failureLatch.countDown();
+
+            assertThat(response.get(RECEIVE_TIMEOUT, TimeUnit.MILLISECONDS).getMessage().getPayload(), is((Object) RESPONSE));
+            assertThat(processor.invocations.get(), is(1));
+        }
+        finally
+        {
+            failureLatch.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void processesReentrantMissWithoutWaiting() throws Exception
+    {
+        final DefaultCachingStrategy cachingStrategy = createCachingStrategy();
+        final MuleEvent nestedRequest = getTestEvent("request");
+        MessageProcessor reentrantProcessor = new MessageProcessor()
+        {
+            @Override
+            public MuleEvent process(MuleEvent event) throws MuleException
+            {
+                return cachingStrategy.process(nestedRequest, processor);
+            }
+        };
+
+        MuleEvent response = cachingStrategy.process(getTestEvent("request"), reentrantProcessor);
+
+        assertThat(response.getMessage().getPayload(), is((Object) RESPONSE));
+        assertThat(processor.invocations.get(), is(1));
+    }
+
+    @Test
+    public void findsEntriesInObjectStore() throws Exception
+    {
+        SimpleMemoryObjectStore<CachedResponse> objectStore = new SimpleMemoryObjectStore<>();
+        DefaultCachingStrategy cachingStrategy = createCachingStrategy();
+        cachingStrategy.setObjectStore(objectStore);
+        DefaultCachingStrategy otherCachingStrategy = createCachingStrategy();
+        otherCachingStrategy.setObjectStore(objectStore);
+
+        cachingStrategy.process(getTestEvent("request"), processor);
+        MuleEvent response = otherCachingStrategy.process(getTestEvent("request"), processor);
+
+        assertThat(response.getMessage().getPayload(), is((Object) RESPONSE));
+        assertThat(processor.invocations.get(), is(1));
+    }
+
+    @Test
+    public void invalidatesEntries() throws Exception
+    {
+        SimpleMemoryObjectStore<CachedResponse> objectStore = new SimpleMemoryObjectStore<>();
+        DefaultCachingStrategy cachingStrategy = createCachingStrategy();
+        cachingStrategy.setObjectStore(objectStore);
+
+        MuleEvent request = getTestEvent("request");
+        cachingStrategy.process(request, processor);
+        cachingStrategy.invalidate(cachingStrategy.getKeyGenerator().generateKey(request));
+        cachingStrategy.process(getTestEvent("request"), processor);
+        cachingStrategy.invalidate();
+        cachingStrategy.process(getTestEvent("request"), processor);
+
+        assertThat(processor.invocations.get(), is(3));
+        assertThat(objectStore.allKeys().size(), is(1));
+    }
+
+    private DefaultCachingStrategy createCachingStrategy() throws Exception
+    {
+        DefaultCachingStrategy cachingStrategy = new DefaultCachingStrategy();
+        cachingStrategy.initialise();
+        return cachingStrategy;
+    }
+
+    private class CountingProcessor implements MessageProcessor
+    {
+
+        private final AtomicInteger invocations = new AtomicInteger();
+        private volatile boolean fail;
+        private volatile boolean streaming;
+        private volatile CountDownLatch latch;
+
+        @Override
+        public MuleEvent process(MuleEvent event) throws MuleException
+        {
+            invocations.incrementAndGet();
+            if (fail)
+            {
+                throw new DefaultMuleException("Expected failure");
+            }
+            if (latch != null)
+            {
+                try
+                {
+                    latch.await(RECEIVE_TIMEOUT, TimeUnit.MILLISECONDS);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            Object payload = streaming ? new ByteArrayInputStream(RESPONSE.getBytes()) : RESPONSE;
+            return new DefaultMuleEvent(new DefaultMuleMessage(payload, muleContext), event);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.config.pool;
+
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+import static org.mule.runtime.core.processor.strategy.VirtualThreadProcessingStrategy.DEFAULT_MAX_THREADS;
+
+import org.mule.runtime.core.api.config.ThreadingProfile;
+import org.mule.runtime.core.api.context.WorkManager;
+import org.mule.runtime.core.config.ChainedThreadingProfile;
+import org.mule.runtime.core.processor.strategy.VirtualThreadProcessingStrategy;
+import org.mule.runtime.core.util.concurrent.VirtualThreadFactory;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class VirtualThreadPoolFactoryTestCase extends AbstractMuleContextTestCase
+{
+
+    private ChainedThreadingProfile threadingProfile;
+
+    @Before
+    public void createThreadingProfile()
+    {
+        threadingProfile = new ChainedThreadingProfile(muleContext.getDefaultThreadingProfile());
+        threadingProfile.setPoolFactory(new VirtualThreadPoolFactory());
+        threadingProfile.setMuleContext(muleContext);
+    }
+
+    @Test
+    public void fallsBackToDefaultPoolWithoutVirtualThreads() throws Exception
+    {
+        assumeFalse(VirtualThreadFactory.isSupported());
+
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) threadingProfile.createPool("pool");
+        try
+        {
+            assertThat(pool.getCorePoolSize(), is(Math.min(threadingProfile.getMaxThreadsIdle(), threadingProfile.getMaxThreadsActive())));
+            assertThat(pool.getMaximumPoolSize(), is(threadingProfile.getMaxThreadsActive()));
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void processingStrategyKeepsDefaultSizingWithoutVirtualThreads() throws Exception
+    {
+        assumeFalse(VirtualThreadFactory.isSupported());
+
+        VirtualThreadProcessingStrategy processingStrategy = new VirtualThreadProcessingStrategy();
+
+        assertThat(processingStrategy.getMaxThreads(), is(nullValue()));
+    }
+
+    @Test
+    public void processingStrategyAllowsManyVirtualThreads() throws Exception
+    {
+        assumeTrue(VirtualThreadFactory.isSupported());
+
+        VirtualThreadProcessingStrategy processingStrategy = new VirtualThreadProcessingStrategy();
+
+        assertThat(processingStrategy.getMaxThreads(), is(DEFAULT_MAX_THREADS));
+    }
+
+    @Test
+    public void runsTasksInVirtualThreads() throws Exception
+    {
+        assumeTrue(VirtualThreadFactory.isSupported());
+
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) threadingProfile.createPool("pool");
+        try
+        {
+            assertThat(pool.getCorePoolSize(), is(threadingProfile.getMaxThreadsActive()));
+            assertThat(pool.allowsCoreThreadTimeOut(), is(true));
+
+            Future<Thread> thread = pool.submit(Thread::currentThread);
+            assertThat(isVirtual(thread.get(RECEIVE_TIMEOUT, TimeUnit.MILLISECONDS)), is(true));
+            assertThat(thread.get().getName(), startsWith("pool."));
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void limitsConcurrencyToMaxThreadsActive() throws Exception
+    {
+        threadingProfile.setMaxThreadsActive(2);
+        threadingProfile.setMaxBufferSize(10);
+        ExecutorService pool = threadingProfile.createPool("pool");
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(6);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        try
+        {
+            for (int i = 0; i < 6; i++)
+            {
+                pool.execute(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try
+                    {
+                        release.await(RECEIVE_TIMEOUT, TimeUnit.MILLISECONDS);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    finished.countDown();
+                });
+            }
+            release.countDown();
+
+            assertThat(finished.await(RECEIVE_TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+            assertThat(maxRunning.get(), lessThanOrEqualTo(2));
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void workManagerUsesPoolFactoryOfProfile() throws Exception
+    {
+        WorkManager workManager = threadingProfile.createWorkManager("workManager", 0);
+        workManager.start();
+        try
+        {
+            final CountDownLatch executed = new CountDownLatch(1);
+            final Thread[] thread = new Thread[1];
+            workManager.execute(() -> {
+                thread[0] = Thread.currentThread();
+                executed.countDown();
+            });
+
+            assertThat(executed.await(RECEIVE_TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+            assertThat(isVirtual(thread[0]), is(VirtualThreadFactory.isSupported()));
+        }
+        finally
+        {
+            workManager.dispose();
+        }
+    }
+
+    private boolean isVirtual(Thread thread) throws Exception
+    {
+        if (!VirtualThreadFactory.isSupported())
+        {
+            return false;
+        }
+        return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    }
+}
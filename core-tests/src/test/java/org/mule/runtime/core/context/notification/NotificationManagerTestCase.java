@@ -12,6 +12,7 @@ import org.mule.tck.size.SmallTest;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
@@ -179,6 +180,21 @@ public class NotificationManagerTestCase extends AbstractMuleTestCase
         assertTrue(listener2.isNotified());
     }
 
+    @Test
+    public void testRoutingTable() throws ClassNotFoundException
+    {
+        registerDefaultEvents();
+        registerDefaultListeners();
+        Policy policy = manager.getPolicy();
+        assertEquals(0, policy.getSenders(Event1.class).length);
+        assertEquals(1, policy.getSenders(SubSubEvent1.class).length);
+        assertSame(policy.getSenders(SubSubEvent1.class), policy.getSenders(SubSubEvent1.class));
+        assertEquals(0, policy.getSenders(Event3.class).length);
+        // routes are rebuilt along with the policy
+        manager.addInterfaceToType(Listener2.class, Event3.class);
+        assertEquals(1, manager.getPolicy().getSenders(Event3.class).length);
+    }
+
     protected void assertNoListenersNotified()
     {
         assertFalse(listener1.isNotified());
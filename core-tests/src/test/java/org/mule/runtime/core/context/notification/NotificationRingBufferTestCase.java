@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.context.notification;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import org.mule.runtime.core.api.context.notification.ServerNotification;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+@SmallTest
+public class NotificationRingBufferTestCase extends AbstractMuleTestCase
+{
+
+    private static final long TIMEOUT = 5000;
+
+    private final List<ServerNotification> consumed = new ArrayList<>();
+
+    @Test
+    public void roundsCapacityToPowerOfTwo()
+    {
+        assertThat(new NotificationRingBuffer(1).capacity(), is(1));
+        assertThat(new NotificationRingBuffer(5).capacity(), is(8));
+        assertThat(new NotificationRingBuffer(16).capacity(), is(16));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCapacity()
+    {
+        new NotificationRingBuffer(0);
+    }
+
+    @Test
+    public void drainsInOrder()
+    {
+        NotificationRingBuffer buffer = new NotificationRingBuffer(4);
+        Event1 first = new Event1("1");
+        Event1 second = new Event1("2");
+        buffer.offer(first);
+        buffer.offer(second);
+
+        assertThat(buffer.drain(consumed::add), is(2));
+        assertThat(consumed, contains((ServerNotification) first, second));
+        assertThat(buffer.isEmpty(), is(true));
+        assertThat(buffer.drain(consumed::add), is(0));
+    }
+
+    @Test
+    public void rejectsWhenFull()
+    {
+        NotificationRingBuffer buffer = new NotificationRingBuffer(2);
+        assertThat(buffer.offer(new Event1()), is(true));
+        assertThat(buffer.offer(new Event1()), is(true));
+        assertThat(buffer.offer(new Event1()), is(false));
+        assertThat(buffer.size(), is(2));
+
+        buffer.drain(consumed::add);
+
+        assertThat(buffer.offer(new Event1()), is(true));
+        assertThat(buffer.size(), is(1));
+    }
+
+    @Test
+    public void releasesSlotsWhenConsumerFails()
+    {
+        NotificationRingBuffer buffer = new NotificationRingBuffer(2);
+        buffer.offer(new Event1());
+        buffer.offer(new Event1());
+        try
+        {
+            buffer.drain(notification -> {
+                throw new IllegalStateException();
+            });
+        }
+        catch (IllegalStateException e)
+        {
+            // expected
+        }
+
+        assertThat(buffer.size(), is(1));
+        assertThat(buffer.drain(consumed::add), is(1));
+    }
+
+    @Test
+    public void awaitReturnsWhenNotificationIsPublished() throws Exception
+    {
+        final NotificationRingBuffer buffer = new NotificationRingBuffer(2);
+        final CountDownLatch published = new CountDownLatch(1);
+        Thread producer = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                buffer.offer(new Event1());
+                published.countDown();
+            }
+        };
+
+        producer.start();
+        while (buffer.isEmpty())
+        {
+            buffer.await(TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+
+        assertThat(published.await(TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+        assertThat(buffer.drain(consumed::add), is(1));
+    }
+
+    @Test
+    public void concurrentProducers() throws Exception
+    {
+        final NotificationRingBuffer buffer = new NotificationRingBuffer(64);
+        final int notificationsPerProducer = 10000;
+        Thread[] producers = new Thread[4];
+        for (int i = 0; i < producers.length; i++)
+        {
+            producers[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    for (int j = 0; j < notificationsPerProducer; j++)
+                    {
+                        Event1 notification = new Event1();
+                        while (!buffer.offer(notification))
+                        {
+                            Thread.yield();
+                        }
+                    }
+                }
+            };
+            producers[i].start();
+        }
+
+        int total = producers.length * notificationsPerProducer;
+        while (consumed.size() < total)
+        {
+            if (buffer.drain(consumed::add) == 0)
+            {
+                buffer.await(10, TimeUnit.MILLISECONDS);
+            }
+        }
+        for (Thread producer : producers)
+        {
+            producer.join();
+        }
+
+        assertThat(consumed.size(), equalTo(total));
+        assertThat(buffer.isEmpty(), is(true));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.el.mvel;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.el.mvel.EventValueAccessor.UNRESOLVED;
+import static org.mule.runtime.core.el.mvel.EventValueAccessor.forExpression;
+import org.mule.runtime.api.message.NullPayload;
+import org.mule.runtime.core.api.MuleEvent;
+import org.mule.runtime.core.api.MuleMessage;
+import org.mule.runtime.core.api.MuleSession;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class EventValueAccessorTestCase extends AbstractMuleTestCase
+{
+
+    private MuleEvent event = mock(MuleEvent.class);
+    private MuleMessage message = mock(MuleMessage.class);
+    private MuleSession session = mock(MuleSession.class);
+
+    @Before
+    public void setUp()
+    {
+        when(event.getMessage()).thenReturn(message);
+        when(event.getSession()).thenReturn(session);
+    }
+
+    @Test
+    public void payload()
+    {
+        when(message.getPayload()).thenReturn("hello");
+
+        assertThat(forExpression("payload").get(event), equalTo((Object) "hello"));
+        assertThat(forExpression(" message.payload ").get(event), equalTo((Object) "hello"));
+    }
+
+    @Test
+    public void nullPayload()
+    {
+        when(message.getPayload()).thenReturn(NullPayload.getInstance());
+
+        assertThat(forExpression("payload").get(event), is(nullValue()));
+    }
+
+    @Test
+    public void flowVariable()
+    {
+        when(event.getFlowVariable("id")).thenReturn("1234");
+
+        assertThat(forExpression("flowVars.id").get(event), equalTo((Object) "1234"));
+        assertThat(forExpression("flowVars['id']").get(event), equalTo((Object) "1234"));
+        assertThat(forExpression("flowVars[\"id\"]").get(event), equalTo((Object) "1234"));
+    }
+
+    @Test
+    public void missingFlowVariableIsUnresolved()
+    {
+        assertThat(forExpression("flowVars.empty").get(event), sameInstance(UNRESOLVED));
+    }
+
+    @Test
+    public void sessionVariable()
+    {
+        when(session.getProperty("user")).thenReturn("admin");
+
+        assertThat(forExpression("sessionVars.user").get(event), equalTo((Object) "admin"));
+    }
+
+    @Test
+    public void messageProperties()
+    {
+        when(message.getInboundProperty("Content-Type")).thenReturn("text/plain");
+        when(message.getOutboundProperty("status")).thenReturn("200");
+
+        assertThat(forExpression("message.inboundProperties['Content-Type']").get(event), equalTo((Object) "text/plain"));
+        assertThat(forExpression("message.outboundProperties.status").get(event), equalTo((Object) "200"));
+    }
+
+    @Test
+    public void complexExpressionsAreNotBound()
+    {
+        assertThat(forExpression("payload.length()"), is(nullValue()));
+        assertThat(forExpression("payload.bytes"), is(nullValue()));
+        assertThat(forExpression("flowVars.a.b"), is(nullValue()));
+        assertThat(forExpression("flowVars"), is(nullValue()));
+        assertThat(forExpression("message"), is(nullValue()));
+        assertThat(forExpression("message.id"), is(nullValue()));
+        assertThat(forExpression("message.payload['a']"), is(nullValue()));
+        assertThat(forExpression("flowVars['a' + b]"), is(nullValue()));
+        assertThat(forExpression("payload == null"), is(nullValue()));
+        assertThat(forExpression("app.name"), is(nullValue()));
+    }
+
+    @Test
+    public void simpleExpressionsAreBound()
+    {
+        assertThat(forExpression("flowVars.id"), is(notNullValue()));
+        assertThat(forExpression("message.inboundProperties.host"), is(notNullValue()));
+    }
+}
@@ -121,6 +121,34 @@ public class ComponentStatisticsTestCase extends AbstractMuleTestCase
         assertValues(stats, 2L, 5L, 2L, 3L, 2L);
     }
 
+    @Test
+    public void verifyPercentiles()
+    {
+        ComponentStatistics stats = new ComponentStatistics();
+        for (int i = 0; i < 99; i++)
+        {
+            stats.addExecutionTime(2L);
+        }
+        stats.addExecutionTime(20L);
+        assertThat(stats.getExecutionTimePercentile(50), equalTo(2L));
+        assertThat(stats.getExecutionTimePercentile(99), equalTo(2L));
+        assertThat(stats.getExecutionTimePercentile(99.9), equalTo(20L));
+
+        stats.clear();
+        assertThat(stats.getExecutionTimePercentile(50), equalTo(0L));
+    }
+
+    @Test
+    public void verifyBranchPercentiles()
+    {
+        ComponentStatistics stats = new ComponentStatistics();
+        stats.addExecutionBranchTime(true, 1L, 1L);
+        stats.addExecutionBranchTime(false, 2L, 3L);
+        assertThat(stats.getExecutionTimePercentile(50), equalTo(0L));
+        stats.addCompleteExecutionTime(3L);
+        assertThat(stats.getExecutionTimePercentile(50), equalTo(3L));
+    }
+
     @Test
     public void verifyShortStatIntervalReset()
     {
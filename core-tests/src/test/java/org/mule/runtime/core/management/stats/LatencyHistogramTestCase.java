@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.management.stats;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class LatencyHistogramTestCase extends AbstractMuleTestCase
+{
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void emptyHistogram()
+    {
+        assertThat(histogram.getTotalCount(), equalTo(0L));
+        assertThat(histogram.getValueAtPercentile(50), equalTo(0L));
+        assertThat(histogram.getMaxValue(), equalTo(0L));
+    }
+
+    @Test
+    public void smallValuesAreExact()
+    {
+        for (long i = 1; i <= 20; i++)
+        {
+            histogram.recordValue(i);
+        }
+
+        assertThat(histogram.getValueAtPercentile(50), equalTo(10L));
+        assertThat(histogram.getValueAtPercentile(100), equalTo(20L));
+        assertThat(histogram.getTotalCount(), equalTo(20L));
+    }
+
+    @Test
+    public void largeValuesAreApproximated()
+    {
+        for (long i = 1; i <= 100000; i++)
+        {
+            histogram.recordValue(i);
+        }
+
+        assertWithinError(histogram.getValueAtPercentile(50), 50000);
+        assertWithinError(histogram.getValueAtPercentile(99), 99000);
+        assertWithinError(histogram.getValueAtPercentile(99.9), 99900);
+        assertThat(histogram.getValueAtPercentile(100), equalTo(100000L));
+    }
+
+    @Test
+    public void tailLatency()
+    {
+        for (int i = 0; i < 990; i++)
+        {
+            histogram.recordValue(10);
+        }
+        for (int i = 0; i < 10; i++)
+        {
+            histogram.recordValue(5000);
+        }
+
+        assertThat(histogram.getValueAtPercentile(50), equalTo(10L));
+        assertThat(histogram.getValueAtPercentile(99), equalTo(10L));
+        assertWithinError(histogram.getValueAtPercentile(99.9), 5000);
+    }
+
+    @Test
+    public void addHistogram()
+    {
+        LatencyHistogram other = new LatencyHistogram();
+        histogram.recordValue(1);
+        other.recordValue(3);
+        other.recordValue(Long.MAX_VALUE);
+
+        histogram.add(other);
+
+        assertThat(histogram.getTotalCount(), equalTo(3L));
+        assertThat(histogram.getValueAtPercentile(50), equalTo(3L));
+        assertThat(histogram.getMaxValue(), equalTo(Long.MAX_VALUE));
+        assertThat(histogram.getValueAtPercentile(100), equalTo(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void reset()
+    {
+        histogram.recordValue(100);
+        histogram.reset();
+
+        assertThat(histogram.getTotalCount(), equalTo(0L));
+        assertThat(histogram.getMaxValue(), equalTo(0L));
+    }
+
+    private void assertWithinError(long value, long expected)
+    {
+        assertThat(value, allOf(greaterThanOrEqualTo(expected), lessThanOrEqualTo(expected + expected / 16)));
+    }
+}
@@ -66,6 +66,27 @@ public class EventGroupTestCase extends AbstractMuleContextTestCase
         assertEquals(4, eg.size());
     }
 
+    @Test
+    public void sizeTracksEventsAddedThroughOtherInstances() throws Exception
+    {
+        String groupId = UUID.getUUID();
+        EventGroup eg = new EventGroup(groupId, muleContext);
+        eg.initEventsStore(objectStore);
+        eg.addEvent(getTestEvent("foo1"));
+        assertEquals(1, eg.size());
+
+        // same group restored from a store, sharing the events partition
+        EventGroup restored = new EventGroup(groupId, muleContext);
+        restored.initEventsStore(objectStore);
+        restored.addEvent(getTestEvent("foo2"));
+        assertEquals(2, restored.size());
+        restored.addEvent(getTestEvent("foo3"));
+        assertEquals(3, restored.size());
+
+        restored.clear();
+        assertEquals(0, restored.size());
+    }
+
     @Test
     public void eventGroupEquality() throws ObjectStoreException
     {
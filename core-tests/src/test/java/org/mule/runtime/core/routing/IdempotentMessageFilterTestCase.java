@@ -16,6 +16,7 @@ import org.mule.runtime.core.api.MuleEvent;
 import org.mule.runtime.core.api.MuleSession;
 import org.mule.runtime.core.api.MutableMuleMessage;
 import org.mule.runtime.core.construct.Flow;
+import org.mule.runtime.core.util.store.BloomFilterObjectStore;
 import org.mule.runtime.core.util.store.InMemoryObjectStore;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
@@ -53,4 +54,44 @@ public class IdempotentMessageFilterTestCase extends AbstractMuleContextTestCase
         processedEvent = ir.process(event);
         assertNull(processedEvent);
     }
+
+    @Test
+    public void testHighThroughputIdempotentReceiver() throws Exception
+    {
+        Flow flow = getTestFlow();
+
+        MuleSession session = mock(MuleSession.class);
+
+        IdempotentMessageFilter ir = new IdempotentMessageFilter();
+        ir.setIdExpression("#[message.inboundProperties.id]");
+        ir.setFlowConstruct(flow);
+        ir.setThrowOnUnaccepted(false);
+        ir.setStorePrefix("foo");
+        ir.setStore(new InMemoryObjectStore<String>());
+        ir.setHighThroughput(true);
+        ir.setMuleContext(muleContext);
+        ir.initialise();
+
+        try
+        {
+            MutableMuleMessage okMessage = new DefaultMuleMessage("OK", muleContext);
+            okMessage.setOutboundProperty("id", "1");
+            MuleEvent event = new DefaultMuleEvent(okMessage, getTestFlow(), session);
+            assertNotNull(ir.process(event));
+
+            okMessage = new DefaultMuleMessage("OK", muleContext);
+            okMessage.setOutboundProperty("id", "1");
+            event = new DefaultMuleEvent(okMessage, getTestFlow(), session);
+            assertNull(ir.process(event));
+
+            // once written to the store, duplicates are still found
+            ((BloomFilterObjectStore<String>) ir.getStore()).persistPendingEntries();
+            event = new DefaultMuleEvent(okMessage, getTestFlow(), session);
+            assertNull(ir.process(event));
+        }
+        finally
+        {
+            ir.dispose();
+        }
+    }
 }
@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.routing;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import org.mule.runtime.core.api.DefaultMuleException;
+import org.mule.runtime.core.api.MuleEvent;
+import org.mule.runtime.core.api.MuleException;
+import org.mule.runtime.core.api.context.WorkManager;
+import org.mule.runtime.core.api.processor.MessageProcessor;
+import org.mule.runtime.core.config.ChainedThreadingProfile;
+import org.mule.runtime.core.routing.outbound.CollectionMessageSequence;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelForeachTestCase extends AbstractMuleContextTestCase
+{
+
+    private static final int MAX_CONCURRENCY = 4;
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final List<Object> processedPayloads = Collections.synchronizedList(new ArrayList<>());
+    private Foreach foreach;
+    private WorkManager workManager;
+
+    @After
+    public void disposeForeach()
+    {
+        if (foreach != null)
+        {
+            foreach.dispose();
+        }
+        if (workManager != null)
+        {
+            workManager.dispose();
+        }
+    }
+
+    @Test
+    public void processesElementsConcurrently() throws Exception
+    {
+        final CountDownLatch allRunning = new CountDownLatch(MAX_CONCURRENCY);
+        foreach = createForeach(event -> {
+            allRunning.countDown();
+            // only completes if the elements are processed at the same time
+            assertThat(await(allRunning), is(true));
+            return record(event);
+        });
+
+        foreach.process(getTestEvent(createList(MAX_CONCURRENCY * 10)));
+
+        assertThat(processedPayloads.size(), is(MAX_CONCURRENCY * 10));
+        assertThat(maxRunning.get(), lessThanOrEqualTo(MAX_CONCURRENCY));
+    }
+
+    @Test
+    public void consumesIteratorLazily() throws Exception
+    {
+        final AtomicInteger taken = new AtomicInteger();
+        final AtomicInteger maxPending = new AtomicInteger();
+        final AtomicInteger completed = new AtomicInteger();
+        final Iterator<Integer> elements = createList(100).iterator();
+        Iterator<Integer> iterator = new Iterator<Integer>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return elements.hasNext();
+            }
+
+            @Override
+            public Integer next()
+            {
+                maxPending.accumulateAndGet(taken.incrementAndGet() - completed.get(), Math::max);
+                return elements.next();
+            }
+        };
+        foreach = createForeach(event -> {
+            record(event);
+            completed.incrementAndGet();
+            return event;
+        });
+
+        foreach.process(getTestEvent(iterator));
+
+        assertThat(processedPayloads.size(), is(100));
+        assertThat(maxPending.get(), lessThanOrEqualTo(MAX_CONCURRENCY + 1));
+    }
+
+    @Test
+    public void eachElementHasItsOwnCounter() throws Exception
+    {
+        final Set<Object> counters = ConcurrentHashMap.newKeySet();
+        foreach = createForeach(event -> {
+            counters.add(event.getFlowVariable(Foreach.COUNTER_PROPERTY));
+            event.setFlowVariable("element", event.getMessage().getPayload());
+            return record(event);
+        });
+        MuleEvent event = getTestEvent(createList(20));
+
+        foreach.process(event);
+
+        assertThat(counters.size(), is(20));
+        assertThat(event.getFlowVariableNames().contains(Foreach.COUNTER_PROPERTY), is(false));
+        assertThat(event.getFlowVariableNames().contains("element"), is(false));
+    }
+
+    @Test
+    public void stopsProcessingWhenAnElementFails() throws Exception
+    {
+        foreach = createForeach(event -> {
+            if (event.getMessage().getPayload().equals(5))
+            {
+                throw new DefaultMuleException("failed element");
+            }
+            return record(event);
+        });
+
+        try
+        {
+            foreach.process(getTestEvent(createList(10000)));
+            fail("Expected the failure of the element to be propagated");
+        }
+        catch (MuleException e)
+        {
+            // expected
+        }
+        assertThat(processedPayloads.size(), lessThan(10000));
+    }
+
+    @Test
+    public void failsWhenTakingAnElementFails() throws Exception
+    {
+        Iterator<Integer> iterator = new Iterator<Integer>()
+        {
+            private int next;
+
+            @Override
+            public boolean hasNext()
+            {
+                return true;
+            }
+
+            @Override
+            public Integer next()
+            {
+                if (next == MAX_CONCURRENCY)
+                {
+                    throw new IllegalStateException("broken iterator");
+                }
+                return next++;
+            }
+        };
+        foreach = createForeach(this::record);
+
+        try
+        {
+            foreach.process(getTestEvent(iterator));
+            fail("Expected the failure of the iterator to be propagated");
+        }
+        catch (Exception e)
+        {
+            // expected, instead of waiting forever for the permit of the failed element
+        }
+        assertThat(processedPayloads.size(), is(MAX_CONCURRENCY));
+    }
+
+    @Test
+    public void collectsResultsInOrder() throws Exception
+    {
+        assertThat(splitConcurrently(true), contains(createList(MAX_CONCURRENCY * 2).toArray()));
+    }
+
+    @Test
+    public void collectsResultsInCompletionOrder() throws Exception
+    {
+        List<Object> results = splitConcurrently(false);
+
+        assertThat(results, containsInAnyOrder(createList(MAX_CONCURRENCY * 2).toArray()));
+        // the first elements take longer to complete
+        assertThat(results.indexOf(0), greaterThan(results.indexOf(MAX_CONCURRENCY - 1)));
+    }
+
+    private List<Object> splitConcurrently(boolean preserveOrder) throws Exception
+    {
+        workManager = createWorkManager();
+        workManager.start();
+        ResultsCollectionSplitter splitter = new ResultsCollectionSplitter();
+        splitter.setMuleContext(muleContext);
+        splitter.setWorkManager(workManager);
+        splitter.setMaxConcurrency(MAX_CONCURRENCY);
+        splitter.setPreserveOrder(preserveOrder);
+        splitter.setListener(event -> {
+            Integer element = (Integer) event.getMessage().getPayload();
+            sleep(element < MAX_CONCURRENCY ? (MAX_CONCURRENCY - element) * 50 : 0);
+            return event;
+        });
+
+        List<Integer> elements = createList(MAX_CONCURRENCY * 2);
+        List<Object> results = new ArrayList<>();
+        for (MuleEvent result : splitter.split(new CollectionMessageSequence(elements), getTestEvent(elements)))
+        {
+            results.add(result.getMessage().getPayload());
+        }
+        return results;
+    }
+
+    private Foreach createForeach(MessageProcessor processor) throws MuleException
+    {
+        List<MessageProcessor> processors = new ArrayList<>();
+        processors.add(processor);
+        Foreach foreach = new Foreach();
+        foreach.setMessageProcessors(processors);
+        foreach.setMaxConcurrency(MAX_CONCURRENCY);
+        foreach.setMuleContext(muleContext);
+        foreach.initialise();
+        foreach.start();
+        return foreach;
+    }
+
+    private WorkManager createWorkManager()
+    {
+        ChainedThreadingProfile threadingProfile = new ChainedThreadingProfile(muleContext.getDefaultThreadingProfile());
+        threadingProfile.setMuleContext(muleContext);
+        threadingProfile.setMaxThreadsActive(MAX_CONCURRENCY);
+        threadingProfile.setMaxBufferSize(MAX_CONCURRENCY);
+        return threadingProfile.createWorkManager("splitter", 0);
+    }
+
+    private MuleEvent record(MuleEvent event)
+    {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try
+        {
+            sleep(1);
+            processedPayloads.add(event.getMessage().getPayload());
+            return event;
+        }
+        finally
+        {
+            running.decrementAndGet();
+        }
+    }
+
+    private boolean await(CountDownLatch latch)
+    {
+        try
+        {
+            return latch.await(RECEIVE_TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void sleep(long millis)
+    {
+        try
+        {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<Integer> createList(int size)
+    {
+        List<Integer> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+        {
+            list.add(i);
+        }
+        return list;
+    }
+
+    private static class ResultsCollectionSplitter extends CollectionSplitter
+    {
+
+        List<MuleEvent> split(MessageSequence<?> sequence, MuleEvent event) throws MuleException
+        {
+            return processParts(sequence, event);
+        }
+    }
+}
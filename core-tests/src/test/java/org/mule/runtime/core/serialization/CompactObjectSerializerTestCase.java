@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.serialization;
+
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import org.mule.runtime.core.api.MuleEvent;
+import org.mule.runtime.core.api.serialization.SerializationException;
+import org.mule.runtime.core.serialization.internal.CompactObjectSerializer;
+import org.mule.runtime.core.serialization.internal.JavaObjectSerializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class CompactObjectSerializerTestCase extends AbstractObjectSerializerContractTestCase
+{
+
+    @Override
+    protected void doSetUp() throws Exception
+    {
+        CompactObjectSerializer compactSerializer = new CompactObjectSerializer();
+        compactSerializer.setMuleContext(muleContext);
+        serializer = compactSerializer;
+    }
+
+    @Test(expected = SerializationException.class)
+    public void notSerializable() throws Exception
+    {
+        serializer.serialize(new Object());
+    }
+
+    @Test
+    public void byteArray() throws Exception
+    {
+        byte[] bytes = new byte[] {1, 2, 3};
+        assertThat(serializer.deserialize(serializer.serialize(bytes)), is(bytes));
+    }
+
+    @Test
+    public void event() throws Exception
+    {
+        MuleEvent event = createEvent();
+
+        MuleEvent deserialized = serializer.deserialize(serializer.serialize(event));
+
+        assertThat(deserialized.getId(), is(event.getId()));
+        assertThat(deserialized.getMessage().getPayload(), is(event.getMessage().getPayload()));
+        assertThat(deserialized.getFlowVariable("count"), is(event.getFlowVariable("count")));
+        assertThat(deserialized.getFlowVariable("items"), is(event.getFlowVariable("items")));
+        assertThat(deserialized.getSession().getProperty("user"), is("mule"));
+    }
+
+    @Test
+    public void eventIsSmallerThanWithJavaSerialization() throws Exception
+    {
+        JavaObjectSerializer javaSerializer = new JavaObjectSerializer();
+        javaSerializer.setMuleContext(muleContext);
+        MuleEvent event = createEvent();
+
+        assertThat(serializer.serialize(event).length, lessThan(javaSerializer.serialize(event).length));
+    }
+
+    @Test
+    public void serializesRepeatedly() throws Exception
+    {
+        // the output stream of the thread is reused, so previous writes must not leak into the next ones
+        Map<String, Object> map = new HashMap<>();
+        map.put("key", "value");
+        for (int i = 0; i < 3; i++)
+        {
+            assertThat(serializer.deserialize(serializer.serialize(map)), is(map));
+            assertThat(serializer.deserialize(serializer.serialize("value" + i)), is("value" + i));
+        }
+    }
+
+    private MuleEvent createEvent() throws Exception
+    {
+        MuleEvent event = getTestEvent("payload");
+        event.setFlowVariable("count", 10);
+        event.setFlowVariable("items", new ArrayList<>(Arrays.asList("a", "b", "c")));
+        event.getSession().setProperty("user", "mule");
+        return event;
+    }
+}
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.transformer.codec;
 
+import static java.nio.charset.StandardCharsets.UTF_16;
 import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
@@ -16,6 +17,10 @@ import org.mule.runtime.core.api.transformer.Transformer;
 import org.mule.runtime.core.transformer.AbstractTransformerTestCase;
 import org.mule.runtime.core.transformer.types.DataTypeFactory;
 import org.mule.runtime.core.util.Base64;
+import org.mule.runtime.core.util.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 
 import org.junit.Test;
 
@@ -73,4 +78,29 @@ public class Base64TransformersTestCase extends AbstractTransformerTestCase
 
         assertThat(resultString, is(TEST_DATA));
     }
+
+    @Test
+    public void encodesAndDecodesStreamsWhileReading() throws Exception
+    {
+        Transformer encoder = new Base64Encoder();
+        encoder.setReturnDataType(DataTypeFactory.INPUT_STREAM);
+        Transformer decoder = new Base64Decoder();
+        decoder.setReturnDataType(DataTypeFactory.INPUT_STREAM);
+
+        InputStream encoded = (InputStream) encoder.transform(new ByteArrayInputStream(TEST_DATA.getBytes()));
+        InputStream decoded = (InputStream) decoder.transform(encoded);
+
+        assertThat(IOUtils.toString(decoded), is(TEST_DATA));
+    }
+
+    @Test
+    public void returnsEncodedBytesInOutputEncoding() throws Exception
+    {
+        Base64Encoder encoder = new Base64Encoder();
+        encoder.setReturnDataType(DataTypeFactory.BYTE_ARRAY);
+
+        byte[] encoded = (byte[]) encoder.transform(TEST_DATA.getBytes(), UTF_16.name());
+
+        assertThat(encoded, is(((String) getResultData()).getBytes(UTF_16)));
+    }
 }
@@ -88,7 +88,7 @@ public class GraphTransformerResolverTestCase extends AbstractMuleTestCase
     }
 
     @Test
-    public void clearsCacheWhenAddsConverter() throws ResolverException
+    public void keepsUnaffectedCachedTransformerWhenAddsConverter() throws ResolverException
     {
         Converter xmlToJson = new MockConverterBuilder().named("xmlToJson").from(XML_DATA_TYPE).to(JSON_DATA_TYPE).build();
         Converter inputStreamToXml = new MockConverterBuilder().named("inputStreamToXml").from(INPUT_STREAM_DATA_TYPE).to(XML_DATA_TYPE).build();
@@ -102,8 +102,55 @@ public class GraphTransformerResolverTestCase extends AbstractMuleTestCase
         Converter xmlToString = new MockConverterBuilder().named("xmlToString").from(XML_DATA_TYPE).to(STRING_DATA_TYPE).build();
         graphResolver.transformerChange(xmlToString, TransformerResolver.RegistryAction.ADDED);
 
+        Transformer transformer2 = graphResolver.resolve(INPUT_STREAM_DATA_TYPE, JSON_DATA_TYPE);
+        assertSame(transformer1, transformer2);
+    }
+
+    @Test
+    public void invalidatesAffectedCachedTransformerWhenAddsConverter() throws ResolverException
+    {
+        Converter xmlToJson = new MockConverterBuilder().named("xmlToJson").from(XML_DATA_TYPE).to(JSON_DATA_TYPE).build();
+        Converter inputStreamToXml = new MockConverterBuilder().named("inputStreamToXml").from(INPUT_STREAM_DATA_TYPE).to(XML_DATA_TYPE).build();
+
+        graphResolver.transformerChange(inputStreamToXml, TransformerResolver.RegistryAction.ADDED);
+        graphResolver.transformerChange(xmlToJson, TransformerResolver.RegistryAction.ADDED);
+
+        Transformer transformer1 = graphResolver.resolve(INPUT_STREAM_DATA_TYPE, JSON_DATA_TYPE);
+        assertNotNull(transformer1);
+
+        Converter inputStreamToJson = new MockConverterBuilder().named("inputStreamToJson").from(INPUT_STREAM_DATA_TYPE).to(JSON_DATA_TYPE).build();
+        graphResolver.transformerChange(inputStreamToJson, TransformerResolver.RegistryAction.ADDED);
+
         Transformer transformer2 = graphResolver.resolve(INPUT_STREAM_DATA_TYPE, JSON_DATA_TYPE);
         assertNotSame(transformer1, transformer2);
+        assertSame(inputStreamToJson, transformer2);
+    }
+
+    @Test
+    public void invalidatesCachedMissingTransformerWhenAddsConverter() throws ResolverException
+    {
+        assertNull(graphResolver.resolve(XML_DATA_TYPE, JSON_DATA_TYPE));
+        assertNull(graphResolver.resolve(XML_DATA_TYPE, JSON_DATA_TYPE));
+        assertEquals(1, graphResolver.getCacheHits());
+        assertEquals(1, graphResolver.getCacheMisses());
+
+        Converter xmlToJson = new MockConverterBuilder().named("xmlToJson").from(XML_DATA_TYPE).to(JSON_DATA_TYPE).build();
+        graphResolver.transformerChange(xmlToJson, TransformerResolver.RegistryAction.ADDED);
+
+        assertSame(xmlToJson, graphResolver.resolve(XML_DATA_TYPE, JSON_DATA_TYPE));
+        assertEquals(2, graphResolver.getCacheMisses());
+    }
+
+    @Test
+    public void boundsCacheSize() throws ResolverException
+    {
+        graphResolver = new GraphTransformerResolver(2);
+
+        graphResolver.resolve(XML_DATA_TYPE, JSON_DATA_TYPE);
+        graphResolver.resolve(XML_DATA_TYPE, STRING_DATA_TYPE);
+        graphResolver.resolve(JSON_DATA_TYPE, STRING_DATA_TYPE);
+
+        assertEquals(2, graphResolver.getCacheSize());
     }
 
     @Test
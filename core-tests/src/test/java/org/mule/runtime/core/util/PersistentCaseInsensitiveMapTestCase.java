@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.commons.lang.SerializationUtils;
+import org.junit.Test;
+
+@SuppressWarnings("unchecked")
+@SmallTest
+public class PersistentCaseInsensitiveMapTestCase extends AbstractMuleTestCase
+{
+
+    @Test
+    public void caseInsensitive() throws Exception
+    {
+        assertMapContents(createTestMap());
+    }
+
+    @Test
+    public void preservesCaseOfFirstKey() throws Exception
+    {
+        PersistentCaseInsensitiveMap<String, Object> map = createTestMap();
+        map.put("foo", "BAZ");
+
+        assertThat(map.size(), is(2));
+        assertThat(map.get("FOO"), is((Object) "BAZ"));
+        assertThat(map.keySet(), containsInAnyOrder("FOO", "doo"));
+    }
+
+    @Test
+    public void cloneIsIndependent() throws Exception
+    {
+        PersistentCaseInsensitiveMap<String, Object> original = createTestMap();
+        original.put("extra", "value");
+        Map<String, Object> copy = original.clone();
+
+        original.put("newOriginal", "val");
+        original.remove("extra");
+        copy.put("newCopy", "val");
+
+        assertMapContents(original);
+        assertThat(original.size(), is(3));
+        assertThat(original.containsKey("newCopy"), is(false));
+        assertThat(original.containsKey("extra"), is(false));
+
+        assertMapContents(copy);
+        assertThat(copy.size(), is(4));
+        assertThat(copy.containsKey("newOriginal"), is(false));
+        assertThat(copy.containsKey("extra"), is(true));
+    }
+
+    @Test
+    public void clearClone() throws Exception
+    {
+        PersistentCaseInsensitiveMap<String, Object> original = createTestMap();
+        Map<String, Object> copy = original.clone();
+
+        copy.clear();
+
+        assertThat(original.size(), is(2));
+        assertThat(copy.isEmpty(), is(true));
+        assertThat(copy.entrySet().size(), is(0));
+    }
+
+    @Test
+    public void copiesOtherMaps() throws Exception
+    {
+        Map<String, Object> other = new HashMap<>();
+        other.put("FOO", "BAR");
+        other.put("doo", 3);
+
+        assertMapContents(new PersistentCaseInsensitiveMap<>(other));
+    }
+
+    @Test
+    public void serialize() throws Exception
+    {
+        PersistentCaseInsensitiveMap<String, Object> map = createTestMap();
+        Map<String, Object> deserialized = (Map<String, Object>) SerializationUtils.deserialize(SerializationUtils.serialize(map));
+
+        assertMapContents(deserialized);
+        deserialized.put("new", "val");
+        assertThat(map.containsKey("new"), is(false));
+    }
+
+    @Test
+    public void keepsEntriesWithCollidingHashes() throws Exception
+    {
+        PersistentCaseInsensitiveMap<Object, Object> map = new PersistentCaseInsensitiveMap<>();
+        map.put(new CollidingKey(1), "one");
+        map.put(new CollidingKey(2), "two");
+        map.put(new CollidingKey(3), "three");
+        map.remove(new CollidingKey(2));
+
+        assertThat(map.size(), is(2));
+        assertThat(map.get(new CollidingKey(1)), is((Object) "one"));
+        assertThat(map.get(new CollidingKey(2)), is(nullValue()));
+        assertThat(map.get(new CollidingKey(3)), is((Object) "three"));
+    }
+
+    @Test
+    public void behavesAsCaseInsensitiveHashMap() throws Exception
+    {
+        Random random = new Random(0);
+        PersistentCaseInsensitiveMap<String, Integer> map = new PersistentCaseInsensitiveMap<>();
+        Map<String, Integer> expected = new CaseInsensitiveHashMap();
+        Map<String, Integer> copy = null;
+        Map<String, Integer> expectedCopy = null;
+
+        for (int i = 0; i < 10000; i++)
+        {
+            String key = (random.nextBoolean() ? "key" : "KEY") + random.nextInt(1000);
+            if (random.nextInt(3) == 0)
+            {
+                assertThat(map.remove(key), is(expected.remove(key)));
+            }
+            else
+            {
+                assertThat(map.put(key, i), is(expected.put(key, i)));
+            }
+            if (i == 5000)
+            {
+                copy = map.clone();
+                expectedCopy = new CaseInsensitiveHashMap(expected);
+            }
+        }
+
+        assertThat(map, is(expected));
+        assertThat(copy, is(expectedCopy));
+    }
+
+    @Test
+    public void concurrentWrites() throws Exception
+    {
+        final PersistentCaseInsensitiveMap<String, Object> map = new PersistentCaseInsensitiveMap<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++)
+        {
+            final int thread = i;
+            threads[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        latch.await();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        return;
+                    }
+                    for (int j = 0; j < 1000; j++)
+                    {
+                        map.put("key-" + thread + "-" + j, j);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        latch.countDown();
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        assertThat(map.size(), is(4000));
+    }
+
+    @Test
+    public void iteratesOverSnapshot() throws Exception
+    {
+        PersistentCaseInsensitiveMap<String, Object> map = createTestMap();
+        Iterator<String> iterator = map.keySet().iterator();
+        iterator.next();
+        map.put("new", "val");
+        iterator.remove();
+        String second = iterator.next();
+
+        assertThat(iterator.hasNext(), is(false));
+        assertThat(map.keySet(), containsInAnyOrder(second, "new"));
+    }
+
+    @Test
+    public void removeKeySetItems() throws Exception
+    {
+        PersistentCaseInsensitiveMap<String, Object> map = createTestMap();
+        assertThat(map.keySet().remove("foo"), is(true));
+        assertThat(map.keySet().remove("foo"), is(false));
+        assertThat(map.keySet(), contains("doo"));
+
+        map.keySet().clear();
+        assertThat(map.isEmpty(), is(true));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void emptyMapKeySetIterator() throws Exception
+    {
+        new PersistentCaseInsensitiveMap<String, String>().keySet().iterator().next();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void keySetIteratorWithTwoRemovesInTheSameNext() throws Exception
+    {
+        Iterator<String> iterator = createTestMap().keySet().iterator();
+        iterator.next();
+        iterator.remove();
+        iterator.remove();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void entriesAreImmutable() throws Exception
+    {
+        createTestMap().entrySet().iterator().next().setValue("other");
+    }
+
+    private void assertMapContents(Map<String, Object> map)
+    {
+        assertThat(map.get("FOO"), is((Object) "BAR"));
+        assertThat(map.get("foo"), is((Object) "BAR"));
+        assertThat(map.get("Foo"), is((Object) "BAR"));
+
+        assertThat(map.get("DOO"), is((Object) 3));
+        assertThat(map.get("doo"), is((Object) 3));
+        assertThat(map.get("Doo"), is((Object) 3));
+    }
+
+    private PersistentCaseInsensitiveMap<String, Object> createTestMap()
+    {
+        PersistentCaseInsensitiveMap<String, Object> map = new PersistentCaseInsensitiveMap<>();
+        map.put("FOO", "BAR");
+        map.put("doo", 3);
+        return map;
+    }
+
+    private static class CollidingKey implements Serializable
+    {
+
+        private final int id;
+
+        private CollidingKey(int id)
+        {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 42;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            return obj instanceof CollidingKey && ((CollidingKey) obj).id == id;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+@SmallTest
+public class StreamingBase64TestCase extends AbstractMuleTestCase
+{
+
+    // bigger than a chunk and not a multiple of 3, so that the last chunk needs padding
+    private static final int LARGE_DATA_SIZE = 100 * 1024 + 1;
+
+    private final Random random = new Random(1);
+
+    @Test
+    public void encodesLikeBase64() throws Exception
+    {
+        for (int size = 0; size < 10; size++)
+        {
+            byte[] data = randomBytes(size);
+            assertThat(StreamingBase64.encodeToString(data), is(Base64.encodeBytes(data, Base64.DONT_BREAK_LINES)));
+        }
+    }
+
+    @Test
+    public void decodesBase64() throws Exception
+    {
+        for (int size = 0; size < 10; size++)
+        {
+            byte[] data = randomBytes(size);
+            assertThat(StreamingBase64.decode(Base64.encodeBytes(data, Base64.DONT_BREAK_LINES)), is(data));
+        }
+    }
+
+    @Test
+    public void decodesWithLineBreaks() throws Exception
+    {
+        byte[] data = randomBytes(1024);
+        assertThat(StreamingBase64.decode(Base64.encodeBytes(data)), is(data));
+    }
+
+    @Test
+    public void decodesWithoutPadding() throws Exception
+    {
+        byte[] data = "the quick brown fox".getBytes(StandardCharsets.UTF_8);
+        String encoded = StreamingBase64.encodeToString(data);
+        assertThat(StreamingBase64.decode(encoded.substring(0, encoded.indexOf('='))), is(data));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidCharacters() throws Exception
+    {
+        StreamingBase64.decode("dGhl$");
+    }
+
+    @Test
+    public void encodesStream() throws Exception
+    {
+        byte[] data = randomBytes(LARGE_DATA_SIZE);
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+
+        StreamingBase64.encode(new ByteArrayInputStream(data), encoded);
+
+        assertThat(encoded.toByteArray(), is(StreamingBase64.encode(data)));
+    }
+
+    @Test
+    public void decodesStream() throws Exception
+    {
+        byte[] data = randomBytes(LARGE_DATA_SIZE);
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+
+        StreamingBase64.decode(new ByteArrayInputStream(StreamingBase64.encode(data)), decoded);
+
+        assertThat(decoded.toByteArray(), is(data));
+    }
+
+    @Test
+    public void encodesAndDecodesDirectBuffers() throws Exception
+    {
+        byte[] data = randomBytes(LARGE_DATA_SIZE);
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+
+        StreamingBase64.encode(toDirectBuffer(data), encoded);
+        StreamingBase64.decode(toDirectBuffer(encoded.toByteArray()), decoded);
+
+        assertThat(decoded.toByteArray(), is(data));
+    }
+
+    @Test
+    public void encodesWhileReading() throws Exception
+    {
+        byte[] data = randomBytes(LARGE_DATA_SIZE);
+
+        byte[] encoded = IOUtils.toByteArray(StreamingBase64.encodingInputStream(new ByteArrayInputStream(data)));
+
+        assertThat(encoded, is(StreamingBase64.encode(data)));
+    }
+
+    @Test
+    public void decodesWhileReading() throws Exception
+    {
+        byte[] data = randomBytes(LARGE_DATA_SIZE);
+        byte[] encoded = Base64.encodeBytes(data).getBytes(StandardCharsets.ISO_8859_1);
+
+        byte[] decoded = IOUtils.toByteArray(StreamingBase64.decodingInputStream(new ByteArrayInputStream(encoded)));
+
+        assertThat(decoded, is(data));
+    }
+
+    @Test(expected = IOException.class)
+    public void decodingStreamRejectsInvalidCharacters() throws Exception
+    {
+        IOUtils.toByteArray(StreamingBase64.decodingInputStream(new ByteArrayInputStream("QUJD*".getBytes(StandardCharsets.ISO_8859_1))));
+    }
+
+    private ByteBuffer toDirectBuffer(byte[] bytes)
+    {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        buffer.flip();
+        return buffer;
+    }
+
+    private byte[] randomBytes(int size)
+    {
+        byte[] bytes = new byte[size];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.collection;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+@SmallTest
+public class LongArrayDequeTestCase extends AbstractMuleTestCase
+{
+
+    @Test
+    public void addLastAndRemoveFirstKeepsOrder()
+    {
+        LongArrayDeque deque = new LongArrayDeque(2);
+        for (long i = 0; i < 100; i++)
+        {
+            deque.addLast(i);
+        }
+        assertThat(deque.size(), is(100));
+        for (long i = 0; i < 100; i++)
+        {
+            assertThat(deque.removeFirst(), is(i));
+        }
+        assertThat(deque.isEmpty(), is(true));
+    }
+
+    @Test
+    public void addFirstWrapsAround()
+    {
+        LongArrayDeque deque = new LongArrayDeque(4);
+        deque.addLast(2);
+        deque.addLast(3);
+        deque.addFirst(1);
+        deque.addFirst(0);
+        deque.addLast(4);
+        for (int i = 0; i < 5; i++)
+        {
+            assertThat(deque.get(i), is((long) i));
+        }
+    }
+
+    @Test
+    public void removeValue()
+    {
+        LongArrayDeque deque = new LongArrayDeque();
+        deque.addLast(1);
+        deque.addLast(2);
+        deque.addLast(3);
+        assertThat(deque.remove(2), is(true));
+        assertThat(deque.remove(5), is(false));
+        assertThat(deque.size(), is(2));
+        assertThat(deque.getFirst(), is(1L));
+        assertThat(deque.get(1), is(3L));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void removeFirstFromEmptyDeque()
+    {
+        new LongArrayDeque().removeFirst();
+    }
+}
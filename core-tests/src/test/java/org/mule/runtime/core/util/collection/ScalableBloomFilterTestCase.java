@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.collection;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class ScalableBloomFilterTestCase extends AbstractMuleTestCase
+{
+
+    private static final int ELEMENTS = 100 * 1000;
+
+    @Test
+    public void containsAddedElements()
+    {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        for (int i = 0; i < ELEMENTS; i++)
+        {
+            filter.put("element" + i);
+        }
+        for (int i = 0; i < ELEMENTS; i++)
+        {
+            assertThat(filter.mightContain("element" + i), is(true));
+        }
+    }
+
+    @Test
+    public void keepsFalsePositiveProbabilityWhenGrowing()
+    {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        long initialBits = filter.bitSize();
+        for (int i = 0; i < ELEMENTS; i++)
+        {
+            filter.put("element" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < ELEMENTS; i++)
+        {
+            if (filter.mightContain("missing" + i))
+            {
+                falsePositives++;
+            }
+        }
+        assertThat(filter.bitSize(), greaterThan(initialBits * 100));
+        assertThat((double) falsePositives / ELEMENTS, lessThan(0.02));
+    }
+
+    @Test
+    public void putReportsNewElements()
+    {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+
+        assertThat(filter.put("element"), is(true));
+        assertThat(filter.put("element"), is(false));
+        assertThat(filter.size(), is(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidProbability()
+    {
+        new ScalableBloomFilter(100, 1);
+    }
+}
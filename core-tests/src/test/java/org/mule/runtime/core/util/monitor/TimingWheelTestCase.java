@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.monitor;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class TimingWheelTestCase extends AbstractMuleTestCase
+{
+
+    private static final long START = 100000;
+
+    private TimingWheel<String> wheel = new TimingWheel<>(10, 8, START);
+
+    @Test
+    public void expiresDueItems()
+    {
+        wheel.schedule("a", START + 15);
+        wheel.schedule("b", START + 35);
+
+        assertThat(wheel.expire(START + 10), is(empty()));
+        assertThat(wheel.expire(START + 20), contains("a"));
+        assertThat(wheel.expire(START + 30), is(empty()));
+        assertThat(wheel.expire(START + 40), contains("b"));
+        assertThat(wheel.size(), is(0));
+    }
+
+    @Test
+    public void keepsItemsOfLaterRevolutions()
+    {
+        wheel.schedule("a", START + 25);
+        wheel.schedule("b", START + 25 + 80);
+
+        assertThat(wheel.expire(START + 30), contains("a"));
+        assertThat(wheel.expire(START + 90), is(empty()));
+        assertThat(wheel.expire(START + 110), contains("b"));
+    }
+
+    @Test
+    public void expiresOverdueItemsOnNextTick()
+    {
+        wheel.expire(START + 50);
+        wheel.schedule("a", START);
+        wheel.schedule("b", -1);
+
+        assertThat(wheel.expire(START + 60), containsInAnyOrder("a", "b"));
+    }
+
+    @Test
+    public void expiresItemsOfSkippedTicks()
+    {
+        wheel.schedule("a", START + 15);
+        wheel.schedule("b", START + 55);
+        wheel.schedule("c", START + 500);
+
+        assertThat(wheel.expire(START + 200), containsInAnyOrder("a", "b"));
+        assertThat(wheel.size(), is(1));
+    }
+
+    @Test
+    public void cancelledItemsDoNotExpire()
+    {
+        TimingWheel.Timeout<String> timeout = wheel.schedule("a", START + 15);
+        wheel.schedule("b", START + 15);
+
+        assertThat(wheel.cancel(timeout), is(true));
+        assertThat(wheel.cancel(timeout), is(false));
+        assertThat(wheel.expire(START + 20), contains("b"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidTickDuration()
+    {
+        new TimingWheel<String>(0, 8, START);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.queue;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.MuleTestUtils;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class SegmentedMappedFileQueueStoreDelegateTestCase extends AbstractMuleTestCase
+{
+
+    private static final String TEST_QUEUE_NAME = "test-queue";
+    private static final int SEGMENT_SIZE = 200;
+    private static final int NUMBER_OF_ITEMS = 50;
+
+    @Rule
+    public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+    private MuleContext mockMuleContext;
+
+    @Before
+    public void before()
+    {
+        mockMuleContext = mock(MuleContext.class);
+        when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+        addJavaSerializerToMockMuleContext(mockMuleContext);
+    }
+
+    @Test
+    public void nameWithInvalidCharacters()
+    {
+        String[] testNames = new String[] {
+                "test:/test",
+                "test?test",
+                "seda.queue(post:\\Customer:ApiTest-config.1)"
+        };
+
+        for (String testName : testNames)
+        {
+            SegmentedMappedFileQueueStoreDelegate queue = new SegmentedMappedFileQueueStoreDelegate(testName, workingDirectory.getRoot().getAbsolutePath(), mockMuleContext, 0);
+            queue.putNow("item");
+            queue.dispose();
+            assertThat(SegmentedMappedFileQueueStoreDelegate.getSegmentsDirectory(testName, workingDirectory.getRoot().getAbsolutePath()).exists(), is(false));
+        }
+    }
+
+    @Test
+    public void elementsRecoveredInOrderAfterRestart() throws Exception
+    {
+        SegmentedMappedFileQueueStoreDelegate queueStore = createTestQueueStore();
+        for (int i = 0; i < NUMBER_OF_ITEMS; i++)
+        {
+            queueStore.add(createTestDataForIndex(i));
+        }
+        queueStore.removeFirst();
+        queueStore.addFirst(createTestDataForIndex(-1));
+        queueStore.close();
+
+        queueStore = createTestQueueStore();
+        assertThat(queueStore.size(), is(NUMBER_OF_ITEMS));
+        assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(-1)));
+        for (int i = 1; i < NUMBER_OF_ITEMS; i++)
+        {
+            assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(i)));
+        }
+        queueStore.dispose();
+    }
+
+    @Test
+    public void consumedSegmentsAreDeleted() throws Exception
+    {
+        MuleTestUtils.testWithSystemProperty(SegmentedMappedFileQueueStoreDelegate.SEGMENT_SIZE_PROPERTY_KEY, String.valueOf(SEGMENT_SIZE), new MuleTestUtils.TestCallback()
+        {
+            @Override
+            public void run() throws Exception
+            {
+                MuleTestUtils.testWithSystemProperty(SegmentedMappedFileQueueStoreDelegate.SYNC_INTERVAL_PROPERTY_KEY, "0", new MuleTestUtils.TestCallback()
+                {
+                    @Override
+                    public void run() throws Exception
+                    {
+                        SegmentedMappedFileQueueStoreDelegate queueStore = createTestQueueStore();
+                        for (int i = 0; i < NUMBER_OF_ITEMS; i++)
+                        {
+                            queueStore.add(createTestDataForIndex(i));
+                        }
+                        assertThat(numberOfSegmentFiles(), is(greaterThan(1)));
+
+                        for (int i = 0; i < NUMBER_OF_ITEMS; i++)
+                        {
+                            assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(i)));
+                        }
+                        assertThat(numberOfSegmentFiles(), is(lessThanOrEqualTo(1)));
+                        queueStore.dispose();
+                    }
+                });
+            }
+        });
+    }
+
+    @Test
+    public void removeAndContains() throws Exception
+    {
+        SegmentedMappedFileQueueStoreDelegate queueStore = createTestQueueStore();
+        queueStore.add(createTestDataForIndex(0));
+        queueStore.add(createTestDataForIndex(1));
+        assertThat(queueStore.contains(createTestDataForIndex(1)), is(true));
+
+        queueStore.remove(createTestDataForIndex(1));
+        assertThat(queueStore.contains(createTestDataForIndex(1)), is(false));
+        assertThat(queueStore.size(), is(1));
+        queueStore.close();
+
+        queueStore = createTestQueueStore();
+        assertThat(queueStore.size(), is(1));
+        assertThat((String) queueStore.removeFirst(), is(createTestDataForIndex(0)));
+        queueStore.dispose();
+    }
+
+    @Test
+    public void allFilesDeletedAfterDispose()
+    {
+        SegmentedMappedFileQueueStoreDelegate queueStore = createTestQueueStore();
+        queueStore.add("item");
+        assertThat(numberOfSegmentFiles(), is(1));
+
+        queueStore.dispose();
+        assertThat(getSegmentsDirectory().exists(), is(false));
+    }
+
+    private int numberOfSegmentFiles()
+    {
+        File[] files = getSegmentsDirectory().listFiles();
+        return files == null ? 0 : files.length;
+    }
+
+    private File getSegmentsDirectory()
+    {
+        return SegmentedMappedFileQueueStoreDelegate.getSegmentsDirectory(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath());
+    }
+
+    private String createTestDataForIndex(int index)
+    {
+        return "some value " + index;
+    }
+
+    private SegmentedMappedFileQueueStoreDelegate createTestQueueStore()
+    {
+        return new SegmentedMappedFileQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(), mockMuleContext, 0);
+    }
+
+}
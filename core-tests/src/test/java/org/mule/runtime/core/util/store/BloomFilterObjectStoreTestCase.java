@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.store;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mule.runtime.core.util.store.BloomFilterObjectStore.MAX_PERSIST_ATTEMPTS;
+
+import org.mule.runtime.core.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.core.api.store.ObjectStoreException;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class BloomFilterObjectStoreTestCase extends AbstractMuleTestCase
+{
+
+    private static final long PERSIST_INTERVAL = 60 * 1000;
+    private static final long WRITER_TIMEOUT = 5000;
+
+    private SimpleMemoryObjectStore<String> wrappedStore;
+    private BloomFilterObjectStore<String> store;
+
+    @Before
+    public void createStore() throws Exception
+    {
+        wrappedStore = spy(new SimpleMemoryObjectStore<String>());
+        wrappedStore.store("persisted", "value");
+        store = createStore(0);
+    }
+
+    @After
+    public void disposeStore()
+    {
+        store.dispose();
+    }
+
+    @Test
+    public void newKeysDoNotReachWrappedStore() throws Exception
+    {
+        for (int i = 0; i < 100; i++)
+        {
+            assertThat(store.contains("key" + i), is(false));
+            store.store("key" + i, "value" + i);
+        }
+
+        verify(wrappedStore, never()).contains("key0");
+        verify(wrappedStore, never()).store("key0", "value0");
+        assertThat(store.getPendingEntriesCount(), is(100));
+        assertThat(store.contains("key0"), is(true));
+        assertThat(store.retrieve("key0"), is("value0"));
+    }
+
+    @Test
+    public void filterIsRebuiltFromWrappedStore() throws Exception
+    {
+        assertThat(store.contains("persisted"), is(true));
+        assertThat(store.retrieve("persisted"), is("value"));
+    }
+
+    @Test(expected = ObjectAlreadyExistsException.class)
+    public void rejectsPendingKey() throws Exception
+    {
+        store.store("key", "value");
+        store.store("key", "value");
+    }
+
+    @Test(expected = ObjectAlreadyExistsException.class)
+    public void rejectsPersistedKey() throws Exception
+    {
+        store.store("persisted", "value");
+    }
+
+    @Test
+    public void persistsPendingEntries() throws Exception
+    {
+        store.store("key", "value");
+        store.persistPendingEntries();
+
+        assertThat(store.getPendingEntriesCount(), is(0));
+        assertThat(wrappedStore.retrieve("key"), is("value"));
+        assertThat(store.contains("key"), is(true));
+    }
+
+    @Test
+    public void persistsWhenTooManyEntriesArePending() throws Exception
+    {
+        store.dispose();
+        store = new BloomFilterObjectStore<>(wrappedStore, "test", 0, PERSIST_INTERVAL);
+        store.setMaxPendingEntries(10);
+        store.initialise();
+
+        for (int i = 0; i < 10; i++)
+        {
+            store.store("key" + i, "value" + i);
+        }
+
+        new PollingProber(5000, 50).check(new JUnitLambdaProbe(() -> store.getPendingEntriesCount() == 0));
+        assertThat(wrappedStore.contains("key9"), is(true));
+    }
+
+    @Test
+    public void dropsEntriesAfterFailedAttempts() throws Exception
+    {
+        doThrow(new ObjectStoreException()).when(wrappedStore).store(eq("key"), any());
+        store.store("key", "value");
+
+        for (int i = 1; i < MAX_PERSIST_ATTEMPTS; i++)
+        {
+            store.persistPendingEntries();
+            assertThat(store.getPendingEntriesCount(), is(1));
+        }
+        store.persistPendingEntries();
+
+        assertThat(store.getPendingEntriesCount(), is(0));
+    }
+
+    @Test(expected = ObjectStoreException.class)
+    public void failsWhenTooManyEntriesCannotBeWritten() throws Exception
+    {
+        store.dispose();
+        doThrow(new ObjectStoreException()).when(wrappedStore).store(any(), any());
+        store = new BloomFilterObjectStore<>(wrappedStore, "test", 0, PERSIST_INTERVAL);
+        store.setMaxPendingEntries(10);
+        store.initialise();
+
+        for (int i = 0; i <= 20; i++)
+        {
+            store.store("key" + i, "value" + i);
+        }
+    }
+
+    @Test
+    public void removesPendingEntry() throws Exception
+    {
+        store.store("key", "value");
+
+        assertThat(store.remove("key"), is("value"));
+        store.persistPendingEntries();
+
+        assertThat(wrappedStore.contains("key"), is(false));
+    }
+
+    @Test
+    public void writeOfPendingEntriesDoesNotMakeKnownKeyDuplicated() throws Exception
+    {
+        // leaves the key in the filter but not in the wrapped store, as a false positive would
+        store.store("key", "value");
+        store.persistPendingEntries();
+        store.remove("key");
+
+        AtomicBoolean writeStarted = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (writeStarted.compareAndSet(false, true))
+            {
+                Thread writer = new Thread(store::persistPendingEntries);
+                writer.start();
+                // waits until the writer is done, or blocked by the storing thread
+                long deadline = System.currentTimeMillis() + WRITER_TIMEOUT;
+                while (writer.isAlive() && writer.getState() != Thread.State.BLOCKED
+                       && System.currentTimeMillis() < deadline)
+                {
+                    Thread.sleep(10);
+                }
+            }
+            return invocation.callRealMethod();
+        }).when(wrappedStore).contains("key");
+
+        store.store("key", "otherValue");
+        store.persistPendingEntries();
+
+        assertThat(writeStarted.get(), is(true));
+        assertThat(wrappedStore.retrieve("key"), is("otherValue"));
+    }
+
+    @Test
+    public void persistsPendingEntriesOnDispose() throws Exception
+    {
+        store.store("key", "value");
+        store.dispose();
+
+        assertThat(wrappedStore.retrieve("key"), is("value"));
+    }
+
+    @Test
+    public void forgetsKeysAfterTwoExpirationWindows() throws Exception
+    {
+        store.dispose();
+        store = createStore(200);
+        store.store("key", "value");
+        store.persistPendingEntries();
+
+        Thread.sleep(700);
+
+        assertThat(store.contains("persisted"), is(false));
+        // the wrapped store should have expired it before
+        assertThat(store.contains("key"), is(false));
+        assertThat(wrappedStore.contains("key"), is(true));
+    }
+
+    private BloomFilterObjectStore<String> createStore(long expirationWindow) throws Exception
+    {
+        BloomFilterObjectStore<String> store = new BloomFilterObjectStore<>(wrappedStore, "test", expirationWindow, PERSIST_INTERVAL);
+        store.initialise();
+        return store;
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.util.store;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.api.store.ObjectStoreManager.UNBOUNDED;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.core.api.store.ObjectDoesNotExistException;
+import org.mule.tck.MuleTestUtils;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class LogStructuredObjectStorePartitionTestCase extends AbstractMuleTestCase
+{
+
+    private static final String KEY = "key";
+    private static final String VALUE = "value";
+    private static final int NUMBER_OF_ENTRIES = 100;
+
+    @Rule
+    public TemporaryFolder objectStoreFolder = new TemporaryFolder();
+
+    @Mock
+    private MuleContext muleContext;
+
+    private LogStructuredObjectStorePartition<Serializable> partition;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+        addJavaSerializerToMockMuleContext(muleContext);
+        partition = createPartition();
+    }
+
+    @Test
+    public void storeRetrieveAndRemove() throws Exception
+    {
+        partition.store(KEY, VALUE);
+        assertThat(partition.contains(KEY), is(true));
+        assertThat(partition.retrieve(KEY), is((Serializable) VALUE));
+
+        assertThat(partition.remove(KEY), is((Serializable) VALUE));
+        assertThat(partition.contains(KEY), is(false));
+    }
+
+    @Test(expected = ObjectAlreadyExistsException.class)
+    public void storeSameKeyTwice() throws Exception
+    {
+        partition.store(KEY, VALUE);
+        partition.store(KEY, VALUE);
+    }
+
+    @Test(expected = ObjectDoesNotExistException.class)
+    public void retrieveUnexistentKey() throws Exception
+    {
+        partition.retrieve(KEY);
+    }
+
+    @Test
+    public void entriesRestoredAfterReopening() throws Exception
+    {
+        storeEntries();
+        partition.remove(key(0));
+        partition.remove(key(1));
+        partition.store(key(0), "another value");
+        partition.close();
+
+        partition = createPartition();
+        assertThat(partition.allKeys().size(), is(NUMBER_OF_ENTRIES - 1));
+        assertThat(partition.contains(key(1)), is(false));
+        assertThat(partition.retrieve(key(0)), is((Serializable) "another value"));
+        assertThat(partition.retrieve(key(2)), is((Serializable) value(2)));
+    }
+
+    @Test
+    public void expireKeepsMostRecentEntries() throws Exception
+    {
+        storeEntries();
+        partition.expire(UNBOUNDED, 10);
+
+        assertThat(partition.allKeys().size(), is(10));
+        for (int i = NUMBER_OF_ENTRIES - 10; i < NUMBER_OF_ENTRIES; i++)
+        {
+            assertThat(partition.contains(key(i)), is(true));
+        }
+    }
+
+    @Test
+    public void expireByTimeToLive() throws Exception
+    {
+        partition.store(KEY, VALUE);
+        Thread.sleep(20);
+        partition.store("newKey", VALUE);
+
+        partition.expire(10, UNBOUNDED);
+        assertThat(partition.allKeys(), containsInAnyOrder((Serializable) "newKey"));
+    }
+
+    @Test
+    public void compactsConsumedSegments() throws Exception
+    {
+        MuleTestUtils.testWithSystemProperty(LogStructuredObjectStorePartition.SEGMENT_SIZE_PROPERTY_KEY, "512", new MuleTestUtils.TestCallback()
+        {
+            @Override
+            public void run() throws Exception
+            {
+                partition = createPartition();
+                storeEntries();
+                int segmentsBeforeExpiring = numberOfSegmentFiles();
+                partition.expire(UNBOUNDED, 5);
+                assertThat(numberOfSegmentFiles(), lessThan(segmentsBeforeExpiring));
+
+                partition = createPartition();
+                assertThat(partition.allKeys().size(), is(5));
+                for (int i = NUMBER_OF_ENTRIES - 5; i < NUMBER_OF_ENTRIES; i++)
+                {
+                    assertThat(partition.retrieve(key(i)), is((Serializable) value(i)));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void compactsLaterSegmentsWhenOldestIsLive() throws Exception
+    {
+        MuleTestUtils.testWithSystemProperty(LogStructuredObjectStorePartition.SEGMENT_SIZE_PROPERTY_KEY, "512", new MuleTestUtils.TestCallback()
+        {
+            @Override
+            public void run() throws Exception
+            {
+                partition = createPartition();
+                int pinnedEntries = 0;
+                while (numberOfSegmentFiles() < 2)
+                {
+                    partition.store("pinned" + pinnedEntries, VALUE);
+                    pinnedEntries++;
+                }
+                storeEntries();
+                for (int i = 0; i < NUMBER_OF_ENTRIES; i++)
+                {
+                    partition.remove(key(i));
+                }
+                partition.expire(UNBOUNDED, UNBOUNDED);
+
+                // the entries and their removals took around twenty segments, only the live ones remain
+                assertThat(numberOfSegmentFiles(), lessThan(5));
+
+                partition = createPartition();
+                assertThat(partition.allKeys().size(), is(pinnedEntries));
+                for (int i = 0; i < NUMBER_OF_ENTRIES; i++)
+                {
+                    assertThat(partition.contains(key(i)), is(false));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void discardsPartiallyWrittenRecord() throws Exception
+    {
+        partition.store(KEY, VALUE);
+        partition.close();
+
+        File segmentFile = objectStoreFolder.getRoot().listFiles((dir, name) -> ObjectStoreLogSegment.isSegmentFile(name))[0];
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile, "rw"))
+        {
+            file.seek(file.length());
+            file.write(new byte[] {1, 0, 0, 0});
+        }
+
+        partition = createPartition();
+        assertThat(partition.retrieve(KEY), is((Serializable) VALUE));
+        partition.store("newKey", VALUE);
+        assertThat(createPartition().allKeys().size(), is(2));
+    }
+
+    @Test
+    public void clearBeforeLoading() throws Exception
+    {
+        partition.store(KEY, VALUE);
+        partition = createPartition();
+        partition.clear();
+        assertThat(partition.allKeys().size(), is(0));
+        assertThat(createPartition().allKeys().size(), is(0));
+    }
+
+    @Test
+    public void emptyPartitionIsRecognizedAsLogStructured() throws Exception
+    {
+        assertThat(LogStructuredObjectStorePartition.isLogStructuredPartition(objectStoreFolder.getRoot()), is(true));
+
+        partition.store(KEY, VALUE);
+        partition.clear();
+        partition.close();
+        assertThat(LogStructuredObjectStorePartition.isLogStructuredPartition(objectStoreFolder.getRoot()), is(true));
+    }
+
+    @Test
+    public void reloadsEntriesWhenUsedAfterClose() throws Exception
+    {
+        partition.store(KEY, VALUE);
+        partition.close();
+
+        assertThat(partition.retrieve(KEY), is((Serializable) VALUE));
+        partition.store("newKey", VALUE);
+        partition.close();
+        assertThat(createPartition().allKeys().size(), is(2));
+    }
+
+    @Test
+    public void interruptedStoreDoesNotAffectOtherThreads() throws Exception
+    {
+        partition.store(KEY, VALUE);
+
+        Throwable[] failure = new Throwable[1];
+        Thread interruptedThread = new Thread(() -> {
+            Thread.currentThread().interrupt();
+            try
+            {
+                partition.store("interruptedKey", VALUE);
+            }
+            catch (Throwable e)
+            {
+                failure[0] = e;
+            }
+        });
+        interruptedThread.start();
+        interruptedThread.join();
+
+        assertThat(failure[0], is(nullValue()));
+        assertThat(partition.retrieve(KEY), is((Serializable) VALUE));
+        assertThat(partition.retrieve("interruptedKey"), is((Serializable) VALUE));
+        partition.store("newKey", VALUE);
+        assertThat(partition.retrieve("newKey"), is((Serializable) VALUE));
+    }
+
+    private void storeEntries() throws Exception
+    {
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i++)
+        {
+            partition.store(key(i), value(i));
+        }
+    }
+
+    private int numberOfSegmentFiles()
+    {
+        return objectStoreFolder.getRoot().list((dir, name) -> ObjectStoreLogSegment.isSegmentFile(name)).length;
+    }
+
+    private String key(int index)
+    {
+        return KEY + index;
+    }
+
+    private String value(int index)
+    {
+        return VALUE + index;
+    }
+
+    private LogStructuredObjectStorePartition<Serializable> createPartition() throws Exception
+    {
+        LogStructuredObjectStorePartition<Serializable> partition = new LogStructuredObjectStorePartition<>(muleContext, "test", objectStoreFolder.getRoot(), null);
+        partition.open();
+        return partition;
+    }
+}
@@ -12,9 +12,9 @@ import org.mule.runtime.core.api.MutableMessageProperties;
 import org.mule.runtime.core.config.i18n.CoreMessages;
 import org.mule.runtime.core.transformer.types.DataTypeFactory;
 import org.mule.runtime.core.transformer.types.TypedValue;
-import org.mule.runtime.core.util.CopyOnWriteCaseInsensitiveMap;
 import org.mule.runtime.core.util.MapUtils;
 import org.mule.runtime.core.util.ObjectUtils;
+import org.mule.runtime.core.util.PersistentCaseInsensitiveMap;
 
 import java.io.Serializable;
 import java.util.Map;
@@ -38,13 +38,13 @@ public class MessagePropertiesContext implements MutableMessageProperties, Seria
     private static final Logger logger = LoggerFactory.getLogger(MessagePropertiesContext.class);
 
 
-    protected CopyOnWriteCaseInsensitiveMap<String, TypedValue<? extends Serializable>> inboundMap;
-    protected CopyOnWriteCaseInsensitiveMap<String, TypedValue<? extends Serializable>> outboundMap;
+    protected PersistentCaseInsensitiveMap<String, TypedValue<? extends Serializable>> inboundMap;
+    protected PersistentCaseInsensitiveMap<String, TypedValue<? extends Serializable>> outboundMap;
 
     public MessagePropertiesContext()
     {
-        inboundMap = new CopyOnWriteCaseInsensitiveMap<>();
-        outboundMap = new CopyOnWriteCaseInsensitiveMap<>();
+        inboundMap = new PersistentCaseInsensitiveMap<>();
+        outboundMap = new PersistentCaseInsensitiveMap<>();
     }
 
     public MessagePropertiesContext(MessagePropertiesContext previous)
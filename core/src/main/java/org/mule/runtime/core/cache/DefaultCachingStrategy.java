@@ -0,0 +1,434 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.cache;
+
+import static org.mule.runtime.core.util.ClassUtils.isConsumable;
+
+import org.mule.runtime.core.DefaultMuleEvent;
+import org.mule.runtime.core.DefaultMuleMessage;
+import org.mule.runtime.core.VoidMuleEvent;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.MuleEvent;
+import org.mule.runtime.core.api.MuleEventKeyGenerator;
+import org.mule.runtime.core.api.MuleException;
+import org.mule.runtime.core.api.MuleMessage;
+import org.mule.runtime.core.api.NameableObject;
+import org.mule.runtime.core.api.cache.CachingStrategy;
+import org.mule.runtime.core.api.cache.InvalidatableCachingStrategy;
+import org.mule.runtime.core.api.cache.InvalidateCacheException;
+import org.mule.runtime.core.api.lifecycle.Initialisable;
+import org.mule.runtime.core.api.lifecycle.InitialisationException;
+import org.mule.runtime.core.api.processor.MessageProcessor;
+import org.mule.runtime.core.api.store.ObjectStore;
+import org.mule.runtime.core.api.store.ObjectStoreException;
+import org.mule.runtime.core.keygenerator.ExpressionMuleEventKeyGenerator;
+import org.mule.runtime.core.keygenerator.SHA256MuleEventKeyGenerator;
+import org.mule.runtime.core.util.store.DeserializationPostInitialisable;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.io.NotSerializableException;
+import java.io.Serializable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Default {@link CachingStrategy}, which keeps the responses of the wrapped processors in memory, keyed by the
+ * {@link MuleEventKeyGenerator} of the strategy.
+ * <p/>
+ * The number of entries kept in memory is bounded by {@link #setMaxEntries(int)}, evicting the least recently used
+ * ones, and entries expire {@link #setEntryTTL(long)} milliseconds after being stored. When an {@link ObjectStore}
+ * is configured, responses are also kept in it, so they are found after they are evicted from memory or after a
+ * restart if the store is persistent. The number of entries of the store is bounded by its own configuration.
+ * <p/>
+ * When several events with the same key miss the cache at the same time, only one of them is processed and the rest
+ * wait for its response, for at most {@link #setMaxWait(long)} milliseconds. Events that stop waiting, and events
+ * with the same key as one being processed by their own thread, are processed on their own. Responses with
+ * consumable payloads are buffered before being cached, and responses that finish with an exception are not cached.
+ */
+public class DefaultCachingStrategy
+        implements CachingStrategy, InvalidatableCachingStrategy, Initialisable, NameableObject
+{
+
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+    public static final int UNBOUNDED_ENTRIES = 0;
+    public static final long NO_EXPIRATION = 0;
+    public static final long DEFAULT_MAX_WAIT = 30000;
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultCachingStrategy.class);
+
+    private final ConcurrentMap<Serializable, Flight> inFlight = new ConcurrentHashMap<>();
+    private String name;
+    private MuleEventKeyGenerator keyGenerator = new SHA256MuleEventKeyGenerator();
+    private ObjectStore<CachedResponse> objectStore;
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    private long entryTTL = NO_EXPIRATION;
+    private long maxWait = DEFAULT_MAX_WAIT;
+    private Cache<Serializable, CachedResponse> entries;
+
+    @Override
+    public void initialise() throws InitialisationException
+    {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
+        if (maxEntries > UNBOUNDED_ENTRIES)
+        {
+            builder.maximumSize(maxEntries);
+        }
+        if (entryTTL > NO_EXPIRATION)
+        {
+            builder.expireAfterWrite(entryTTL, TimeUnit.MILLISECONDS);
+        }
+        entries = builder.build();
+    }
+
+    @Override
+    public MuleEvent process(MuleEvent request, MessageProcessor messageProcessor) throws MuleException
+    {
+        Serializable key;
+        try
+        {
+            key = keyGenerator.generateKey(request);
+        }
+        catch (NotSerializableException e)
+        {
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Unable to generate cache key, processing event without caching", e);
+            }
+            return messageProcessor.process(request);
+        }
+
+        MuleMessage cached = lookup(key);
+        if (cached != null)
+        {
+            return createResponse(request, cached);
+        }
+
+        Flight flight = new Flight();
+        Flight currentFlight = inFlight.putIfAbsent(key, flight);
+        if (currentFlight != null)
+        {
+            // Waiting for a flight of this same thread would never end
+            cached = currentFlight.owner == Thread.currentThread() ? null : await(key, currentFlight);
+            // The response of the other event couldn't be cached, so this one has to be processed on its own
+            return cached != null ? createResponse(request, cached) : messageProcessor.process(request);
+        }
+
+        try
+        {
+            // The response may have been stored between the lookup and the registration of the flight
+            cached = lookup(key);
+            if (cached != null)
+            {
+                flight.complete(cached);
+                return createResponse(request, cached);
+            }
+
+            MuleEvent response = messageProcessor.process(request);
+            MuleMessage message = toCacheableMessage(response);
+            if (message != null)
+            {
+                store(key, message);
+            }
+            flight.complete(message);
+            return response;
+        }
+        finally
+        {
+            inFlight.remove(key, flight);
+            // Releases the waiters when processing failed, with an exception or an error, and has no effect otherwise
+            flight.complete(null);
+        }
+    }
+
+    private MuleMessage await(Serializable key, Flight flight)
+    {
+        try
+        {
+            return flight.get(maxWait, TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException e)
+        {
+            if (logger.isDebugEnabled())
+            {
+                logger.debug(String.format("Response for cache key %s not ready after %d ms, " +
+                                           "processing event on its own", key, maxWait));
+            }
+            return null;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        catch (ExecutionException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * @return the message to cache for the given response, or null if it can't be cached
+     */
+    private MuleMessage toCacheableMessage(MuleEvent response) throws MuleException
+    {
+        if (response == null || response instanceof VoidMuleEvent || response.getMessage() == null
+            || response.getMessage().getExceptionPayload() != null)
+        {
+            return null;
+        }
+
+        if (isConsumable(response.getMessage().getPayload().getClass()))
+        {
+            // Replaces the payload of the response with its bytes, so it can be read by the caller and by later hits
+            response.getMessageAsBytes();
+        }
+        return new DefaultMuleMessage(response.getMessage());
+    }
+
+    private MuleEvent createResponse(MuleEvent request, MuleMessage cached)
+    {
+        return new DefaultMuleEvent(new DefaultMuleMessage(cached), request);
+    }
+
+    private MuleMessage lookup(Serializable key)
+    {
+        CachedResponse entry = entries.getIfPresent(key);
+        if (entry == null && objectStore != null)
+        {
+            entry = retrieveFromStore(key);
+            if (entry != null)
+            {
+                entries.put(key, entry);
+            }
+        }
+        return entry == null ? null : entry.message;
+    }
+
+    private CachedResponse retrieveFromStore(Serializable key)
+    {
+        try
+        {
+            if (!objectStore.contains(key))
+            {
+                return null;
+            }
+
+            CachedResponse entry = objectStore.retrieve(key);
+            if (entryTTL > NO_EXPIRATION && System.currentTimeMillis() - entry.timestamp > entryTTL)
+            {
+                objectStore.remove(key);
+                return null;
+            }
+            return entry;
+        }
+        catch (ObjectStoreException e)
+        {
+            logger.warn("Unable to retrieve cached response from the object store", e);
+            return null;
+        }
+    }
+
+    private void store(Serializable key, MuleMessage message)
+    {
+        CachedResponse entry = new CachedResponse(message, System.currentTimeMillis());
+        entries.put(key, entry);
+
+        if (objectStore != null)
+        {
+            try
+            {
+                if (objectStore.contains(key))
+                {
+                    objectStore.remove(key);
+                }
+                objectStore.store(key, entry);
+            }
+            catch (ObjectStoreException e)
+            {
+                logger.warn("Unable to store cached response in the object store", e);
+            }
+        }
+    }
+
+    @Override
+    public void invalidate()
+    {
+        entries.invalidateAll();
+
+        if (objectStore != null)
+        {
+            try
+            {
+                objectStore.clear();
+            }
+            catch (ObjectStoreException e)
+            {
+                throw new InvalidateCacheException("Unable to invalidate the cache", e);
+            }
+        }
+    }
+
+    @Override
+    public void invalidate(Serializable key) throws InvalidateCacheException
+    {
+        if (key == null)
+        {
+            throw new IllegalArgumentException("Key to invalidate cannot be null");
+        }
+
+        entries.invalidate(key);
+
+        if (objectStore != null)
+        {
+            try
+            {
+                if (objectStore.contains(key))
+                {
+                    objectStore.remove(key);
+                }
+            }
+            catch (ObjectStoreException e)
+            {
+                throw new InvalidateCacheException("Unable to invalidate cache entry " + key, e);
+            }
+        }
+    }
+
+    /**
+     * @return the number of entries in memory
+     */
+    public long size()
+    {
+        return entries.size();
+    }
+
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+    @Override
+    public void setName(String name)
+    {
+        this.name = name;
+    }
+
+    public MuleEventKeyGenerator getKeyGenerator()
+    {
+        return keyGenerator;
+    }
+
+    public void setKeyGenerator(MuleEventKeyGenerator keyGenerator)
+    {
+        this.keyGenerator = keyGenerator;
+    }
+
+    /**
+     * Generates the keys evaluating the given expression, instead of using a digest of the payload
+     */
+    public void setKeyGenerationExpression(String keyGenerationExpression)
+    {
+        ExpressionMuleEventKeyGenerator expressionKeyGenerator = new ExpressionMuleEventKeyGenerator();
+        expressionKeyGenerator.setExpression(keyGenerationExpression);
+        this.keyGenerator = expressionKeyGenerator;
+    }
+
+    public ObjectStore<CachedResponse> getObjectStore()
+    {
+        return objectStore;
+    }
+
+    public void setObjectStore(ObjectStore<CachedResponse> objectStore)
+    {
+        this.objectStore = objectStore;
+    }
+
+    public int getMaxEntries()
+    {
+        return maxEntries;
+    }
+
+    /**
+     * @param maxEntries maximum number of entries kept in memory, or {@link #UNBOUNDED_ENTRIES}
+     */
+    public void setMaxEntries(int maxEntries)
+    {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getMaxWait()
+    {
+        return maxWait;
+    }
+
+    /**
+     * @param maxWait milliseconds an event waits for the response of another event with the same key before being
+     *                processed on its own
+     */
+    public void setMaxWait(long maxWait)
+    {
+        this.maxWait = maxWait;
+    }
+
+    public long getEntryTTL()
+    {
+        return entryTTL;
+    }
+
+    /**
+     * @param entryTTL milliseconds an entry is valid after being stored, or {@link #NO_EXPIRATION}
+     */
+    public void setEntryTTL(long entryTTL)
+    {
+        this.entryTTL = entryTTL;
+    }
+
+    /**
+     * Response being processed for a key, which other events with the same key wait for
+     */
+    private static class Flight extends CompletableFuture<MuleMessage>
+    {
+
+        private final Thread owner = Thread.currentThread();
+    }
+
+    /**
+     * A cached response, as kept in memory and in the object store
+     */
+    public static class CachedResponse implements Serializable, DeserializationPostInitialisable
+    {
+
+        private static final long serialVersionUID = 4517396273547416341L;
+
+        private final MuleMessage message;
+        private final long timestamp;
+
+        CachedResponse(MuleMessage message, long timestamp)
+        {
+            this.message = message;
+            this.timestamp = timestamp;
+        }
+
+        private void initAfterDeserialisation(MuleContext muleContext) throws MuleException
+        {
+            if (message instanceof DefaultMuleMessage)
+            {
+                ((DefaultMuleMessage) message).initAfterDeserialisation(muleContext);
+            }
+        }
+    }
+}
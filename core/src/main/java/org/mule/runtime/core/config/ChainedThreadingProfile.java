@@ -213,6 +213,11 @@ public class ChainedThreadingProfile implements ThreadingProfile
         return poolFactory;
     }
 
+    public void setPoolFactory(ThreadPoolFactory poolFactory)
+    {
+        this.poolFactory = poolFactory;
+    }
+
     @Override
     public ScheduledExecutorService createScheduledPool(String name)
     {
@@ -68,6 +68,10 @@ public class ImmutableThreadingProfile implements ThreadingProfile
                 tp.isDoThreading(),
                 tp.getRejectedExecutionHandler(),
                 tp.getThreadFactory());
+        if (tp.getPoolFactory() != null)
+        {
+            this.poolFactory = tp.getPoolFactory();
+        }
     }
 
     public int getMaxThreadsActive()
@@ -191,6 +191,11 @@ public class MutableThreadingProfile implements ThreadingProfile
         return poolFactory;
     }
 
+    public void setPoolFactory(ThreadPoolFactory poolFactory)
+    {
+        this.poolFactory = poolFactory;
+    }
+
     @Override
     public ScheduledExecutorService createScheduledPool(String name)
     {
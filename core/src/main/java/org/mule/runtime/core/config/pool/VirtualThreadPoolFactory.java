@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.config.pool;
+
+import org.mule.runtime.core.api.config.ThreadingProfile;
+import org.mule.runtime.core.util.StringUtils;
+import org.mule.runtime.core.util.concurrent.VirtualThreadFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ThreadPoolFactory} that creates pools which run each task in a new virtual thread, so that tasks blocked on
+ * IO don't hold a platform thread.
+ * <p/>
+ * {@link ThreadingProfile#getMaxThreadsActive()} limits the amount of tasks running concurrently, and the rest of the
+ * profile keeps its meaning: tasks beyond the limit are buffered and then handled according to the pool exhausted
+ * action. Virtual threads are discarded after being idle for {@link ThreadingProfile#getThreadTTL()}, as there is
+ * no point in keeping them.
+ * <p/>
+ * When the JVM doesn't support virtual threads, or the profile has its own thread factory, pools are the same as the
+ * ones created by {@link DefaultThreadPoolFactory}.
+ */
+public class VirtualThreadPoolFactory extends DefaultThreadPoolFactory
+{
+
+    private static final String DEFAULT_THREAD_NAME = "virtual";
+
+    @Override
+    protected ThreadPoolExecutor internalCreatePool(String name, ThreadingProfile tp, BlockingQueue buffer)
+    {
+        if (!isUsingVirtualThreads(tp))
+        {
+            return super.internalCreatePool(name, tp, buffer);
+        }
+
+        // all the threads are core threads so each task gets a new thread until the limit is reached
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(tp.getMaxThreadsActive(), tp.getMaxThreadsActive(),
+                                                         Math.max(tp.getThreadTTL(), 1), TimeUnit.MILLISECONDS, buffer);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    @Override
+    protected void configureThreadFactory(String name, ThreadingProfile tp, ThreadPoolExecutor pool)
+    {
+        if (isUsingVirtualThreads(tp))
+        {
+            pool.setThreadFactory(new VirtualThreadFactory(StringUtils.isNotBlank(name) ? name : DEFAULT_THREAD_NAME,
+                                                           Thread.currentThread().getContextClassLoader()));
+        }
+        else
+        {
+            super.configureThreadFactory(name, tp, pool);
+        }
+    }
+
+    private boolean isUsingVirtualThreads(ThreadingProfile tp)
+    {
+        return tp.getThreadFactory() == null && VirtualThreadFactory.isSupported();
+    }
+}
@@ -40,15 +40,29 @@ public class MessageProcessorNotification extends ServerNotification implements
 
     private static ThreadLocal<String> lastRootMessageId = new ThreadLocal<String>();
     private MessagingException exceptionThrown;
+    private final transient String processorPath;
 
     public MessageProcessorNotification(FlowConstruct flowConstruct,
                                         MuleEvent event,
                                         MessageProcessor processor,
                                         MessagingException exceptionThrown, int action)
+    {
+        this(flowConstruct, event, processor, exceptionThrown, action, null);
+    }
+
+    /**
+     * @param processorPath the path of the processor in its flow when it is already known, so listeners don't need
+     *                      to resolve it again
+     */
+    public MessageProcessorNotification(FlowConstruct flowConstruct,
+                                        MuleEvent event,
+                                        MessageProcessor processor,
+                                        MessagingException exceptionThrown, int action, String processorPath)
     {
         super(produceEvent(event, flowConstruct), action, flowConstruct != null ? flowConstruct.getName() : null);
         this.exceptionThrown = exceptionThrown;
         this.processor = processor;
+        this.processorPath = processorPath;
     }
 
     @Override
@@ -116,6 +130,10 @@ public class MessageProcessorNotification extends ServerNotification implements
 
     public String getProcessorPath()
     {
+        if (processorPath != null)
+        {
+            return processorPath;
+        }
         FlowConstruct fc = getSource().getFlowConstruct();
         if (!(fc instanceof MessageProcessorPathResolver))
         {
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.context.notification;
+
+import org.mule.runtime.core.api.context.notification.ServerNotification;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded queue of notifications pending of asynchronous delivery, with many producers and a single consumer.
+ * <p/>
+ * Slots are allocated up front and reused, so queueing a notification does not allocate. Producers claim a sequence
+ * with a CAS and then publish the notification in its slot, while the consumer takes every published notification
+ * in a single batch, releasing the slots only once the batch is processed.
+ */
+class NotificationRingBuffer
+{
+
+    private final AtomicReferenceArray<ServerNotification> slots;
+    private final int capacity;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private volatile Thread waitingConsumer;
+
+    /**
+     * @param capacity the maximum amount of pending notifications, rounded up to a power of two
+     */
+    NotificationRingBuffer(int capacity)
+    {
+        if (capacity <= 0)
+        {
+            throw new IllegalArgumentException("Capacity must be greater than zero: " + capacity);
+        }
+        this.capacity = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.mask = this.capacity - 1;
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    /**
+     * Queues a notification, without waiting for space to be available.
+     *
+     * @return false if the buffer is full
+     */
+    boolean offer(ServerNotification notification)
+    {
+        long sequence;
+        do
+        {
+            sequence = tail.get();
+            if (sequence - head.get() >= capacity)
+            {
+                return false;
+            }
+        }
+        while (!tail.compareAndSet(sequence, sequence + 1));
+
+        slots.set((int) sequence & mask, notification);
+
+        Thread consumer = waitingConsumer;
+        if (consumer != null)
+        {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    /**
+     * Passes every published notification to the given consumer. Must only be called from the consumer thread.
+     *
+     * @return the amount of notifications consumed
+     */
+    int drain(Consumer<ServerNotification> consumer)
+    {
+        long first = head.get();
+        long sequence = first;
+        ServerNotification notification;
+        try
+        {
+            while (sequence - first < capacity && (notification = slots.get((int) sequence & mask)) != null)
+            {
+                slots.lazySet((int) sequence & mask, null);
+                sequence++;
+                consumer.accept(notification);
+            }
+        }
+        finally
+        {
+            if (sequence != first)
+            {
+                head.lazySet(sequence);
+            }
+        }
+        return (int) (sequence - first);
+    }
+
+    /**
+     * Blocks the consumer thread until a notification is published, the timeout expires or the thread is
+     * interrupted.
+     */
+    void await(long timeout, TimeUnit unit)
+    {
+        waitingConsumer = Thread.currentThread();
+        try
+        {
+            if (isEmpty())
+            {
+                LockSupport.parkNanos(this, unit.toNanos(timeout));
+            }
+        }
+        finally
+        {
+            waitingConsumer = null;
+        }
+    }
+
+    boolean isEmpty()
+    {
+        return slots.get((int) head.get() & mask) == null;
+    }
+
+    int size()
+    {
+        return (int) (tail.get() - head.get());
+    }
+
+    int capacity()
+    {
+        return capacity;
+    }
+}
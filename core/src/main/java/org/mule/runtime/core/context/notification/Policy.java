@@ -13,6 +13,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -22,10 +23,15 @@ import java.util.concurrent.ConcurrentMap;
  * For a particular configuration, this describes what events should be delivered where.
  * It is read-only and a lazy instance is cached by the
  * {@link Configuration}
+ *
+ * <p>The senders of each notification class are resolved the first time it is dispatched and
+ * kept in a routing table, so dispatching a notification is just a lookup and a loop over an array.</p>
  */
 class Policy
 {
 
+    private static final Sender[] NO_SENDERS = new Sender[0];
+
     // map from event to set of senders
     private Map<Class<? extends ServerNotification>, Collection<Sender>> eventToSenders = new HashMap<Class<? extends ServerNotification>, Collection<Sender>>();
 
@@ -34,6 +40,9 @@ class Policy
     private ConcurrentMap knownEventsExact = new ConcurrentHashMap();
     private ConcurrentMap knownEventsSuper = new ConcurrentHashMap();
 
+    // map from notification class to all the senders that have to receive it
+    private ConcurrentMap<Class<? extends ServerNotification>, Sender[]> routes = new ConcurrentHashMap<Class<? extends ServerNotification>, Sender[]>();
+
     /**
      * For each listener, we check each interface and see what events can be delivered.
      */
@@ -102,40 +111,34 @@ class Policy
     {
         if (null != notification)
         {
-            Class notfnClass = notification.getClass();
-            // search if we don't know about this event, or if we do know it is used
-            if (!knownEventsExact.containsKey(notfnClass))
-            {
-                boolean found = doDispatch(notification, notfnClass);
-                knownEventsExact.put(notfnClass, Boolean.valueOf(found));
-            }
-            else if (((Boolean) knownEventsExact.get(notfnClass)).booleanValue())
+            for (Sender sender : getSenders(notification.getClass()))
             {
-                boolean found = doDispatch(notification, notfnClass);
-                // reduce contention on the map by not writing the same value over and over again.
-                if (!found)
-                {
-                    knownEventsExact.put(notfnClass, Boolean.valueOf(found));
-                }
+                sender.dispatch(notification);
             }
         }
     }
 
-    protected boolean doDispatch(ServerNotification notification, Class<? extends ServerNotification> notfnClass)
+    /**
+     * @return the senders of all the events that the given notification class is assignable to, in an array
+     *         that must not be modified
+     */
+    Sender[] getSenders(Class<? extends ServerNotification> notfnClass)
     {
-        boolean found = false;
-        for (Class<? extends ServerNotification> event : eventToSenders.keySet())
+        Sender[] senders = routes.get(notfnClass);
+        if (senders == null)
         {
-            if (event.isAssignableFrom(notfnClass))
+            List<Sender> matching = new ArrayList<Sender>();
+            for (Map.Entry<Class<? extends ServerNotification>, Collection<Sender>> entry : eventToSenders.entrySet())
             {
-                found = true;
-                for (Sender sender : eventToSenders.get(event))
+                if (entry.getKey().isAssignableFrom(notfnClass))
                 {
-                    sender.dispatch(notification);
+                    matching.addAll(entry.getValue());
                 }
             }
+            senders = matching.isEmpty() ? NO_SENDERS : matching.toArray(new Sender[matching.size()]);
+            routes.putIfAbsent(notfnClass, senders);
         }
-        return found;
+        return senders;
     }
 
     /**
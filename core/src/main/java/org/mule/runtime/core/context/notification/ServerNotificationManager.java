@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.context.notification;
 
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.context.WorkManager;
@@ -21,10 +23,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 
 import javax.resource.spi.work.Work;
 import javax.resource.spi.work.WorkException;
@@ -58,15 +60,27 @@ import org.slf4j.LoggerFactory;
  * <li>Disabling an event or interface disables all uses of that class or any subclass.</li>
  * <li>Enquiring whether an event is enabled returns true if any subclass is enabled.</li>
  * </ul>
+ *
+ * <p>Notifications that are not {@link BlockingServerEvent}s are delivered by this manager's own
+ * {@link Work} from a pre-allocated {@link NotificationRingBuffer}, whose size is set with the
+ * {@link #BUFFER_SIZE_PROPERTY} system property.  When the buffer is full the threads that fire
+ * notifications wait for the pending ones to be delivered.</p>
  */
 public class ServerNotificationManager implements Work, Disposable, ServerNotificationHandler, MuleContextAware
 {
     public static final String NULL_SUBSCRIPTION = "NULL";
+    public static final String BUFFER_SIZE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "notifications.bufferSize";
+    public static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+
+    private static final long FULL_BUFFER_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
     protected Logger logger = LoggerFactory.getLogger(getClass());
     private boolean dynamic = false;
     private Configuration configuration = new Configuration();
     private AtomicBoolean disposed = new AtomicBoolean(false);
-    private BlockingDeque<ServerNotification> eventQueue = new LinkedBlockingDeque<ServerNotification>();
+    private NotificationRingBuffer eventQueue = new NotificationRingBuffer(Integer.getInteger(BUFFER_SIZE_PROPERTY, DEFAULT_BUFFER_SIZE));
+    private final Consumer<ServerNotification> dispatcher = this::notifyListeners;
+    private volatile Thread dispatcherThread;
     private MuleContext muleContext;
 
     @Override
@@ -171,17 +185,7 @@ public class ServerNotificationManager implements Work, Disposable, ServerNotifi
             }
             else
             {
-                try
-                {
-                    eventQueue.put(notification);
-                }
-                catch (InterruptedException e)
-                {
-                    if (!disposed.get())
-                    {
-                        logger.error("Failed to queue notification: " + notification, e);
-                    }
-                }
+                queueNotification(notification);
             }
         }
         else
@@ -190,6 +194,31 @@ public class ServerNotificationManager implements Work, Disposable, ServerNotifi
         }
     }
 
+    private void queueNotification(ServerNotification notification)
+    {
+        while (!eventQueue.offer(notification))
+        {
+            if (Thread.currentThread() == dispatcherThread)
+            {
+                // a listener firing notifications would never see the buffer drained
+                notifyListeners(notification);
+                return;
+            }
+            if (disposed.get())
+            {
+                logger.warn("Notification not enqueued after ServerNotificationManager disposal: " + notification);
+                return;
+            }
+            if (Thread.interrupted())
+            {
+                Thread.currentThread().interrupt();
+                logger.error("Failed to queue notification: " + notification);
+                return;
+            }
+            LockSupport.parkNanos(FULL_BUFFER_WAIT_NANOS);
+        }
+    }
+
     @Override
     public boolean isNotificationEnabled(Class<? extends ServerNotification> type)
     {
@@ -233,21 +262,20 @@ public class ServerNotificationManager implements Work, Disposable, ServerNotifi
     @Override
     public void run()
     {
-        while (!disposed.get())
+        dispatcherThread = Thread.currentThread();
+        try
         {
-            try
+            while (!disposed.get())
             {
-                int timeout = muleContext.getConfiguration().getDefaultQueueTimeout();
-                ServerNotification notification = eventQueue.poll(timeout, TimeUnit.MILLISECONDS);
-                if (notification != null)
+                if (eventQueue.drain(dispatcher) == 0)
                 {
-                    notifyListeners(notification);
+                    eventQueue.await(muleContext.getConfiguration().getDefaultQueueTimeout(), TimeUnit.MILLISECONDS);
                 }
             }
-            catch (InterruptedException e)
-            {
-                Thread.currentThread().interrupt();
-            }
+        }
+        finally
+        {
+            dispatcherThread = null;
         }
     }
 
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.el.mvel;
+
+import static org.mule.runtime.core.el.mvel.MessageVariableResolverFactory.FLOW_VARS;
+import static org.mule.runtime.core.el.mvel.MessageVariableResolverFactory.PAYLOAD;
+import static org.mule.runtime.core.el.mvel.MessageVariableResolverFactory.SESSION_VARS;
+import org.mule.runtime.api.message.NullPayload;
+import org.mule.runtime.core.api.MuleEvent;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Direct accessor for the value of a simple MEL expression, such as {@code payload}, {@code flowVars.id} or
+ * {@code message.inboundProperties['Content-Type']}.
+ * <p/>
+ * Expressions are analysed once by {@link #forExpression(String)}, which binds them to a function that reads the
+ * value straight from the {@link MuleEvent}, avoiding the creation of the {@link MVELExpressionLanguageContext} and
+ * its chain of variable resolver factories.
+ * <p/>
+ * Accessors for map entries return {@link #UNRESOLVED} when the entry is not present so the expression is evaluated
+ * by MVEL, which may resolve it to a property of the map itself (for instance {@code flowVars.empty}).
+ */
+abstract class EventValueAccessor
+{
+
+    /**
+     * Value returned when the accessor can't resolve the expression and a full evaluation is required
+     */
+    static final Object UNRESOLVED = new Object();
+
+    private static final String MESSAGE = "message";
+    private static final String INBOUND_PROPERTIES = "inboundProperties";
+    private static final String OUTBOUND_PROPERTIES = "outboundProperties";
+
+    private static final String IDENTIFIER = "[a-zA-Z_$][a-zA-Z0-9_$]*";
+    private static final Pattern PATH = Pattern.compile(
+            "\\s*(" + IDENTIFIER + ")(?:\\.(" + IDENTIFIER + "))?" +
+            "(?:\\.(" + IDENTIFIER + ")|\\[\\s*'([^'\\\\]*)'\\s*\\]|\\[\\s*\"([^\"\\\\]*)\"\\s*\\])?\\s*");
+
+    /**
+     * @param event event to read the value from
+     * @return the value of the expression or {@link #UNRESOLVED} if it has to be evaluated by MVEL
+     */
+    abstract Object get(MuleEvent event);
+
+    /**
+     * Analyses an expression, without the expression markers.
+     *
+     * @param expression the expression to analyse
+     * @return an accessor for the expression, or {@code null} if the expression is not a simple one
+     */
+    static EventValueAccessor forExpression(String expression)
+    {
+        Matcher matcher = PATH.matcher(expression);
+        if (!matcher.matches())
+        {
+            return null;
+        }
+
+        String root = matcher.group(1);
+        String property = matcher.group(2);
+        String key = firstNonNull(matcher.group(3), matcher.group(4), matcher.group(5));
+
+        if (MESSAGE.equals(root))
+        {
+            if (property == null)
+            {
+                return null;
+            }
+            root = property;
+            if (PAYLOAD.equals(root))
+            {
+                return key == null ? new PayloadAccessor() : null;
+            }
+            if (key == null)
+            {
+                return null;
+            }
+            if (INBOUND_PROPERTIES.equals(root))
+            {
+                return new InboundPropertyAccessor(key);
+            }
+            if (OUTBOUND_PROPERTIES.equals(root))
+            {
+                return new OutboundPropertyAccessor(key);
+            }
+            return null;
+        }
+
+        if (property != null && key != null)
+        {
+            // Nested access, such as flowVars.a.b, is left to MVEL
+            return null;
+        }
+        if (property != null)
+        {
+            key = property;
+        }
+
+        if (PAYLOAD.equals(root))
+        {
+            return key == null ? new PayloadAccessor() : null;
+        }
+        if (key == null)
+        {
+            return null;
+        }
+        if (FLOW_VARS.equals(root))
+        {
+            return new FlowVariableAccessor(key);
+        }
+        if (SESSION_VARS.equals(root))
+        {
+            return new SessionVariableAccessor(key);
+        }
+        return null;
+    }
+
+    private static String firstNonNull(String... values)
+    {
+        for (String value : values)
+        {
+            if (value != null)
+            {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static Object resolvedOrUnresolved(Object value)
+    {
+        return value == null ? UNRESOLVED : value;
+    }
+
+    private static class PayloadAccessor extends EventValueAccessor
+    {
+
+        @Override
+        Object get(MuleEvent event)
+        {
+            Object payload = event.getMessage().getPayload();
+            // Same behavior as MessageContext#getPayload
+            return NullPayload.getInstance().equals(payload) ? null : payload;
+        }
+    }
+
+    private static class FlowVariableAccessor extends EventValueAccessor
+    {
+
+        private final String name;
+
+        private FlowVariableAccessor(String name)
+        {
+            this.name = name;
+        }
+
+        @Override
+        Object get(MuleEvent event)
+        {
+            return resolvedOrUnresolved(event.getFlowVariable(name));
+        }
+    }
+
+    private static class SessionVariableAccessor extends EventValueAccessor
+    {
+
+        private final String name;
+
+        private SessionVariableAccessor(String name)
+        {
+            this.name = name;
+        }
+
+        @Override
+        Object get(MuleEvent event)
+        {
+            return event.getSession() == null ? UNRESOLVED : resolvedOrUnresolved(event.getSession().getProperty(name));
+        }
+    }
+
+    private static class InboundPropertyAccessor extends EventValueAccessor
+    {
+
+        private final String name;
+
+        private InboundPropertyAccessor(String name)
+        {
+            this.name = name;
+        }
+
+        @Override
+        Object get(MuleEvent event)
+        {
+            return resolvedOrUnresolved(event.getMessage().getInboundProperty(name));
+        }
+    }
+
+    private static class OutboundPropertyAccessor extends EventValueAccessor
+    {
+
+        private final String name;
+
+        private OutboundPropertyAccessor(String name)
+        {
+            this.name = name;
+        }
+
+        @Override
+        Object get(MuleEvent event)
+        {
+            return resolvedOrUnresolved(event.getMessage().getOutboundProperty(name));
+        }
+    }
+}
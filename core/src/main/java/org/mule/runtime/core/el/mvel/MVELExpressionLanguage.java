@@ -10,6 +10,8 @@ import static org.mule.runtime.core.expression.DefaultExpressionManager.OBJECT_F
 import static org.mule.runtime.core.expression.DefaultExpressionManager.removeExpressionMarker;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.MuleEvent;
+import org.mule.runtime.core.api.MuleRuntimeException;
+import org.mule.runtime.core.api.config.MuleProperties;
 import org.mule.runtime.core.api.el.ExpressionLanguage;
 import org.mule.runtime.core.api.expression.ExpressionManager;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
@@ -32,6 +34,11 @@ import org.mule.runtime.core.transformer.types.TypedValue;
 import org.mule.runtime.api.message.NullPayload;
 import org.mule.runtime.core.util.IOUtils;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
 import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigDecimal;
@@ -40,6 +47,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.regex.Pattern;
 
 import javax.activation.DataHandler;
@@ -50,6 +58,15 @@ import javax.activation.MimeType;
  */
 public class MVELExpressionLanguage implements ExpressionLanguage, Initialisable
 {
+
+    /**
+     * System property used to disable the evaluation of simple expressions, such as {@code #[payload]} or
+     * {@code #[flowVars.id]}, through direct accessors instead of MVEL.
+     */
+    public static final String DISABLE_MEL_FAST_PATH = MuleProperties.SYSTEM_PROPERTY_PREFIX + "disableMelFastPath";
+
+    protected static final int FAST_PATH_MAX_CACHE_SIZE = 1000;
+
     protected ParserConfiguration parserConfiguration;
     protected MuleContext muleContext;
     protected MVELExpressionExecutor expressionExecutor;
@@ -66,6 +83,9 @@ public class MVELExpressionLanguage implements ExpressionLanguage, Initialisable
     protected boolean autoResolveVariables = true;
     protected MvelDataTypeResolver dataTypeResolver = new MvelDataTypeResolver();
     protected MvelEnricherDataTypePropagator dataTypePropagator = new MvelEnricherDataTypePropagator();
+    protected boolean fastPathEnabled = System.getProperty(DISABLE_MEL_FAST_PATH) == null;
+
+    private LoadingCache<String, Optional<EventValueAccessor>> fastPathAccessors;
 
     public MVELExpressionLanguage(MuleContext muleContext)
     {
@@ -77,6 +97,18 @@ public class MVELExpressionLanguage implements ExpressionLanguage, Initialisable
     {
         parserConfiguration = createParserConfiguration(imports);
         expressionExecutor = new MVELExpressionExecutor(parserConfiguration);
+        fastPathAccessors = CacheBuilder.newBuilder()
+            .maximumSize(FAST_PATH_MAX_CACHE_SIZE)
+            .build(new CacheLoader<String, Optional<EventValueAccessor>>()
+            {
+                @Override
+                public Optional<EventValueAccessor> load(String expression) throws Exception
+                {
+                    // Expressions are compiled anyway so invalid ones fail the same way as in a full evaluation
+                    validate(expression);
+                    return Optional.ofNullable(EventValueAccessor.forExpression(removeExpressionMarker(expression)));
+                }
+            });
 
         loadGlobalFunctions();
         createStaticContext();
@@ -142,12 +174,21 @@ public class MVELExpressionLanguage implements ExpressionLanguage, Initialisable
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> T evaluate(String expression, MuleEvent event, Map<String, Object> vars)
     {
         if (event == null)
         {
             return evaluate(expression, vars);
         }
+        if (vars == null && fastPathEnabled)
+        {
+            Object value = evaluateFastPath(expression, event);
+            if (value != EventValueAccessor.UNRESOLVED)
+            {
+                return (T) value;
+            }
+        }
         MVELExpressionLanguageContext context = createExpressionLanguageContext();
         if (vars != null)
         {
@@ -166,6 +207,46 @@ public class MVELExpressionLanguage implements ExpressionLanguage, Initialisable
         return evaluateInternal(expression, context);
     }
 
+    /**
+     * Evaluates simple expressions reading their value directly from the event. Expressions are analysed only the
+     * first time they are evaluated.
+     *
+     * @return the value of the expression or {@link EventValueAccessor#UNRESOLVED} if it must be evaluated by MVEL
+     */
+    private Object evaluateFastPath(String expression, MuleEvent event)
+    {
+        Optional<EventValueAccessor> accessor;
+        try
+        {
+            accessor = fastPathAccessors.getUnchecked(expression);
+        }
+        catch (UncheckedExecutionException e)
+        {
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            else
+            {
+                throw new MuleRuntimeException(e);
+            }
+        }
+
+        if (!accessor.isPresent())
+        {
+            return EventValueAccessor.UNRESOLVED;
+        }
+
+        try
+        {
+            return accessor.get().get(event);
+        }
+        catch (Exception e)
+        {
+            throw new ExpressionRuntimeException(CoreMessages.expressionEvaluationFailed(removeExpressionMarker(expression)), e);
+        }
+    }
+
     @Override
     public void enrich(String expression, MuleEvent event, TypedValue typedValue)
     {
@@ -304,6 +385,11 @@ public class MVELExpressionLanguage implements ExpressionLanguage, Initialisable
         this.autoResolveVariables = autoResolveVariables;
     }
 
+    public void setFastPathEnabled(boolean fastPathEnabled)
+    {
+        this.fastPathEnabled = fastPathEnabled;
+    }
+
     public void setDataTypeResolver(MvelDataTypeResolver dataTypeResolver)
     {
         this.dataTypeResolver = dataTypeResolver;
@@ -21,10 +21,12 @@ import org.mule.runtime.core.api.processor.InterceptingMessageProcessor;
 import org.mule.runtime.core.api.processor.MessageProcessor;
 import org.mule.runtime.core.context.notification.MessageProcessorNotification;
 import org.mule.runtime.core.context.notification.ServerNotificationManager;
+import org.mule.runtime.core.management.stats.FlowConstructStatistics;
 import org.mule.runtime.core.processor.NonBlockingMessageProcessor;
 
 /**
- * Intercepts MessageProcessor execution to fire before and after notifications
+ * Intercepts MessageProcessor execution to fire before and after notifications, and to record the processing time of
+ * the MessageProcessor in the statistics of its flow when they are enabled
  */
 class MessageProcessorNotificationExecutionInterceptor implements MessageProcessorExecutionInterceptor
 {
@@ -46,13 +48,23 @@ class MessageProcessorNotificationExecutionInterceptor implements MessageProcess
     public MuleEvent execute(final MessageProcessor messageProcessor, final MuleEvent event) throws MessagingException
     {
         final ServerNotificationManager notificationManager = event.getMuleContext().getNotificationManager();
-        final boolean fireNotification = event.isNotificationsEnabled();
+        final boolean notificationsEnabled = event.isNotificationsEnabled() && notificationManager != null
+                                             && notificationManager.isNotificationEnabled(MessageProcessorNotification.class);
+        final boolean statisticsEnabled = isStatisticsEnabled(event.getFlowConstruct());
+
+        // the path is resolved once and shared by the notifications and the statistics of this execution
+        final String processorPath = notificationsEnabled || statisticsEnabled
+                                     ? getProcessorPath(event.getFlowConstruct(), messageProcessor) : null;
+        final boolean fireNotification = notificationsEnabled && processorPath != null;
         if (fireNotification)
         {
             fireNotification(notificationManager, event.getFlowConstruct(), event, messageProcessor,
-                             null, MessageProcessorNotification.MESSAGE_PROCESSOR_PRE_INVOKE);
+                             null, MessageProcessorNotification.MESSAGE_PROCESSOR_PRE_INVOKE, processorPath);
         }
 
+        final String statisticsPath = statisticsEnabled ? processorPath : null;
+        final long startTime = statisticsPath != null ? System.currentTimeMillis() : 0;
+
         MuleEvent eventToProcess = event;
         MuleEvent result = null;
         MessagingException exceptionThrown = null;
@@ -70,12 +82,12 @@ class MessageProcessorNotificationExecutionInterceptor implements MessageProcess
                 public void processReplyTo(MuleEvent result, MuleMessage returnMessage, Object replyTo) throws
                                                                                                         MuleException
                 {
-
+                    recordProcessingTime(event.getFlowConstruct(), statisticsPath, startTime);
                     if (fireNotification)
                     {
                         fireNotification(notificationManager, event.getFlowConstruct(), result != null ? result : event,
                                          messageProcessor,
-                                         null, MessageProcessorNotification.MESSAGE_PROCESSOR_POST_INVOKE);
+                                         null, MessageProcessorNotification.MESSAGE_PROCESSOR_POST_INVOKE, processorPath);
                     }
                     originalReplyToHandler.processReplyTo(result, returnMessage, replyTo);
                 }
@@ -83,12 +95,13 @@ class MessageProcessorNotificationExecutionInterceptor implements MessageProcess
                 @Override
                 public void processExceptionReplyTo(MessagingException exception, Object replyTo)
                 {
+                    recordProcessingTime(event.getFlowConstruct(), statisticsPath, startTime);
                     if (fireNotification)
                     {
                         MuleEvent result = exception.getEvent();
                         fireNotification(notificationManager, event.getFlowConstruct(), result != null ? result : event,
                                          messageProcessor,
-                                         null, MessageProcessorNotification.MESSAGE_PROCESSOR_POST_INVOKE);
+                                         null, MessageProcessorNotification.MESSAGE_PROCESSOR_POST_INVOKE, processorPath);
                     }
                     originalReplyToHandler.processExceptionReplyTo(exception, replyTo);
                 }
@@ -121,25 +134,48 @@ class MessageProcessorNotificationExecutionInterceptor implements MessageProcess
         }
         finally
         {
-            if (!NonBlockingVoidMuleEvent.getInstance().equals(result) && fireNotification)
+            if (!NonBlockingVoidMuleEvent.getInstance().equals(result))
             {
-                fireNotification(notificationManager, event.getFlowConstruct(), result != null ? result : event,
-                                 messageProcessor,
-                                 exceptionThrown, MessageProcessorNotification.MESSAGE_PROCESSOR_POST_INVOKE);
+                recordProcessingTime(event.getFlowConstruct(), statisticsPath, startTime);
+                if (fireNotification)
+                {
+                    fireNotification(notificationManager, event.getFlowConstruct(), result != null ? result : event,
+                                     messageProcessor,
+                                     exceptionThrown, MessageProcessorNotification.MESSAGE_PROCESSOR_POST_INVOKE, processorPath);
+                }
             }
         }
         return result;
     }
 
-    protected void fireNotification(ServerNotificationManager serverNotificationManager, FlowConstruct flowConstruct, MuleEvent event, MessageProcessor processor, MessagingException exceptionThrown, int action)
+    private boolean isStatisticsEnabled(FlowConstruct flowConstruct)
     {
-        if (serverNotificationManager != null
-            && serverNotificationManager.isNotificationEnabled(MessageProcessorNotification.class))
+        return flowConstruct != null && flowConstruct.getStatistics() != null && flowConstruct.getStatistics().isEnabled();
+    }
+
+    /**
+     * @return the path of the processor in its flow, or null if the flow can't resolve it
+     */
+    private String getProcessorPath(FlowConstruct flowConstruct, MessageProcessor processor)
+    {
+        if (flowConstruct instanceof MessageProcessorPathResolver)
         {
-            if (flowConstruct instanceof MessageProcessorPathResolver && ((MessageProcessorPathResolver) flowConstruct).getProcessorPath(processor) != null)
-            {
-                serverNotificationManager.fireNotification(new MessageProcessorNotification(flowConstruct, event, processor, exceptionThrown, action));
-            }
+            return ((MessageProcessorPathResolver) flowConstruct).getProcessorPath(processor);
         }
+        return null;
+    }
+
+    private void recordProcessingTime(FlowConstruct flowConstruct, String processorPath, long startTime)
+    {
+        if (processorPath != null)
+        {
+            FlowConstructStatistics statistics = flowConstruct.getStatistics();
+            statistics.addMessageProcessorExecutionTime(processorPath, System.currentTimeMillis() - startTime);
+        }
+    }
+
+    protected void fireNotification(ServerNotificationManager serverNotificationManager, FlowConstruct flowConstruct, MuleEvent event, MessageProcessor processor, MessagingException exceptionThrown, int action, String processorPath)
+    {
+        serverNotificationManager.fireNotification(new MessageProcessorNotification(flowConstruct, event, processor, exceptionThrown, action, processorPath));
     }
 }
@@ -88,6 +88,20 @@ public class ApplicationStatistics extends FlowConstructStatistics
         return max;
     }
 
+    @Override
+    public LatencyHistogram getProcessingTimes()
+    {
+        LatencyHistogram processingTimes = new LatencyHistogram();
+        for (FlowConstructStatistics stats : parent.getServiceStatistics())
+        {
+            if (!(stats instanceof ApplicationStatistics))
+            {
+                processingTimes.add(stats.getProcessingTimes());
+            }
+        }
+        return processingTimes;
+    }
+
     @Override
     public long getTotalProcessingTime()
     {
@@ -11,14 +11,17 @@ import org.mule.runtime.core.management.stats.printers.SimplePrinter;
 import org.mule.runtime.core.util.StringUtils;
 
 import java.io.PrintWriter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api. This class is not
- * thread-safe - occasional errors in reported statistics should be expected, especially when the {@link #clear()}
- * method is used.
+ * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api. Counters are striped
+ * and execution times are also kept in a {@link LatencyHistogram}, so recording doesn't contend between threads and
+ * percentiles can be calculated. Values are not updated atomically with each other, so occasional errors in
+ * reported statistics should be expected, especially when the {@link #clear()} method is used.
  */
 public class ComponentStatistics implements Statistics
 {
@@ -30,14 +33,14 @@ public class ComponentStatistics implements Statistics
      */
     private static final long serialVersionUID = -2086999226732861674L;
 
-    private long minExecutionTime = 0;
-    private long maxExecutionTime = 0;
-    private long averageExecutionTime = 0;
-    private long executedEvent = 0;
-    private long totalExecTime = 0;
-    private boolean enabled = false;
+    private final AtomicLong minExecutionTime = new AtomicLong(0);
+    private final AtomicLong maxExecutionTime = new AtomicLong(0);
+    private final LongAdder executedEvent = new LongAdder();
+    private final LongAdder totalExecTime = new LongAdder();
+    private final LatencyHistogram executionTimes = new LatencyHistogram();
+    private volatile boolean enabled = false;
     private long intervalTime = 0;
-    private long currentIntervalStartTime = 0;
+    private final AtomicLong currentIntervalStartTime = new AtomicLong(0);
     private boolean statIntervalTimeEnabled = false;
 
     /**
@@ -78,11 +81,11 @@ public class ComponentStatistics implements Statistics
      */
     public void clear()
     {
-        minExecutionTime = 0;
-        maxExecutionTime = 0;
-        executedEvent = 0;
-        totalExecTime = 0;
-        averageExecutionTime = 0;
+        minExecutionTime.set(0);
+        maxExecutionTime.set(0);
+        executedEvent.reset();
+        totalExecTime.reset();
+        executionTimes.reset();
     }
 
     /**
@@ -128,7 +131,7 @@ public class ComponentStatistics implements Statistics
      */
     public long getMaxExecutionTime()
     {
-        return maxExecutionTime;
+        return maxExecutionTime.get();
     }
 
     /**
@@ -138,7 +141,7 @@ public class ComponentStatistics implements Statistics
      */
     public long getMinExecutionTime()
     {
-        return minExecutionTime;
+        return minExecutionTime.get();
     }
 
     /**
@@ -149,7 +152,7 @@ public class ComponentStatistics implements Statistics
      */
     public long getTotalExecutionTime()
     {
-        return totalExecTime;
+        return totalExecTime.sum();
     }
 
     /**
@@ -162,7 +165,7 @@ public class ComponentStatistics implements Statistics
      */
     public long getExecutedEvents()
     {
-        return executedEvent;
+        return executedEvent.sum();
     }
 
     /**
@@ -172,41 +175,23 @@ public class ComponentStatistics implements Statistics
      * @param branch the time to execute this branch
      * @param total the total time (so far) for processing this event
      */
-    public synchronized void addExecutionBranchTime(boolean first, long branch, long total)
+    public void addExecutionBranchTime(boolean first, long branch, long total)
     {
         // TODO MULE-9151 - ComponentStatistics should really create distinct Event
         // objects that can be used to aggregate statistics and then atomically
         // log them at completion time.
 
-        if (statIntervalTimeEnabled)
-        {
-            long currentTime = System.currentTimeMillis();
-            if (currentIntervalStartTime == 0)
-            {
-                currentIntervalStartTime = currentTime;
-            }
-
-            if ((currentTime - currentIntervalStartTime) > intervalTime)
-            {
-                clear();
-                currentIntervalStartTime = currentTime;
-            }
-        }
+        checkInterval();
 
         if (first)
         {
-            executedEvent++;
+            executedEvent.increment();
         }
 
-        if (executedEvent > 0)
+        if (executedEvent.sum() > 0)
         {
-            totalExecTime += ProcessingTime.getEffectiveTime(branch);
-            long effectiveTotal = ProcessingTime.getEffectiveTime(total);
-            if (maxExecutionTime == 0 || effectiveTotal > maxExecutionTime)
-            {
-                maxExecutionTime = effectiveTotal;
-            }
-            averageExecutionTime = totalExecTime / executedEvent;
+            totalExecTime.add(ProcessingTime.getEffectiveTime(branch));
+            updateMax(ProcessingTime.getEffectiveTime(total));
         }
     }
 
@@ -217,15 +202,13 @@ public class ComponentStatistics implements Statistics
      * 
      * @param time the total time required to process this event
      */
-    public synchronized void addCompleteExecutionTime(long time)
+    public void addCompleteExecutionTime(long time)
     {
-        if (executedEvent > 0)
+        if (executedEvent.sum() > 0)
         {
             long effectiveTime = ProcessingTime.getEffectiveTime(time);
-            if (minExecutionTime == 0 || effectiveTime < minExecutionTime)
-            {
-                minExecutionTime = effectiveTime;
-            }
+            updateMin(effectiveTime);
+            executionTimes.recordValue(effectiveTime);
         }
     }
 
@@ -236,37 +219,54 @@ public class ComponentStatistics implements Statistics
      *
      * @param time The total event time to be logged/recorded.
      */
-    public synchronized void addExecutionTime(long time)
+    public void addExecutionTime(long time)
+    {
+        checkInterval();
+
+        executedEvent.increment();
+
+        long effectiveTime = ProcessingTime.getEffectiveTime(time);
+        totalExecTime.add(effectiveTime);
+        updateMin(time);
+        updateMax(time);
+        executionTimes.recordValue(effectiveTime);
+    }
+
+    /**
+     * Clears the statistics when the interval configured through the statIntervalTime property has elapsed
+     */
+    private void checkInterval()
     {
         if (statIntervalTimeEnabled)
         {
             long currentTime = System.currentTimeMillis();
-            if (currentIntervalStartTime == 0)
-            {
-                currentIntervalStartTime = currentTime;
-            }
+            currentIntervalStartTime.compareAndSet(0, currentTime);
 
-            if ((currentTime - currentIntervalStartTime) > intervalTime)
+            long intervalStartTime = currentIntervalStartTime.get();
+            if ((currentTime - intervalStartTime) > intervalTime
+                && currentIntervalStartTime.compareAndSet(intervalStartTime, currentTime))
             {
                 clear();
-                currentIntervalStartTime = currentTime;
             }
         }
+    }
 
-        executedEvent++;
-
-        long effectiveTime = ProcessingTime.getEffectiveTime(time);
-        totalExecTime += effectiveTime;
-
-        if (minExecutionTime == 0 || effectiveTime < minExecutionTime)
+    private void updateMin(long time)
+    {
+        long current = minExecutionTime.get();
+        while ((current == 0 || time < current) && !minExecutionTime.compareAndSet(current, time))
         {
-            minExecutionTime = time;
+            current = minExecutionTime.get();
         }
-        if (maxExecutionTime == 0 || effectiveTime > maxExecutionTime)
+    }
+
+    private void updateMax(long time)
+    {
+        long current = maxExecutionTime.get();
+        while ((current == 0 || time > current) && !maxExecutionTime.compareAndSet(current, time))
         {
-            maxExecutionTime = time;
+            current = maxExecutionTime.get();
         }
-        averageExecutionTime = totalExecTime / executedEvent;
     }
 
     /**
@@ -276,7 +276,28 @@ public class ComponentStatistics implements Statistics
      */
     public long getAverageExecutionTime()
     {
-        return averageExecutionTime;
+        long executed = executedEvent.sum();
+        return executed == 0 ? 0 : totalExecTime.sum() / executed;
+    }
+
+    /**
+     * Returns the execution time at the given percentile of the events completed since last cleared, with a relative
+     * error below 6.25%.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the execution time, or zero if no events have been completed.
+     */
+    public long getExecutionTimePercentile(double percentile)
+    {
+        return executionTimes.getValueAtPercentile(percentile);
+    }
+
+    /**
+     * @return the histogram of the execution times of the events completed since last cleared
+     */
+    public LatencyHistogram getExecutionTimes()
+    {
+        return executionTimes;
     }
 
 }
@@ -9,22 +9,25 @@ package org.mule.runtime.core.management.stats;
 import org.mule.runtime.core.api.processor.ProcessingStrategy;
 import org.mule.runtime.core.processor.strategy.AsynchronousProcessingStrategy;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 public class FlowConstructStatistics extends AbstractFlowConstructStatistics implements QueueStatistics
 {
     private static final long serialVersionUID = 5337576392583767442L;
-    private final AtomicLong executionError = new AtomicLong(0);
-    private final AtomicLong fatalError = new AtomicLong(0);
+    private final LongAdder executionError = new LongAdder();
+    private final LongAdder fatalError = new LongAdder();
     private int threadPoolSize = 0;
     protected final ComponentStatistics flowStatistics = new ComponentStatistics();
-    
-    // these can't sensibly converted to AtomicLong as they are processed together
-    // in incQueuedEvent
-    private long queuedEvent = 0;
-    private long maxQueuedEvent = 0;
-    private long averageQueueSize = 0;
-    private long totalQueuedEvent = 0;
+    private final ConcurrentMap<String, ComponentStatistics> messageProcessorStatistics = new ConcurrentHashMap<>();
+
+    private final AtomicLong queuedEvent = new AtomicLong(0);
+    private final AtomicLong maxQueuedEvent = new AtomicLong(0);
+    private final LongAdder totalQueuedEvent = new LongAdder();
 
 
     public FlowConstructStatistics(String flowConstructType, String name, ProcessingStrategy processingStrategy)
@@ -67,12 +70,12 @@ public class FlowConstructStatistics extends AbstractFlowConstructStatistics imp
 
     public void incExecutionError()
     {
-        executionError.addAndGet(1);
+        executionError.increment();
     }
 
     public void incFatalError()
     {
-        fatalError.addAndGet(1);
+        fatalError.increment();
     }
 
     /**
@@ -82,18 +85,29 @@ public class FlowConstructStatistics extends AbstractFlowConstructStatistics imp
     {
         super.setEnabled(b);
         flowStatistics.setEnabled(enabled);
+        for (ComponentStatistics statistics : messageProcessorStatistics.values())
+        {
+            statistics.setEnabled(enabled);
+        }
     }
 
     public synchronized void clear()
     {
         super.clear();
 
-        executionError.set(0);
-        fatalError.set(0);        
+        executionError.reset();
+        fatalError.reset();
         if (flowStatistics != null)
         {
             flowStatistics.clear();
         }
+        if (messageProcessorStatistics != null)
+        {
+            for (ComponentStatistics statistics : messageProcessorStatistics.values())
+            {
+                statistics.clear();
+            }
+        }
     }
 
     public void addCompleteFlowExecutionTime(long time)
@@ -131,14 +145,61 @@ public class FlowConstructStatistics extends AbstractFlowConstructStatistics imp
         return flowStatistics.getTotalExecutionTime();
     }
 
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @return the processing time of the flow at the given percentile, or zero if no events have been processed
+     */
+    public long getProcessingTimePercentile(double percentile)
+    {
+        return getProcessingTimes().getValueAtPercentile(percentile);
+    }
+
+    /**
+     * @return the histogram of the processing times of the flow
+     */
+    public LatencyHistogram getProcessingTimes()
+    {
+        return flowStatistics.getExecutionTimes();
+    }
+
+    /**
+     * Adds the time it took a message processor of this flow to process an event
+     *
+     * @param processorPath the path of the message processor in the flow
+     * @param time the processing time, in milliseconds
+     */
+    public void addMessageProcessorExecutionTime(String processorPath, long time)
+    {
+        ComponentStatistics statistics = messageProcessorStatistics.get(processorPath);
+        if (statistics == null)
+        {
+            statistics = new ComponentStatistics();
+            statistics.setEnabled(enabled);
+            ComponentStatistics existing = messageProcessorStatistics.putIfAbsent(processorPath, statistics);
+            if (existing != null)
+            {
+                statistics = existing;
+            }
+        }
+        statistics.addExecutionTime(time);
+    }
+
+    /**
+     * @return the statistics of the message processors of this flow that have processed events, by processor path
+     */
+    public Map<String, ComponentStatistics> getMessageProcessorStatistics()
+    {
+        return Collections.unmodifiableMap(messageProcessorStatistics);
+    }
+
     public long getExecutionErrors()
     {
-        return executionError.get();
+        return executionError.sum();
     }
 
     public long getFatalErrors()
     {
-        return fatalError.get();
+        return fatalError.sum();
     }
 
     public int getThreadPoolSize()
@@ -146,25 +207,26 @@ public class FlowConstructStatistics extends AbstractFlowConstructStatistics imp
         return threadPoolSize;
     }
 
-    public synchronized void incQueuedEvent()
+    public void incQueuedEvent()
     {
-        queuedEvent++;
-        totalQueuedEvent++;
-        if (queuedEvent > maxQueuedEvent)
+        long queued = queuedEvent.incrementAndGet();
+        totalQueuedEvent.increment();
+        long max = maxQueuedEvent.get();
+        while (queued > max && !maxQueuedEvent.compareAndSet(max, queued))
         {
-            maxQueuedEvent = queuedEvent;
+            max = maxQueuedEvent.get();
         }
-        averageQueueSize = receivedEventASync.get() / totalQueuedEvent;
     }
 
-    public synchronized void decQueuedEvent()
+    public void decQueuedEvent()
     {
-        queuedEvent--;
+        queuedEvent.decrementAndGet();
     }
-    
-    public synchronized long getAverageQueueSize()
+
+    public long getAverageQueueSize()
     {
-        return averageQueueSize;
+        long totalQueued = totalQueuedEvent.sum();
+        return totalQueued == 0 ? 0 : receivedEventASync.sum() / totalQueued;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.management.stats;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies, used to calculate percentiles of execution times.
+ * <p/>
+ * Values are counted in log-linear buckets, in the same way as HDR histograms do: values lower than 32 have a bucket
+ * each, and each power of two above them is split in 16 buckets. This keeps a fixed size for any range of values
+ * with a relative error below 6.25%, and recording a value only takes an atomic increment.
+ * <p/>
+ * Percentiles are calculated from a scan of the buckets that is not atomic, so they may not take into account values
+ * recorded during the calculation.
+ */
+public class LatencyHistogram implements Serializable
+{
+
+    private static final long serialVersionUID = -3467198318297632870L;
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_BUCKETS = SUB_BUCKETS << 1;
+    private static final int LINEAR_MAGNITUDE = SUB_BUCKET_BITS + 1;
+    private static final int BUCKETS = LINEAR_BUCKETS + (Long.SIZE - 2 - LINEAR_MAGNITUDE) * SUB_BUCKETS + SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value. Negative values are recorded as zero.
+     */
+    public void recordValue(long value)
+    {
+        value = Math.max(value, 0);
+        buckets.incrementAndGet(indexOf(value));
+        updateMax(value);
+    }
+
+    /**
+     * Adds the values recorded in another histogram to this one
+     */
+    public void add(LatencyHistogram other)
+    {
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            long count = other.buckets.get(i);
+            if (count > 0)
+            {
+                buckets.addAndGet(i, count);
+            }
+        }
+        updateMax(other.getMaxValue());
+    }
+
+    /**
+     * @param percentile the percentile to calculate, between 0 and 100
+     * @return the value at the given percentile, or zero if no values have been recorded
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0)
+        {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * total));
+        long accumulated = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            accumulated += counts[i];
+            if (accumulated >= target)
+            {
+                return Math.min(highestValueOf(i), getMaxValue());
+            }
+        }
+        return getMaxValue();
+    }
+
+    public long getTotalCount()
+    {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            total += buckets.get(i);
+        }
+        return total;
+    }
+
+    public long getMaxValue()
+    {
+        return max.get();
+    }
+
+    /**
+     * Discards all the recorded values
+     */
+    public void reset()
+    {
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            buckets.set(i, 0);
+        }
+        max.set(0);
+    }
+
+    private void updateMax(long value)
+    {
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value))
+        {
+            current = max.get();
+        }
+    }
+
+    private static int indexOf(long value)
+    {
+        if (value < LINEAR_BUCKETS)
+        {
+            return (int) value;
+        }
+        int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (magnitude - LINEAR_MAGNITUDE) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestValueOf(int index)
+    {
+        if (index < LINEAR_BUCKETS)
+        {
+            return index;
+        }
+        int magnitude = (index - LINEAR_BUCKETS) / SUB_BUCKETS + LINEAR_MAGNITUDE;
+        int subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+        int shift = magnitude - SUB_BUCKET_BITS;
+        long lowest = ((long) (SUB_BUCKETS + subBucket)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
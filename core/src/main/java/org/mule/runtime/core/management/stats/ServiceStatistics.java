@@ -86,7 +86,7 @@ public class ServiceStatistics extends FlowConstructStatistics implements QueueS
         {
             maxQueuedEvent = queuedEvent;
         }
-        averageQueueSize = receivedEventASync.get() / totalQueuedEvent;
+        averageQueueSize = receivedEventASync.sum() / totalQueuedEvent;
     }
 
     public synchronized void decQueuedEvent()
@@ -7,6 +7,7 @@
 package org.mule.runtime.core.management.stats.printers;
 
 import org.mule.runtime.core.management.stats.FlowConstructStatistics;
+import org.mule.runtime.core.management.stats.LatencyHistogram;
 import org.mule.runtime.core.management.stats.RouterStatistics;
 import org.mule.runtime.core.management.stats.SedaServiceStatistics;
 import org.mule.runtime.core.management.stats.ServiceStatistics;
@@ -38,7 +39,7 @@ public class AbstractTablePrinter extends PrintWriter
 
     public String[] getHeaders()
     {
-        String[] column = new String[41];
+        String[] column = new String[44];
         column[0] = "Name";
         column[1] = "Service Pool Max Size";
         column[2] = "Service Pool Size";
@@ -80,6 +81,9 @@ public class AbstractTablePrinter extends PrintWriter
         column[38] = "By Provider";
         column[39] = "";
         column[40] = "Sample Period";
+        column[41] = "50th Percentile Processing Time";
+        column[42] = "99th Percentile Processing Time";
+        column[43] = "99.9th Percentile Processing Time";
         return column;
     }
 
@@ -152,6 +156,19 @@ public class AbstractTablePrinter extends PrintWriter
         }
 
         col[40] = String.valueOf(stats.getSamplePeriod());
+        getPercentiles(stats, col, col.length - 3);
+    }
+
+    /**
+     * Fills the processing time percentiles, which are always the last columns of the table
+     */
+    protected int getPercentiles(FlowConstructStatistics stats, String[] col, int index)
+    {
+        LatencyHistogram processingTimes = stats.getProcessingTimes();
+        col[index++] = String.valueOf(processingTimes.getValueAtPercentile(50));
+        col[index++] = String.valueOf(processingTimes.getValueAtPercentile(99));
+        col[index++] = String.valueOf(processingTimes.getValueAtPercentile(99.9));
+        return index;
     }
 
     protected int getRouterInfo(RouterStatistics stats, String[] col, int index)
@@ -17,6 +17,7 @@ import org.mule.runtime.core.api.processor.MessageProcessorChainBuilder;
 import org.mule.runtime.core.api.processor.ProcessingStrategy;
 import org.mule.runtime.core.api.processor.StageNameSource;
 import org.mule.runtime.core.config.ChainedThreadingProfile;
+import org.mule.runtime.core.config.pool.ThreadPoolFactory;
 import org.mule.runtime.core.processor.AsyncInterceptingMessageProcessor;
 import org.mule.runtime.core.util.concurrent.ThreadNameHelper;
 import org.mule.runtime.core.work.MuleWorkManager;
@@ -37,10 +38,11 @@ public abstract class AbstractThreadingProfileProcessingStrategy implements Proc
     protected Long threadTTL;
     protected Long threadWaitTimeout;
     protected Integer poolExhaustedAction;
+    protected ThreadPoolFactory poolFactory;
 
     protected ThreadingProfile createThreadingProfile(MuleContext muleContext)
     {
-        ThreadingProfile threadingProfile = new ChainedThreadingProfile(muleContext.getDefaultThreadingProfile());
+        ChainedThreadingProfile threadingProfile = new ChainedThreadingProfile(muleContext.getDefaultThreadingProfile());
         if (maxThreads != null)
         {
             threadingProfile.setMaxThreadsActive(maxThreads);
@@ -65,6 +67,10 @@ public abstract class AbstractThreadingProfileProcessingStrategy implements Proc
         {
             threadingProfile.setPoolExhaustedAction(poolExhaustedAction);
         }
+        if (poolFactory != null)
+        {
+            threadingProfile.setPoolFactory(poolFactory);
+        }
         threadingProfile.setMuleContext(muleContext);
         return threadingProfile;
     }
@@ -134,4 +140,18 @@ public abstract class AbstractThreadingProfileProcessingStrategy implements Proc
         return poolExhaustedAction;
     }
 
+    public ThreadPoolFactory getPoolFactory()
+    {
+        return poolFactory;
+    }
+
+    /**
+     * @param poolFactory the factory of the thread pools used by this strategy, instead of the default one of the
+     *                    threading profile
+     */
+    public void setPoolFactory(ThreadPoolFactory poolFactory)
+    {
+        this.poolFactory = poolFactory;
+    }
+
 }
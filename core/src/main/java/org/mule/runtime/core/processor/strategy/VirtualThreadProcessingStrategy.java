@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.processor.strategy;
+
+import org.mule.runtime.core.config.pool.VirtualThreadPoolFactory;
+import org.mule.runtime.core.construct.flow.DefaultFlowProcessingStrategy;
+import org.mule.runtime.core.util.concurrent.VirtualThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Processes asynchronous events in a new virtual thread each, and synchronous events in the calling thread, as the
+ * {@link DefaultFlowProcessingStrategy} does.
+ * <p/>
+ * Virtual threads are meant for flows that block on IO, like database, JMS or web service calls, whose concurrency
+ * is otherwise limited by the size of the thread pool. The maximum amount of events processed concurrently is given
+ * by {@link #getMaxThreads()}, which defaults to {@value #DEFAULT_MAX_THREADS}. When the JVM doesn't support virtual
+ * threads, a regular thread pool is used, sized by the default threading profile unless the maximum is configured.
+ *
+ * @see VirtualThreadPoolFactory
+ */
+public class VirtualThreadProcessingStrategy extends DefaultFlowProcessingStrategy
+{
+
+    public static final int DEFAULT_MAX_THREADS = 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadProcessingStrategy.class);
+
+    public VirtualThreadProcessingStrategy()
+    {
+        if (VirtualThreadFactory.isSupported())
+        {
+            maxThreads = DEFAULT_MAX_THREADS;
+        }
+        else
+        {
+            // as many platform threads would exhaust the memory of the JVM
+            logger.warn("Virtual threads are not supported by this JVM, using a regular thread pool sized by the default threading profile");
+        }
+        poolFactory = new VirtualThreadPoolFactory();
+    }
+
+}
@@ -201,6 +201,14 @@ public class TypeBasedTransformerResolver implements TransformerResolver, MuleCo
         exactTransformerCache.clear();
     }
 
+    /**
+     * @return the resolver used to find converter chains, exposed so its cache can be monitored
+     */
+    public TransformerResolver getGraphTransformerResolver()
+    {
+        return graphTransformerResolver;
+    }
+
     public void transformerChange(Transformer transformer, RegistryAction registryAction)
     {
         if (transformer instanceof Converter)
@@ -59,6 +59,14 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
     private int arrivalOrderCounter = 0;
     private Serializable lastStoredEventKey;
 
+    /**
+     * Number of events in the group, maintained as events are added or removed so checking whether the group
+     * is complete doesn't require listing the keys of the events partition. Lazily initialized as the events may
+     * have been added through another instance, for instance, when the group is deserialized from a persistent store.
+     */
+    private transient int eventCount;
+    private transient boolean eventCountInitialised;
+
     public static final String DEFAULT_STORE_PREFIX = "DEFAULT_STORE";
 
     public EventGroup(Object groupId, MuleContext muleContext)
@@ -257,6 +265,10 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
             event.setFlowVariable(MULE_ARRIVAL_ORDER_PROPERTY, ++arrivalOrderCounter);
             lastStoredEventKey = key;
             eventsObjectStore.store(key, event, eventsPartitionKey);
+            if (eventCountInitialised)
+            {
+                eventCount++;
+            }
 
             if (!hasNoCommonRootId)
             {
@@ -290,6 +302,10 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
         synchronized (this)
         {
             eventsObjectStore.remove(event.getId(), eventsPartitionKey);
+            if (eventCountInitialised)
+            {
+                eventCount--;
+            }
         }
     }
 
@@ -314,7 +330,12 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
         {
             try
             {
-                return eventsObjectStore.allKeys(eventsPartitionKey).size();
+                if (!eventCountInitialised)
+                {
+                    eventCount = eventsObjectStore.allKeys(eventsPartitionKey).size();
+                    eventCountInitialised = true;
+                }
+                return eventCount;
             }
             catch (ObjectStoreException e)
             {
@@ -346,6 +367,8 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
         {
             eventsObjectStore.clear(eventsPartitionKey);
             eventsObjectStore.close(eventsPartitionKey);
+            eventCount = 0;
+            eventCountInitialised = true;
         }
     }
 
@@ -480,8 +503,15 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
 
     public void initEventsStore(PartitionableObjectStore<MuleEvent> events) throws ObjectStoreException
     {
-        this.eventsObjectStore = events;
-        events.open(eventsPartitionKey);
+        synchronized (this)
+        {
+            if (this.eventsObjectStore != events)
+            {
+                eventCountInitialised = false;
+            }
+            this.eventsObjectStore = events;
+            events.open(eventsPartitionKey);
+        }
     }
 
     /**
@@ -15,12 +15,15 @@ import org.mule.runtime.core.api.MuleEvent;
 import org.mule.runtime.core.api.MuleException;
 import org.mule.runtime.core.api.MuleMessage;
 import org.mule.runtime.core.api.NonBlockingSupported;
+import org.mule.runtime.core.api.config.ThreadingProfile;
+import org.mule.runtime.core.api.context.WorkManager;
 import org.mule.runtime.core.api.lifecycle.Initialisable;
 import org.mule.runtime.core.api.lifecycle.InitialisationException;
 import org.mule.runtime.core.api.processor.MessageProcessor;
 import org.mule.runtime.core.api.processor.MessageProcessorPathElement;
 import org.mule.runtime.core.api.routing.filter.Filter;
 import org.mule.runtime.core.api.transformer.TransformerException;
+import org.mule.runtime.core.config.ChainedThreadingProfile;
 import org.mule.runtime.core.expression.ExpressionConfig;
 import org.mule.runtime.core.processor.AbstractMessageProcessorOwner;
 import org.mule.runtime.core.processor.chain.DefaultMessageProcessorChainBuilder;
@@ -28,6 +31,7 @@ import org.mule.runtime.core.routing.outbound.AbstractMessageSequenceSplitter;
 import org.mule.runtime.core.routing.outbound.CollectionMessageSequence;
 import org.mule.runtime.core.transformer.types.DataTypeFactory;
 import org.mule.runtime.core.util.NotificationUtils;
+import org.mule.runtime.core.util.concurrent.ThreadNameHelper;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -49,6 +53,11 @@ import org.w3c.dom.Document;
  * <p/>
  * Defining a groupSize greater than one, allows iterating over collections of elements of the specified size.
  * <p/>
+ * Defining a maxConcurrency greater than one, allows processing up to that number of elements at the same time in
+ * a dedicated pool of threads. Elements are taken from the collection as threads become available, so iterators are
+ * consumed lazily. Each element gets its own copy of the flow variables in this mode, so variables set while
+ * processing an element are not visible outside of it.
+ * <p/>
  * The {@link MuleEvent} sent to the next message processor is the same that arrived to foreach.
  */
 public class Foreach extends AbstractMessageProcessorOwner implements Initialisable, MessageProcessor, NonBlockingSupported
@@ -71,6 +80,9 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
     private String counterVariableName;
     private boolean xpathCollection;
     private volatile boolean messageProcessorInitialized;
+    private int maxConcurrency;
+    private boolean preserveOrder = true;
+    private WorkManager workManager;
 
     @Override
     public MuleEvent process(MuleEvent event) throws MuleException
@@ -211,6 +223,13 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
         splitter.setBatchSize(batchSize);
         splitter.setCounterVariableName(counterVariableName);
         splitter.setMuleContext(muleContext);
+        if (maxConcurrency > 1)
+        {
+            workManager = createWorkManager();
+            splitter.setWorkManager(workManager);
+            splitter.setMaxConcurrency(maxConcurrency);
+            splitter.setPreserveOrder(preserveOrder);
+        }
         messageProcessors.add(0, splitter);
         filter = new MessageFilter(new Filter()
         {
@@ -236,6 +255,49 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
         super.initialise();
     }
 
+    private WorkManager createWorkManager()
+    {
+        ChainedThreadingProfile threadingProfile = new ChainedThreadingProfile(muleContext.getDefaultThreadingProfile());
+        threadingProfile.setMuleContext(muleContext);
+        threadingProfile.setDoThreading(true);
+        threadingProfile.setMaxThreadsActive(maxConcurrency);
+        threadingProfile.setMaxThreadsIdle(maxConcurrency);
+        threadingProfile.setMaxBufferSize(maxConcurrency);
+        threadingProfile.setPoolExhaustedAction(ThreadingProfile.WHEN_EXHAUSTED_WAIT);
+        return threadingProfile.createWorkManager(ThreadNameHelper.getPrefix(muleContext) + "ForeachWorkManager",
+                                                  muleContext.getConfiguration().getShutdownTimeout());
+    }
+
+    @Override
+    public void start() throws MuleException
+    {
+        if (workManager != null)
+        {
+            workManager.start();
+        }
+        super.start();
+    }
+
+    @Override
+    public void dispose()
+    {
+        try
+        {
+            if (workManager != null)
+            {
+                workManager.dispose();
+            }
+        }
+        catch (Exception e)
+        {
+            logger.error("Exception found while trying to dispose work manager. Will continue with the disposal", e);
+        }
+        finally
+        {
+            super.dispose();
+        }
+    }
+
     private boolean isXPathExpression(String expression)
     {
         return expression.matches("^xpath\\(.+\\)$") ||
@@ -262,6 +324,23 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
         this.counterVariableName = counterVariableName;
     }
 
+    /**
+     * Maximum number of elements processed at the same time. Elements are processed sequentially unless it's greater
+     * than one.
+     */
+    public void setMaxConcurrency(int maxConcurrency)
+    {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Whether elements processed concurrently keep their order when the results are collected. True by default.
+     */
+    public void setPreserveOrder(boolean preserveOrder)
+    {
+        this.preserveOrder = preserveOrder;
+    }
+
     private static class CollectionMapSplitter extends CollectionSplitter
     {
 
@@ -24,6 +24,7 @@ import org.mule.runtime.core.api.store.ObjectStoreManager;
 import org.mule.runtime.core.api.store.ObjectStoreNotAvaliableException;
 import org.mule.runtime.core.processor.AbstractFilteringMessageProcessor;
 import org.mule.runtime.core.util.concurrent.ThreadNameHelper;
+import org.mule.runtime.core.util.store.BloomFilterObjectStore;
 
 import java.text.MessageFormat;
 
@@ -36,6 +37,11 @@ import org.slf4j.LoggerFactory;
  * underlying endpoint must support unique message IDs for this to work, otherwise a
  * <code>UniqueIdNotSupportedException</code> is thrown.<br>
  * <p>
+ * In high throughput mode, the store is wrapped in a {@link BloomFilterObjectStore}, so that new ids are accepted
+ * without looking them up in the store, and are written to it in batches every <code>persistInterval</code>
+ * milliseconds. Ids are remembered for at least <code>expirationWindow</code> milliseconds, which has to be longer
+ * than the time entries live in the store.
+ * <p>
  * <b>EIP Reference:</b> <a
  * href="http://www.eaipatterns.com/IdempotentReceiver.html">
  * http://www.eaipatterns.com/IdempotentReceiver.html</a>
@@ -44,9 +50,16 @@ public class IdempotentMessageFilter extends AbstractFilteringMessageProcessor i
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(IdempotentMessageFilter.class);
 
+    private static final int DEFAULT_ENTRY_TTL = 60 * 5 * 1000;
+    private static final int DEFAULT_EXPIRATION_INTERVAL = 6000;
+    private static final long DEFAULT_PERSIST_INTERVAL = 1000;
+
     protected volatile ObjectStore<String> store;
     protected FlowConstruct flowConstruct;
     protected String storePrefix;
+    protected boolean highThroughput;
+    protected long expirationWindow = DEFAULT_ENTRY_TTL;
+    protected long persistInterval = DEFAULT_PERSIST_INTERVAL;
 
     protected String idExpression = MessageFormat.format("{0}message:id{1}",
         ExpressionManager.DEFAULT_EXPRESSION_PREFIX, ExpressionManager.DEFAULT_EXPRESSION_POSTFIX);
@@ -71,6 +84,10 @@ public class IdempotentMessageFilter extends AbstractFilteringMessageProcessor i
         {
             this.store = createMessageIdStore();
         }
+        if (highThroughput && !(store instanceof BloomFilterObjectStore))
+        {
+            this.store = new BloomFilterObjectStore<>(store, storePrefix, expirationWindow, persistInterval);
+        }
 
         LifecycleUtils.initialiseIfNeeded(store);
     }
@@ -84,7 +101,7 @@ public class IdempotentMessageFilter extends AbstractFilteringMessageProcessor i
     protected ObjectStore<String> createMessageIdStore() throws InitialisationException
     {
         ObjectStoreManager objectStoreManager = muleContext.getRegistry().get(MuleProperties.OBJECT_STORE_MANAGER);
-        return objectStoreManager.getObjectStore(storePrefix, false, -1,  60 * 5 * 1000, 6000 );
+        return objectStoreManager.getObjectStore(storePrefix, false, -1, DEFAULT_ENTRY_TTL, DEFAULT_EXPIRATION_INTERVAL);
     }
 
     @Override
@@ -223,4 +240,24 @@ public class IdempotentMessageFilter extends AbstractFilteringMessageProcessor i
     {
         this.storePrefix = storePrefix;
     }
+
+    public boolean isHighThroughput()
+    {
+        return highThroughput;
+    }
+
+    public void setHighThroughput(boolean highThroughput)
+    {
+        this.highThroughput = highThroughput;
+    }
+
+    public void setExpirationWindow(long expirationWindow)
+    {
+        this.expirationWindow = expirationWindow;
+    }
+
+    public void setPersistInterval(long persistInterval)
+    {
+        this.persistInterval = persistInterval;
+    }
 }
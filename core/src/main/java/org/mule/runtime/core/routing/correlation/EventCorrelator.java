@@ -33,17 +33,29 @@ import org.mule.runtime.core.util.StringMessageUtils;
 import org.mule.runtime.core.util.concurrent.ThreadNameHelper;
 import org.mule.runtime.core.util.monitor.Expirable;
 import org.mule.runtime.core.util.monitor.ExpiryMonitor;
+import org.mule.runtime.core.util.monitor.TimingWheel;
 import org.mule.runtime.core.util.store.DeserializationPostInitialisable;
 
 import java.io.Serializable;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Correlates the events of each group until the {@link EventCorrelatorCallback} decides the group is complete.
+ * <p/>
+ * Groups are processed concurrently, serializing only the events of groups whose correlation id falls in the same
+ * lock stripe. The expiration of groups is tracked with a {@link TimingWheel} so only the groups that are due are
+ * checked on each run of the expiry thread. Groups not created by this correlator, for instance the ones recovered
+ * from a persistent store or created by other cluster nodes, are picked up by a full scan of the store which runs
+ * when the expiry thread starts and then every {@link #GROUP_SCAN_INTERVAL} milliseconds.
+ */
 public class EventCorrelator implements Startable, Stoppable, Disposable
 {
 
@@ -56,11 +68,23 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
 
     private static final long ONE_DAY_IN_MILLI = 1000 * 60 * 60 * 24;
 
+    /**
+     * Number of locks used to serialize the processing of the events of a group. Must be a power of two.
+     */
+    private static final int LOCK_STRIPES = 256;
+
+    private static final int EXPIRY_WHEEL_SIZE = 1024;
+
+    /**
+     * Interval in milliseconds between full scans of the event groups in the store
+     */
+    public static final long GROUP_SCAN_INTERVAL = 1000 * 60;
+
     protected long groupTimeToLive = ONE_DAY_IN_MILLI;
 
-    protected final Object groupsLock = new Object();
+    private final Object[] groupLocks = new Object[LOCK_STRIPES];
 
-    // @GuardedBy groupsLock
+    // @GuardedBy the lock of each group id
     protected ObjectStore<Long> processedGroups = null;
 
     private long timeout = -1; // undefined
@@ -83,6 +107,8 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
     private String storePrefix;
 
     private EventCorrelator.ExpiringGroupMonitoringThread expiringGroupMonitoringThread;
+    private final TimingWheel<Serializable> expiryWheel;
+    private final ConcurrentMap<Serializable, TimingWheel.Timeout<Serializable>> scheduledExpirations = new ConcurrentHashMap<>();
     private final String name;
 
     private final FlowConstruct flowConstruct;
@@ -120,6 +146,23 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
         this.correlatorStore = correlatorStore;
         this.storePrefix = storePrefix;
         this.processedGroups = processedGroups;
+
+        for (int i = 0; i < groupLocks.length; i++)
+        {
+            groupLocks[i] = new Object();
+        }
+        expiryWheel = new TimingWheel<>(ExpiringGroupMonitoringThread.DELAY_TIME, EXPIRY_WHEEL_SIZE, System.currentTimeMillis());
+    }
+
+    /**
+     * @param groupId a correlation id
+     * @return the lock that serializes the processing of the group with the given id
+     */
+    protected Object getGroupLock(Object groupId)
+    {
+        int hash = groupId.hashCode();
+        hash ^= (hash >>> 16);
+        return groupLocks[hash & (LOCK_STRIPES - 1)];
     }
 
     public void forceGroupExpiry(String groupId) throws MessagingException
@@ -166,8 +209,8 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
             throw new RoutingException(CoreMessages.noCorrelationId(), event, timeoutMessageProcessor);
         }
 
-        // spinloop for the EventGroup lookup
-        while (true)
+        // ensure that only one thread at a time evaluates this EventGroup
+        synchronized (getGroupLock(groupId))
         {
             try
             {
@@ -211,6 +254,7 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
                     EventGroup eventGroup = callback.createEventGroup(event, groupId);
                     eventGroup.initEventsStore(correlatorStore);
                     group = this.addEventGroup(eventGroup);
+                    scheduleGroupExpiry(group);
                 }
                 catch (ObjectStoreException e)
                 {
@@ -218,58 +262,54 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
                 }
             }
 
-            // ensure that only one thread at a time evaluates this EventGroup
-            synchronized (groupsLock)
+            if (logger.isDebugEnabled())
             {
-                if (logger.isDebugEnabled())
-                {
-                    logger.debug("Adding event to aggregator group: " + groupId);
-                }
+                logger.debug("Adding event to aggregator group: " + groupId);
+            }
+
+            // add the incoming event to the group
+            try
+            {
+                group.addEvent(event);
+            }
+            catch (ObjectStoreException e)
+            {
+                throw new RoutingException(event, timeoutMessageProcessor, e);
+            }
+
+            // check to see if the event group is ready to be aggregated
+            if (callback.shouldAggregateEvents(group))
+            {
+                // create the response event
+                MuleEvent returnEvent = callback.aggregateEvents(group);
+                EventGroup finalGroup = group;
+                returnEvent.setMessage(returnEvent.getMessage().transform(msg -> {
+                    msg.setCorrelationId(groupId);
+                    String rootId = finalGroup.getCommonRootId();
+                    if (rootId != null)
+                    {
+                        msg.setMessageRootId(rootId);
+                    }
+                    return msg;
+                }));
 
-                // add the incoming event to the group
+                // remove the eventGroup as no further message will be received
+                // for this group once we aggregate
                 try
                 {
-                    group.addEvent(event);
+                    this.removeEventGroup(group);
+                    group.clear();
                 }
                 catch (ObjectStoreException e)
                 {
                     throw new RoutingException(event, timeoutMessageProcessor, e);
                 }
 
-                // check to see if the event group is ready to be aggregated
-                if (callback.shouldAggregateEvents(group))
-                {
-                    // create the response event
-                    MuleEvent returnEvent = callback.aggregateEvents(group);
-                    EventGroup finalGroup = group;
-                    returnEvent.setMessage(returnEvent.getMessage().transform(msg -> {
-                        msg.setCorrelationId(groupId);
-                        String rootId = finalGroup.getCommonRootId();
-                        if (rootId != null)
-                        {
-                            msg.setMessageRootId(rootId);
-                        }
-                        return msg;
-                    }));
-
-                    // remove the eventGroup as no further message will be received
-                    // for this group once we aggregate
-                    try
-                    {
-                        this.removeEventGroup(group);
-                        group.clear();
-                    }
-                    catch (ObjectStoreException e)
-                    {
-                        throw new RoutingException(event, timeoutMessageProcessor, e);
-                    }
-
-                    return returnEvent;
-                }
-                else
-                {
-                    return null;
-                }
+                return returnEvent;
+            }
+            else
+            {
+                return null;
             }
         }
     }
@@ -315,7 +355,7 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
     protected void removeEventGroup(EventGroup group) throws ObjectStoreException
     {
         final Object groupId = group.getGroupId();
-        synchronized (groupsLock)
+        synchronized (getGroupLock(groupId))
         {
             if (!isGroupAlreadyProcessed(groupId))
             {
@@ -323,11 +363,12 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
                 addProcessedGroup(groupId);
             }
         }
+        cancelGroupExpiry(groupId);
     }
 
     protected void addProcessedGroup(Object id) throws ObjectStoreException
     {
-        synchronized (groupsLock)
+        synchronized (getGroupLock(id))
         {
             processedGroups.store((Serializable) id, System.currentTimeMillis());
         }
@@ -335,12 +376,34 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
 
     protected boolean isGroupAlreadyProcessed(Object id) throws ObjectStoreException
     {
-        synchronized (groupsLock)
+        synchronized (getGroupLock(id))
         {
             return processedGroups.contains((Serializable) id);
         }
     }
 
+    /**
+     * Tracks the expiration of a group, unless it is already tracked.
+     */
+    private void scheduleGroupExpiry(EventGroup group)
+    {
+        if (timeout == 0)
+        {
+            return;
+        }
+        scheduledExpirations.computeIfAbsent((Serializable) group.getGroupId(),
+                                             id -> expiryWheel.schedule(id, group.getCreated() + getTimeout()));
+    }
+
+    private void cancelGroupExpiry(Object groupId)
+    {
+        TimingWheel.Timeout<Serializable> expiration = scheduledExpirations.remove(groupId);
+        if (expiration != null)
+        {
+            expiryWheel.cancel(expiration);
+        }
+    }
+
     public boolean isFailOnTimeout()
     {
         return failOnTimeout;
@@ -469,6 +532,7 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
     {
 
         private ExpiryMonitor expiryMonitor;
+        private long nextGroupScan = 0;
         public static final long DELAY_TIME = 10;
 
         public ExpiringGroupMonitoringThread()
@@ -518,22 +582,37 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
                 return;
             }
 
+            long now = System.currentTimeMillis();
+            if (now >= nextGroupScan)
+            {
+                scheduleStoredGroups();
+                nextGroupScan = now + GROUP_SCAN_INTERVAL;
+            }
+
             List<EventGroup> expired = new ArrayList<EventGroup>(1);
-            try
+            for (Serializable groupId : expiryWheel.expire(now))
             {
-                for (Serializable o : (List<Serializable>) correlatorStore.allKeys(getEventGroupsPartitionKey()))
+                scheduledExpirations.remove(groupId);
+                try
                 {
-                    EventGroup group = getEventGroup(o);
-                    // group may have been removed by another thread right after eventGroups.allKeys()
-                    if (group != null && group.getCreated() + getTimeout() < System.currentTimeMillis())
+                    EventGroup group = getEventGroup(groupId);
+                    // group may have been removed by another thread after it expired
+                    if (group != null)
                     {
-                        expired.add(group);
+                        if (group.getCreated() + getTimeout() < now)
+                        {
+                            expired.add(group);
+                        }
+                        else
+                        {
+                            scheduleGroupExpiry(group);
+                        }
                     }
                 }
-            }
-            catch (ObjectStoreException e)
-            {
-                logger.warn("expiry failed dues to ObjectStoreException " + e);
+                catch (ObjectStoreException e)
+                {
+                    logger.warn("expiry failed dues to ObjectStoreException " + e);
+                }
             }
             for (final EventGroup group : expired)
             {
@@ -561,6 +640,32 @@ public class EventCorrelator implements Startable, Stoppable, Disposable
             }
         }
 
+        /**
+         * Tracks the expiration of the groups present in the store. Groups already tracked are ignored.
+         */
+        private void scheduleStoredGroups()
+        {
+            try
+            {
+                for (Serializable o : (List<Serializable>) correlatorStore.allKeys(getEventGroupsPartitionKey()))
+                {
+                    if (!scheduledExpirations.containsKey(o))
+                    {
+                        EventGroup group = getEventGroup(o);
+                        // group may have been removed by another thread right after eventGroups.allKeys()
+                        if (group != null)
+                        {
+                            scheduleGroupExpiry(group);
+                        }
+                    }
+                }
+            }
+            catch (ObjectStoreException e)
+            {
+                logger.warn("expiry failed dues to ObjectStoreException " + e);
+            }
+        }
+
         @Override
         public void dispose()
         {
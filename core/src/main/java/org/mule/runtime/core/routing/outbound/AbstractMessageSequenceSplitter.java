@@ -10,21 +10,33 @@ import org.mule.runtime.core.DefaultMuleEvent;
 import org.mule.runtime.core.DefaultMuleMessage;
 import org.mule.runtime.core.RequestContext;
 import org.mule.runtime.core.VoidMuleEvent;
+import org.mule.runtime.core.api.DefaultMuleException;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.MuleEvent;
 import org.mule.runtime.core.api.MuleException;
 import org.mule.runtime.core.api.MuleMessage;
 import org.mule.runtime.core.api.context.MuleContextAware;
+import org.mule.runtime.core.api.context.WorkManager;
 import org.mule.runtime.core.api.routing.MessageInfoMapping;
 import org.mule.runtime.core.api.routing.RouterResultsHandler;
+import org.mule.runtime.core.config.i18n.MessageFactory;
 import org.mule.runtime.core.processor.AbstractInterceptingMessageProcessor;
 import org.mule.runtime.core.routing.AbstractSplitter;
 import org.mule.runtime.core.routing.CorrelationMode;
 import org.mule.runtime.core.routing.DefaultRouterResultsHandler;
 import org.mule.runtime.core.routing.MessageSequence;
+import org.mule.runtime.core.work.AbstractMuleEventWork;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.resource.spi.work.WorkException;
 
 /**
  * Base implementation of a {@link MuleMessage} splitter, that converts its payload 
@@ -48,6 +60,9 @@ public abstract class AbstractMessageSequenceSplitter extends AbstractIntercepti
     protected MessageInfoMapping messageInfoMapping;
     protected int batchSize;
     protected String counterVariableName;
+    protected WorkManager workManager;
+    protected int maxConcurrency;
+    protected boolean preserveOrder = true;
 
     @Override
     public final MuleEvent process(MuleEvent event) throws MuleException
@@ -109,6 +124,10 @@ public abstract class AbstractMessageSequenceSplitter extends AbstractIntercepti
             messageSequence = new PartitionedMessageSequence(seq, batchSize);
         }
         int count = messageSequence.size();
+        if (workManager != null && maxConcurrency > 1)
+        {
+            return processPartsConcurrently(messageSequence, originalEvent, correlationId, count);
+        }
         for (; messageSequence.hasNext();)
         {
             MuleEvent event = createEvent(messageSequence.next(), originalEvent);
@@ -119,26 +138,7 @@ public abstract class AbstractMessageSequenceSplitter extends AbstractIntercepti
                 originalEvent.setFlowVariable(counterVariableName, correlationSequence);
             }
 
-            int finalCorrelationSequence = correlationSequence;
-            event.setMessage(event.getMessage().transform(msg -> {
-                if (enableCorrelation != CorrelationMode.NEVER)
-                {
-                    boolean correlationSet = event.getMessage().getCorrelationId() != null;
-                    if ((!correlationSet && (enableCorrelation == CorrelationMode.IF_NOT_SET))
-                        || (enableCorrelation == CorrelationMode.ALWAYS))
-                    {
-                        msg.setCorrelationId(correlationId);
-                    }
-
-                    // take correlation group size from the message properties, set by
-                    // concrete
-                    // message splitter implementations
-                    msg.setCorrelationGroupSize(count);
-                    msg.setCorrelationSequence(finalCorrelationSequence);
-                }
-                msg.propagateRootId(originalEvent.getMessage());
-                return msg;
-            }));
+            correlate(event, originalEvent, correlationId, count, correlationSequence);
 
             MuleEvent resultEvent = processNext(RequestContext.setEvent(event));
             if (resultEvent != null && !VoidMuleEvent.getInstance().equals(resultEvent))
@@ -153,6 +153,108 @@ public abstract class AbstractMessageSequenceSplitter extends AbstractIntercepti
         return resultEvents;
     }
 
+    /**
+     * Processes up to {@link #maxConcurrency} parts at the same time using the {@link #workManager}. Elements are
+     * only taken from the sequence when there is room for processing them, so the sequence is consumed lazily.
+     * <p/>
+     * Each part gets its own copy of the flow variables of the original event, and is processed synchronously. If
+     * any of the parts fails, no more parts are processed and the first exception is thrown once the ones in
+     * progress finish.
+     */
+    private List<MuleEvent> processPartsConcurrently(MessageSequence<?> messageSequence, MuleEvent originalEvent,
+                                                     String correlationId, int count) throws MuleException
+    {
+        ConcurrentPartsResults results = new ConcurrentPartsResults(preserveOrder);
+        Semaphore permits = new Semaphore(maxConcurrency);
+        int correlationSequence = 0;
+        try
+        {
+            try
+            {
+                while (results.getException() == null && messageSequence.hasNext())
+                {
+                    permits.acquire();
+                    // once scheduled, the work releases the permit
+                    boolean scheduled = false;
+                    try
+                    {
+                        if (results.getException() != null)
+                        {
+                            break;
+                        }
+
+                        MuleEvent event = createIndependentEvent(messageSequence.next(), originalEvent);
+                        correlationSequence++;
+                        if (counterVariableName != null)
+                        {
+                            event.setFlowVariable(counterVariableName, correlationSequence);
+                        }
+                        correlate(event, originalEvent, correlationId, count, correlationSequence);
+
+                        workManager.scheduleWork(new ProcessPartWork(event, correlationSequence, results, permits));
+                        scheduled = true;
+                    }
+                    catch (WorkException e)
+                    {
+                        throw new DefaultMuleException(MessageFactory.createStaticMessage(String.format(
+                                "Could not schedule work for part %d", correlationSequence)), e);
+                    }
+                    finally
+                    {
+                        if (!scheduled)
+                        {
+                            permits.release();
+                        }
+                    }
+                }
+            }
+            finally
+            {
+                // waits for the parts in progress
+                permits.acquire(maxConcurrency);
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new DefaultMuleException(MessageFactory.createStaticMessage(String.format(
+                    "Was interrupted while processing part %d", correlationSequence)), e);
+        }
+
+        if (results.getException() instanceof MuleException)
+        {
+            throw (MuleException) results.getException();
+        }
+        else if (results.getException() != null)
+        {
+            throw (RuntimeException) results.getException();
+        }
+        return results.getEvents();
+    }
+
+    private void correlate(MuleEvent event, MuleEvent originalEvent, String correlationId, int count, int correlationSequence)
+    {
+        event.setMessage(event.getMessage().transform(msg -> {
+            if (enableCorrelation != CorrelationMode.NEVER)
+            {
+                boolean correlationSet = event.getMessage().getCorrelationId() != null;
+                if ((!correlationSet && (enableCorrelation == CorrelationMode.IF_NOT_SET))
+                    || (enableCorrelation == CorrelationMode.ALWAYS))
+                {
+                    msg.setCorrelationId(correlationId);
+                }
+
+                // take correlation group size from the message properties, set by
+                // concrete
+                // message splitter implementations
+                msg.setCorrelationGroupSize(count);
+                msg.setCorrelationSequence(correlationSequence);
+            }
+            msg.propagateRootId(originalEvent.getMessage());
+            return msg;
+        }));
+    }
+
     private MuleEvent createEvent(Object payload, MuleEvent originalEvent)
     {
         if (payload instanceof MuleEvent)
@@ -170,6 +272,25 @@ public abstract class AbstractMessageSequenceSplitter extends AbstractIntercepti
         }
     }
 
+    private MuleEvent createIndependentEvent(Object payload, MuleEvent originalEvent)
+    {
+        MuleMessage message;
+        if (payload instanceof MuleEvent)
+        {
+            message = ((MuleEvent) payload).getMessage();
+        }
+        else if (payload instanceof MuleMessage)
+        {
+            message = (MuleMessage) payload;
+        }
+        else
+        {
+            message = new DefaultMuleMessage(payload, originalEvent.getMessage(), muleContext);
+        }
+        // parts don't share flow variables, as they are processed at the same time, and can't go non blocking
+        return new DefaultMuleEvent(message, originalEvent, true, false, originalEvent.getExchangePattern(), null);
+    }
+
     public void setEnableCorrelation(CorrelationMode enableCorrelation)
     {
         this.enableCorrelation = enableCorrelation;
@@ -198,4 +319,115 @@ public abstract class AbstractMessageSequenceSplitter extends AbstractIntercepti
     {
         this.counterVariableName = counterVariableName;
     }
+
+    /**
+     * The {@link WorkManager} used to process the parts concurrently when {@link #setMaxConcurrency(int)} is greater
+     * than one. Its lifecycle is managed by the owner of this splitter.
+     */
+    public void setWorkManager(WorkManager workManager)
+    {
+        this.workManager = workManager;
+    }
+
+    /**
+     * The maximum number of parts processed at the same time. Values lower than two process the parts sequentially
+     * in the calling thread.
+     */
+    public void setMaxConcurrency(int maxConcurrency)
+    {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Whether the results of parts processed concurrently are returned in the same order as the parts, or in the order
+     * they were completed.
+     */
+    public void setPreserveOrder(boolean preserveOrder)
+    {
+        this.preserveOrder = preserveOrder;
+    }
+
+    private class ProcessPartWork extends AbstractMuleEventWork
+    {
+
+        private final int sequence;
+        private final ConcurrentPartsResults results;
+        private final Semaphore permits;
+
+        ProcessPartWork(MuleEvent event, int sequence, ConcurrentPartsResults results, Semaphore permits)
+        {
+            super(event, false);
+            this.sequence = sequence;
+            this.results = results;
+            this.permits = permits;
+        }
+
+        @Override
+        protected void doRun()
+        {
+            try
+            {
+                if (results.getException() == null)
+                {
+                    results.add(sequence, processNext(event));
+                }
+            }
+            catch (MuleException | RuntimeException e)
+            {
+                results.fail(e);
+            }
+            finally
+            {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Collects the results of the parts processed concurrently, and the first exception found processing them.
+     */
+    private static class ConcurrentPartsResults
+    {
+
+        private final Map<Integer, MuleEvent> orderedEvents;
+        private final Queue<MuleEvent> events;
+        private final AtomicReference<Exception> exception = new AtomicReference<>();
+
+        ConcurrentPartsResults(boolean preserveOrder)
+        {
+            orderedEvents = preserveOrder ? new ConcurrentSkipListMap<>() : null;
+            events = preserveOrder ? null : new ConcurrentLinkedQueue<>();
+        }
+
+        void add(int sequence, MuleEvent event)
+        {
+            if (event == null || VoidMuleEvent.getInstance().equals(event))
+            {
+                return;
+            }
+            if (orderedEvents != null)
+            {
+                orderedEvents.put(sequence, event);
+            }
+            else
+            {
+                events.add(event);
+            }
+        }
+
+        void fail(Exception e)
+        {
+            exception.compareAndSet(null, e);
+        }
+
+        Exception getException()
+        {
+            return exception.get();
+        }
+
+        List<MuleEvent> getEvents()
+        {
+            return new ArrayList<>(orderedEvents != null ? orderedEvents.values() : events);
+        }
+    }
 }
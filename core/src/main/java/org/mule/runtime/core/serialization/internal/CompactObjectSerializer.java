@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.serialization.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import org.mule.runtime.api.metadata.SimpleDataType;
+import org.mule.runtime.core.DefaultMuleEvent;
+import org.mule.runtime.core.DefaultMuleMessage;
+import org.mule.runtime.core.MessageExchangePattern;
+import org.mule.runtime.core.MessagePropertiesContext;
+import org.mule.runtime.core.api.serialization.SerializationException;
+import org.mule.runtime.core.context.notification.DefaultFlowCallStack;
+import org.mule.runtime.core.context.notification.DefaultProcessorsTrace;
+import org.mule.runtime.core.management.stats.ProcessingTime;
+import org.mule.runtime.core.message.DefaultExceptionPayload;
+import org.mule.runtime.core.session.DefaultMuleSession;
+import org.mule.runtime.core.transformer.types.CollectionDataType;
+import org.mule.runtime.core.transformer.types.ListDataType;
+import org.mule.runtime.core.transformer.types.SetDataType;
+import org.mule.runtime.core.transformer.types.TypedValue;
+import org.mule.runtime.core.util.CaseInsensitiveHashMap;
+import org.mule.runtime.core.util.IOUtils;
+import org.mule.runtime.core.util.PersistentCaseInsensitiveMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation of {@link org.mule.runtime.core.api.serialization.ObjectSerializer} that produces a compact binary
+ * representation of {@link Serializable} objects, including {@link DefaultMuleEvent}, {@link DefaultMuleMessage},
+ * {@link TypedValue} and data types.
+ * <p/>
+ * It relies on the serialization hooks of the objects, same as {@link JavaObjectSerializer}, but replaces the class
+ * descriptors of the java format, which hold the names and types of all the fields of each class, with a numeric id
+ * for registered classes, or the class name otherwise. A few types like {@link String} and {@code byte[]} are
+ * written without any object stream at all, and each thread reuses its buffer and output stream between invocations.
+ * <p/>
+ * Classes are assumed to be the same ones on both ends, so the output is meant to be read by the same version of
+ * the application. Additional classes can be registered with {@link #setRegisteredClasses(List)}, which must be the
+ * same ones, in the same order, for the serializer that reads the output.
+ */
+public class CompactObjectSerializer extends AbstractObjectSerializer
+{
+
+    /**
+     * Classes registered by default. New classes can only be appended at the end, to keep the ids of the others.
+     */
+    static final List<Class<?>> DEFAULT_REGISTERED_CLASSES = Collections.unmodifiableList(Arrays.<Class<?>>asList(
+            Object[].class, String[].class, byte[].class, int[].class, long[].class,
+            Number.class, Enum.class, Boolean.class, Byte.class, Character.class, Short.class, Integer.class,
+            Long.class, Float.class, Double.class, BigDecimal.class, BigInteger.class, Date.class,
+            ArrayList.class, LinkedList.class, HashMap.class, LinkedHashMap.class, TreeMap.class,
+            ConcurrentHashMap.class, HashSet.class, LinkedHashSet.class, TreeSet.class,
+            DefaultMuleEvent.class, DefaultMuleMessage.class, DefaultMuleSession.class, MessagePropertiesContext.class,
+            MessageExchangePattern.class, DefaultExceptionPayload.class, TypedValue.class, SimpleDataType.class,
+            CollectionDataType.class, ListDataType.class, SetDataType.class, PersistentCaseInsensitiveMap.class,
+            CaseInsensitiveHashMap.class, DefaultFlowCallStack.class, DefaultProcessorsTrace.class,
+            ProcessingTime.class));
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte BYTE_ARRAY = 2;
+    private static final byte OBJECT = 3;
+
+    private static final byte REGISTERED_CLASS = 0;
+    private static final byte NAMED_CLASS = 1;
+
+    private static final int INITIAL_BUFFER_SIZE = 512;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 256 * 1024;
+
+    private static final Map<String, Class<?>> PRIMITIVE_TYPES = new HashMap<>();
+
+    static
+    {
+        for (Class<?> type : new Class<?>[] {boolean.class, byte.class, char.class, short.class, int.class,
+                long.class, float.class, double.class, void.class})
+        {
+            PRIMITIVE_TYPES.put(type.getName(), type);
+        }
+    }
+
+    private volatile List<Class<?>> registeredClasses = DEFAULT_REGISTERED_CLASSES;
+    private volatile Map<Class<?>, Integer> registeredClassIds = indexClasses(DEFAULT_REGISTERED_CLASSES);
+    private final ThreadLocal<SerializationBuffer> buffers = new ThreadLocal<>();
+
+    /**
+     * Registers classes in addition to the default ones, so that they are written as a numeric id.
+     *
+     * @param classes classes to register, in the same order in all the serializers that share serialized objects
+     */
+    public void setRegisteredClasses(List<Class<?>> classes)
+    {
+        List<Class<?>> allClasses = new ArrayList<>(DEFAULT_REGISTERED_CLASSES);
+        for (Class<?> type : classes)
+        {
+            if (!allClasses.contains(type))
+            {
+                allClasses.add(type);
+            }
+        }
+        registeredClassIds = indexClasses(allClasses);
+        registeredClasses = Collections.unmodifiableList(allClasses);
+    }
+
+    private static Map<Class<?>, Integer> indexClasses(List<Class<?>> classes)
+    {
+        Map<Class<?>, Integer> ids = new HashMap<>(classes.size() * 2);
+        for (int i = 0; i < classes.size(); i++)
+        {
+            ids.put(classes.get(i), i);
+        }
+        return ids;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected byte[] doSerialize(Object object) throws Exception
+    {
+        if (object == null)
+        {
+            return new byte[] {NULL};
+        }
+        else if (object instanceof String)
+        {
+            return prepend(STRING, ((String) object).getBytes(UTF_8));
+        }
+        else if (object instanceof byte[])
+        {
+            return prepend(BYTE_ARRAY, (byte[]) object);
+        }
+        else if (!(object instanceof Serializable))
+        {
+            throw new SerializationException(String.format(
+                    "Was expecting a Serializable type. %s was found instead", object.getClass().getName()));
+        }
+
+        SerializationBuffer buffer = buffers.get();
+        if (buffer == null)
+        {
+            buffer = new SerializationBuffer();
+            buffers.set(buffer);
+        }
+        else if (buffer.inUse)
+        {
+            // serializing from within the serialization of another object
+            buffer = new SerializationBuffer();
+        }
+        return buffer.write(object);
+    }
+
+    private static byte[] prepend(byte tag, byte[] bytes)
+    {
+        byte[] result = new byte[bytes.length + 1];
+        result[0] = tag;
+        System.arraycopy(bytes, 0, result, 1, bytes.length);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected <T> T doDeserialize(InputStream inputStream, ClassLoader classLoader) throws Exception
+    {
+        int tag = inputStream.read();
+        switch (tag)
+        {
+            case NULL:
+                return null;
+            case STRING:
+                return (T) new String(IOUtils.toByteArray(inputStream), UTF_8);
+            case BYTE_ARRAY:
+                return (T) IOUtils.toByteArray(inputStream);
+            case OBJECT:
+                return (T) new CompactObjectInputStream(inputStream, classLoader).readObject();
+            default:
+                throw new SerializationException(String.format("Unknown serialization format %d", tag));
+        }
+    }
+
+    /**
+     * Output stream and buffer reused by a thread for serializing objects.
+     */
+    private class SerializationBuffer
+    {
+
+        private ExposedByteArrayOutputStream bytes = new ExposedByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        private CompactObjectOutputStream out;
+        private boolean inUse;
+
+        byte[] write(Object object) throws IOException
+        {
+            inUse = true;
+            boolean reusable = false;
+            try
+            {
+                bytes.reset();
+                bytes.write(OBJECT);
+                if (out == null)
+                {
+                    out = new CompactObjectOutputStream(bytes);
+                }
+                out.writeObject(object);
+                out.flush();
+                byte[] result = bytes.toByteArray();
+
+                // forgets the objects written, so they are written again next time
+                out.reset();
+                out.flush();
+                reusable = bytes.capacity() <= MAX_RETAINED_BUFFER_SIZE;
+                return result;
+            }
+            finally
+            {
+                if (!reusable)
+                {
+                    out = null;
+                    bytes = new ExposedByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+                }
+                inUse = false;
+            }
+        }
+    }
+
+    private static class ExposedByteArrayOutputStream extends ByteArrayOutputStream
+    {
+
+        ExposedByteArrayOutputStream(int size)
+        {
+            super(size);
+        }
+
+        int capacity()
+        {
+            return buf.length;
+        }
+    }
+
+    private class CompactObjectOutputStream extends ObjectOutputStream
+    {
+
+        private final Map<Class<?>, Integer> classIds = registeredClassIds;
+
+        CompactObjectOutputStream(OutputStream out) throws IOException
+        {
+            super(out);
+        }
+
+        @Override
+        protected void writeStreamHeader()
+        {
+            // each serialized object is read on its own, no need to identify the stream
+        }
+
+        @Override
+        protected void writeClassDescriptor(ObjectStreamClass desc) throws IOException
+        {
+            Integer id = classIds.get(desc.forClass());
+            if (id != null)
+            {
+                writeByte(REGISTERED_CLASS);
+                writeVarInt(id);
+            }
+            else
+            {
+                writeByte(NAMED_CLASS);
+                writeUTF(desc.getName());
+            }
+            writeLong(desc.getSerialVersionUID());
+        }
+
+        private void writeVarInt(int value) throws IOException
+        {
+            while ((value & ~0x7F) != 0)
+            {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+    }
+
+    private class CompactObjectInputStream extends ObjectInputStream
+    {
+
+        private final List<Class<?>> classes = registeredClasses;
+        private final ClassLoader classLoader;
+
+        CompactObjectInputStream(InputStream in, ClassLoader classLoader) throws IOException
+        {
+            super(in);
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected void readStreamHeader()
+        {
+            // no header is written
+        }
+
+        @Override
+        protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException
+        {
+            Class<?> type;
+            byte kind = readByte();
+            if (kind == REGISTERED_CLASS)
+            {
+                int id = readVarInt();
+                if (id >= classes.size())
+                {
+                    throw new InvalidClassException(String.format("Unknown registered class %d", id));
+                }
+                type = classes.get(id);
+            }
+            else
+            {
+                type = loadClass(readUTF());
+            }
+
+            long serialVersionUID = readLong();
+            ObjectStreamClass desc = ObjectStreamClass.lookupAny(type);
+            if (desc.getSerialVersionUID() != serialVersionUID)
+            {
+                throw new InvalidClassException(type.getName(), String.format(
+                        "serialized with serialVersionUID %d but local is %d", serialVersionUID, desc.getSerialVersionUID()));
+            }
+            return desc;
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException
+        {
+            // descriptors come from the local classes
+            return desc.forClass() != null ? desc.forClass() : loadClass(desc.getName());
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException
+        {
+            Class<?>[] interfaceClasses = new Class<?>[interfaces.length];
+            for (int i = 0; i < interfaces.length; i++)
+            {
+                interfaceClasses[i] = loadClass(interfaces[i]);
+            }
+            try
+            {
+                return Proxy.getProxyClass(classLoader, interfaceClasses);
+            }
+            catch (IllegalArgumentException e)
+            {
+                return super.resolveProxyClass(interfaces);
+            }
+        }
+
+        private Class<?> loadClass(String name) throws ClassNotFoundException
+        {
+            Class<?> primitive = PRIMITIVE_TYPES.get(name);
+            return primitive != null ? primitive : Class.forName(name, false, classLoader);
+        }
+
+        private int readVarInt() throws IOException
+        {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7)
+            {
+                int b = readUnsignedByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0)
+                {
+                    return value;
+                }
+            }
+            throw new InvalidClassException("Malformed registered class id");
+        }
+    }
+}
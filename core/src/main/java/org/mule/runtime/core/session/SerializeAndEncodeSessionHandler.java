@@ -12,9 +12,7 @@ import org.mule.runtime.core.api.MuleMessage;
 import org.mule.runtime.core.api.MuleSession;
 import org.mule.runtime.core.api.model.SessionException;
 import org.mule.runtime.core.config.i18n.MessageFactory;
-import org.mule.runtime.core.util.Base64;
-
-import java.io.IOException;
+import org.mule.runtime.core.util.StreamingBase64;
 
 /**
  * A session handler used to store and retrieve session information on an
@@ -33,11 +31,16 @@ public class SerializeAndEncodeSessionHandler extends SerializeOnlySessionHandle
         
         if (serializedEncodedSession != null)
         {
-            byte[] serializedSession = Base64.decodeWithoutUnzipping(serializedEncodedSession);
-            if (serializedSession != null)
+            byte[] serializedSession;
+            try
+            {
+                serializedSession = StreamingBase64.decode(serializedEncodedSession);
+            }
+            catch (IllegalArgumentException e)
             {
-                session = deserialize(message, serializedSession);
+                throw new SessionException(MessageFactory.createStaticMessage("Unable to decode MuleSession"), e);
             }
+            session = deserialize(message, serializedSession);
         }
         return session;
     }
@@ -48,16 +51,8 @@ public class SerializeAndEncodeSessionHandler extends SerializeOnlySessionHandle
         session = removeNonSerializableProperties(session, message.getMuleContext());
         byte[] serializedSession = serialize(message, session);
 
-        String serializedEncodedSession;
-        try
-        {
-            serializedEncodedSession = Base64.encodeBytes(serializedSession, Base64.DONT_BREAK_LINES);
-        }
-        catch (IOException e)
-        {
-            throw new SessionException(MessageFactory.createStaticMessage("Unable to serialize MuleSession"), e);
-        }
-        
+        String serializedEncodedSession = StreamingBase64.encodeToString(serializedSession);
+
         if (logger.isDebugEnabled())
         {
             logger.debug("Adding serialized and base64-encoded Session header to message: " + serializedEncodedSession);
@@ -12,8 +12,14 @@ import org.mule.runtime.core.transformer.AbstractTransformer;
 import org.mule.runtime.core.transformer.types.DataTypeFactory;
 import org.mule.runtime.core.util.Base64;
 import org.mule.runtime.core.util.IOUtils;
+import org.mule.runtime.core.util.StreamingBase64;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.GZIPInputStream;
 
 /**
  * <code>Base64Encoder</code> transforms Base64 encoded data into strings or byte
@@ -34,35 +40,51 @@ public class Base64Decoder extends AbstractTransformer
     {
         try
         {
-            String data;
+            Class<?> returnType = getReturnDataType().getType();
 
-            if (src instanceof byte[])
-            {
-                data = new String((byte[]) src, outputEncoding);
-            }
-            else if (src instanceof InputStream)
+            if (src instanceof InputStream)
             {
-                InputStream input = (InputStream) src;
+                InputStream input = unzipIfNecessary(StreamingBase64.decodingInputStream((InputStream) src));
+                if (InputStream.class.equals(returnType))
+                {
+                    // decoded as the result is read, the consumer closes the source
+                    return input;
+                }
                 try
                 {
-                    data = IOUtils.toString(input);
+                    ByteArrayOutputStream output = new ByteArrayOutputStream();
+                    IOUtils.copyLarge(input, output);
+                    if (String.class.equals(returnType))
+                    {
+                        return output.toString(outputEncoding);
+                    }
+                    return output.toByteArray();
                 }
                 finally
                 {
                     input.close();
                 }
             }
+
+            byte[] result;
+            if (src instanceof byte[])
+            {
+                result = StreamingBase64.decode((byte[]) src);
+            }
             else
             {
-                data = (String) src;
+                result = StreamingBase64.decode((String) src);
             }
+            result = unzipIfNecessary(result);
 
-            byte[] result = Base64.decode(data);
-
-            if (DataTypeFactory.STRING.equals(getReturnDataType()))
+            if (String.class.equals(returnType))
             {
                 return new String(result, outputEncoding);
             }
+            else if (InputStream.class.equals(returnType))
+            {
+                return new ByteArrayInputStream(result);
+            }
             else
             {
                 return result;
@@ -75,4 +97,57 @@ public class Base64Decoder extends AbstractTransformer
         }
     }
 
+    /**
+     * Gzipped data is uncompressed after being decoded, as {@link Base64#decode(String)} does
+     */
+    private byte[] unzipIfNecessary(byte[] bytes)
+    {
+        if (bytes.length < 4 || !isGzipMagic(bytes[0], bytes[1]))
+        {
+            return bytes;
+        }
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(bytes)))
+        {
+            return IOUtils.toByteArray(input);
+        }
+        catch (IOException e)
+        {
+            // not gzipped after all
+            return bytes;
+        }
+    }
+
+    /**
+     * Stream version of {@link #unzipIfNecessary(byte[])}, which peeks at the first decoded bytes to find out whether
+     * the data is gzipped
+     */
+    private InputStream unzipIfNecessary(InputStream decoded) throws IOException
+    {
+        PushbackInputStream input = new PushbackInputStream(decoded, 2);
+        byte[] header = new byte[2];
+        int read = IOUtils.read(input, header);
+        if (read > 0)
+        {
+            input.unread(header, 0, read);
+        }
+        if (read < 2 || !isGzipMagic(header[0], header[1]))
+        {
+            return input;
+        }
+        try
+        {
+            return new GZIPInputStream(input);
+        }
+        catch (IOException e)
+        {
+            input.close();
+            throw e;
+        }
+    }
+
+    private boolean isGzipMagic(byte first, byte second)
+    {
+        return ((first & 0xff) | ((second << 8) & 0xff00)) == GZIPInputStream.GZIP_MAGIC;
+    }
+
 }
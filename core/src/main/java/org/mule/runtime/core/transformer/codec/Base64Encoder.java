@@ -6,14 +6,21 @@
  */
 package org.mule.runtime.core.transformer.codec;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import org.mule.runtime.core.api.transformer.TransformerException;
 import org.mule.runtime.core.config.i18n.CoreMessages;
 import org.mule.runtime.core.transformer.AbstractTransformer;
 import org.mule.runtime.core.transformer.types.DataTypeFactory;
-import org.mule.runtime.core.util.Base64;
 import org.mule.runtime.core.util.IOUtils;
+import org.mule.runtime.core.util.StreamingBase64;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
 
 /**
  * <code>Base64Encoder</code> transforms strings or byte arrays into Base64 encoded
@@ -35,38 +42,53 @@ public class Base64Encoder extends AbstractTransformer
     {
         try
         {
-            byte[] buf;
+            Class<?> returnType = getReturnDataType().getType();
 
-            if (src instanceof String)
-            {
-                buf = ((String) src).getBytes(encoding);
-            }
-            else if (src instanceof InputStream)
+            if (src instanceof InputStream)
             {
-                InputStream input = (InputStream) src;
+                InputStream input = StreamingBase64.encodingInputStream((InputStream) src);
+                if (InputStream.class.equals(returnType))
+                {
+                    // encoded as the result is read, the consumer closes the source
+                    return input;
+                }
                 try
                 {
-                    buf = IOUtils.toByteArray(input);
+                    ByteArrayOutputStream output = new ByteArrayOutputStream();
+                    IOUtils.copyLarge(input, output);
+                    if (byte[].class.equals(returnType))
+                    {
+                        return toOutputEncoding(output.toByteArray(), encoding);
+                    }
+                    return output.toString(ISO_8859_1.name());
                 }
                 finally
                 {
                     input.close();
                 }
             }
+
+            byte[] result;
+            if (src instanceof String)
+            {
+                result = StreamingBase64.encode(((String) src).getBytes(encoding));
+            }
             else
             {
-                buf = (byte[]) src;
+                result = StreamingBase64.encode((byte[]) src);
             }
 
-            String result = Base64.encodeBytes(buf, Base64.DONT_BREAK_LINES);
-
-            if (getReturnDataType().getType().equals(byte[].class))
+            if (byte[].class.equals(returnType))
+            {
+                return toOutputEncoding(result, encoding);
+            }
+            else if (InputStream.class.equals(returnType))
             {
-                return result.getBytes(encoding);
+                return new ByteArrayInputStream(result);
             }
             else
             {
-                return result;
+                return new String(result, ISO_8859_1);
             }
         }
         catch (Exception ex)
@@ -76,4 +98,18 @@ public class Base64Encoder extends AbstractTransformer
         }
     }
 
+    /**
+     * Encoded bytes are returned in the output encoding, as the bytes of the encoded string. They are ASCII, so they
+     * only need to be converted when the encoding is not ASCII compatible.
+     */
+    private byte[] toOutputEncoding(byte[] encoded, String encoding) throws UnsupportedEncodingException
+    {
+        Charset charset = Charset.forName(encoding);
+        if (US_ASCII.equals(charset) || UTF_8.equals(charset) || ISO_8859_1.equals(charset))
+        {
+            return encoded;
+        }
+        return new String(encoded, ISO_8859_1).getBytes(charset);
+    }
+
 }
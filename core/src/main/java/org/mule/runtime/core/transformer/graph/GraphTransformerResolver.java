@@ -13,108 +13,274 @@ import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.core.api.transformer.Transformer;
 import org.mule.runtime.core.config.i18n.CoreMessages;
 
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
-import org.apache.commons.collections.map.LRUMap;
-
+/**
+ * Resolves {@link Converter} chains using a {@link TransformationGraph}.
+ * <p/>
+ * Resolutions, including the ones that found no converter, are cached by (source, result) pair. Cache hits
+ * don't take any lock. When a converter is added or removed only the cached pairs whose source can reach the
+ * converter and whose result can be reached from it are discarded.
+ */
 public class GraphTransformerResolver implements TransformerResolver
 {
 
-    private ReentrantReadWriteLock readWriteLock;
-    private TransformationGraph graph;
-    private CompositeConverterFilter converterFilter;
-    private LRUMap cache;
-    private TransformationGraphLookupStrategy lookupStrategyTransformation;
+    public static final String CACHE_MAX_SIZE_PROPERTY_KEY = "mule.transformer.graph.cacheSize";
+
+    private static final int DEFAULT_CACHE_MAX_SIZE = 1000;
+
+    /**
+     * Cached value used when there is no converter for a given pair
+     */
+    private static final Object NO_CONVERTER = new Object();
+
+    private final ReentrantReadWriteLock readWriteLock;
+    private final TransformationGraph graph;
+    private final CompositeConverterFilter converterFilter;
+    private final ConcurrentMap<DataTypePair, Object> cache;
+    private final TransformationGraphLookupStrategy lookupStrategyTransformation;
+    private final int cacheMaxSize;
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
 
     public GraphTransformerResolver()
+    {
+        this(Integer.getInteger(CACHE_MAX_SIZE_PROPERTY_KEY, DEFAULT_CACHE_MAX_SIZE));
+    }
+
+    public GraphTransformerResolver(int cacheMaxSize)
     {
         this.readWriteLock = new ReentrantReadWriteLock();
         this.graph = new TransformationGraph();
         lookupStrategyTransformation = new TransformationGraphLookupStrategy(graph);
         converterFilter = new CompositeConverterFilter(new TransformationLengthConverterFilter(), new PriorityWeightingConverterFilter(), new NameConverterFilter());
-        cache = new LRUMap();
+        this.cacheMaxSize = cacheMaxSize;
+        cache = new ConcurrentHashMap<>(Math.min(cacheMaxSize, 64));
     }
 
     @Override
     public Transformer resolve(DataType<?> source, DataType<?> result) throws ResolverException
     {
-        String cacheKey = getDataTypeSourceResultPairHash(source, result);
+        DataTypePair cacheKey = new DataTypePair(source, result);
+
+        Object cached = cache.get(cacheKey);
+        if (cached != null)
+        {
+            cacheHits.increment();
+            return cached == NO_CONVERTER ? null : (Transformer) cached;
+        }
+        cacheMisses.increment();
 
+        // Lookup and caching are done holding the read lock so a concurrent graph change can't
+        // invalidate the cache between both operations, leaving a stale resolution behind
         readWriteLock.readLock().lock();
         try
         {
-            if (cache.containsKey(cacheKey))
+            List<Converter> converters = converterFilter.filter(lookupStrategyTransformation.lookupConverters(source, result), source, result);
+
+            if (converters.size() > 1)
+            {
+                throw new ResolverException(CoreMessages.transformHasMultipleMatches(source.getType(), result.getType(), converters));
+            }
+
+            Transformer converter = (converters.size() == 0) ? null : converters.get(0);
+
+            if (cacheMaxSize > 0)
             {
-                return (Converter) cache.get(cacheKey);
+                evictIfFull();
+                cached = cache.putIfAbsent(cacheKey, converter == null ? NO_CONVERTER : converter);
+                if (cached != null)
+                {
+                    // Keeps returning the same instance for the same pair when resolved concurrently
+                    return cached == NO_CONVERTER ? null : (Transformer) cached;
+                }
             }
+
+            return converter;
         }
         finally
         {
             readWriteLock.readLock().unlock();
         }
+    }
 
-        List<Converter> converters = converterFilter.filter(lookupStrategyTransformation.lookupConverters(source, result), source, result);
-
-        if (converters.size() > 1)
+    private void evictIfFull()
+    {
+        if (cache.size() >= cacheMaxSize)
         {
-            throw new ResolverException(CoreMessages.transformHasMultipleMatches(source.getType(), result.getType(), converters));
+            Iterator<DataTypePair> iterator = cache.keySet().iterator();
+            if (iterator.hasNext())
+            {
+                iterator.next();
+                iterator.remove();
+            }
         }
+    }
 
-        Transformer converter = (converters.size() == 0) ? null : converters.get(0);
+    @Override
+    public void transformerChange(Transformer transformer, RegistryAction registryAction)
+    {
+        if (!(transformer instanceof Converter))
+        {
+            return;
+        }
 
+        Converter converter = (Converter) transformer;
 
         readWriteLock.writeLock().lock();
         try
         {
-            cache.put(cacheKey, converter);
+            if (registryAction == RegistryAction.ADDED)
+            {
+                graph.addConverter(converter);
+                invalidate(converter);
+            }
+            else if (registryAction == RegistryAction.REMOVED)
+            {
+                // Paths must be evaluated while the converter is still part of the graph
+                invalidate(converter);
+                graph.removeConverter(converter);
+            }
         }
         finally
         {
             readWriteLock.writeLock().unlock();
         }
-
-        return converter;
     }
 
-    private String getDataTypeSourceResultPairHash(DataType<?> source, DataType<?> result)
+    /**
+     * Discards the cached resolutions that may use the given converter, that is, the ones whose source
+     * type reaches any of the converter's source types and whose result type is reachable from the
+     * converter's return type. Must be invoked holding the write lock.
+     */
+    private void invalidate(Converter converter)
     {
-        StringBuilder builder = new StringBuilder();
-        builder.append(source.getClass().getName());
-        builder.append(source.hashCode());
-        builder.append(":");
-        builder.append(result.getClass().getName());
-        builder.append(result.hashCode());
-
-        return builder.toString();
+        if (cache.isEmpty())
+        {
+            return;
+        }
+
+        Set<DataType<?>> upstream = new HashSet<>();
+        for (DataType<?> sourceDataType : converter.getSourceDataTypes())
+        {
+            collectReachable(sourceDataType, upstream, false);
+        }
+        Set<DataType<?>> downstream = new HashSet<>();
+        collectReachable(converter.getReturnDataType(), downstream, true);
+
+        for (Iterator<DataTypePair> iterator = cache.keySet().iterator(); iterator.hasNext(); )
+        {
+            DataTypePair pair = iterator.next();
+            if (upstream.contains(pair.source) && downstream.contains(pair.result))
+            {
+                iterator.remove();
+            }
+        }
     }
 
-    @Override
-    public void transformerChange(Transformer transformer, RegistryAction registryAction)
+    private void collectReachable(DataType<?> start, Set<DataType<?>> reachable, boolean forward)
     {
-        readWriteLock.writeLock().lock();
-
-        try
+        List<DataType<?>> pending = new LinkedList<>();
+        pending.add(start);
+        while (!pending.isEmpty())
         {
-            if (!(transformer instanceof Converter))
+            DataType<?> dataType = pending.remove(0);
+            if (!reachable.add(dataType) || !graph.containsVertex(dataType))
+            {
+                continue;
+            }
+
+            Set<TransformationEdge> edges = forward ? graph.outgoingEdgesOf(dataType) : graph.incomingEdgesOf(dataType);
+            for (TransformationEdge edge : edges)
             {
-                return;
+                pending.add(forward ? graph.getEdgeTarget(edge) : graph.getEdgeSource(edge));
             }
+        }
+    }
+
+    /**
+     * @return number of resolutions served from the cache
+     */
+    public long getCacheHits()
+    {
+        return cacheHits.sum();
+    }
 
-            cache.clear();
+    /**
+     * @return number of resolutions that required a lookup in the transformation graph
+     */
+    public long getCacheMisses()
+    {
+        return cacheMisses.sum();
+    }
 
-            if (registryAction == RegistryAction.ADDED)
+    /**
+     * @return number of (source, result) pairs currently cached
+     */
+    public int getCacheSize()
+    {
+        return cache.size();
+    }
+
+    public int getCacheMaxSize()
+    {
+        return cacheMaxSize;
+    }
+
+    /**
+     * Discards every cached resolution and resets the cache counters
+     */
+    public void clearCache()
+    {
+        cache.clear();
+        cacheHits.reset();
+        cacheMisses.reset();
+    }
+
+    /**
+     * Immutable cache key for a (source, result) pair.
+     */
+    private static final class DataTypePair
+    {
+
+        private final DataType<?> source;
+        private final DataType<?> result;
+        private final int hash;
+
+        private DataTypePair(DataType<?> source, DataType<?> result)
+        {
+            this.source = source;
+            this.result = result;
+            this.hash = 31 * source.hashCode() + result.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
             {
-                graph.addConverter((Converter) transformer);
+                return true;
             }
-            else if (registryAction == RegistryAction.REMOVED)
+            if (!(o instanceof DataTypePair))
             {
-                graph.removeConverter((Converter) transformer);
+                return false;
             }
+            DataTypePair other = (DataTypePair) o;
+            return source.equals(other.source) && result.equals(other.result);
         }
-        finally
+
+        @Override
+        public int hashCode()
         {
-            readWriteLock.writeLock().unlock();
+            return hash;
         }
     }
 }
@@ -0,0 +1,785 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Case-insensitive {@link Map} whose entries are kept in an immutable hash array mapped trie, so copies made through
+ * {@link #clone()} share all of their entries with the original map and take constant time, while each write only
+ * copies the path to the modified entry, which takes logarithmic time.
+ * <p/>
+ * As in {@link CaseInsensitiveHashMap}, {@link String} keys are compared ignoring case and keys preserve the case
+ * they were first put with.
+ * <p/>
+ * This implementation is thread-safe. Writes are applied atomically and the views of the map iterate over a snapshot
+ * of its entries, so they never throw {@link java.util.ConcurrentModificationException}. The entries returned by
+ * {@link #entrySet()} don't support {@link java.util.Map.Entry#setValue(Object)}.
+ */
+public class PersistentCaseInsensitiveMap<K, V> extends AbstractMap<K, V> implements Serializable
+{
+
+    private static final long serialVersionUID = 4270398129540728915L;
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final Trie EMPTY = new Trie(new BitmapNode(0, new Object[0]), 0);
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<PersistentCaseInsensitiveMap, Trie> TRIE_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(PersistentCaseInsensitiveMap.class, Trie.class, "trie");
+
+    private transient volatile Trie trie = EMPTY;
+    private transient Set<K> keySet;
+    private transient Collection<V> values;
+    private transient Set<Entry<K, V>> entrySet;
+
+    public PersistentCaseInsensitiveMap()
+    {
+    }
+
+    public PersistentCaseInsensitiveMap(Map<? extends K, ? extends V> that)
+    {
+        if (that instanceof PersistentCaseInsensitiveMap)
+        {
+            trie = ((PersistentCaseInsensitiveMap<?, ?>) that).trie;
+        }
+        else
+        {
+            putAll(that);
+        }
+    }
+
+    /**
+     * @return a copy of this map, which shares its entries with this one until either of them is modified
+     */
+    @Override
+    public PersistentCaseInsensitiveMap<K, V> clone()
+    {
+        return new PersistentCaseInsensitiveMap<>(this);
+    }
+
+    @Override
+    public int size()
+    {
+        return trie.size;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return trie.size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        return trie.root.find(hash(key), key, 0) != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value)
+    {
+        for (Leaf leaf : trie.leaves())
+        {
+            if (value == null ? leaf.value == null : value.equals(leaf.value))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key)
+    {
+        Leaf leaf = trie.root.find(hash(key), key, 0);
+        return leaf == null ? null : (V) leaf.value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value)
+    {
+        Leaf leaf = new Leaf(key, hash(key), value);
+        while (true)
+        {
+            Trie current = trie;
+            Change change = new Change();
+            Node root = current.root.put(leaf, 0, change);
+            if (root == current.root || TRIE_UPDATER.compareAndSet(this, current, new Trie(root, current.size + change.added)))
+            {
+                return (V) change.previous;
+            }
+        }
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map)
+    {
+        while (true)
+        {
+            Trie current = trie;
+            Change change = new Change();
+            Node root = current.root;
+            for (Entry<? extends K, ? extends V> entry : map.entrySet())
+            {
+                root = root.put(new Leaf(entry.getKey(), hash(entry.getKey()), entry.getValue()), 0, change);
+            }
+            if (root == current.root || TRIE_UPDATER.compareAndSet(this, current, new Trie(root, current.size + change.added)))
+            {
+                return;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key)
+    {
+        int hash = hash(key);
+        while (true)
+        {
+            Trie current = trie;
+            Change change = new Change();
+            Node root = current.root.remove(hash, key, 0, change);
+            if (root == current.root)
+            {
+                return null;
+            }
+            Trie updated = root == null ? EMPTY : new Trie(root, current.size - 1);
+            if (TRIE_UPDATER.compareAndSet(this, current, updated))
+            {
+                return (V) change.previous;
+            }
+        }
+    }
+
+    @Override
+    public void clear()
+    {
+        trie = EMPTY;
+    }
+
+    @Override
+    public Set<K> keySet()
+    {
+        if (keySet == null)
+        {
+            keySet = new KeySet();
+        }
+        return keySet;
+    }
+
+    @Override
+    public Collection<V> values()
+    {
+        if (values == null)
+        {
+            values = new Values();
+        }
+        return values;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet()
+    {
+        if (entrySet == null)
+        {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    /**
+     * Hashes {@link String} keys the same way regardless of their case, without creating a lower case copy of them.
+     * Each character is folded as {@link String#equalsIgnoreCase(String)} compares them.
+     */
+    private static int hash(Object key)
+    {
+        int hash = 0;
+        if (key instanceof String)
+        {
+            String string = (String) key;
+            for (int i = 0; i < string.length(); i++)
+            {
+                hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(string.charAt(i)));
+            }
+        }
+        else if (key != null)
+        {
+            hash = key.hashCode();
+        }
+        // Spreads the bits so the keys are evenly distributed on each level of the trie
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean isEqualKey(Object key1, Object key2)
+    {
+        if (key1 == key2)
+        {
+            return true;
+        }
+        if (key1 instanceof String && key2 instanceof String)
+        {
+            return ((String) key1).equalsIgnoreCase((String) key2);
+        }
+        return key1 != null && key1.equals(key2);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException
+    {
+        out.defaultWriteObject();
+        Leaf[] leaves = trie.leaves();
+        out.writeInt(leaves.length);
+        for (Leaf leaf : leaves)
+        {
+            out.writeObject(leaf.key);
+            out.writeObject(leaf.value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        trie = EMPTY;
+        int size = in.readInt();
+        for (int i = 0; i < size; i++)
+        {
+            put((K) in.readObject(), (V) in.readObject());
+        }
+    }
+
+    /**
+     * Immutable state of the map, so the root and the size are always updated together.
+     */
+    private static final class Trie
+    {
+
+        private final Node root;
+        private final int size;
+
+        private Trie(Node root, int size)
+        {
+            this.root = root;
+            this.size = size;
+        }
+
+        private Leaf[] leaves()
+        {
+            Leaf[] leaves = new Leaf[size];
+            root.collect(leaves, 0);
+            return leaves;
+        }
+    }
+
+    /**
+     * Outcome of a write in the trie
+     */
+    private static final class Change
+    {
+
+        private int added;
+        private Object previous;
+    }
+
+    private static final class Leaf
+    {
+
+        private final Object key;
+        private final int hash;
+        private final Object value;
+
+        private Leaf(Object key, int hash, Object value)
+        {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+        }
+    }
+
+    private interface Node
+    {
+
+        Leaf find(int hash, Object key, int shift);
+
+        /**
+         * @return the node with the given leaf, or this same node if it already had it
+         */
+        Node put(Leaf leaf, int shift, Change change);
+
+        /**
+         * @return the node without the given key, this same node if it didn't have it, or null if it is now empty
+         */
+        Node remove(int hash, Object key, int shift, Change change);
+
+        /**
+         * @return the only leaf of this node, or null if it has nested nodes or more than one leaf
+         */
+        Leaf singleLeaf();
+
+        /**
+         * Copies the leaves of this node to the given array, starting at the given index
+         *
+         * @return the index after the last copied leaf
+         */
+        int collect(Leaf[] leaves, int index);
+    }
+
+    /**
+     * Node with up to 32 slots, each one with a leaf or a nested node. Only the used slots are allocated, and the
+     * bitmap tells which ones they are.
+     */
+    private static final class BitmapNode implements Node
+    {
+
+        private final int bitmap;
+        private final Object[] slots;
+
+        private BitmapNode(int bitmap, Object[] slots)
+        {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        private static int bit(int hash, int shift)
+        {
+            return 1 << ((hash >>> shift) & MASK);
+        }
+
+        private int index(int bit)
+        {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        public Leaf find(int hash, Object key, int shift)
+        {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0)
+            {
+                return null;
+            }
+            Object slot = slots[index(bit)];
+            if (slot instanceof Leaf)
+            {
+                Leaf leaf = (Leaf) slot;
+                return leaf.hash == hash && isEqualKey(leaf.key, key) ? leaf : null;
+            }
+            return ((Node) slot).find(hash, key, shift + BITS);
+        }
+
+        @Override
+        public Node put(Leaf leaf, int shift, Change change)
+        {
+            int bit = bit(leaf.hash, shift);
+            int index = index(bit);
+            if ((bitmap & bit) == 0)
+            {
+                change.added++;
+                Object[] newSlots = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, newSlots, 0, index);
+                newSlots[index] = leaf;
+                System.arraycopy(slots, index, newSlots, index + 1, slots.length - index);
+                return new BitmapNode(bitmap | bit, newSlots);
+            }
+
+            Object slot = slots[index];
+            Object newSlot;
+            if (slot instanceof Leaf)
+            {
+                Leaf existing = (Leaf) slot;
+                if (existing.hash == leaf.hash && isEqualKey(existing.key, leaf.key))
+                {
+                    change.previous = existing.value;
+                    if (existing.value == leaf.value)
+                    {
+                        return this;
+                    }
+                    // Keeps the case of the key the entry was created with
+                    newSlot = new Leaf(existing.key, existing.hash, leaf.value);
+                }
+                else
+                {
+                    change.added++;
+                    newSlot = merge(existing, leaf, shift + BITS);
+                }
+            }
+            else
+            {
+                Node child = (Node) slot;
+                newSlot = child.put(leaf, shift + BITS, change);
+                if (newSlot == child)
+                {
+                    return this;
+                }
+            }
+            return new BitmapNode(bitmap, replace(index, newSlot));
+        }
+
+        private static Node merge(Leaf leaf1, Leaf leaf2, int shift)
+        {
+            if (leaf1.hash == leaf2.hash)
+            {
+                return new CollisionNode(leaf1.hash, new Leaf[] {leaf1, leaf2});
+            }
+
+            int bit1 = bit(leaf1.hash, shift);
+            int bit2 = bit(leaf2.hash, shift);
+            if (bit1 == bit2)
+            {
+                return new BitmapNode(bit1, new Object[] {merge(leaf1, leaf2, shift + BITS)});
+            }
+            // Slots are sorted by their bit
+            Object[] slots = (bit1 & 0xFFFFFFFFL) < (bit2 & 0xFFFFFFFFL) ? new Object[] {leaf1, leaf2} : new Object[] {leaf2, leaf1};
+            return new BitmapNode(bit1 | bit2, slots);
+        }
+
+        @Override
+        public Node remove(int hash, Object key, int shift, Change change)
+        {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0)
+            {
+                return this;
+            }
+
+            int index = index(bit);
+            Object slot = slots[index];
+            if (slot instanceof Leaf)
+            {
+                Leaf leaf = (Leaf) slot;
+                if (leaf.hash != hash || !isEqualKey(leaf.key, key))
+                {
+                    return this;
+                }
+                change.previous = leaf.value;
+                return without(bit, index);
+            }
+
+            Node child = (Node) slot;
+            Node newChild = child.remove(hash, key, shift + BITS, change);
+            if (newChild == child)
+            {
+                return this;
+            }
+            if (newChild == null)
+            {
+                return without(bit, index);
+            }
+            // Nodes with a single leaf are collapsed into their parent, so the trie stays as shallow as possible
+            Leaf singleLeaf = newChild.singleLeaf();
+            return new BitmapNode(bitmap, replace(index, singleLeaf != null ? singleLeaf : newChild));
+        }
+
+        private Node without(int bit, int index)
+        {
+            if (bitmap == bit)
+            {
+                return null;
+            }
+            Object[] newSlots = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, newSlots, 0, index);
+            System.arraycopy(slots, index + 1, newSlots, index, slots.length - index - 1);
+            return new BitmapNode(bitmap ^ bit, newSlots);
+        }
+
+        private Object[] replace(int index, Object slot)
+        {
+            Object[] newSlots = slots.clone();
+            newSlots[index] = slot;
+            return newSlots;
+        }
+
+        @Override
+        public Leaf singleLeaf()
+        {
+            return slots.length == 1 && slots[0] instanceof Leaf ? (Leaf) slots[0] : null;
+        }
+
+        @Override
+        public int collect(Leaf[] leaves, int index)
+        {
+            for (Object slot : slots)
+            {
+                if (slot instanceof Leaf)
+                {
+                    leaves[index++] = (Leaf) slot;
+                }
+                else
+                {
+                    index = ((Node) slot).collect(leaves, index);
+                }
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Node with the leaves of keys that have the same hash
+     */
+    private static final class CollisionNode implements Node
+    {
+
+        private final int hash;
+        private final Leaf[] leaves;
+
+        private CollisionNode(int hash, Leaf[] leaves)
+        {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        private int indexOf(Object key)
+        {
+            for (int i = 0; i < leaves.length; i++)
+            {
+                if (isEqualKey(leaves[i].key, key))
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public Leaf find(int hash, Object key, int shift)
+        {
+            if (hash != this.hash)
+            {
+                return null;
+            }
+            int index = indexOf(key);
+            return index < 0 ? null : leaves[index];
+        }
+
+        @Override
+        public Node put(Leaf leaf, int shift, Change change)
+        {
+            if (leaf.hash != hash)
+            {
+                // Nests this node in a bitmap node where both hashes can be told apart
+                BitmapNode node = new BitmapNode(BitmapNode.bit(hash, shift), new Object[] {this});
+                return node.put(leaf, shift, change);
+            }
+
+            int index = indexOf(leaf.key);
+            Leaf[] newLeaves;
+            if (index < 0)
+            {
+                change.added++;
+                newLeaves = new Leaf[leaves.length + 1];
+                System.arraycopy(leaves, 0, newLeaves, 0, leaves.length);
+                newLeaves[leaves.length] = leaf;
+            }
+            else
+            {
+                Leaf existing = leaves[index];
+                change.previous = existing.value;
+                if (existing.value == leaf.value)
+                {
+                    return this;
+                }
+                newLeaves = leaves.clone();
+                newLeaves[index] = new Leaf(existing.key, hash, leaf.value);
+            }
+            return new CollisionNode(hash, newLeaves);
+        }
+
+        @Override
+        public Node remove(int hash, Object key, int shift, Change change)
+        {
+            int index = hash == this.hash ? indexOf(key) : -1;
+            if (index < 0)
+            {
+                return this;
+            }
+            change.previous = leaves[index].value;
+            if (leaves.length == 1)
+            {
+                return null;
+            }
+            Leaf[] newLeaves = new Leaf[leaves.length - 1];
+            System.arraycopy(leaves, 0, newLeaves, 0, index);
+            System.arraycopy(leaves, index + 1, newLeaves, index, leaves.length - index - 1);
+            return new CollisionNode(hash, newLeaves);
+        }
+
+        @Override
+        public Leaf singleLeaf()
+        {
+            return leaves.length == 1 ? leaves[0] : null;
+        }
+
+        @Override
+        public int collect(Leaf[] leaves, int index)
+        {
+            System.arraycopy(this.leaves, 0, leaves, index, this.leaves.length);
+            return index + this.leaves.length;
+        }
+    }
+
+    /**
+     * Iterates over a snapshot of the leaves of the map. Removals are applied to the map.
+     */
+    private abstract class SnapshotIterator<T> implements Iterator<T>
+    {
+
+        private final Leaf[] leaves = trie.leaves();
+        private int next;
+        private Leaf current;
+
+        @Override
+        public boolean hasNext()
+        {
+            return next < leaves.length;
+        }
+
+        @Override
+        public T next()
+        {
+            if (next >= leaves.length)
+            {
+                throw new NoSuchElementException();
+            }
+            current = leaves[next++];
+            return get(current);
+        }
+
+        @Override
+        public void remove()
+        {
+            if (current == null)
+            {
+                throw new IllegalStateException("Remove can only be called once per call to next()");
+            }
+            PersistentCaseInsensitiveMap.this.remove(current.key);
+            current = null;
+        }
+
+        protected abstract T get(Leaf leaf);
+    }
+
+    private final class KeySet extends AbstractSet<K>
+    {
+
+        @Override
+        public Iterator<K> iterator()
+        {
+            return new SnapshotIterator<K>()
+            {
+                @Override
+                @SuppressWarnings("unchecked")
+                protected K get(Leaf leaf)
+                {
+                    return (K) leaf.key;
+                }
+            };
+        }
+
+        @Override
+        public int size()
+        {
+            return PersistentCaseInsensitiveMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o)
+        {
+            int size = size();
+            PersistentCaseInsensitiveMap.this.remove(o);
+            return size() != size;
+        }
+
+        @Override
+        public void clear()
+        {
+            PersistentCaseInsensitiveMap.this.clear();
+        }
+    }
+
+    private final class Values extends AbstractCollection<V>
+    {
+
+        @Override
+        public Iterator<V> iterator()
+        {
+            return new SnapshotIterator<V>()
+            {
+                @Override
+                @SuppressWarnings("unchecked")
+                protected V get(Leaf leaf)
+                {
+                    return (V) leaf.value;
+                }
+            };
+        }
+
+        @Override
+        public int size()
+        {
+            return PersistentCaseInsensitiveMap.this.size();
+        }
+
+        @Override
+        public void clear()
+        {
+            PersistentCaseInsensitiveMap.this.clear();
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>>
+    {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator()
+        {
+            return new SnapshotIterator<Entry<K, V>>()
+            {
+                @Override
+                @SuppressWarnings("unchecked")
+                protected Entry<K, V> get(Leaf leaf)
+                {
+                    return new SimpleImmutableEntry<>((K) leaf.key, (V) leaf.value);
+                }
+            };
+        }
+
+        @Override
+        public int size()
+        {
+            return PersistentCaseInsensitiveMap.this.size();
+        }
+
+        @Override
+        public void clear()
+        {
+            PersistentCaseInsensitiveMap.this.clear();
+        }
+    }
+}
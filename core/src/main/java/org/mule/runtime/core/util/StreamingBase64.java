@@ -0,0 +1,588 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Base64 encoder and decoder that works incrementally over streams and buffers, so neither the data nor its encoded
+ * form need to be fully held in memory. Data is processed in chunks through buffers that are reused by each thread.
+ * <p/>
+ * Encoded data uses the standard alphabet with padding and without line breaks, the same as
+ * {@link Base64#encodeBytes(byte[], int)} with {@link Base64#DONT_BREAK_LINES}. When decoding, whitespace is ignored,
+ * padding is optional and anything after the padding is discarded, but unlike {@link Base64#decode(String)}, gzipped
+ * data is never uncompressed.
+ *
+ * @since 4.0
+ */
+public final class StreamingBase64
+{
+
+    /**
+     * Number of bytes encoded at a time, a multiple of 3 so that only the last chunk needs padding
+     */
+    private static final int ENCODE_CHUNK_SIZE = 3 * 8 * 1024;
+    private static final int DECODE_CHUNK_SIZE = 4 * 8 * 1024;
+    private static final int BUFFER_SIZE = 4 * 8 * 1024;
+    private static final int STREAM_CHUNK_SIZE = 3 * 1024;
+
+    private static final byte PADDING = '=';
+    private static final int WHITESPACE = -2;
+    private static final int INVALID = -1;
+
+    private static final byte[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(ISO_8859_1);
+    private static final int[] DECODABET = new int[128];
+
+    static
+    {
+        Arrays.fill(DECODABET, INVALID);
+        for (int i = 0; i < ALPHABET.length; i++)
+        {
+            DECODABET[ALPHABET[i]] = i;
+        }
+        DECODABET[' '] = WHITESPACE;
+        DECODABET['\t'] = WHITESPACE;
+        DECODABET['\r'] = WHITESPACE;
+        DECODABET['\n'] = WHITESPACE;
+    }
+
+    private StreamingBase64()
+    {
+    }
+
+    /**
+     * @param bytes the data to encode
+     * @return the encoded data
+     */
+    public static byte[] encode(byte[] bytes)
+    {
+        byte[] encoded = new byte[encodedLength(bytes.length)];
+        encodeChunk(bytes, 0, bytes.length, encoded, 0);
+        return encoded;
+    }
+
+    /**
+     * @param bytes the data to encode
+     * @return the encoded data as a {@link String}
+     */
+    public static String encodeToString(byte[] bytes)
+    {
+        return new String(encode(bytes), ISO_8859_1);
+    }
+
+    /**
+     * Encodes everything read from {@code in} into {@code out}. None of the streams are closed.
+     *
+     * @param in  the stream to read the data from
+     * @param out the stream to write the encoded data to
+     * @throws IOException if the streams fail
+     */
+    public static void encode(InputStream in, OutputStream out) throws IOException
+    {
+        Buffers buffers = Buffers.acquire();
+        try
+        {
+            int length;
+            do
+            {
+                length = fill(in, buffers.input, ENCODE_CHUNK_SIZE);
+                out.write(buffers.output, 0, encodeChunk(buffers.input, 0, length, buffers.output, 0));
+            }
+            while (length == ENCODE_CHUNK_SIZE);
+        }
+        finally
+        {
+            buffers.release();
+        }
+    }
+
+    /**
+     * Encodes the remaining bytes of {@code src} into {@code out}, leaving the buffer at its limit. The stream is not
+     * closed.
+     *
+     * @param src the data to encode
+     * @param out the stream to write the encoded data to
+     * @throws IOException if the stream fails
+     */
+    public static void encode(ByteBuffer src, OutputStream out) throws IOException
+    {
+        Buffers buffers = Buffers.acquire();
+        try
+        {
+            do
+            {
+                int length = Math.min(src.remaining(), ENCODE_CHUNK_SIZE);
+                int written;
+                if (src.hasArray())
+                {
+                    written = encodeChunk(src.array(), src.arrayOffset() + src.position(), length, buffers.output, 0);
+                    src.position(src.position() + length);
+                }
+                else
+                {
+                    src.get(buffers.input, 0, length);
+                    written = encodeChunk(buffers.input, 0, length, buffers.output, 0);
+                }
+                out.write(buffers.output, 0, written);
+            }
+            while (src.hasRemaining());
+        }
+        finally
+        {
+            buffers.release();
+        }
+    }
+
+    /**
+     * Returns a stream that reads the encoded form of the data read from {@code in}, encoding it as it is read, so the
+     * data doesn't need to be held in memory. Closing the returned stream closes {@code in}.
+     *
+     * @param in the stream to read the data from
+     * @return a stream of the encoded data
+     */
+    public static InputStream encodingInputStream(InputStream in)
+    {
+        return new EncodingInputStream(in);
+    }
+
+    /**
+     * @param encoded the ASCII bytes of the encoded data
+     * @return the decoded data
+     * @throws IllegalArgumentException if the data contains characters that are not valid Base64
+     */
+    public static byte[] decode(byte[] encoded)
+    {
+        int length = unpaddedLength(encoded.length, i -> encoded[i]);
+        byte[] decoded = new byte[decodedLength(length)];
+        Decoder decoder = new Decoder();
+        int position = decoder.decode(encoded, 0, length, decoded, 0);
+        position = decoder.finish(decoded, position);
+        return position == decoded.length ? decoded : Arrays.copyOf(decoded, position);
+    }
+
+    /**
+     * @param encoded the encoded data
+     * @return the decoded data
+     * @throws IllegalArgumentException if the data contains characters that are not valid Base64
+     */
+    public static byte[] decode(CharSequence encoded)
+    {
+        int length = unpaddedLength(encoded.length(), encoded::charAt);
+        byte[] decoded = new byte[decodedLength(length)];
+        Decoder decoder = new Decoder();
+        int position = 0;
+        for (int i = 0; i < length; i++)
+        {
+            position = decoder.decode(encoded.charAt(i), decoded, position);
+        }
+        position = decoder.finish(decoded, position);
+        return position == decoded.length ? decoded : Arrays.copyOf(decoded, position);
+    }
+
+    /**
+     * Decodes everything read from {@code in} into {@code out}. None of the streams are closed.
+     *
+     * @param in  the stream to read the encoded data from
+     * @param out the stream to write the decoded data to
+     * @throws IOException              if the streams fail
+     * @throws IllegalArgumentException if the data contains characters that are not valid Base64
+     */
+    public static void decode(InputStream in, OutputStream out) throws IOException
+    {
+        Buffers buffers = Buffers.acquire();
+        try
+        {
+            Decoder decoder = new Decoder();
+            int read;
+            while ((read = in.read(buffers.input, 0, DECODE_CHUNK_SIZE)) != -1)
+            {
+                out.write(buffers.output, 0, decoder.decode(buffers.input, 0, read, buffers.output, 0));
+            }
+            out.write(buffers.output, 0, decoder.finish(buffers.output, 0));
+        }
+        finally
+        {
+            buffers.release();
+        }
+    }
+
+    /**
+     * Returns a stream that reads the decoded form of the encoded data read from {@code in}, decoding it as it is read,
+     * so the data doesn't need to be held in memory. Characters that are not valid Base64 make the returned stream
+     * fail with an {@link IOException}. Closing the returned stream closes {@code in}.
+     *
+     * @param in the stream to read the encoded data from
+     * @return a stream of the decoded data
+     */
+    public static InputStream decodingInputStream(InputStream in)
+    {
+        return new DecodingInputStream(in);
+    }
+
+    /**
+     * Decodes the remaining bytes of {@code src} into {@code out}, leaving the buffer at its limit. The stream is not
+     * closed.
+     *
+     * @param src the ASCII bytes of the encoded data
+     * @param out the stream to write the decoded data to
+     * @throws IOException              if the stream fails
+     * @throws IllegalArgumentException if the data contains characters that are not valid Base64
+     */
+    public static void decode(ByteBuffer src, OutputStream out) throws IOException
+    {
+        Buffers buffers = Buffers.acquire();
+        try
+        {
+            Decoder decoder = new Decoder();
+            while (src.hasRemaining())
+            {
+                int length = Math.min(src.remaining(), DECODE_CHUNK_SIZE);
+                int written;
+                if (src.hasArray())
+                {
+                    written = decoder.decode(src.array(), src.arrayOffset() + src.position(), length, buffers.output, 0);
+                    src.position(src.position() + length);
+                }
+                else
+                {
+                    src.get(buffers.input, 0, length);
+                    written = decoder.decode(buffers.input, 0, length, buffers.output, 0);
+                }
+                out.write(buffers.output, 0, written);
+            }
+            out.write(buffers.output, 0, decoder.finish(buffers.output, 0));
+        }
+        finally
+        {
+            buffers.release();
+        }
+    }
+
+    private static int encodedLength(int length)
+    {
+        return (length + 2) / 3 * 4;
+    }
+
+    private static int decodedLength(int unpaddedLength)
+    {
+        // exact unless the data has whitespace
+        return unpaddedLength / 4 * 3 + Math.max(0, unpaddedLength % 4 - 1);
+    }
+
+    private static int unpaddedLength(int length, CharAt charAt)
+    {
+        while (length > 0 && charAt.charAt(length - 1) == PADDING)
+        {
+            length--;
+        }
+        return length;
+    }
+
+    private static int fill(InputStream in, byte[] buffer, int length) throws IOException
+    {
+        int filled = 0;
+        int read;
+        while (filled < length && (read = in.read(buffer, filled, length - filled)) != -1)
+        {
+            filled += read;
+        }
+        return filled;
+    }
+
+    private static int encodeChunk(byte[] src, int offset, int length, byte[] dst, int dstOffset)
+    {
+        int end = offset + length - length % 3;
+        int position = dstOffset;
+        for (int i = offset; i < end; i += 3)
+        {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst[position++] = ALPHABET[bits >>> 18];
+            dst[position++] = ALPHABET[(bits >>> 12) & 0x3f];
+            dst[position++] = ALPHABET[(bits >>> 6) & 0x3f];
+            dst[position++] = ALPHABET[bits & 0x3f];
+        }
+        int remaining = length % 3;
+        if (remaining > 0)
+        {
+            int bits = (src[end] & 0xff) << 16 | (remaining == 2 ? (src[end + 1] & 0xff) << 8 : 0);
+            dst[position++] = ALPHABET[bits >>> 18];
+            dst[position++] = ALPHABET[(bits >>> 12) & 0x3f];
+            dst[position++] = remaining == 2 ? ALPHABET[(bits >>> 6) & 0x3f] : PADDING;
+            dst[position++] = PADDING;
+        }
+        return position - dstOffset;
+    }
+
+    @FunctionalInterface
+    private interface CharAt
+    {
+
+        int charAt(int index);
+    }
+
+    /**
+     * Keeps the characters of an incomplete group between chunks
+     */
+    private static final class Decoder
+    {
+
+        private int bits;
+        private int count;
+        private boolean padded;
+
+        int decode(byte[] src, int offset, int length, byte[] dst, int dstOffset)
+        {
+            int position = dstOffset;
+            for (int i = offset; i < offset + length && !padded; i++)
+            {
+                position = decode(src[i] & 0xff, dst, position);
+            }
+            return position - dstOffset;
+        }
+
+        int decode(int c, byte[] dst, int position)
+        {
+            if (padded)
+            {
+                return position;
+            }
+            int value = c < DECODABET.length ? DECODABET[c] : INVALID;
+            if (value >= 0)
+            {
+                bits = bits << 6 | value;
+                if (++count == 4)
+                {
+                    dst[position++] = (byte) (bits >> 16);
+                    dst[position++] = (byte) (bits >> 8);
+                    dst[position++] = (byte) bits;
+                    bits = 0;
+                    count = 0;
+                }
+            }
+            else if (c == PADDING)
+            {
+                padded = true;
+            }
+            else if (value == INVALID)
+            {
+                throw new IllegalArgumentException("Bad Base64 input character: " + c + "(decimal)");
+            }
+            return position;
+        }
+
+        /**
+         * Writes the bytes of the last incomplete group
+         */
+        int finish(byte[] dst, int position)
+        {
+            if (count == 2)
+            {
+                dst[position++] = (byte) (bits >> 4);
+            }
+            else if (count == 3)
+            {
+                dst[position++] = (byte) (bits >> 10);
+                dst[position++] = (byte) (bits >> 2);
+            }
+            bits = 0;
+            count = 0;
+            return position;
+        }
+    }
+
+    /**
+     * Stream that encodes or decodes its source a chunk at a time. Its buffers belong to the stream, since it's read
+     * by successive calls that may come from different threads.
+     */
+    private abstract static class ChunkedInputStream extends InputStream
+    {
+
+        protected final InputStream in;
+        protected final byte[] input = new byte[STREAM_CHUNK_SIZE];
+        protected final byte[] output = new byte[STREAM_CHUNK_SIZE / 3 * 4];
+        private int position;
+        private int limit;
+        private boolean finished;
+
+        ChunkedInputStream(InputStream in)
+        {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            if (position == limit && !fillOutput())
+            {
+                return -1;
+            }
+            return output[position++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException
+        {
+            if (len == 0)
+            {
+                return 0;
+            }
+            if (position == limit && !fillOutput())
+            {
+                return -1;
+            }
+            int length = Math.min(len, limit - position);
+            System.arraycopy(output, position, b, off, length);
+            position += length;
+            return length;
+        }
+
+        @Override
+        public int available() throws IOException
+        {
+            return limit - position;
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            in.close();
+        }
+
+        private boolean fillOutput() throws IOException
+        {
+            while (!finished)
+            {
+                position = 0;
+                limit = processChunk();
+                if (limit < 0)
+                {
+                    finished = true;
+                    limit = finish();
+                }
+                if (limit > 0)
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Reads a chunk of the source into {@link #output}
+         *
+         * @return the number of bytes written to {@link #output}, or -1 if the source has ended
+         */
+        protected abstract int processChunk() throws IOException;
+
+        /**
+         * Writes the remaining bytes into {@link #output} once the source has ended
+         *
+         * @return the number of bytes written to {@link #output}
+         */
+        protected abstract int finish() throws IOException;
+    }
+
+    private static final class EncodingInputStream extends ChunkedInputStream
+    {
+
+        private int pending;
+
+        EncodingInputStream(InputStream in)
+        {
+            super(in);
+        }
+
+        @Override
+        protected int processChunk() throws IOException
+        {
+            pending = fill(in, input, input.length);
+            if (pending < input.length)
+            {
+                return -1;
+            }
+            pending = 0;
+            return encodeChunk(input, 0, input.length, output, 0);
+        }
+
+        @Override
+        protected int finish() throws IOException
+        {
+            // the last chunk is the only one which may need padding
+            return encodeChunk(input, 0, pending, output, 0);
+        }
+    }
+
+    private static final class DecodingInputStream extends ChunkedInputStream
+    {
+
+        private final Decoder decoder = new Decoder();
+
+        DecodingInputStream(InputStream in)
+        {
+            super(in);
+        }
+
+        @Override
+        protected int processChunk() throws IOException
+        {
+            int read = in.read(input, 0, input.length);
+            if (read == -1)
+            {
+                return -1;
+            }
+            try
+            {
+                return decoder.decode(input, 0, read, output, 0);
+            }
+            catch (IllegalArgumentException e)
+            {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        protected int finish() throws IOException
+        {
+            return decoder.finish(output, 0);
+        }
+    }
+
+    /**
+     * Chunk buffers cached by thread. A thread that needs them while already using them, because a stream calls back
+     * into this class, gets new ones.
+     */
+    private static final class Buffers
+    {
+
+        private static final ThreadLocal<Buffers> CACHE = new ThreadLocal<>();
+
+        private final byte[] input = new byte[BUFFER_SIZE];
+        private final byte[] output = new byte[BUFFER_SIZE];
+
+        static Buffers acquire()
+        {
+            Buffers buffers = CACHE.get();
+            if (buffers == null)
+            {
+                return new Buffers();
+            }
+            CACHE.set(null);
+            return buffers;
+        }
+
+        void release()
+        {
+            CACHE.set(this);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.collection;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Resizable circular array of primitive {@code long} values that can be used as a
+ * double ended queue without boxing every element.
+ * <p/>
+ * This class is not thread safe, callers are responsible for synchronizing access to it.
+ */
+public class LongArrayDeque
+{
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    private long[] elements;
+    private int head;
+    private int size;
+
+    public LongArrayDeque()
+    {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public LongArrayDeque(int initialCapacity)
+    {
+        elements = new long[Math.max(initialCapacity, 1)];
+    }
+
+    /**
+     * Adds a value at the end of the deque.
+     *
+     * @param value value to add
+     */
+    public void addLast(long value)
+    {
+        ensureCapacity();
+        elements[index(size)] = value;
+        size++;
+    }
+
+    /**
+     * Adds a value at the beginning of the deque.
+     *
+     * @param value value to add
+     */
+    public void addFirst(long value)
+    {
+        ensureCapacity();
+        head = head == 0 ? elements.length - 1 : head - 1;
+        elements[head] = value;
+        size++;
+    }
+
+    /**
+     * @return the first value of the deque
+     * @throws NoSuchElementException if the deque is empty
+     */
+    public long getFirst()
+    {
+        checkNotEmpty();
+        return elements[head];
+    }
+
+    /**
+     * Removes and returns the first value of the deque.
+     *
+     * @return the removed value
+     * @throws NoSuchElementException if the deque is empty
+     */
+    public long removeFirst()
+    {
+        checkNotEmpty();
+        long value = elements[head];
+        head = index(1);
+        size--;
+        return value;
+    }
+
+    /**
+     * @param position position relative to the beginning of the deque
+     * @return the value at the given position
+     */
+    public long get(int position)
+    {
+        if (position < 0 || position >= size)
+        {
+            throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + size);
+        }
+        return elements[index(position)];
+    }
+
+    /**
+     * Removes the first occurrence of the given value. This operation is O(n) and is
+     * meant to be used only in non critical paths.
+     *
+     * @param value value to remove
+     * @return true if the value was found and removed, false otherwise
+     */
+    public boolean remove(long value)
+    {
+        for (int i = 0; i < size; i++)
+        {
+            if (elements[index(i)] == value)
+            {
+                for (int j = i; j < size - 1; j++)
+                {
+                    elements[index(j)] = elements[index(j + 1)];
+                }
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of values in the deque
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return true if there are no values in the deque
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Removes all the values from the deque
+     */
+    public void clear()
+    {
+        head = 0;
+        size = 0;
+    }
+
+    private int index(int position)
+    {
+        int index = head + position;
+        return index >= elements.length ? index - elements.length : index;
+    }
+
+    private void ensureCapacity()
+    {
+        if (size == elements.length)
+        {
+            long[] newElements = new long[elements.length << 1];
+            int firstChunk = Math.min(size, elements.length - head);
+            System.arraycopy(elements, head, newElements, 0, firstChunk);
+            System.arraycopy(elements, 0, newElements, firstChunk, size - firstChunk);
+            elements = newElements;
+            head = 0;
+        }
+    }
+
+    private void checkNotEmpty()
+    {
+        if (size == 0)
+        {
+            throw new NoSuchElementException();
+        }
+    }
+}
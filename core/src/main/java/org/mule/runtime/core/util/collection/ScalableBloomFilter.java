@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.collection;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter that grows as elements are added, keeping the false positive probability close to the configured one
+ * no matter how many elements it holds.
+ * <p/>
+ * The filter is made of stages. Once a stage holds as many elements as it was sized for, a new stage twice as big
+ * and with half the false positive probability is added, so the compound probability stays below twice the
+ * configured one. Elements are only added to the last stage, and looked up in all of them.
+ * <p/>
+ * {@link #mightContain(Object)} never returns false for an element that was added, but may return true for elements
+ * that were not. This class is thread safe.
+ */
+public class ScalableBloomFilter
+{
+
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private volatile Stage[] stages;
+
+    /**
+     * @param initialCapacity number of elements the first stage is sized for
+     * @param falsePositiveProbability expected probability of {@link #mightContain(Object)} returning true for an
+     *        element that was not added, between 0 and 1
+     */
+    public ScalableBloomFilter(int initialCapacity, double falsePositiveProbability)
+    {
+        if (initialCapacity <= 0)
+        {
+            throw new IllegalArgumentException("initialCapacity must be greater than zero");
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1)
+        {
+            throw new IllegalArgumentException("falsePositiveProbability must be between 0 and 1");
+        }
+        // the probabilities of the stages form a geometric series that adds up to the requested one
+        this.stages = new Stage[] {new Stage(initialCapacity, falsePositiveProbability * (1 - TIGHTENING_RATIO))};
+    }
+
+    /**
+     * @param element element to look for
+     * @return false if the element was definitely never added, true if it may have been
+     */
+    public boolean mightContain(Object element)
+    {
+        long hash = hash(element);
+        for (Stage stage : stages)
+        {
+            if (stage.mightContain(hash))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds an element to the filter.
+     *
+     * @param element element to add
+     * @return true if the element was definitely not in the filter before, false if it may have been
+     */
+    public boolean put(Object element)
+    {
+        long hash = hash(element);
+        Stage[] current = stages;
+        for (int i = 0; i < current.length - 1; i++)
+        {
+            if (current[i].mightContain(hash))
+            {
+                return false;
+            }
+        }
+        Stage last = current[current.length - 1];
+        if (!last.put(hash))
+        {
+            return false;
+        }
+        if (last.isFull())
+        {
+            grow(last);
+        }
+        return true;
+    }
+
+    /**
+     * @return approximate number of elements added to the filter
+     */
+    public int size()
+    {
+        int size = 0;
+        for (Stage stage : stages)
+        {
+            size += stage.count.get();
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of bits used by all the stages of the filter
+     */
+    public long bitSize()
+    {
+        long bits = 0;
+        for (Stage stage : stages)
+        {
+            bits += stage.bitCount;
+        }
+        return bits;
+    }
+
+    private synchronized void grow(Stage full)
+    {
+        Stage[] current = stages;
+        if (current[current.length - 1] != full)
+        {
+            // another thread already added a stage
+            return;
+        }
+        Stage[] grown = new Stage[current.length + 1];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        long capacity = Math.min((long) full.capacity * GROWTH_FACTOR, Integer.MAX_VALUE);
+        grown[current.length] = new Stage((int) capacity, full.falsePositiveProbability * TIGHTENING_RATIO);
+        stages = grown;
+    }
+
+    private static long hash(Object element)
+    {
+        long hash;
+        if (element instanceof CharSequence)
+        {
+            // FNV-1a over all the characters, as String.hashCode only has 32 bits
+            CharSequence chars = (CharSequence) element;
+            hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < chars.length(); i++)
+            {
+                hash ^= chars.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+        }
+        else
+        {
+            hash = element == null ? 0 : element.hashCode();
+        }
+        // murmur3 finalizer to spread the bits
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static class Stage
+    {
+
+        private static final double LN2 = Math.log(2);
+
+        private final int capacity;
+        private final double falsePositiveProbability;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray words;
+        private final AtomicInteger count = new AtomicInteger();
+
+        Stage(int capacity, double falsePositiveProbability)
+        {
+            this.capacity = capacity;
+            this.falsePositiveProbability = falsePositiveProbability;
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveProbability) / (LN2 * LN2));
+            int wordCount = (int) Math.min(Math.max((bits + 63) / 64, 1), Integer.MAX_VALUE - 8);
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = (long) wordCount * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * LN2));
+        }
+
+        boolean mightContain(long hash)
+        {
+            int low = (int) hash;
+            int high = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++)
+            {
+                long bit = index(low, high, i);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0)
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean put(long hash)
+        {
+            int low = (int) hash;
+            int high = (int) (hash >>> 32);
+            boolean changed = false;
+            for (int i = 1; i <= hashCount; i++)
+            {
+                long bit = index(low, high, i);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long value = words.get(word);
+                while ((value & mask) == 0)
+                {
+                    if (words.compareAndSet(word, value, value | mask))
+                    {
+                        changed = true;
+                        break;
+                    }
+                    value = words.get(word);
+                }
+            }
+            if (changed)
+            {
+                count.incrementAndGet();
+            }
+            return changed;
+        }
+
+        boolean isFull()
+        {
+            return count.get() >= capacity;
+        }
+
+        private long index(int low, int high, int i)
+        {
+            // Kirsch-Mitzenmacher: derives all the hash functions from two of them
+            long combined = low + (long) i * high;
+            return (combined & Long.MAX_VALUE) % bitCount;
+        }
+    }
+}
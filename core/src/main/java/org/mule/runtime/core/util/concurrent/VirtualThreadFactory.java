@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A {@link NamedThreadFactory} that creates virtual threads.
+ * <p/>
+ * Virtual threads are only available from Java 21, so they are created through reflection. Use
+ * {@link #isSupported()} to check whether the running JVM supports them before creating a factory.
+ */
+public class VirtualThreadFactory extends NamedThreadFactory
+{
+
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_FACTORY;
+
+    static
+    {
+        Method ofVirtual = null;
+        Method builderFactory = null;
+        try
+        {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            builderFactory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            // fails on JVMs where virtual threads are a preview feature that is not enabled
+            builderFactory.invoke(ofVirtual.invoke(null));
+        }
+        catch (Exception e)
+        {
+            // running in a JVM without virtual threads
+            ofVirtual = null;
+            builderFactory = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_FACTORY = builderFactory;
+    }
+
+    private final ThreadFactory virtualThreadFactory;
+
+    public VirtualThreadFactory(String name)
+    {
+        this(name, null);
+    }
+
+    public VirtualThreadFactory(String name, ClassLoader contextClassLoader)
+    {
+        super(name, contextClassLoader);
+        if (!isSupported())
+        {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+        }
+        try
+        {
+            virtualThreadFactory = (ThreadFactory) BUILDER_FACTORY.invoke(OF_VIRTUAL.invoke(null));
+        }
+        catch (Exception e)
+        {
+            throw new UnsupportedOperationException("Could not create a factory of virtual threads", e);
+        }
+    }
+
+    /**
+     * @return true if the running JVM is able to create virtual threads
+     */
+    public static boolean isSupported()
+    {
+        return OF_VIRTUAL != null && BUILDER_FACTORY != null;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable)
+    {
+        Thread t = virtualThreadFactory.newThread(runnable);
+        configureThread(t);
+        return t;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.monitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A hashed timing wheel that keeps track of items that expire at a given time.
+ * <p/>
+ * Items are placed in the bucket of the tick their deadline falls into, so finding the expired items only
+ * requires visiting the buckets of the ticks elapsed since the last call to {@link #expire(long)} instead of
+ * checking every scheduled item. Items whose deadline is more than a full revolution away stay in their bucket
+ * until a later revolution reaches their deadline.
+ * <p/>
+ * {@link #schedule(Object, long)} and {@link #cancel(Timeout)} can be invoked concurrently, while
+ * {@link #expire(long)} must be invoked from a single thread. An item scheduled concurrently with the expiration
+ * of its tick may be reported up to one revolution late.
+ *
+ * @param <T> type of the scheduled items
+ */
+public class TimingWheel<T>
+{
+
+    private final long tickDuration;
+    private final Set<Timeout<T>>[] buckets;
+    private final int mask;
+    /**
+     * Last tick whose bucket was visited after the tick had fully elapsed
+     */
+    private volatile long processedTick;
+
+    /**
+     * @param tickDuration duration of each tick in milliseconds
+     * @param ticksPerWheel number of buckets of the wheel, rounded up to a power of two
+     * @param now current time in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickDuration, int ticksPerWheel, long now)
+    {
+        if (tickDuration <= 0)
+        {
+            throw new IllegalArgumentException("tickDuration must be greater than 0");
+        }
+        if (ticksPerWheel <= 0)
+        {
+            throw new IllegalArgumentException("ticksPerWheel must be greater than 0");
+        }
+
+        int size = Integer.highestOneBit(ticksPerWheel);
+        if (size < ticksPerWheel)
+        {
+            size <<= 1;
+        }
+
+        this.tickDuration = tickDuration;
+        this.buckets = new Set[size];
+        for (int i = 0; i < size; i++)
+        {
+            buckets[i] = ConcurrentHashMap.newKeySet();
+        }
+        this.mask = size - 1;
+        this.processedTick = now / tickDuration - 1;
+    }
+
+    /**
+     * Schedules an item.
+     *
+     * @param item the item to schedule
+     * @param deadline time in milliseconds at which the item expires
+     * @return a handle that can be used to cancel the expiration of the item
+     */
+    public Timeout<T> schedule(T item, long deadline)
+    {
+        // Overdue items go to the next tick to process, otherwise they would wait for a whole revolution
+        long tick = Math.max(deadline / tickDuration, processedTick + 1);
+        Timeout<T> timeout = new Timeout<>(item, deadline, (int) (tick & mask));
+        buckets[timeout.bucket].add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Cancels the expiration of an item
+     *
+     * @param timeout the handle returned when the item was scheduled
+     * @return true if the item was still scheduled
+     */
+    public boolean cancel(Timeout<T> timeout)
+    {
+        return buckets[timeout.bucket].remove(timeout);
+    }
+
+    /**
+     * Removes the items whose deadline is not after the given time from the buckets of the elapsed ticks.
+     *
+     * @param now current time in milliseconds
+     * @return the expired items
+     */
+    public List<T> expire(long now)
+    {
+        long currentTick = now / tickDuration;
+        if (currentTick <= processedTick)
+        {
+            // Time went backwards
+            return Collections.emptyList();
+        }
+
+        List<T> expired = new ArrayList<>();
+        // There's no need to visit a bucket more than once
+        long fromTick = Math.max(processedTick + 1, currentTick - mask);
+        for (long tick = fromTick; tick <= currentTick; tick++)
+        {
+            for (Iterator<Timeout<T>> iterator = buckets[(int) (tick & mask)].iterator(); iterator.hasNext(); )
+            {
+                Timeout<T> timeout = iterator.next();
+                if (timeout.deadline <= now)
+                {
+                    iterator.remove();
+                    expired.add(timeout.item);
+                }
+            }
+        }
+        // Items in the bucket of the current tick may not be due yet, so it is visited again on the next call
+        processedTick = currentTick - 1;
+
+        return expired;
+    }
+
+    /**
+     * @return the number of scheduled items
+     */
+    public int size()
+    {
+        int size = 0;
+        for (Set<Timeout<T>> bucket : buckets)
+        {
+            size += bucket.size();
+        }
+        return size;
+    }
+
+    /**
+     * Handle of an item scheduled in a {@link TimingWheel}
+     */
+    public static final class Timeout<T>
+    {
+
+        private final T item;
+        private final long deadline;
+        private final int bucket;
+
+        private Timeout(T item, long deadline, int bucket)
+        {
+            this.item = item;
+            this.deadline = deadline;
+            this.bucket = bucket;
+        }
+
+        public T getItem()
+        {
+            return item;
+        }
+
+        public long getDeadline()
+        {
+            return deadline;
+        }
+    }
+}
@@ -9,8 +9,14 @@ package org.mule.runtime.core.util.queue;
 public class DefaultQueueConfiguration implements QueueConfiguration
 {
 
+    /**
+     * System property to make persistent queues use a segmented log by default
+     */
+    public static final String SEGMENTED_LOG_PROPERTY_KEY = "mule.queue.segmentedLog";
+
     private final boolean persistent;
     private final int capacity;
+    private final boolean segmentedLog;
 
     public DefaultQueueConfiguration()
     {
@@ -18,9 +24,15 @@ public class DefaultQueueConfiguration implements QueueConfiguration
     }
 
     public DefaultQueueConfiguration(int capacity, boolean isPersistent)
+    {
+        this(capacity, isPersistent, Boolean.getBoolean(SEGMENTED_LOG_PROPERTY_KEY));
+    }
+
+    public DefaultQueueConfiguration(int capacity, boolean isPersistent, boolean isSegmentedLog)
     {
         this.capacity = capacity;
         this.persistent = isPersistent;
+        this.segmentedLog = isSegmentedLog;
     }
 
     @Override
@@ -35,11 +47,17 @@ public class DefaultQueueConfiguration implements QueueConfiguration
         return capacity;
     }
 
+    @Override
+    public boolean isSegmentedLog()
+    {
+        return segmentedLog;
+    }
+
     @Override
     public String toString()
     {
         return String.format("DefaultQueueConfiguration{" +
-               "persistent=%s, capacity=%s}", persistent, capacity);
+               "persistent=%s, capacity=%s, segmentedLog=%s}", persistent, capacity, segmentedLog);
     }
 
     @Override
@@ -53,6 +71,7 @@ public class DefaultQueueConfiguration implements QueueConfiguration
         {
             return false;
         }
-        return persistent == ((DefaultQueueConfiguration)obj).persistent && capacity == ((DefaultQueueConfiguration)obj).capacity;
+        return persistent == ((DefaultQueueConfiguration)obj).persistent && capacity == ((DefaultQueueConfiguration)obj).capacity
+               && segmentedLog == ((DefaultQueueConfiguration)obj).segmentedLog;
     }
 }
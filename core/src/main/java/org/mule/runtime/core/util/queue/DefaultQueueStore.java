@@ -46,7 +46,11 @@ public class DefaultQueueStore implements RecoverableQueueStore
         {
             this.config = new DefaultQueueConfiguration();
         }
-        if (this.config.isPersistent())
+        if (this.config.isPersistent() && this.config.isSegmentedLog())
+        {
+            delegate = new SegmentedMappedFileQueueStoreDelegate(this.name, muleContext.getConfiguration().getWorkingDirectory(), muleContext, this.config.getCapacity());
+        }
+        else if (this.config.isPersistent())
         {
             delegate = new DualRandomAccessFileQueueStoreDelegate(this.name, muleContext.getConfiguration().getWorkingDirectory(), muleContext, this.config.getCapacity());
         }
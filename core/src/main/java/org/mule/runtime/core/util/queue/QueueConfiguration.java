@@ -18,4 +18,13 @@ public interface QueueConfiguration
 
     public int getCapacity();
 
+    /**
+     * @return true if a persistent queue must store its data in a segmented, memory-mapped log
+     *         ({@link SegmentedMappedFileQueueStoreDelegate}) instead of the default dual file store.
+     */
+    default boolean isSegmentedLog()
+    {
+        return false;
+    }
+
 }
@@ -69,7 +69,7 @@ public class QueueFileProvider
         queueFile = new RandomAccessFile(file, OPEN_FILE_OPTIONS);
     }
 
-    private static String toHex(String filename)
+    static String toHex(String filename)
     {
         try
         {
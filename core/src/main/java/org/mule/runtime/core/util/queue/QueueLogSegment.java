@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.queue;
+
+import org.mule.runtime.core.api.MuleRuntimeException;
+import org.mule.runtime.core.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A fixed size, memory-mapped file holding a sequence of queue records.
+ * <p/>
+ * Each record is stored as a status byte, a sequence number, the data length and the data itself.
+ * The status byte is written last so a record that was not fully written before a crash is never
+ * considered as part of the queue. A zero status byte marks the end of the written records.
+ * <p/>
+ * This class is not thread safe, access must be synchronized by the owner of the segment.
+ */
+class QueueLogSegment
+{
+
+    static final int HEADER_SIZE = 1 + 8 + 4;
+
+    private static final byte END_OF_DATA = 0;
+    private static final byte LIVE = 1;
+    private static final byte REMOVED = 2;
+    private static final String SEGMENT_FILE_SUFFIX = ".qlog";
+
+    private static final Logger logger = LoggerFactory.getLogger(QueueLogSegment.class);
+
+    private final long id;
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+    private int liveRecords;
+    private boolean dirty;
+
+    private QueueLogSegment(long id, File file, int size) throws IOException
+    {
+        this.id = id;
+        this.file = file;
+        this.randomAccessFile = new RandomAccessFile(file, "rw");
+        this.buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    /**
+     * Creates a new segment file
+     *
+     * @param directory directory where the segment file must be created
+     * @param id        identifier of the segment. Segments are ordered by id.
+     * @param size      size in bytes of the segment
+     * @return the new segment
+     */
+    static QueueLogSegment create(File directory, long id, int size)
+    {
+        try
+        {
+            return new QueueLogSegment(id, new File(directory, fileNameFor(id)), size);
+        }
+        catch (IOException e)
+        {
+            throw new MuleRuntimeException(e);
+        }
+    }
+
+    /**
+     * Opens an existing segment file and loads the position of every live record in it.
+     *
+     * @param file     segment file
+     * @param listener listener notified about every live record found in the segment
+     * @return the opened segment
+     */
+    static QueueLogSegment open(File file, RecordListener listener)
+    {
+        try
+        {
+            QueueLogSegment segment = new QueueLogSegment(idFromFileName(file.getName()), file, (int) file.length());
+            segment.recover(listener);
+            return segment;
+        }
+        catch (IOException e)
+        {
+            throw new MuleRuntimeException(e);
+        }
+    }
+
+    /**
+     * @param fileName name of a file within the segments directory
+     * @return true if the file is a segment file
+     */
+    static boolean isSegmentFile(String fileName)
+    {
+        return fileName.endsWith(SEGMENT_FILE_SUFFIX);
+    }
+
+    static long idFromFileName(String fileName)
+    {
+        return Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_FILE_SUFFIX.length()));
+    }
+
+    private static String fileNameFor(long id)
+    {
+        return String.format("%020d%s", id, SEGMENT_FILE_SUFFIX);
+    }
+
+    private void recover(RecordListener listener)
+    {
+        int position = 0;
+        while (position + HEADER_SIZE <= buffer.capacity())
+        {
+            byte status = buffer.get(position);
+            if (status == END_OF_DATA)
+            {
+                break;
+            }
+            long sequence = buffer.getLong(position + 1);
+            int length = buffer.getInt(position + 9);
+            if (length < 0 || position + HEADER_SIZE + length > buffer.capacity())
+            {
+                logger.warn(String.format("Queue segment %s is corrupted at position %s, discarding the remaining data", file.getAbsolutePath(), position));
+                break;
+            }
+            if (status == LIVE)
+            {
+                liveRecords++;
+                listener.onLiveRecord(sequence, position);
+            }
+            position += HEADER_SIZE + length;
+        }
+        writePosition = position;
+    }
+
+    /**
+     * Appends a new record to the segment
+     *
+     * @param sequence sequence number of the record within the queue
+     * @param data     record data
+     * @return the offset of the record in the segment, or -1 if there's no room for the record
+     */
+    int append(long sequence, byte[] data)
+    {
+        int required = HEADER_SIZE + data.length;
+        if (buffer.capacity() - writePosition < required)
+        {
+            return -1;
+        }
+        int offset = writePosition;
+        buffer.putLong(offset + 1, sequence);
+        buffer.putInt(offset + 9, data.length);
+        ByteBuffer dataBuffer = buffer.duplicate();
+        dataBuffer.position(offset + HEADER_SIZE);
+        dataBuffer.put(data);
+        buffer.put(offset, LIVE);
+        writePosition += required;
+        liveRecords++;
+        dirty = true;
+        return offset;
+    }
+
+    /**
+     * @param offset offset of the record in the segment
+     * @return the data of the record
+     */
+    byte[] read(int offset)
+    {
+        byte[] data = new byte[buffer.getInt(offset + 9)];
+        ByteBuffer dataBuffer = buffer.duplicate();
+        dataBuffer.position(offset + HEADER_SIZE);
+        dataBuffer.get(data);
+        return data;
+    }
+
+    /**
+     * Marks the record as removed.
+     *
+     * @param offset offset of the record in the segment
+     */
+    void markRemoved(int offset)
+    {
+        buffer.put(offset, REMOVED);
+        liveRecords--;
+        dirty = true;
+    }
+
+    /**
+     * @return true if the segment was modified since the last time it was flushed
+     */
+    boolean isDirty()
+    {
+        return dirty;
+    }
+
+    /**
+     * Marks the segment as clean. The caller must then invoke {@link #force()} to actually flush the data.
+     */
+    void markClean()
+    {
+        dirty = false;
+    }
+
+    /**
+     * Forces the segment content to be written to the storage device.
+     */
+    void force()
+    {
+        buffer.force();
+    }
+
+    long getId()
+    {
+        return id;
+    }
+
+    File getFile()
+    {
+        return file;
+    }
+
+    int getLiveRecords()
+    {
+        return liveRecords;
+    }
+
+    /**
+     * @param dataLength length of the data to append
+     * @return true if a record with the given data length can be appended to this segment
+     */
+    boolean hasRoomFor(int dataLength)
+    {
+        return buffer.capacity() - writePosition >= HEADER_SIZE + dataLength;
+    }
+
+    /**
+     * Releases the file handle held by this segment.
+     */
+    void close()
+    {
+        try
+        {
+            randomAccessFile.close();
+        }
+        catch (IOException e)
+        {
+            logger.warn("Failure closing queue segment file: " + e.getMessage());
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Failure closing queue segment file", e);
+            }
+        }
+    }
+
+    /**
+     * Deletes the segment file. This method must only be invoked after {@link #close()}.
+     */
+    void delete()
+    {
+        if (!FileUtils.deleteQuietly(file) && logger.isDebugEnabled())
+        {
+            logger.debug("Could not delete queue segment file " + file.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Callback used while recovering the content of an existing segment.
+     */
+    interface RecordListener
+    {
+
+        /**
+         * @param sequence sequence number of the record
+         * @param offset   offset of the record in the segment
+         */
+        void onLiveRecord(long sequence, int offset);
+    }
+}
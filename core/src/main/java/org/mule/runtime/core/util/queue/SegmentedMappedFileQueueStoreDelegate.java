@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.queue;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.serialization.ObjectSerializer;
+import org.mule.runtime.core.util.FileUtils;
+import org.mule.runtime.core.util.Preconditions;
+import org.mule.runtime.core.util.collection.LongArrayDeque;
+import org.mule.runtime.core.util.concurrent.DaemonThreadFactory;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link TransactionalQueueStoreDelegate} implementation that stores the queue data in an append only log
+ * split in rolling, memory-mapped segment files.
+ * <p/>
+ * Adding an element only appends a record to the current write segment and removing one only flips the
+ * record status byte, so there's no file seek or system call in the hot path. The position of every element
+ * in the queue is kept in a primitive long index. Segments are flushed to disk in groups by a background task
+ * every {@link #SYNC_INTERVAL_PROPERTY_KEY} milliseconds, or after every change when the interval is zero.
+ * The same task deletes segments whose records have all been consumed, so the disk space used by the queue
+ * is bounded by the amount of elements pending in it.
+ */
+public class SegmentedMappedFileQueueStoreDelegate extends AbstractQueueStoreDelegate implements TransactionalQueueStoreDelegate
+{
+
+    public static final String SEGMENT_SIZE_PROPERTY_KEY = "mule.queue.segment.size";
+    public static final String SYNC_INTERVAL_PROPERTY_KEY = "mule.queue.segment.syncInterval";
+
+    private static final int DEFAULT_SEGMENT_SIZE = 4 * 1024 * 1024;
+    private static final long DEFAULT_SYNC_INTERVAL = 50;
+    private static final String QUEUE_STORE_DIRECTORY = "queuestore";
+    private static final String SEGMENTS_DIRECTORY_SUFFIX = "-segments";
+    private static final String VALID_DIRECTORY_NAME_PATTERN = "[\\w.\\-]+";
+    private static final int OFFSET_BITS = 32;
+    private static final long OFFSET_MASK = 0xFFFFFFFFL;
+
+    protected final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ObjectSerializer serializer;
+    private final File segmentsDirectory;
+    private final int segmentSize;
+    private final long syncInterval;
+    private final Map<Long, QueueLogSegment> segments = new TreeMap<>();
+    private final LongArrayDeque index = new LongArrayDeque();
+    private ScheduledThreadPoolExecutor maintenanceExecutor;
+    private QueueLogSegment writeSegment;
+    private QueueLogSegment lastReadSegment;
+    private long headSequence;
+    private long tailSequence;
+
+    public SegmentedMappedFileQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity)
+    {
+        super(capacity);
+        this.serializer = muleContext.getObjectSerializer();
+        this.segmentSize = Integer.getInteger(SEGMENT_SIZE_PROPERTY_KEY, DEFAULT_SEGMENT_SIZE);
+        this.syncInterval = Long.getLong(SYNC_INTERVAL_PROPERTY_KEY, DEFAULT_SYNC_INTERVAL);
+        this.segmentsDirectory = getSegmentsDirectory(queueName, workingDirectory);
+        if (!segmentsDirectory.exists())
+        {
+            Preconditions.checkState(segmentsDirectory.mkdirs(), "Could not create queue store directory " + segmentsDirectory.getAbsolutePath());
+        }
+        recover();
+        if (syncInterval > 0)
+        {
+            maintenanceExecutor = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("queue-store-maintenance-" + queueName, getClass().getClassLoader()));
+            maintenanceExecutor.scheduleWithFixedDelay(this::doMaintenance, syncInterval, syncInterval, MILLISECONDS);
+        }
+
+        if (logger.isDebugEnabled())
+        {
+            logger.debug(String.format("Queue %s has %s messages in %s segments", queueName, index.size(), segments.size()));
+        }
+    }
+
+    /**
+     * @param queueName        name of the queue
+     * @param workingDirectory mule working directory
+     * @return the directory where the segments of the given queue are stored
+     */
+    public static File getSegmentsDirectory(String queueName, String workingDirectory)
+    {
+        String directoryName = queueName.matches(VALID_DIRECTORY_NAME_PATTERN) ? queueName : QueueFileProvider.toHex(queueName);
+        return new File(new File(workingDirectory, QUEUE_STORE_DIRECTORY), directoryName + SEGMENTS_DIRECTORY_SUFFIX);
+    }
+
+    private void recover()
+    {
+        File[] segmentFiles = segmentsDirectory.listFiles((dir, name) -> QueueLogSegment.isSegmentFile(name));
+        if (segmentFiles == null)
+        {
+            segmentFiles = new File[0];
+        }
+        Arrays.sort(segmentFiles, (first, second) -> Long.compare(QueueLogSegment.idFromFileName(first.getName()), QueueLogSegment.idFromFileName(second.getName())));
+
+        final LongArrayDeque sequences = new LongArrayDeque();
+        for (File segmentFile : segmentFiles)
+        {
+            final long segmentId = QueueLogSegment.idFromFileName(segmentFile.getName());
+            QueueLogSegment segment = QueueLogSegment.open(segmentFile, (sequence, offset) -> {
+                sequences.addLast(sequence);
+                index.addLast(toPosition(segmentId, offset));
+            });
+            segments.put(segment.getId(), segment);
+            writeSegment = segment;
+        }
+
+        sortIndexBySequence(sequences);
+        if (!sequences.isEmpty())
+        {
+            headSequence = sequences.getFirst();
+            tailSequence = sequences.get(sequences.size() - 1);
+        }
+        if (writeSegment == null)
+        {
+            rollWriteSegment(0);
+        }
+        deleteConsumedSegments();
+    }
+
+    /**
+     * Records are usually found in sequence order, unless elements were added at the beginning of the queue,
+     * in which case the index needs to be sorted so the queue order is preserved across restarts.
+     */
+    private void sortIndexBySequence(LongArrayDeque sequences)
+    {
+        boolean sorted = true;
+        for (int i = 1; i < sequences.size() && sorted; i++)
+        {
+            sorted = sequences.get(i - 1) < sequences.get(i);
+        }
+        if (sorted)
+        {
+            return;
+        }
+        Integer[] order = new Integer[sequences.size()];
+        for (int i = 0; i < order.length; i++)
+        {
+            order[i] = i;
+        }
+        Arrays.sort(order, (first, second) -> Long.compare(sequences.get(first), sequences.get(second)));
+        LongArrayDeque sortedIndex = new LongArrayDeque(order.length);
+        LongArrayDeque sortedSequences = new LongArrayDeque(order.length);
+        for (Integer position : order)
+        {
+            sortedIndex.addLast(index.get(position));
+            sortedSequences.addLast(sequences.get(position));
+        }
+        index.clear();
+        sequences.clear();
+        for (int i = 0; i < sortedIndex.size(); i++)
+        {
+            index.addLast(sortedIndex.get(i));
+            sequences.addLast(sortedSequences.get(i));
+        }
+    }
+
+    @Override
+    protected void add(Serializable item)
+    {
+        index.addLast(append(++tailSequence, serializer.serialize(item)));
+    }
+
+    @Override
+    protected void addFirst(Serializable item) throws InterruptedException
+    {
+        index.addFirst(append(--headSequence, serializer.serialize(item)));
+    }
+
+    @Override
+    protected Serializable removeFirst() throws InterruptedException
+    {
+        if (index.isEmpty())
+        {
+            return null;
+        }
+        long position = index.removeFirst();
+        QueueLogSegment segment = segmentFor(position);
+        Serializable value = deserialize(segment.read(toOffset(position)));
+        segment.markRemoved(toOffset(position));
+        syncIfRequired(segment);
+        return value;
+    }
+
+    @Override
+    protected Serializable getFirst() throws InterruptedException
+    {
+        if (index.isEmpty())
+        {
+            return null;
+        }
+        long position = index.getFirst();
+        return deserialize(segmentFor(position).read(toOffset(position)));
+    }
+
+    @Override
+    protected int size()
+    {
+        return index.size();
+    }
+
+    @Override
+    protected boolean isEmpty()
+    {
+        return index.isEmpty();
+    }
+
+    @Override
+    protected boolean doAddAll(Collection<? extends Serializable> items)
+    {
+        for (Serializable item : items)
+        {
+            add(item);
+        }
+        return true;
+    }
+
+    @Override
+    protected void doClear()
+    {
+        index.clear();
+        for (QueueLogSegment segment : segments.values())
+        {
+            segment.close();
+            segment.delete();
+        }
+        segments.clear();
+        lastReadSegment = null;
+        headSequence = 0;
+        tailSequence = 0;
+        rollWriteSegment(writeSegment.getId() + 1);
+    }
+
+    @Override
+    public synchronized void remove(Serializable value)
+    {
+        for (int i = 0; i < index.size(); i++)
+        {
+            long position = index.get(i);
+            QueueLogSegment segment = segmentFor(position);
+            if (deserialize(segment.read(toOffset(position))).equals(value))
+            {
+                index.remove(position);
+                segment.markRemoved(toOffset(position));
+                syncIfRequired(segment);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public synchronized boolean contains(Serializable value)
+    {
+        for (int i = 0; i < index.size(); i++)
+        {
+            long position = index.get(i);
+            if (deserialize(segmentFor(position).read(toOffset(position))).equals(value))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Use this method carefully since it deserializes every element in the queue.
+     *
+     * @return all the elements from the queue.
+     */
+    public synchronized Collection<Serializable> allElements()
+    {
+        List<Serializable> elements = new LinkedList<>();
+        for (int i = 0; i < index.size(); i++)
+        {
+            long position = index.get(i);
+            try
+            {
+                elements.add(deserialize(segmentFor(position).read(toOffset(position))));
+            }
+            catch (Exception e)
+            {
+                logger.warn("Failure trying to deserialize value " + e.getMessage());
+                if (logger.isDebugEnabled())
+                {
+                    logger.debug("Failure trying to deserialize value", e);
+                }
+            }
+        }
+        return elements;
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        if (maintenanceExecutor != null)
+        {
+            maintenanceExecutor.shutdownNow();
+        }
+        for (QueueLogSegment segment : segments.values())
+        {
+            segment.force();
+            segment.close();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void dispose()
+    {
+        close();
+        for (QueueLogSegment segment : segments.values())
+        {
+            segment.delete();
+        }
+        segments.clear();
+        FileUtils.deleteQuietly(segmentsDirectory);
+    }
+
+    private long append(long sequence, byte[] data)
+    {
+        if (!writeSegment.hasRoomFor(data.length))
+        {
+            rollWriteSegment(writeSegment.getId() + 1, data.length);
+        }
+        int offset = writeSegment.append(sequence, data);
+        syncIfRequired(writeSegment);
+        return toPosition(writeSegment.getId(), offset);
+    }
+
+    private void rollWriteSegment(long segmentId)
+    {
+        rollWriteSegment(segmentId, 0);
+    }
+
+    private void rollWriteSegment(long segmentId, int dataLength)
+    {
+        if (logger.isDebugEnabled() && writeSegment != null)
+        {
+            logger.debug(String.format("Rolling write segment %s, %s segments in use", writeSegment.getFile().getName(), segments.size()));
+        }
+        writeSegment = QueueLogSegment.create(segmentsDirectory, segmentId, Math.max(segmentSize, QueueLogSegment.HEADER_SIZE + dataLength));
+        segments.put(segmentId, writeSegment);
+    }
+
+    private QueueLogSegment segmentFor(long position)
+    {
+        long segmentId = position >>> OFFSET_BITS;
+        if (lastReadSegment == null || lastReadSegment.getId() != segmentId)
+        {
+            lastReadSegment = segments.get(segmentId);
+        }
+        return lastReadSegment;
+    }
+
+    private void syncIfRequired(QueueLogSegment segment)
+    {
+        if (syncInterval <= 0)
+        {
+            segment.force();
+            segment.markClean();
+            if (segment != writeSegment && segment.getLiveRecords() == 0)
+            {
+                deleteConsumedSegments();
+            }
+        }
+    }
+
+    /**
+     * Flushes all the modified segments in one go and deletes the ones that have already been consumed.
+     */
+    private void doMaintenance()
+    {
+        List<QueueLogSegment> dirtySegments = new ArrayList<>();
+        synchronized (this)
+        {
+            for (QueueLogSegment segment : segments.values())
+            {
+                if (segment.isDirty())
+                {
+                    segment.markClean();
+                    dirtySegments.add(segment);
+                }
+            }
+            deleteConsumedSegments();
+        }
+        // Mapped buffers are never unmapped explicitly, so forcing them outside the lock is safe
+        // even if the segment was deleted in the meantime.
+        for (QueueLogSegment segment : dirtySegments)
+        {
+            segment.force();
+        }
+    }
+
+    private void deleteConsumedSegments()
+    {
+        Iterator<QueueLogSegment> iterator = segments.values().iterator();
+        while (iterator.hasNext())
+        {
+            QueueLogSegment segment = iterator.next();
+            if (segment != writeSegment && segment.getLiveRecords() == 0)
+            {
+                iterator.remove();
+                if (segment == lastReadSegment)
+                {
+                    lastReadSegment = null;
+                }
+                segment.close();
+                segment.delete();
+            }
+        }
+    }
+
+    private static long toPosition(long segmentId, int offset)
+    {
+        return (segmentId << OFFSET_BITS) | offset;
+    }
+
+    private static int toOffset(long position)
+    {
+        return (int) (position & OFFSET_MASK);
+    }
+
+    private Serializable deserialize(byte[] bytes)
+    {
+        return serializer.deserialize(bytes);
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.store;
+
+import org.mule.runtime.core.api.lifecycle.Disposable;
+import org.mule.runtime.core.api.lifecycle.Initialisable;
+import org.mule.runtime.core.api.lifecycle.InitialisationException;
+import org.mule.runtime.core.api.lifecycle.LifecycleUtils;
+import org.mule.runtime.core.api.store.ListableObjectStore;
+import org.mule.runtime.core.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.core.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.core.api.store.ObjectStore;
+import org.mule.runtime.core.api.store.ObjectStoreException;
+import org.mule.runtime.core.config.i18n.CoreMessages;
+import org.mule.runtime.core.util.collection.ScalableBloomFilter;
+import org.mule.runtime.core.util.concurrent.DaemonThreadFactory;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Wraps an {@link ObjectStore} in which keys are mostly stored once and rarely looked up with success, like the ids
+ * of an idempotent filter, so that most operations don't reach it.
+ * <p/>
+ * A {@link ScalableBloomFilter} holding every key in the store answers {@link #contains(Serializable)} for keys that
+ * were definitely never stored. Stored entries are kept in memory and written to the wrapped store in batches by a
+ * background thread every {@code persistInterval} milliseconds, or as soon as too many are waiting. Entries waiting
+ * to be written are lost if the JVM stops abruptly, and entries which fail to be written
+ * {@value #MAX_PERSIST_ATTEMPTS} times are dropped. While the wrapped store keeps failing, storing fails once twice
+ * the maximum number of pending entries are waiting, so memory stays bounded.
+ * <p/>
+ * To keep memory bounded, keys are forgotten by the filter between one and two {@code expirationWindow} after being
+ * stored. The wrapped store must expire its entries before that, or the keys it still holds are reported as missing.
+ * An expiration window lower or equal than zero means keys are never forgotten.
+ * <p/>
+ * On initialisation, the filter is rebuilt with the keys of the wrapped store, if it's a {@link ListableObjectStore}.
+ */
+public class BloomFilterObjectStore<T extends Serializable> implements ObjectStore<T>, Initialisable, Disposable
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(BloomFilterObjectStore.class);
+
+    public static final int DEFAULT_EXPECTED_KEYS = 64 * 1024;
+    public static final double DEFAULT_FALSE_POSITIVE_PROBABILITY = 0.01;
+    public static final int DEFAULT_MAX_PENDING_ENTRIES = 10 * 1000;
+    public static final int MAX_PERSIST_ATTEMPTS = 3;
+
+    private final ObjectStore<T> store;
+    private final String name;
+    private final long expirationWindow;
+    private final long persistInterval;
+    private int expectedKeys = DEFAULT_EXPECTED_KEYS;
+    private double falsePositiveProbability = DEFAULT_FALSE_POSITIVE_PROBABILITY;
+    private int maxPendingEntries = DEFAULT_MAX_PENDING_ENTRIES;
+
+    private final Map<Serializable, PendingEntry<T>> pendingEntries = new ConcurrentHashMap<>();
+    private final Object persistLock = new Object();
+    private final AtomicBoolean persistRequested = new AtomicBoolean();
+    private volatile ScalableBloomFilter currentKeys;
+    private volatile ScalableBloomFilter previousKeys;
+    private ScheduledThreadPoolExecutor scheduler;
+
+    /**
+     * @param store the store to wrap
+     * @param name used to name the thread that writes to the store
+     * @param expirationWindow milliseconds after which the stored keys start to be forgotten
+     * @param persistInterval milliseconds between writes of the stored entries into the wrapped store
+     */
+    public BloomFilterObjectStore(ObjectStore<T> store, String name, long expirationWindow, long persistInterval)
+    {
+        this.store = store;
+        this.name = name;
+        this.expirationWindow = expirationWindow;
+        this.persistInterval = persistInterval;
+    }
+
+    @Override
+    public void initialise() throws InitialisationException
+    {
+        if (persistInterval <= 0)
+        {
+            throw new IllegalArgumentException(CoreMessages.propertyHasInvalidValue("persistInterval", persistInterval).toString());
+        }
+        LifecycleUtils.initialiseIfNeeded(store);
+
+        currentKeys = createFilter();
+        previousKeys = createFilter();
+        if (store instanceof ListableObjectStore)
+        {
+            try
+            {
+                for (Serializable key : ((ListableObjectStore<T>) store).allKeys())
+                {
+                    currentKeys.put(key);
+                }
+            }
+            catch (ObjectStoreException e)
+            {
+                throw new InitialisationException(e, this);
+            }
+        }
+
+        scheduler = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory(name + ".persister"));
+        scheduler.scheduleWithFixedDelay(this::persistPendingEntries, persistInterval, persistInterval, TimeUnit.MILLISECONDS);
+        if (expirationWindow > 0)
+        {
+            scheduler.scheduleWithFixedDelay(this::expireKeys, expirationWindow, expirationWindow, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void dispose()
+    {
+        if (scheduler != null)
+        {
+            scheduler.shutdownNow();
+        }
+        persistPendingEntries();
+        LifecycleUtils.disposeIfNeeded(store, logger);
+    }
+
+    @Override
+    public boolean contains(Serializable key) throws ObjectStoreException
+    {
+        if (pendingEntries.containsKey(key))
+        {
+            return true;
+        }
+        if (!mightContain(key))
+        {
+            return false;
+        }
+        return store.contains(key);
+    }
+
+    @Override
+    public void store(Serializable key, T value) throws ObjectStoreException
+    {
+        if (pendingEntries.size() >= 2 * maxPendingEntries)
+        {
+            throw new ObjectStoreException(CoreMessages.createStaticMessage(String.format(
+                    "Store %s has %d entries waiting to be written, the wrapped store is failing or too slow", name, pendingEntries.size())));
+        }
+
+        boolean known = mightContain(key);
+        // added to the filter before becoming pending, so it's found once it's persisted and no longer pending
+        currentKeys.put(key);
+        PendingEntry<T> entry = new PendingEntry<>(value);
+        if (known)
+        {
+            // a write of the pending entries in between the lookup and the insertion would make a new entry look
+            // like one that was already stored
+            synchronized (persistLock)
+            {
+                if (pendingEntries.containsKey(key) || store.contains(key))
+                {
+                    throw new ObjectAlreadyExistsException(CoreMessages.objectAlreadyExists(String.valueOf(key)));
+                }
+                addPendingEntry(key, entry);
+            }
+        }
+        else
+        {
+            addPendingEntry(key, entry);
+        }
+
+        if (pendingEntries.size() >= maxPendingEntries && persistRequested.compareAndSet(false, true))
+        {
+            // written by the background thread, so storing threads don't wait for the wrapped store
+            scheduler.execute(() -> {
+                persistRequested.set(false);
+                persistPendingEntries();
+            });
+        }
+    }
+
+    private void addPendingEntry(Serializable key, PendingEntry<T> entry) throws ObjectAlreadyExistsException
+    {
+        if (pendingEntries.putIfAbsent(key, entry) != null)
+        {
+            throw new ObjectAlreadyExistsException(CoreMessages.objectAlreadyExists(String.valueOf(key)));
+        }
+    }
+
+    @Override
+    public T retrieve(Serializable key) throws ObjectStoreException
+    {
+        PendingEntry<T> entry = pendingEntries.get(key);
+        if (entry != null)
+        {
+            return entry.value;
+        }
+        if (!mightContain(key))
+        {
+            throw new ObjectDoesNotExistException(CoreMessages.objectNotFound(key));
+        }
+        return store.retrieve(key);
+    }
+
+    @Override
+    public T remove(Serializable key) throws ObjectStoreException
+    {
+        // removed keys remain in the filter, which only means they are looked up in the wrapped store
+        synchronized (persistLock)
+        {
+            // serialized with writes, so a removed entry being written is not written back after its removal
+            PendingEntry<T> entry = pendingEntries.remove(key);
+            if (entry != null)
+            {
+                return entry.value;
+            }
+            return store.remove(key);
+        }
+    }
+
+    @Override
+    public boolean isPersistent()
+    {
+        return store.isPersistent();
+    }
+
+    @Override
+    public void clear() throws ObjectStoreException
+    {
+        synchronized (persistLock)
+        {
+            pendingEntries.clear();
+            store.clear();
+            previousKeys = createFilter();
+            currentKeys = createFilter();
+        }
+    }
+
+    /**
+     * Writes the entries waiting to be persisted into the wrapped store. Entries that fail to be written are kept
+     * for the next attempt, up to {@value #MAX_PERSIST_ATTEMPTS} attempts.
+     */
+    public void persistPendingEntries()
+    {
+        synchronized (persistLock)
+        {
+            for (Map.Entry<Serializable, PendingEntry<T>> entry : pendingEntries.entrySet())
+            {
+                PendingEntry<T> pendingEntry = entry.getValue();
+                try
+                {
+                    store.store(entry.getKey(), pendingEntry.value);
+                }
+                catch (ObjectAlreadyExistsException e)
+                {
+                    // already there, nothing else to do with it
+                }
+                catch (ObjectStoreException | RuntimeException e)
+                {
+                    if (++pendingEntry.failedAttempts < MAX_PERSIST_ATTEMPTS)
+                    {
+                        logger.warn("Could not persist entry {} of store {}, will retry later: {}", entry.getKey(), name, e.getMessage());
+                        continue;
+                    }
+                    logger.error("Could not persist entry {} of store {} after {} attempts, dropping it: {}", entry.getKey(), name,
+                                 MAX_PERSIST_ATTEMPTS, e.getMessage());
+                }
+                pendingEntries.remove(entry.getKey(), pendingEntry);
+            }
+        }
+    }
+
+    private void expireKeys()
+    {
+        // previous has to be replaced first, so concurrent lookups always see the current keys
+        previousKeys = currentKeys;
+        currentKeys = createFilter();
+    }
+
+    private boolean mightContain(Serializable key)
+    {
+        return currentKeys.mightContain(key) || previousKeys.mightContain(key);
+    }
+
+    private ScalableBloomFilter createFilter()
+    {
+        return new ScalableBloomFilter(expectedKeys, falsePositiveProbability);
+    }
+
+    /**
+     * @return the number of entries waiting to be written into the wrapped store
+     */
+    public int getPendingEntriesCount()
+    {
+        return pendingEntries.size();
+    }
+
+    public ObjectStore<T> getStore()
+    {
+        return store;
+    }
+
+    /**
+     * Number of keys the filter is initially sized for. It grows beyond it, so it only needs to be a rough estimate
+     * of the keys stored within an expiration window.
+     */
+    public void setExpectedKeys(int expectedKeys)
+    {
+        this.expectedKeys = expectedKeys;
+    }
+
+    /**
+     * Probability of looking up a key that was never stored in the wrapped store.
+     */
+    public void setFalsePositiveProbability(double falsePositiveProbability)
+    {
+        this.falsePositiveProbability = falsePositiveProbability;
+    }
+
+    /**
+     * Maximum number of entries waiting to be written. When reached, they are written without waiting for the next
+     * {@code persistInterval}. Storing fails when twice as many entries are waiting.
+     */
+    public void setMaxPendingEntries(int maxPendingEntries)
+    {
+        this.maxPendingEntries = maxPendingEntries;
+    }
+
+    private static final class PendingEntry<T>
+    {
+
+        private final T value;
+        // only accessed holding the persist lock
+        private int failedAttempts;
+
+        private PendingEntry(T value)
+        {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,790 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.store;
+
+import static org.mule.runtime.core.api.store.ObjectStoreManager.UNBOUNDED;
+import static org.mule.runtime.core.util.store.ObjectStoreLogSegment.PUT;
+import static org.mule.runtime.core.util.store.ObjectStoreLogSegment.REMOVE;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.serialization.ObjectSerializer;
+import org.mule.runtime.core.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.core.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.core.api.store.ObjectStoreException;
+import org.mule.runtime.core.api.store.ObjectStoreNotAvaliableException;
+import org.mule.runtime.core.config.i18n.CoreMessages;
+import org.mule.runtime.core.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link PersistentStorePartition} that appends every change to a log split in segment files, instead of
+ * writing one file per entry as {@link PersistentObjectStorePartition} does.
+ * <p/>
+ * The location of the latest record of every key is kept in an in-memory hash index, so opening the partition
+ * only requires a sequential read of the log deserializing the keys, and retrieving a value is a single
+ * positional read. Operations over different keys only contend while appending to the log, since each key
+ * is guarded by one of a fixed set of lock stripes. Entries are also indexed by the order in which they were
+ * stored so {@link #expire(int, int)} only visits the entries that actually expire.
+ * <p/>
+ * Once a segment is full a new one is started, and the sealed segment with the least live content is
+ * compacted while at most half of it is live: records that are still live are copied to the current segment
+ * and the old file is deleted. Removal records are copied as well while the record they remove is still in an
+ * older segment, so it's not restored when reopening the partition. Compaction runs on the given
+ * {@link Executor} after rolling a segment and after every expiration.
+ * <p/>
+ * Operations that discard the whole log, {@link #clear()} and {@link #close()}, exclude every other write
+ * and compaction through a partition wide lock.
+ */
+public class LogStructuredObjectStorePartition<T extends Serializable> implements PersistentStorePartition<T>
+{
+
+    public static final String SEGMENT_SIZE_PROPERTY_KEY = "mule.objectstore.segment.size";
+
+    private static final long DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    private static final double COMPACTION_LIVE_RATIO = 0.5;
+    private static final int LOCK_STRIPES = 64;
+    private static final String PARTITION_DESCRIPTOR_FILE = "partition-descriptor";
+    private static final String LOG_FORMAT_MARKER_FILE = "log-structured";
+
+    protected final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final MuleContext muleContext;
+    private final ObjectSerializer serializer;
+    private final File partitionDirectory;
+    private final Executor compactionExecutor;
+    private final long segmentSize;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final Object appendLock = new Object();
+    private final ReadWriteLock partitionLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean compacting = new AtomicBoolean(false);
+    private final AtomicBoolean compactionRequested = new AtomicBoolean(false);
+    private final Map<Serializable, IndexEntry> index = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Long, Serializable> keysBySequence = new ConcurrentSkipListMap<>();
+    private final ConcurrentNavigableMap<Integer, ObjectStoreLogSegment> segments = new ConcurrentSkipListMap<>();
+    private final Map<Long, Removal> removals = new ConcurrentHashMap<>();
+    private final AtomicLong nextSequence = new AtomicLong();
+    private volatile ObjectStoreLogSegment activeSegment;
+    private volatile boolean loaded = false;
+    private String partitionName;
+
+    LogStructuredObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory, Executor compactionExecutor)
+    {
+        this.muleContext = muleContext;
+        this.serializer = muleContext.getObjectSerializer();
+        this.partitionName = partitionName;
+        this.partitionDirectory = partitionDirectory;
+        this.compactionExecutor = compactionExecutor;
+        this.segmentSize = Long.getLong(SEGMENT_SIZE_PROPERTY_KEY, DEFAULT_SEGMENT_SIZE);
+        for (int i = 0; i < LOCK_STRIPES; i++)
+        {
+            locks[i] = new Object();
+        }
+    }
+
+    LogStructuredObjectStorePartition(MuleContext muleContext, File partitionDirectory, Executor compactionExecutor)
+        throws ObjectStoreNotAvaliableException
+    {
+        this(muleContext, readPartitionFileName(partitionDirectory), partitionDirectory, compactionExecutor);
+    }
+
+    /**
+     * @param partitionDirectory directory of an existing partition
+     * @return true if the partition was written by a {@link LogStructuredObjectStorePartition}
+     */
+    static boolean isLogStructuredPartition(File partitionDirectory)
+    {
+        return new File(partitionDirectory, LOG_FORMAT_MARKER_FILE).exists();
+    }
+
+    private static String readPartitionFileName(File partitionDirectory) throws ObjectStoreNotAvaliableException
+    {
+        try
+        {
+            return FileUtils.readFileToString(new File(partitionDirectory, PARTITION_DESCRIPTOR_FILE));
+        }
+        catch (IOException e)
+        {
+            throw new ObjectStoreNotAvaliableException(e);
+        }
+    }
+
+    @Override
+    public synchronized void open() throws ObjectStoreException
+    {
+        if (!partitionDirectory.exists() && !partitionDirectory.mkdirs())
+        {
+            throw new ObjectStoreException(CoreMessages.failedToCreate("object store directory " + partitionDirectory.getAbsolutePath()));
+        }
+        try
+        {
+            File partitionDescriptorFile = new File(partitionDirectory, PARTITION_DESCRIPTOR_FILE);
+            if (partitionDescriptorFile.exists())
+            {
+                partitionName = readPartitionFileName(partitionDirectory);
+            }
+            else
+            {
+                FileUtils.writeStringToFile(partitionDescriptorFile, partitionName);
+            }
+
+            // keeps the format of the partition known even when it has no segments
+            File logFormatMarkerFile = new File(partitionDirectory, LOG_FORMAT_MARKER_FILE);
+            if (!logFormatMarkerFile.exists())
+            {
+                FileUtils.touch(logFormatMarkerFile);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new ObjectStoreException(e);
+        }
+    }
+
+    /**
+     * Flushes and closes the segment files. The partition is loaded again if used after being closed.
+     */
+    @Override
+    public synchronized void close() throws ObjectStoreException
+    {
+        partitionLock.writeLock().lock();
+        try
+        {
+            IOException failure = null;
+            for (ObjectStoreLogSegment segment : segments.values())
+            {
+                try
+                {
+                    segment.force();
+                }
+                catch (IOException e)
+                {
+                    failure = e;
+                }
+                finally
+                {
+                    segment.close();
+                }
+            }
+            segments.clear();
+            index.clear();
+            removals.clear();
+            keysBySequence.clear();
+            activeSegment = null;
+            loaded = false;
+
+            if (failure != null)
+            {
+                throw new ObjectStoreException(failure);
+            }
+        }
+        finally
+        {
+            partitionLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Serializable> allKeys() throws ObjectStoreException
+    {
+        assureLoaded();
+        return Collections.unmodifiableList(new ArrayList<>(index.keySet()));
+    }
+
+    @Override
+    public boolean contains(Serializable key) throws ObjectStoreException
+    {
+        assureLoaded();
+        return index.containsKey(key);
+    }
+
+    @Override
+    public void store(Serializable key, T value) throws ObjectStoreException
+    {
+        assureLoaded();
+        byte[] serializedKey = serializer.serialize(key);
+        byte[] serializedValue = serializer.serialize(value);
+        partitionLock.readLock().lock();
+        try
+        {
+            synchronized (lockFor(key))
+            {
+                if (index.containsKey(key))
+                {
+                    throw new ObjectAlreadyExistsException();
+                }
+                IndexEntry entry = append(PUT, nextSequence.getAndIncrement(), System.currentTimeMillis(), serializedKey, serializedValue);
+                index.put(key, entry);
+                keysBySequence.put(entry.sequence, key);
+            }
+        }
+        finally
+        {
+            partitionLock.readLock().unlock();
+        }
+        compactIfRequested();
+    }
+
+    @Override
+    public T retrieve(Serializable key) throws ObjectStoreException
+    {
+        assureLoaded();
+        return readValue(key);
+    }
+
+    @Override
+    public T remove(Serializable key) throws ObjectStoreException
+    {
+        assureLoaded();
+        T value;
+        partitionLock.readLock().lock();
+        try
+        {
+            synchronized (lockFor(key))
+            {
+                value = readValue(key);
+                doRemove(key, index.get(key));
+            }
+        }
+        finally
+        {
+            partitionLock.readLock().unlock();
+        }
+        compactIfRequested();
+        return value;
+    }
+
+    @Override
+    public synchronized void clear() throws ObjectStoreException
+    {
+        partitionLock.writeLock().lock();
+        try
+        {
+            for (ObjectStoreLogSegment segment : segments.values())
+            {
+                segment.close();
+            }
+            File[] segmentFiles = partitionDirectory.listFiles((dir, name) -> ObjectStoreLogSegment.isSegmentFile(name));
+            if (segmentFiles != null)
+            {
+                for (File segmentFile : segmentFiles)
+                {
+                    FileUtils.deleteQuietly(segmentFile);
+                }
+            }
+            segments.clear();
+            index.clear();
+            removals.clear();
+            keysBySequence.clear();
+            activeSegment = null;
+            loaded = true;
+        }
+        finally
+        {
+            partitionLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isPersistent()
+    {
+        return true;
+    }
+
+    @Override
+    public void expire(int entryTTL, int maxEntries) throws ObjectStoreException
+    {
+        assureLoaded();
+
+        if (maxEntries != UNBOUNDED)
+        {
+            Iterator<Map.Entry<Long, Serializable>> oldestEntries = keysBySequence.entrySet().iterator();
+            while (index.size() > maxEntries && oldestEntries.hasNext())
+            {
+                Map.Entry<Long, Serializable> oldest = oldestEntries.next();
+                removeIfCurrent(oldest.getValue(), oldest.getKey());
+            }
+        }
+
+        if (entryTTL != UNBOUNDED)
+        {
+            final long now = System.currentTimeMillis();
+            for (Map.Entry<Long, Serializable> oldest : keysBySequence.entrySet())
+            {
+                IndexEntry entry = index.get(oldest.getValue());
+                if (entry != null && entry.sequence == oldest.getKey())
+                {
+                    if (now - entry.timestamp < entryTTL)
+                    {
+                        break;
+                    }
+                    removeIfCurrent(oldest.getValue(), oldest.getKey());
+                }
+            }
+        }
+
+        compactionRequested.set(false);
+        scheduleCompaction();
+    }
+
+    @Override
+    public String getPartitionName()
+    {
+        return partitionName;
+    }
+
+    private void removeIfCurrent(Serializable key, long sequence) throws ObjectStoreException
+    {
+        partitionLock.readLock().lock();
+        try
+        {
+            synchronized (lockFor(key))
+            {
+                IndexEntry entry = index.get(key);
+                if (entry != null && entry.sequence == sequence)
+                {
+                    doRemove(key, entry);
+                }
+            }
+        }
+        finally
+        {
+            partitionLock.readLock().unlock();
+        }
+    }
+
+    private void doRemove(Serializable key, IndexEntry entry) throws ObjectStoreException
+    {
+        IndexEntry removal = append(REMOVE, entry.sequence, System.currentTimeMillis(), serializer.serialize(key), new byte[0]);
+        index.remove(key);
+        keysBySequence.remove(entry.sequence);
+        entry.segment.addLiveBytes(-entry.length);
+        retainRemoval(entry.sequence, entry.segment, removal.segment, removal.length);
+    }
+
+    /**
+     * Keeps track of a removal record while the record it removes is in an older segment
+     */
+    private void retainRemoval(long sequence, ObjectStoreLogSegment removedSegment, ObjectStoreLogSegment segment, int length)
+    {
+        if (removedSegment != segment)
+        {
+            removals.put(sequence, new Removal(removedSegment.getId(), segment, length));
+            segment.addRetainedBytes(length);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T readValue(Serializable key) throws ObjectStoreException
+    {
+        while (true)
+        {
+            IndexEntry entry = index.get(key);
+            if (entry == null)
+            {
+                throw new ObjectDoesNotExistException(CoreMessages.createStaticMessage("Key does not exist: " + key));
+            }
+            try
+            {
+                T value = serializer.deserialize(ObjectStoreLogSegment.valueOf(entry.segment.read(entry.offset, entry.length)));
+                if (value instanceof DeserializationPostInitialisable)
+                {
+                    DeserializationPostInitialisable.Implementation.init(value, muleContext);
+                }
+                return value;
+            }
+            catch (ClosedChannelException e)
+            {
+                // the segment was compacted after the entry was read from the index, retry with its new location
+                if (index.get(key) == entry)
+                {
+                    throw new ObjectStoreException(e);
+                }
+            }
+            catch (Exception e)
+            {
+                throw new ObjectStoreException(e);
+            }
+        }
+    }
+
+    private IndexEntry append(byte type, long sequence, long timestamp, byte[] key, byte[] value) throws ObjectStoreException
+    {
+        IndexEntry entry;
+        synchronized (appendLock)
+        {
+            try
+            {
+                if (activeSegment == null || activeSegment.getSize() >= segmentSize)
+                {
+                    int nextId = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+                    activeSegment = ObjectStoreLogSegment.create(partitionDirectory, nextId);
+                    segments.put(nextId, activeSegment);
+                    if (segments.size() > 1)
+                    {
+                        compactionRequested.set(true);
+                    }
+                }
+                long offset = activeSegment.append(type, sequence, timestamp, key, value);
+                entry = new IndexEntry(activeSegment, offset, ObjectStoreLogSegment.HEADER_SIZE + key.length + value.length, sequence, timestamp);
+                if (type == PUT)
+                {
+                    activeSegment.addLiveBytes(entry.length);
+                }
+            }
+            catch (IOException e)
+            {
+                throw new ObjectStoreException(e);
+            }
+        }
+        return entry;
+    }
+
+    private Object lockFor(Serializable key)
+    {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return locks[hash & (LOCK_STRIPES - 1)];
+    }
+
+    private void assureLoaded() throws ObjectStoreException
+    {
+        if (!loaded)
+        {
+            load();
+        }
+    }
+
+    private synchronized void load() throws ObjectStoreException
+    {
+        if (loaded)
+        {
+            return;
+        }
+        try
+        {
+            File[] segmentFiles = partitionDirectory.listFiles((dir, name) -> ObjectStoreLogSegment.isSegmentFile(name));
+            if (segmentFiles == null)
+            {
+                segmentFiles = new File[0];
+            }
+            Arrays.sort(segmentFiles, (first, second) -> Integer.compare(ObjectStoreLogSegment.idFromFileName(first.getName()), ObjectStoreLogSegment.idFromFileName(second.getName())));
+            for (File segmentFile : segmentFiles)
+            {
+                ObjectStoreLogSegment segment = ObjectStoreLogSegment.open(segmentFile);
+                segments.put(segment.getId(), segment);
+                activeSegment = segment;
+                loadSegment(segment);
+            }
+            for (Map.Entry<Serializable, IndexEntry> entry : index.entrySet())
+            {
+                keysBySequence.put(entry.getValue().sequence, entry.getKey());
+            }
+            loaded = true;
+        }
+        catch (Exception e)
+        {
+            String message = String.format("Could not restore object store data from %1s", partitionDirectory.getAbsolutePath());
+            throw new ObjectStoreException(CoreMessages.createStaticMessage(message), e);
+        }
+    }
+
+    private void loadSegment(ObjectStoreLogSegment segment) throws IOException
+    {
+        long offset = 0;
+        ByteBuffer record;
+        while ((record = segment.readValidRecord(offset)) != null)
+        {
+            Serializable key = serializer.deserialize(ObjectStoreLogSegment.keyOf(record));
+            long sequence = ObjectStoreLogSegment.sequenceOf(record);
+            IndexEntry previous;
+            if (ObjectStoreLogSegment.typeOf(record) == PUT)
+            {
+                IndexEntry entry = new IndexEntry(segment, offset, record.capacity(), sequence, ObjectStoreLogSegment.timestampOf(record));
+                segment.addLiveBytes(entry.length);
+                previous = index.put(key, entry);
+            }
+            else
+            {
+                previous = index.get(key);
+                if (previous != null && previous.sequence == sequence)
+                {
+                    index.remove(key);
+                    retainRemoval(sequence, previous.segment, segment, record.capacity());
+                }
+                else
+                {
+                    previous = null;
+                }
+            }
+            if (previous != null)
+            {
+                previous.segment.addLiveBytes(-previous.length);
+            }
+            if (sequence >= nextSequence.get())
+            {
+                nextSequence.set(sequence + 1);
+            }
+            offset += record.capacity();
+        }
+        if (offset < segment.getSize())
+        {
+            logger.warn(String.format("Object store segment %s is corrupted at position %s, discarding the remaining data", segment.getId(), offset));
+            segment.truncate(offset);
+        }
+    }
+
+    /**
+     * Compaction is only started once the caller released the key locks, so the records it relocates
+     * can never be written after a removal record of the same key.
+     */
+    private void compactIfRequested()
+    {
+        if (compactionRequested.compareAndSet(true, false))
+        {
+            scheduleCompaction();
+        }
+    }
+
+    private void scheduleCompaction()
+    {
+        if (compactionExecutor == null)
+        {
+            compact();
+        }
+        else
+        {
+            compactionExecutor.execute(this::compact);
+        }
+    }
+
+    /**
+     * Compacts sealed segments, the one with the least live content first, while most of their content is no
+     * longer live. Segments holding live records that never expire don't prevent reclaiming the later ones.
+     */
+    void compact()
+    {
+        if (!compacting.compareAndSet(false, true))
+        {
+            return;
+        }
+        try
+        {
+            boolean compacted;
+            do
+            {
+                compacted = compactSparsestSegment();
+            }
+            while (compacted);
+        }
+        catch (Exception e)
+        {
+            logger.warn("Could not compact object store partition " + partitionName + ": " + e.getMessage());
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Could not compact object store partition " + partitionName, e);
+            }
+        }
+        finally
+        {
+            compacting.set(false);
+        }
+    }
+
+    /**
+     * @return true if a segment was compacted
+     */
+    private boolean compactSparsestSegment() throws IOException, ObjectStoreException
+    {
+        // clear or close can't discard the segments while one is being compacted
+        partitionLock.readLock().lock();
+        try
+        {
+            ObjectStoreLogSegment sparsest = findSparsestSegment();
+            if (sparsest == null)
+            {
+                return false;
+            }
+            relocateRecords(sparsest);
+            segments.remove(sparsest.getId());
+            sparsest.close();
+            sparsest.delete();
+            releaseRemovals(sparsest);
+            if (logger.isDebugEnabled())
+            {
+                logger.debug(String.format("Compacted segment %s of object store partition %s", sparsest.getId(), partitionName));
+            }
+            return true;
+        }
+        finally
+        {
+            partitionLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the sealed segment with the lowest ratio of content to keep, oldest first, or null if every one
+     * has more than {@link #COMPACTION_LIVE_RATIO} of it
+     */
+    private ObjectStoreLogSegment findSparsestSegment()
+    {
+        ObjectStoreLogSegment sparsest = null;
+        double sparsestRatio = COMPACTION_LIVE_RATIO;
+        for (ObjectStoreLogSegment segment : segments.values())
+        {
+            if (segment == activeSegment)
+            {
+                continue;
+            }
+            long keptBytes = segment.getLiveBytes() + segment.getRetainedBytes();
+            double ratio = segment.getSize() == 0 ? 0 : (double) keptBytes / segment.getSize();
+            if (sparsest == null ? ratio <= sparsestRatio : ratio < sparsestRatio)
+            {
+                sparsest = segment;
+                sparsestRatio = ratio;
+            }
+        }
+        return sparsest;
+    }
+
+    private void relocateRecords(ObjectStoreLogSegment segment) throws IOException, ObjectStoreException
+    {
+        long offset = 0;
+        ByteBuffer record;
+        while ((segment.getLiveBytes() > 0 || segment.getRetainedBytes() > 0) && (record = segment.readValidRecord(offset)) != null)
+        {
+            if (ObjectStoreLogSegment.typeOf(record) == PUT)
+            {
+                byte[] serializedKey = ObjectStoreLogSegment.keyOf(record);
+                Serializable key = serializer.deserialize(serializedKey);
+                synchronized (lockFor(key))
+                {
+                    IndexEntry entry = index.get(key);
+                    if (entry != null && entry.segment == segment && entry.offset == offset)
+                    {
+                        IndexEntry relocated = append(PUT, entry.sequence, entry.timestamp, serializedKey, ObjectStoreLogSegment.valueOf(record));
+                        index.put(key, relocated);
+                        segment.addLiveBytes(-entry.length);
+                    }
+                }
+            }
+            else
+            {
+                relocateRemoval(segment, record);
+            }
+            offset += record.capacity();
+        }
+    }
+
+    /**
+     * Copies a removal record to the current segment if the record it removes is still in another segment, which
+     * is always older, as otherwise it would be restored when reopening the partition
+     */
+    private void relocateRemoval(ObjectStoreLogSegment segment, ByteBuffer record) throws ObjectStoreException
+    {
+        byte[] serializedKey = ObjectStoreLogSegment.keyOf(record);
+        Serializable key = serializer.deserialize(serializedKey);
+        long sequence = ObjectStoreLogSegment.sequenceOf(record);
+        // the removal is tracked once the key lock is released after appending it
+        synchronized (lockFor(key))
+        {
+            Removal removal = removals.get(sequence);
+            if (removal == null || removal.segment != segment)
+            {
+                return;
+            }
+            if (segments.containsKey(removal.removedSegmentId))
+            {
+                IndexEntry relocated = append(REMOVE, sequence, ObjectStoreLogSegment.timestampOf(record), serializedKey,
+                                              ObjectStoreLogSegment.valueOf(record));
+                removal.segment = relocated.segment;
+                relocated.segment.addRetainedBytes(relocated.length);
+            }
+            else
+            {
+                removals.remove(sequence);
+            }
+            segment.addRetainedBytes(-removal.length);
+        }
+    }
+
+    /**
+     * Removal records of records in a deleted segment no longer need to be kept
+     */
+    private void releaseRemovals(ObjectStoreLogSegment deletedSegment)
+    {
+        Iterator<Removal> iterator = removals.values().iterator();
+        while (iterator.hasNext())
+        {
+            Removal removal = iterator.next();
+            if (removal.removedSegmentId == deletedSegment.getId())
+            {
+                iterator.remove();
+                removal.segment.addRetainedBytes(-removal.length);
+            }
+        }
+    }
+
+    /**
+     * Location in the log of the latest record of a key
+     */
+    private static final class IndexEntry
+    {
+
+        private final ObjectStoreLogSegment segment;
+        private final long offset;
+        private final int length;
+        private final long sequence;
+        private final long timestamp;
+
+        private IndexEntry(ObjectStoreLogSegment segment, long offset, int length, long sequence, long timestamp)
+        {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+        }
+    }
+
+    /**
+     * Removal record that has to be kept while the segment of the record it removes exists
+     */
+    private static final class Removal
+    {
+
+        private final int removedSegmentId;
+        private final int length;
+        private volatile ObjectStoreLogSegment segment;
+
+        private Removal(int removedSegmentId, ObjectStoreLogSegment segment, int length)
+        {
+            this.removedSegmentId = removedSegmentId;
+            this.segment = segment;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.store;
+
+import org.mule.runtime.core.util.FileUtils;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A file of the log used by {@link LogStructuredObjectStorePartition}.
+ * <p/>
+ * Each record holds a record type, a sequence number, the time it was originally stored, the length of the
+ * serialized key and value, a checksum of both and the serialized key and value. Appends must be serialized
+ * by the caller.
+ * <p/>
+ * The file is accessed through a {@link RandomAccessFile} guarded by a lock instead of positional
+ * {@link java.nio.channels.FileChannel} operations, as interrupting a thread doing I/O on a channel closes it for
+ * every other thread. Once the segment is closed, operations fail with a {@link ClosedChannelException}.
+ */
+class ObjectStoreLogSegment
+{
+
+    static final byte PUT = 1;
+    static final byte REMOVE = 2;
+    static final int HEADER_SIZE = 1 + 8 + 8 + 4 + 4 + 4;
+
+    private static final String SEGMENT_FILE_SUFFIX = ".oslog";
+
+    private static final Logger logger = LoggerFactory.getLogger(ObjectStoreLogSegment.class);
+
+    private final int id;
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final AtomicLong liveBytes = new AtomicLong();
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private volatile long size;
+    private boolean closed;
+
+    private ObjectStoreLogSegment(File file, int id) throws IOException
+    {
+        this.id = id;
+        this.file = file;
+        this.randomAccessFile = new RandomAccessFile(file, "rw");
+        this.size = randomAccessFile.length();
+    }
+
+    /**
+     * Creates a new segment file
+     *
+     * @param directory directory of the partition
+     * @param id        identifier of the segment. Segments are ordered by id.
+     * @return the new segment
+     * @throws IOException if the file cannot be created
+     */
+    static ObjectStoreLogSegment create(File directory, int id) throws IOException
+    {
+        return new ObjectStoreLogSegment(new File(directory, String.format("%010d%s", id, SEGMENT_FILE_SUFFIX)), id);
+    }
+
+    /**
+     * Opens an existing segment file
+     *
+     * @param file the segment file
+     * @return the opened segment
+     * @throws IOException if the file cannot be opened
+     */
+    static ObjectStoreLogSegment open(File file) throws IOException
+    {
+        return new ObjectStoreLogSegment(file, idFromFileName(file.getName()));
+    }
+
+    static boolean isSegmentFile(String fileName)
+    {
+        return fileName.endsWith(SEGMENT_FILE_SUFFIX);
+    }
+
+    static int idFromFileName(String fileName)
+    {
+        return Integer.parseInt(fileName.substring(0, fileName.length() - SEGMENT_FILE_SUFFIX.length()));
+    }
+
+    /**
+     * Appends a record at the end of the segment.
+     *
+     * @return the offset where the record was written
+     */
+    long append(byte type, long sequence, long timestamp, byte[] key, byte[] value) throws IOException
+    {
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + key.length + value.length);
+        record.put(type);
+        record.putLong(sequence);
+        record.putLong(timestamp);
+        record.putInt(key.length);
+        record.putInt(value.length);
+        record.putInt(checksum(key, value));
+        record.put(key);
+        record.put(value);
+
+        long offset = size;
+        synchronized (randomAccessFile)
+        {
+            assureOpen();
+            randomAccessFile.seek(offset);
+            randomAccessFile.write(record.array());
+        }
+        size = offset + record.capacity();
+        return offset;
+    }
+
+    /**
+     * Reads a full record.
+     *
+     * @param offset offset of the record
+     * @param length total length of the record, including its header
+     * @return a buffer positioned at the beginning of the record
+     */
+    ByteBuffer read(long offset, int length) throws IOException
+    {
+        ByteBuffer record = ByteBuffer.allocate(length);
+        synchronized (randomAccessFile)
+        {
+            assureOpen();
+            randomAccessFile.seek(offset);
+            try
+            {
+                randomAccessFile.readFully(record.array());
+            }
+            catch (EOFException e)
+            {
+                throw new IOException(String.format("Unexpected end of file %s reading record at %s", file.getAbsolutePath(), offset));
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Reads the record header at the given offset, validating that the whole record is present
+     * and its checksum is valid.
+     *
+     * @param offset offset of the record
+     * @return the whole record, or null if there's no valid record at the given offset
+     */
+    ByteBuffer readValidRecord(long offset) throws IOException
+    {
+        if (offset + HEADER_SIZE > size)
+        {
+            return null;
+        }
+        ByteBuffer header = read(offset, HEADER_SIZE);
+        byte type = header.get(0);
+        int keyLength = header.getInt(17);
+        int valueLength = header.getInt(21);
+        if ((type != PUT && type != REMOVE) || keyLength < 0 || valueLength < 0
+            || offset + HEADER_SIZE + keyLength + valueLength > size)
+        {
+            return null;
+        }
+        ByteBuffer record = read(offset, HEADER_SIZE + keyLength + valueLength);
+        if (checksum(keyOf(record), valueOf(record)) != record.getInt(25))
+        {
+            return null;
+        }
+        return record;
+    }
+
+    static byte typeOf(ByteBuffer record)
+    {
+        return record.get(0);
+    }
+
+    static long sequenceOf(ByteBuffer record)
+    {
+        return record.getLong(1);
+    }
+
+    static long timestampOf(ByteBuffer record)
+    {
+        return record.getLong(9);
+    }
+
+    static byte[] keyOf(ByteBuffer record)
+    {
+        byte[] key = new byte[record.getInt(17)];
+        System.arraycopy(record.array(), HEADER_SIZE, key, 0, key.length);
+        return key;
+    }
+
+    static byte[] valueOf(ByteBuffer record)
+    {
+        int keyLength = record.getInt(17);
+        byte[] value = new byte[record.getInt(21)];
+        System.arraycopy(record.array(), HEADER_SIZE + keyLength, value, 0, value.length);
+        return value;
+    }
+
+    private static int checksum(byte[] key, byte[] value)
+    {
+        CRC32 crc = new CRC32();
+        crc.update(key);
+        crc.update(value);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Discards everything after the given position, used to remove partially written records.
+     */
+    void truncate(long position) throws IOException
+    {
+        synchronized (randomAccessFile)
+        {
+            assureOpen();
+            randomAccessFile.setLength(position);
+        }
+        size = position;
+    }
+
+    void addLiveBytes(long bytes)
+    {
+        liveBytes.addAndGet(bytes);
+    }
+
+    long getLiveBytes()
+    {
+        return liveBytes.get();
+    }
+
+    /**
+     * Bytes of removal records that have to be kept, as the record they remove is still in an older segment
+     */
+    void addRetainedBytes(long bytes)
+    {
+        retainedBytes.addAndGet(bytes);
+    }
+
+    long getRetainedBytes()
+    {
+        return retainedBytes.get();
+    }
+
+    long getSize()
+    {
+        return size;
+    }
+
+    int getId()
+    {
+        return id;
+    }
+
+    void force() throws IOException
+    {
+        synchronized (randomAccessFile)
+        {
+            assureOpen();
+            randomAccessFile.getFD().sync();
+        }
+    }
+
+    private void assureOpen() throws ClosedChannelException
+    {
+        if (closed)
+        {
+            throw new ClosedChannelException();
+        }
+    }
+
+    void close()
+    {
+        try
+        {
+            synchronized (randomAccessFile)
+            {
+                closed = true;
+                randomAccessFile.close();
+            }
+        }
+        catch (IOException e)
+        {
+            logger.warn("Failure closing object store segment file: " + e.getMessage());
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Failure closing object store segment file", e);
+            }
+        }
+    }
+
+    void delete()
+    {
+        FileUtils.deleteQuietly(file);
+    }
+}
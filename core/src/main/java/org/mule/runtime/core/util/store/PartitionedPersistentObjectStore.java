@@ -9,12 +9,14 @@ package org.mule.runtime.core.util.store;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.MuleRuntimeException;
 import org.mule.runtime.core.api.context.MuleContextAware;
+import org.mule.runtime.core.api.lifecycle.Disposable;
 import org.mule.runtime.core.api.store.ObjectStoreException;
 import org.mule.runtime.core.api.store.PartitionableExpirableObjectStore;
 import org.mule.runtime.core.config.i18n.CoreMessages;
 import org.mule.runtime.core.config.i18n.Message;
 import org.mule.runtime.core.util.FileUtils;
 import org.mule.runtime.core.util.UUID;
+import org.mule.runtime.core.util.concurrent.DaemonThreadFactory;
 
 import java.io.File;
 import java.io.FileFilter;
@@ -24,17 +26,26 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class PartitionedPersistentObjectStore<T extends Serializable> extends
-        AbstractPartitionedObjectStore<T> implements MuleContextAware, PartitionableExpirableObjectStore<T>
+        AbstractPartitionedObjectStore<T> implements MuleContextAware, PartitionableExpirableObjectStore<T>, Disposable
 {
 
     public static final String OBJECT_STORE_DIR = "objectstore";
 
+    /**
+     * System property to make new partitions use a {@link LogStructuredObjectStorePartition} by default
+     */
+    public static final String LOG_STRUCTURED_PROPERTY_KEY = "mule.objectstore.logStructured";
+
     private MuleContext muleContext;
     private File storeDirectory;
-    private Map<String, PersistentObjectStorePartition> partitionsByName = new HashMap<String, PersistentObjectStorePartition>();
+    private Map<String, PersistentStorePartition> partitionsByName = new HashMap<String, PersistentStorePartition>();
     private boolean initialized = false;
+    private boolean logStructured = Boolean.getBoolean(LOG_STRUCTURED_PROPERTY_KEY);
+    private ExecutorService compactionExecutor;
 
     public PartitionedPersistentObjectStore()
     {
@@ -83,11 +94,38 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends
 
     private void createPartition(String partitionName) throws ObjectStoreException
     {
-        PersistentObjectStorePartition persistentObjectStorePartition = new PersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory());
+        PersistentStorePartition persistentObjectStorePartition;
+        if (logStructured)
+        {
+            persistentObjectStorePartition = new LogStructuredObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory(), getCompactionExecutor());
+        }
+        else
+        {
+            persistentObjectStorePartition = new PersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory());
+        }
         persistentObjectStorePartition.open();
         partitionsByName.put(partitionName, persistentObjectStorePartition);
     }
 
+    private PersistentStorePartition openExistingPartition(File partitionDirectory) throws ObjectStoreException
+    {
+        // partitions keep the format they were created with, regardless of the current configuration
+        if (LogStructuredObjectStorePartition.isLogStructuredPartition(partitionDirectory))
+        {
+            return new LogStructuredObjectStorePartition(muleContext, partitionDirectory, getCompactionExecutor());
+        }
+        return new PersistentObjectStorePartition(muleContext, partitionDirectory);
+    }
+
+    private synchronized ExecutorService getCompactionExecutor()
+    {
+        if (compactionExecutor == null)
+        {
+            compactionExecutor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("ObjectStore-Compaction", getClass().getClassLoader()));
+        }
+        return compactionExecutor;
+    }
+
     private File getNewPartitionDirectory()
     {
         return new File(storeDirectory, UUID.getUUID());
@@ -135,7 +173,7 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends
         this.getPartitionObjectStore(partitionName).clear();
     }
 
-    private PersistentObjectStorePartition<T> getPartitionObjectStore(String partitionName) throws ObjectStoreException
+    private PersistentStorePartition<T> getPartitionObjectStore(String partitionName) throws ObjectStoreException
     {
         if (!partitionsByName.containsKey(partitionName))
         {
@@ -213,7 +251,7 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends
         {
             try
             {
-                PersistentObjectStorePartition persistentObjectStorePartition = new PersistentObjectStorePartition(muleContext, partitionDirectory);
+                PersistentStorePartition persistentObjectStorePartition = openExistingPartition(partitionDirectory);
                 persistentObjectStorePartition.open();
                 partitionsByName.put(persistentObjectStorePartition.getPartitionName(), persistentObjectStorePartition);
             }
@@ -230,6 +268,36 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends
         muleContext = context;
     }
 
+    /**
+     * @param logStructured whether new partitions must store their entries in a segmented log instead of
+     *                      using one file per entry. Existing partitions keep the format they were created with.
+     */
+    public void setLogStructured(boolean logStructured)
+    {
+        this.logStructured = logStructured;
+    }
+
+    @Override
+    public synchronized void dispose()
+    {
+        for (PersistentStorePartition partition : partitionsByName.values())
+        {
+            try
+            {
+                partition.close();
+            }
+            catch (ObjectStoreException e)
+            {
+                logger.warn("Could not close partition " + partition.getPartitionName() + ": " + e.getMessage());
+            }
+        }
+        if (compactionExecutor != null)
+        {
+            compactionExecutor.shutdownNow();
+            compactionExecutor = null;
+        }
+    }
+
     @Override
     public void expire(int entryTTL, int maxEntries) throws ObjectStoreException
     {
@@ -239,7 +307,9 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends
     @Override
     public void disposePartition(String partitionName) throws ObjectStoreException
     {
-        clear(partitionName);
+        PersistentStorePartition<T> partition = getPartitionObjectStore(partitionName);
+        partition.clear();
+        partition.close();
     }
 
     @Override
@@ -11,8 +11,6 @@ import static org.mule.runtime.core.api.store.ObjectStoreManager.UNBOUNDED;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.MuleRuntimeException;
 import org.mule.runtime.core.api.serialization.ObjectSerializer;
-import org.mule.runtime.core.api.store.ExpirableObjectStore;
-import org.mule.runtime.core.api.store.ListableObjectStore;
 import org.mule.runtime.core.api.store.ObjectAlreadyExistsException;
 import org.mule.runtime.core.api.store.ObjectDoesNotExistException;
 import org.mule.runtime.core.api.store.ObjectStoreException;
@@ -44,7 +42,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class PersistentObjectStorePartition<T extends Serializable>
-    implements ListableObjectStore<T>, ExpirableObjectStore<T>
+    implements PersistentStorePartition<T>
 {
 
     private static final String OBJECT_FILE_EXTENSION = ".obj";
@@ -467,6 +465,7 @@ public class PersistentObjectStorePartition<T extends Serializable>
         return expired;
     }
 
+    @Override
     public String getPartitionName()
     {
         return partitionName;
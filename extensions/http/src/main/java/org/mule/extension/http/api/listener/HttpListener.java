@@ -10,6 +10,7 @@ import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNee
 import static org.mule.runtime.module.http.api.HttpConstants.HttpStatus.BAD_REQUEST;
 import static org.mule.runtime.module.http.api.HttpConstants.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.mule.runtime.module.http.api.HttpConstants.Protocols.HTTP;
+import static org.mule.runtime.module.http.internal.multipart.HttpMultipartDecoder.deleteCollectedParts;
 import org.mule.extension.http.api.HttpRequestAttributes;
 import org.mule.extension.http.api.HttpStreamingType;
 import org.mule.extension.http.api.listener.builder.HttpListenerResponseBuilder;
@@ -356,6 +357,7 @@ public class HttpListener extends Source<Object, HttpRequestAttributes> implemen
             @Override
             public void responseSendSuccessfully()
             {
+                deleteCollectedParts();
                 //TODO: MULE-9749 Figure out how to handle this. Maybe doing nothing is right since this will be executed later if everything goes right.
                 //responseCompletationCallback.responseSentSuccessfully();
             }
@@ -9,6 +9,7 @@ package org.mule.extension.http.internal.listener;
 
 import static java.lang.String.format;
 import static org.mule.runtime.core.api.config.ThreadingProfile.DEFAULT_THREADING_PROFILE;
+import static org.mule.runtime.module.http.internal.multipart.HttpMultipartDecoder.getSpoolDirectory;
 import org.mule.extension.http.internal.listener.grizzly.GrizzlyServerManager;
 import org.mule.extension.http.internal.listener.server.HttpServerConfiguration;
 import org.mule.extension.http.internal.listener.server.HttpServerFactory;
@@ -88,7 +89,7 @@ public class HttpListenerConnectionManager implements HttpServerFactory, Initial
         String threadNamePrefix = ThreadNameHelper.getPrefix(muleContext) + LISTENER_THREAD_NAME_PREFIX;
         try
         {
-            httpServerManager = new GrizzlyServerManager(threadNamePrefix, httpListenerRegistry, tcpServerSocketProperties);
+            httpServerManager = new GrizzlyServerManager(threadNamePrefix, httpListenerRegistry, tcpServerSocketProperties, getSpoolDirectory(muleContext));
         }
         catch (IOException e)
         {
@@ -25,6 +25,7 @@ import org.mule.runtime.module.http.internal.listener.grizzly.GrizzlyHttpRequest
 import org.mule.runtime.module.http.internal.listener.grizzly.ResponseCompletionHandler;
 import org.mule.runtime.module.http.internal.listener.grizzly.ResponseStreamingCompletionHandler;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 
@@ -44,10 +45,12 @@ public class GrizzlyRequestDispatcherFilter extends BaseFilter
 {
 
     private final RequestHandlerProvider requestHandlerProvider;
+    private final File spoolDirectory;
 
-    GrizzlyRequestDispatcherFilter(final RequestHandlerProvider requestHandlerProvider)
+    GrizzlyRequestDispatcherFilter(final RequestHandlerProvider requestHandlerProvider, File spoolDirectory)
     {
         this.requestHandlerProvider = requestHandlerProvider;
+        this.spoolDirectory = spoolDirectory;
     }
 
     @Override
@@ -79,7 +82,7 @@ public class GrizzlyRequestDispatcherFilter extends BaseFilter
             }
         }
 
-        final GrizzlyHttpRequestAdapter httpRequest = new GrizzlyHttpRequestAdapter(ctx, httpContent);
+        final GrizzlyHttpRequestAdapter httpRequest = new GrizzlyHttpRequestAdapter(ctx, httpContent, spoolDirectory);
         HttpRequestContext requestContext = createRequestContext(ctx, scheme, httpRequest);
         final RequestHandler requestHandler = requestHandlerProvider.getRequestHandler(ip, port, httpRequest);
         requestHandler.handleRequest(requestContext, new HttpResponseReadyCallback()
@@ -28,6 +28,7 @@ import org.mule.runtime.module.http.internal.listener.grizzly.GrizzlyServer;
 import org.mule.runtime.module.http.internal.listener.grizzly.MuleSslFilter;
 import org.mule.runtime.module.http.internal.listener.grizzly.WorkManagerSourceExecutorProvider;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -68,10 +69,10 @@ public class GrizzlyServerManager implements HttpServerManager
     private DelayedExecutor idleTimeoutDelayedExecutor;
     private boolean transportStarted;
 
-    public GrizzlyServerManager(String threadNamePrefix, HttpListenerRegistry httpListenerRegistry, TcpServerSocketProperties serverSocketProperties) throws IOException
+    public GrizzlyServerManager(String threadNamePrefix, HttpListenerRegistry httpListenerRegistry, TcpServerSocketProperties serverSocketProperties, File spoolDirectory) throws IOException
     {
         this.httpListenerRegistry = httpListenerRegistry;
-        requestHandlerFilter = new GrizzlyRequestDispatcherFilter(httpListenerRegistry);
+        requestHandlerFilter = new GrizzlyRequestDispatcherFilter(httpListenerRegistry, spoolDirectory);
         sslFilterDelegate = new GrizzlyAddressDelegateFilter<>();
         httpServerFilterDelegate = new GrizzlyAddressDelegateFilter<>();
 
@@ -12,6 +12,7 @@ import static org.mule.runtime.module.http.api.HttpHeaders.Names.CONTENT_TYPE;
 import static org.mule.runtime.module.http.api.HttpHeaders.Names.SET_COOKIE;
 import static org.mule.runtime.module.http.api.HttpHeaders.Names.SET_COOKIE2;
 import static org.mule.runtime.module.http.api.HttpHeaders.Values.APPLICATION_X_WWW_FORM_URLENCODED;
+import static org.mule.runtime.module.http.internal.multipart.HttpMultipartDecoder.getSpoolDirectory;
 
 import org.mule.extension.http.api.HttpResponseAttributes;
 import org.mule.extension.http.api.request.HttpRequesterConfig;
@@ -33,6 +34,7 @@ import org.mule.runtime.module.http.internal.multipart.HttpPartDataSource;
 
 import com.google.common.net.MediaType;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -87,7 +89,7 @@ public class HttpResponseToMuleMessage
             {
                 try
                 {
-                    parts = processParts(responseInputStream, responseContentType);
+                    parts = processParts(responseInputStream, responseContentType, getSpoolDirectory(muleEvent.getMuleContext()));
                     payload = NullPayload.getInstance();
                 }
                 catch (IOException e)
@@ -160,9 +162,9 @@ public class HttpResponseToMuleMessage
         return encoding;
     }
 
-    private Map<String, DataHandler> processParts(InputStream responseInputStream, String responseContentType) throws IOException
+    private Map<String, DataHandler> processParts(InputStream responseInputStream, String responseContentType, File spoolDirectory) throws IOException
     {
-        Collection<HttpPartDataSource> httpParts = HttpPartDataSource.createFrom(HttpParser.parseMultipartContent(responseInputStream, responseContentType));
+        Collection<HttpPartDataSource> httpParts = HttpPartDataSource.createFrom(HttpParser.parseMultipartContent(responseInputStream, responseContentType, spoolDirectory));
         Map<String, DataHandler> attachments = new HashMap<>();
 
         for (HttpPartDataSource httpPart : httpParts)
@@ -8,7 +8,10 @@ package org.mule.extension.http.internal.request.grizzly;
 
 import static com.ning.http.client.Realm.AuthScheme.NTLM;
 import static org.mule.runtime.module.http.api.HttpHeaders.Names.CONNECTION;
+import static org.mule.runtime.module.http.api.HttpHeaders.Names.CONTENT_TYPE;
 import static org.mule.runtime.module.http.api.HttpHeaders.Values.CLOSE;
+import static org.mule.runtime.module.http.internal.multipart.HttpMultipartEncoder.createFormDataContentStream;
+import static org.mule.runtime.module.http.internal.multipart.HttpMultipartEncoder.getFormDataContentType;
 import org.mule.extension.http.api.request.client.HttpClient;
 import org.mule.extension.http.api.request.client.UriParameters;
 import org.mule.extension.http.api.request.proxy.NtlmProxyConfig;
@@ -20,7 +23,6 @@ import org.mule.runtime.api.tls.TlsContextFactory;
 import org.mule.runtime.api.tls.TlsContextTrustStoreConfiguration;
 import org.mule.runtime.core.api.MuleRuntimeException;
 import org.mule.runtime.core.config.i18n.CoreMessages;
-import org.mule.runtime.core.util.IOUtils;
 import org.mule.runtime.core.util.StringUtils;
 import org.mule.runtime.module.http.internal.domain.ByteArrayHttpEntity;
 import org.mule.runtime.module.http.internal.domain.InputStreamHttpEntity;
@@ -29,7 +31,6 @@ import org.mule.runtime.module.http.internal.domain.request.HttpRequest;
 import org.mule.runtime.module.http.internal.domain.request.HttpRequestAuthentication;
 import org.mule.runtime.module.http.internal.domain.response.HttpResponse;
 import org.mule.runtime.module.http.internal.domain.response.HttpResponseBuilder;
-import org.mule.runtime.module.http.internal.multipart.HttpPart;
 import org.mule.runtime.module.http.internal.request.HttpAuthenticationType;
 import org.mule.runtime.module.http.internal.request.grizzly.CompositeTransportCustomizer;
 import org.mule.runtime.module.http.internal.request.grizzly.CustomTimeoutThrottleRequestFilter;
@@ -45,7 +46,6 @@ import com.ning.http.client.Request;
 import com.ning.http.client.RequestBuilder;
 import com.ning.http.client.Response;
 import com.ning.http.client.generators.InputStreamBodyGenerator;
-import com.ning.http.client.multipart.ByteArrayPart;
 import com.ning.http.client.providers.grizzly.GrizzlyAsyncHttpProvider;
 import com.ning.http.client.providers.grizzly.GrizzlyAsyncHttpProviderConfig;
 
@@ -55,6 +55,7 @@ import java.net.UnknownHostException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
 
+import javax.mail.MessagingException;
 import javax.net.ssl.SSLContext;
 
 import org.slf4j.Logger;
@@ -362,18 +363,16 @@ public class GrizzlyHttpClient implements HttpClient
             else if (request.getEntity() instanceof MultipartHttpEntity)
             {
                 MultipartHttpEntity multipartHttpEntity = (MultipartHttpEntity) request.getEntity();
-
-                for (HttpPart part : multipartHttpEntity.getParts())
+                String contentType = getFormDataContentType(request.getHeaderValueIgnoreCase(CONTENT_TYPE));
+                try
+                {
+                    // The parts are streamed as they are sent instead of being copied to memory first
+                    builder.setHeader(CONTENT_TYPE, contentType);
+                    builder.setBody(new InputStreamBodyGenerator(createFormDataContentStream(multipartHttpEntity, contentType)));
+                }
+                catch (MessagingException e)
                 {
-                    if (part.getFileName() != null)
-                    {
-                        builder.addBodyPart(new ByteArrayPart(part.getName(), IOUtils.toByteArray(part.getInputStream()), part.getContentType(), null, part.getFileName()));
-                    }
-                    else
-                    {
-                        byte[] content = IOUtils.toByteArray(part.getInputStream());
-                        builder.addBodyPart(new ByteArrayPart(part.getName(), content, part.getContentType(), null));
-                    }
+                    throw new IOException(e);
                 }
             }
         }
@@ -35,12 +35,20 @@ import org.slf4j.LoggerFactory;
  * <p/>
  * By using a {@link ClassLoaderLookupPolicy} this classLoader can use
  * parent-first, parent-only or child-first classloading lookup mode per package.
+ * <p/>
+ * This classLoader is parallel capable and doesn't lock while loading classes, as
+ * classes are always defined by the composed classloaders or the parent.
  */
 public class CompositeClassLoader extends ClassLoader implements ClassLoaderLookupPolicyProvider
 {
 
     protected static final Logger logger = LoggerFactory.getLogger(CompositeClassLoader.class);
 
+    static
+    {
+        registerAsParallelCapable();
+    }
+
     protected final List<ClassLoader> classLoaders;
     private final ClassLoaderLookupPolicy lookupPolicy;
 
@@ -73,7 +81,7 @@ public class CompositeClassLoader extends ClassLoader implements ClassLoaderLook
     }
 
     @Override
-    protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException
     {
         final ClassLoaderLookupStrategy lookupStrategy = lookupPolicy.getLookupStrategy(name);
         Class<?> result;
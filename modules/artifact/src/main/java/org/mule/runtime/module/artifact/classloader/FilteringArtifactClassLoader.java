@@ -34,6 +34,11 @@ public class FilteringArtifactClassLoader extends ClassLoader implements Artifac
 
     protected static final Logger logger = LoggerFactory.getLogger(FilteringArtifactClassLoader.class);
 
+    static
+    {
+        registerAsParallelCapable();
+    }
+
     private final ArtifactClassLoader artifactClassLoader;
     private final ClassLoaderFilter filter;
 
@@ -14,6 +14,9 @@ import static org.mule.runtime.module.artifact.classloader.ClassLoaderLookupStra
 import org.mule.runtime.module.artifact.classloader.exception.CompositeClassNotFoundException;
 
 import java.net.URL;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Defines a {@link ClassLoader} which enables the control of the class
@@ -21,10 +24,28 @@ import java.net.URL;
  * <p/>
  * By using a {@link ClassLoaderLookupPolicy} this classLoader can use
  * parent-first, parent-only or child-first classloading lookup mode per package.
+ * <p/>
+ * This classLoader is parallel capable, so different classes can be loaded concurrently.
+ * Classes and resources that are not found in its own URLs are remembered, so probing
+ * for them again, as frameworks like Spring do, doesn't search the URLs again.
  */
 public class FineGrainedControlClassLoader extends GoodCitizenClassLoader implements ClassLoaderLookupPolicyProvider
 {
+
+    /**
+     * Maximum number of misses remembered of each kind. Once reached, they are forgotten
+     * to keep memory bounded when looking up arbitrary names.
+     */
+    private static final int MAX_CACHED_MISSES = 8 * 1024;
+
+    static
+    {
+        registerAsParallelCapable();
+    }
+
     private final ClassLoaderLookupPolicy lookupPolicy;
+    private final Map<String, ClassNotFoundException> classMisses = new ConcurrentHashMap<>();
+    private final Set<String> resourceMisses = ConcurrentHashMap.newKeySet();
 
     public FineGrainedControlClassLoader(URL[] urls, ClassLoader parent, ClassLoaderLookupPolicy lookupPolicy)
     {
@@ -34,7 +55,15 @@ public class FineGrainedControlClassLoader extends GoodCitizenClassLoader implem
     }
 
     @Override
-    protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException
+    {
+        synchronized (getClassLoadingLock(name))
+        {
+            return doLoadClass(name, resolve);
+        }
+    }
+
+    private Class<?> doLoadClass(String name, boolean resolve) throws ClassNotFoundException
     {
         Class<?> result = findLoadedClass(name);
 
@@ -64,14 +93,14 @@ public class FineGrainedControlClassLoader extends GoodCitizenClassLoader implem
                 catch (ClassNotFoundException e)
                 {
                     firstException = e;
-                    result = findClass(name);
+                    result = findLocalClass(name);
                 }
             }
             else
             {
                 try
                 {
-                    result = findClass(name);
+                    result = findLocalClass(name);
                 }
                 catch (ClassNotFoundException e)
                 {
@@ -105,12 +134,76 @@ public class FineGrainedControlClassLoader extends GoodCitizenClassLoader implem
         }
     }
 
+    private Class<?> findLocalClass(String name) throws ClassNotFoundException
+    {
+        ClassNotFoundException miss = classMisses.get(name);
+        if (miss != null)
+        {
+            // only used as the cause of the exception thrown by loadClass
+            throw miss;
+        }
+
+        try
+        {
+            return findClass(name);
+        }
+        catch (ClassNotFoundException e)
+        {
+            if (classMisses.size() >= MAX_CACHED_MISSES)
+            {
+                classMisses.clear();
+            }
+            classMisses.put(name, e);
+            throw e;
+        }
+    }
+
     @Override
     protected Class<?> findClass(String name) throws ClassNotFoundException
     {
         return super.findClass(name);
     }
 
+    @Override
+    public URL findResource(String name)
+    {
+        if (resourceMisses.contains(name))
+        {
+            return null;
+        }
+
+        URL resource = super.findResource(name);
+        if (resource == null)
+        {
+            if (resourceMisses.size() >= MAX_CACHED_MISSES)
+            {
+                resourceMisses.clear();
+            }
+            resourceMisses.add(name);
+        }
+        return resource;
+    }
+
+    @Override
+    protected void addURL(URL url)
+    {
+        super.addURL(url);
+        clearMisses();
+    }
+
+    @Override
+    public void dispose()
+    {
+        clearMisses();
+        super.dispose();
+    }
+
+    private void clearMisses()
+    {
+        classMisses.clear();
+        resourceMisses.clear();
+    }
+
     @Override
     public ClassLoaderLookupPolicy getClassLoaderLookupPolicy()
     {
@@ -31,6 +31,11 @@ import sun.net.www.protocol.jar.Handler;
 public class GoodCitizenClassLoader extends URLClassLoader implements DisposableClassLoader
 {
 
+    static
+    {
+        registerAsParallelCapable();
+    }
+
     public GoodCitizenClassLoader(URL[] urls, ClassLoader parent)
     {
         super(urls, parent, new NonCachingURLStreamHandlerFactory());
@@ -29,6 +29,12 @@ public class MuleArtifactClassLoader extends FineGrainedControlClassLoader imple
 {
 
     private static final String DEFAULT_RESOURCE_RELEASER_CLASS_LOCATION = "/org/mule/runtime/module/artifact/classloader/DefaultResourceReleaser.class";
+
+    static
+    {
+        registerAsParallelCapable();
+    }
+
     private final String name;
 
     protected Logger logger = LoggerFactory.getLogger(getClass());
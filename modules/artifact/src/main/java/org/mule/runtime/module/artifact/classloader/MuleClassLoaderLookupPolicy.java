@@ -16,6 +16,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Defines which resources in a class loader should be looked up
@@ -32,7 +33,7 @@ public class MuleClassLoaderLookupPolicy implements ClassLoaderLookupPolicy
 
     private final Map<String, ClassLoaderLookupStrategy> configuredlookupStrategies;
     private final Set<String> rootSystemPackages;
-    private final HashMap<String, ClassLoaderLookupStrategy> lookupStrategies;
+    private final Map<String, ClassLoaderLookupStrategy> lookupStrategies;
 
     /**
      * Creates a new lookup policy based on the provided configuration.
@@ -47,7 +48,7 @@ public class MuleClassLoaderLookupPolicy implements ClassLoaderLookupPolicy
         checkArgument(rootSystemPackages != null, "System packages cannot be null");
         this.rootSystemPackages = normalizeRootSystemPackages(rootSystemPackages);
         this.configuredlookupStrategies = normalizeLookupStrategies(lookupStrategies);
-        this.lookupStrategies = new HashMap<>(configuredlookupStrategies);
+        this.lookupStrategies = new ConcurrentHashMap<>(configuredlookupStrategies);
     }
 
     private Map<String, ClassLoaderLookupStrategy> normalizeLookupStrategies(Map<String, ClassLoaderLookupStrategy> lookupStrategies)
@@ -106,22 +107,9 @@ public class MuleClassLoaderLookupPolicy implements ClassLoaderLookupPolicy
         ClassLoaderLookupStrategy lookupStrategy = lookupStrategies.get(packageName);
         if (lookupStrategy == null)
         {
-            synchronized (this)
-            {
-                lookupStrategy = lookupStrategies.get(packageName);
-                if (lookupStrategy == null)
-                {
-                    if (isSystemPackage(packageName))
-                    {
-                        lookupStrategy = PARENT_ONLY;
-                    }
-                    else
-                    {
-                        lookupStrategy = CHILD_FIRST;
-                    }
-                    lookupStrategies.put(packageName, lookupStrategy);
-                }
-            }
+            // Resolving a package always gives the same result, so concurrent threads can race to cache it
+            lookupStrategy = isSystemPackage(packageName) ? PARENT_ONLY : CHILD_FIRST;
+            lookupStrategies.put(packageName, lookupStrategy);
         }
 
         return lookupStrategy;
@@ -27,6 +27,7 @@ public class CompositeClassNotFoundException extends ClassNotFoundException
     private String className;
     private ClassLoaderLookupStrategy lookupStrategy;
     private List<ClassNotFoundException> exceptions;
+    private String message;
 
     /**
      * Builds the exception.
@@ -38,12 +39,23 @@ public class CompositeClassNotFoundException extends ClassNotFoundException
      */
     public CompositeClassNotFoundException(String className, ClassLoaderLookupStrategy lookupStrategy, List<ClassNotFoundException> exceptions)
     {
-        super(format("Cannot load class '%s': %s", className, exceptions.stream().map((e) -> e.getMessage() + lineSeparator()).collect(toList())));
+        // the message is built on demand, as many of these are just caught by code probing for optional classes
+        super(null);
         this.className = className;
         this.lookupStrategy = lookupStrategy;
         this.exceptions = copyOf(exceptions);
     }
 
+    @Override
+    public String getMessage()
+    {
+        if (message == null)
+        {
+            message = format("Cannot load class '%s': %s", className, exceptions.stream().map((e) -> e.getMessage() + lineSeparator()).collect(toList()));
+        }
+        return message;
+    }
+
     /**
      * @return the name of the class that was trying to be loaded
      */
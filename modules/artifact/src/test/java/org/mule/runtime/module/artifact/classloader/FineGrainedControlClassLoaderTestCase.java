@@ -8,10 +8,14 @@ package org.mule.runtime.module.artifact.classloader;
 
 import static java.lang.System.lineSeparator;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.Matchers.contains;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -26,13 +30,16 @@ import org.mule.runtime.module.artifact.classloader.exception.CompositeClassNotF
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
 
+import java.io.File;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
 @SmallTest
 public class FineGrainedControlClassLoaderTestCase extends AbstractMuleTestCase
@@ -46,6 +53,9 @@ public class FineGrainedControlClassLoaderTestCase extends AbstractMuleTestCase
     @Rule
     public ExpectedException expected = ExpectedException.none();
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void usesParentOnlyLookup() throws Exception
     {
@@ -169,6 +179,55 @@ public class FineGrainedControlClassLoaderTestCase extends AbstractMuleTestCase
         invokeTestClassMethod(ext);
     }
 
+    @Test
+    public void searchesMissingClassOnlyOnce() throws Exception
+    {
+        ClassLoader parent = Thread.currentThread().getContextClassLoader();
+
+        final ClassLoaderLookupPolicy lookupPolicy = mock(ClassLoaderLookupPolicy.class);
+        when(lookupPolicy.getLookupStrategy(TEST_CLASS_NAME)).thenReturn(CHILD_FIRST);
+
+        final AtomicInteger searches = new AtomicInteger();
+        FineGrainedControlClassLoader ext = new FineGrainedControlClassLoader(new URL[0], parent, lookupPolicy)
+        {
+            @Override
+            protected Class<?> findClass(String name) throws ClassNotFoundException
+            {
+                searches.incrementAndGet();
+                return super.findClass(name);
+            }
+        };
+
+        for (int i = 0; i < 2; i++)
+        {
+            try
+            {
+                ext.loadClass(TEST_CLASS_NAME);
+                fail("Class should not be found");
+            }
+            catch (CompositeClassNotFoundException e)
+            {
+                assertThat(e.getExceptions().size(), is(2));
+            }
+        }
+
+        assertThat(searches.get(), is(1));
+    }
+
+    @Test
+    public void searchesMissingResourceAgainAfterAddingUrl() throws Exception
+    {
+        final ClassLoaderLookupPolicy lookupPolicy = mock(ClassLoaderLookupPolicy.class);
+        FineGrainedControlClassLoader ext = new FineGrainedControlClassLoader(new URL[] {folder.newFolder("empty").toURI().toURL()}, null, lookupPolicy);
+
+        File resources = folder.newFolder("resources");
+        assertThat(new File(resources, "test.txt").createNewFile(), is(true));
+
+        assertThat(ext.findResource("test.txt"), is(nullValue()));
+        ext.addURL(resources.toURI().toURL());
+        assertThat(ext.findResource("test.txt"), is(notNullValue()));
+    }
+
     protected FineGrainedControlClassLoader buildFineGrainedControlClassLoader(ClassLoader parent, final ClassLoaderLookupPolicy lookupPolicy)
     {
         return new FineGrainedControlClassLoader(new URL[0], parent, lookupPolicy)
@@ -25,6 +25,11 @@ import java.util.Enumeration;
 public class FilteringContainerClassLoader extends FilteringArtifactClassLoader
 {
 
+    static
+    {
+        registerAsParallelCapable();
+    }
+
     /**
      * Creates a new instance
      *
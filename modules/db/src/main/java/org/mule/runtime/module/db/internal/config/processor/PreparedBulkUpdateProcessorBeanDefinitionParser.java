@@ -22,6 +22,9 @@ import org.w3c.dom.Element;
 public class PreparedBulkUpdateProcessorBeanDefinitionParser extends AbstractSingleQueryProcessorDefinitionParser
 {
 
+    public static final String BULK_BATCH_SIZE_ATTRIBUTE = "bulkBatchSize";
+    public static final String BULK_COMMIT_PER_BATCH_ATTRIBUTE = "bulkCommitPerBatch";
+
     private final List<QueryType> validQueryTypes;
 
     public PreparedBulkUpdateProcessorBeanDefinitionParser(List<QueryType> validQueryTypes)
@@ -60,6 +63,15 @@ public class PreparedBulkUpdateProcessorBeanDefinitionParser extends AbstractSin
 
         executorFactoryBean.addConstructorArgValue(parseStatementFactory(element));
 
+        if (element.hasAttribute(BULK_BATCH_SIZE_ATTRIBUTE))
+        {
+            executorFactoryBean.addPropertyValue("batchSize", element.getAttribute(BULK_BATCH_SIZE_ATTRIBUTE));
+        }
+        if (element.hasAttribute(BULK_COMMIT_PER_BATCH_ATTRIBUTE))
+        {
+            executorFactoryBean.addPropertyValue("commitPerBatch", element.getAttribute(BULK_COMMIT_PER_BATCH_ATTRIBUTE));
+        }
+
         return executorFactoryBean.getBeanDefinition();
     }
 
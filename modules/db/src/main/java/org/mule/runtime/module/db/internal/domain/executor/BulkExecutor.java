@@ -13,6 +13,7 @@ import org.mule.runtime.module.db.internal.domain.query.Query;
 import org.mule.runtime.module.db.internal.domain.query.QueryParamValue;
 
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -36,9 +37,10 @@ public interface BulkExecutor
      *
      * @param connection connection to the database where the query will be executed. Non null
      * @param query parameterized query to executed using the sets of parameters
-     * @param paramValues parameters to use to execute the query
+     * @param paramValues parameters to use to execute the query. They are consumed while the query is executed, so
+     *                    they don't need to be held in memory
      * @return a non null result of the query execution
      * @throws SQLException if a database access error occurs or this method is called on a closed connection
      */
-    Object execute(DbConnection connection, Query query, List<List<QueryParamValue>> paramValues) throws SQLException;
+    Object execute(DbConnection connection, Query query, Iterator<List<QueryParamValue>> paramValues) throws SQLException;
 }
@@ -19,27 +19,52 @@ import org.mule.runtime.module.db.internal.domain.statement.StatementFactory;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 /**
  * Executes bulk queries
+ * <p/>
+ * When a batch size is defined, the queries or parameter sets are sent to the database in batches of up to that
+ * size, consuming the input one batch at a time. The update counts of all the batches are returned together.
+ * Optionally, each batch is committed once executed, unless the connection takes part in a transaction.
  */
 public class BulkUpdateExecutor extends AbstractExecutor implements BulkExecutor
 {
 
+    /**
+     * Batch size meaning that all the queries are executed in a single batch
+     */
+    public static final int UNLIMITED_BATCH_SIZE = 0;
+
+    private final int batchSize;
+    private final boolean commitPerBatch;
+
     public BulkUpdateExecutor(StatementFactory statementFactory)
+    {
+        this(statementFactory, UNLIMITED_BATCH_SIZE, false);
+    }
+
+    public BulkUpdateExecutor(StatementFactory statementFactory, int batchSize, boolean commitPerBatch)
     {
         super(statementFactory);
+        this.batchSize = batchSize;
+        this.commitPerBatch = commitPerBatch;
     }
 
     @Override
     public Object execute(DbConnection connection, BulkQuery bulkQuery) throws SQLException
     {
         Statement statement = statementFactory.create(connection, bulkQuery.getQueryTemplates().get(0));
+        UpdateCounts updateCounts = new UpdateCounts();
+        boolean commitBatches = beginBatches(connection);
 
         try
         {
             BulkQueryLogger queryLogger = queryLoggerFactory.createBulkQueryLogger(logger);
+            int currentBatchSize = 0;
 
             for (QueryTemplate queryTemplate : bulkQuery.getQueryTemplates())
             {
@@ -47,21 +72,39 @@ public class BulkUpdateExecutor extends AbstractExecutor implements BulkExecutor
 
                 statement.addBatch(sql);
                 queryLogger.addQuery(sql);
+
+                if (++currentBatchSize == batchSize)
+                {
+                    queryLogger.logQuery();
+                    executeBatch(connection, statement, updateCounts, commitBatches);
+                    queryLogger = queryLoggerFactory.createBulkQueryLogger(logger);
+                    currentBatchSize = 0;
+                }
             }
 
-            queryLogger.logQuery();
+            if (currentBatchSize > 0 || !updateCounts.hasExecutedBatches())
+            {
+                queryLogger.logQuery();
+                executeBatch(connection, statement, updateCounts, commitBatches);
+            }
 
-            return statement.executeBatch();
+            return updateCounts.toArray();
+        }
+        catch (SQLException | RuntimeException e)
+        {
+            rollbackBatch(connection, commitBatches);
+            throw e;
         }
         finally
         {
             statement.clearBatch();
             statement.close();
+            endBatches(connection, commitBatches);
         }
     }
 
     @Override
-    public Object execute(DbConnection connection, Query query, List<List<QueryParamValue>> paramValues) throws SQLException
+    public Object execute(DbConnection connection, Query query, Iterator<List<QueryParamValue>> paramValues) throws SQLException
     {
         Statement statement = statementFactory.create(connection, query.getQueryTemplate());
 
@@ -71,24 +114,141 @@ public class BulkUpdateExecutor extends AbstractExecutor implements BulkExecutor
         }
 
         PreparedStatement preparedStatement = (PreparedStatement) statement;
-        PreparedBulkQueryLogger queryLogger = queryLoggerFactory.createBulkQueryLogger(logger, query.getQueryTemplate(), paramValues.size());
+        UpdateCounts updateCounts = new UpdateCounts();
+        boolean commitBatches = beginBatches(connection);
+
         try
         {
-            for (List<QueryParamValue> params : paramValues)
+            // Only the parameter sets of the current batch are held in memory
+            List<List<QueryParamValue>> batch = new ArrayList<>();
+
+            while (paramValues.hasNext())
             {
-                doProcessParameters(preparedStatement, query.getQueryTemplate(), params, queryLogger);
-                preparedStatement.addBatch();
-                queryLogger.addParameterSet();
+                batch.add(paramValues.next());
+
+                if (batch.size() == batchSize)
+                {
+                    executePreparedBatch(connection, preparedStatement, query, batch, updateCounts, commitBatches);
+                    batch.clear();
+                }
             }
 
-            queryLogger.logQuery();
+            if (!batch.isEmpty() || !updateCounts.hasExecutedBatches())
+            {
+                executePreparedBatch(connection, preparedStatement, query, batch, updateCounts, commitBatches);
+            }
 
-            return preparedStatement.executeBatch();
+            return updateCounts.toArray();
+        }
+        catch (SQLException | RuntimeException e)
+        {
+            rollbackBatch(connection, commitBatches);
+            throw e;
         }
         finally
         {
             preparedStatement.clearParameters();
             statement.close();
+            endBatches(connection, commitBatches);
+        }
+    }
+
+    private void executePreparedBatch(DbConnection connection, PreparedStatement preparedStatement, Query query, List<List<QueryParamValue>> batch, UpdateCounts updateCounts, boolean commitBatches) throws SQLException
+    {
+        PreparedBulkQueryLogger queryLogger = queryLoggerFactory.createBulkQueryLogger(logger, query.getQueryTemplate(), batch.size());
+
+        for (List<QueryParamValue> params : batch)
+        {
+            doProcessParameters(preparedStatement, query.getQueryTemplate(), params, queryLogger);
+            preparedStatement.addBatch();
+            queryLogger.addParameterSet();
+        }
+
+        queryLogger.logQuery();
+
+        executeBatch(connection, preparedStatement, updateCounts, commitBatches);
+    }
+
+    private void executeBatch(DbConnection connection, Statement statement, UpdateCounts updateCounts, boolean commitBatches) throws SQLException
+    {
+        updateCounts.add(statement.executeBatch());
+        statement.clearBatch();
+
+        if (commitBatches)
+        {
+            connection.commit();
+        }
+    }
+
+    /**
+     * Disables auto commit when every batch has to be committed on its own. Connections that take part in a
+     * transaction have auto commit disabled already and are left untouched.
+     *
+     * @return true if batches must be committed after execution
+     */
+    private boolean beginBatches(DbConnection connection) throws SQLException
+    {
+        if (commitPerBatch && connection.getAutoCommit())
+        {
+            connection.setAutoCommit(false);
+            return true;
+        }
+
+        return false;
+    }
+
+    private void rollbackBatch(DbConnection connection, boolean commitBatches)
+    {
+        if (commitBatches)
+        {
+            try
+            {
+                connection.rollback();
+            }
+            catch (SQLException e)
+            {
+                logger.warn("Unable to rollback the failed batch", e);
+            }
+        }
+    }
+
+    private void endBatches(DbConnection connection, boolean commitBatches) throws SQLException
+    {
+        if (commitBatches)
+        {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Collects the update counts returned by each batch
+     */
+    private static class UpdateCounts
+    {
+
+        private int[] counts = new int[0];
+        private int size;
+        private boolean executed;
+
+        void add(int[] batchCounts)
+        {
+            executed = true;
+            if (size + batchCounts.length > counts.length)
+            {
+                counts = Arrays.copyOf(counts, Math.max(size + batchCounts.length, counts.length * 2));
+            }
+            System.arraycopy(batchCounts, 0, counts, size, batchCounts.length);
+            size += batchCounts.length;
+        }
+
+        boolean hasExecutedBatches()
+        {
+            return executed;
+        }
+
+        int[] toArray()
+        {
+            return size == counts.length ? counts : Arrays.copyOf(counts, size);
         }
     }
 }
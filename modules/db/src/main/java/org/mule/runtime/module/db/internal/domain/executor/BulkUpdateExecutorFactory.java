@@ -16,6 +16,8 @@ public class BulkUpdateExecutorFactory implements BulkQueryExecutorFactory
 {
 
     private final StatementFactory statementFactory;
+    private int batchSize = BulkUpdateExecutor.UNLIMITED_BATCH_SIZE;
+    private boolean commitPerBatch;
 
     public BulkUpdateExecutorFactory(StatementFactory statementFactory)
     {
@@ -25,6 +27,16 @@ public class BulkUpdateExecutorFactory implements BulkQueryExecutorFactory
     @Override
     public BulkUpdateExecutor create()
     {
-        return new BulkUpdateExecutor(statementFactory);
+        return new BulkUpdateExecutor(statementFactory, batchSize, commitPerBatch);
+    }
+
+    public void setBatchSize(int batchSize)
+    {
+        this.batchSize = batchSize;
+    }
+
+    public void setCommitPerBatch(boolean commitPerBatch)
+    {
+        this.commitPerBatch = commitPerBatch;
     }
 }
@@ -62,27 +62,36 @@ public class PreparedBulkUpdateMessageProcessor extends AbstractBulkUpdateMessag
 
         validateQueryType(query.getQueryTemplate());
 
-        List<List<QueryParamValue>> paramValues = resolveParamSets(muleEvent, query);
+        Iterator<List<QueryParamValue>> paramValues = resolveParamSets(muleEvent, query);
 
         BulkExecutor bulkUpdateExecutor = bulkUpdateExecutorFactory.create();
         return bulkUpdateExecutor.execute(connection, query, paramValues);
     }
 
-    private List<List<QueryParamValue>> resolveParamSets(MuleEvent muleEvent, Query query)
+    /**
+     * Resolves the parameters of each item as the items are consumed, so the bulk input doesn't need to be held
+     * in memory
+     */
+    private Iterator<List<QueryParamValue>> resolveParamSets(final MuleEvent muleEvent, final Query query)
     {
         final Iterator<Object> paramsIterator = getIterator(muleEvent);
 
-        List<List<QueryParamValue>> result = new LinkedList<>();
-
-        while (paramsIterator.hasNext())
+        return new Iterator<List<QueryParamValue>>()
         {
-            MuleMessage itemMessage = new DefaultMuleMessage(paramsIterator.next(), muleContext);
-            MuleEvent itemEvent = new DefaultMuleEvent(itemMessage, muleEvent);
-            List<QueryParamValue> queryParamValues = paramValueResolver.resolveParams(itemEvent, query.getParamValues());
-            result.add(queryParamValues);
-        }
+            @Override
+            public boolean hasNext()
+            {
+                return paramsIterator.hasNext();
+            }
 
-        return result;
+            @Override
+            public List<QueryParamValue> next()
+            {
+                MuleMessage itemMessage = new DefaultMuleMessage(paramsIterator.next(), muleContext);
+                MuleEvent itemEvent = new DefaultMuleEvent(itemMessage, muleEvent);
+                return paramValueResolver.resolveParams(itemEvent, query.getParamValues());
+            }
+        };
     }
 
     @Override
@@ -105,12 +114,13 @@ public class PreparedBulkUpdateMessageProcessor extends AbstractBulkUpdateMessag
 
         fields.add(DbDebugInfoUtils.createQueryFieldDebugInfo(QUERY_DEBUG_FIELD, resolvedQuery.getQueryTemplate()));
 
-        final List<List<QueryParamValue>> paramSets = resolveParamSets(muleEvent, resolvedQuery);
+        final Iterator<List<QueryParamValue>> paramSets = resolveParamSets(muleEvent, resolvedQuery);
 
         List<FieldDebugInfo<?>> paramSetInfos = new LinkedList<>();
         int setIndex = 1;
-        for (List<QueryParamValue> paramSet : paramSets)
+        while (paramSets.hasNext())
         {
+            List<QueryParamValue> paramSet = paramSets.next();
             final List<FieldDebugInfo<?>> paramFields = new ArrayList<>();
             int paramIndex = 1;
             for (QueryParamValue paramValue : paramSet)
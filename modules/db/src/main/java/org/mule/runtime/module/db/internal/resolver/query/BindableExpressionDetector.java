@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.module.db.internal.resolver.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the expressions of a dynamic query that are used as values and could be replaced by bind parameters.
+ * <p/>
+ * An expression is considered a value when it is the whole content of a string literal, as in
+ * {@code name = '#[payload]'}, or when it is the right operand of a comparison, as in {@code id = #[payload]}.
+ * Expressions used as identifiers or as SQL fragments are not reported, as they can't be bound.
+ */
+final class BindableExpressionDetector
+{
+
+    private static final String EXPRESSION_START = "#[";
+    private static final String COMPARISON_OPERATORS = "=<>";
+    private static final String LIKE_OPERATOR = "LIKE";
+
+    private BindableExpressionDetector()
+    {
+    }
+
+    /**
+     * @param sqlText the SQL text of a dynamic query
+     * @return the expressions that could be bind parameters, in the order they appear
+     */
+    static List<String> detect(String sqlText)
+    {
+        List<String> expressions = new ArrayList<>();
+        boolean inLiteral = false;
+        int i = 0;
+        while (i < sqlText.length())
+        {
+            if (sqlText.startsWith(EXPRESSION_START, i))
+            {
+                int end = findExpressionEnd(sqlText, i + EXPRESSION_START.length());
+                if (end == -1)
+                {
+                    break;
+                }
+                if (inLiteral ? isWholeLiteral(sqlText, i, end) : isComparisonOperand(sqlText, i))
+                {
+                    expressions.add(sqlText.substring(i, end + 1));
+                }
+                i = end + 1;
+            }
+            else
+            {
+                if (sqlText.charAt(i) == '\'')
+                {
+                    inLiteral = !inLiteral;
+                }
+                i++;
+            }
+        }
+        return expressions;
+    }
+
+    /**
+     * @return the index of the bracket that closes the expression, or -1 if it isn't closed
+     */
+    private static int findExpressionEnd(String sqlText, int from)
+    {
+        int depth = 1;
+        char quote = 0;
+        for (int i = from; i < sqlText.length(); i++)
+        {
+            char c = sqlText.charAt(i);
+            if (quote != 0)
+            {
+                if (c == quote)
+                {
+                    quote = 0;
+                }
+            }
+            else if (c == '\'' || c == '"')
+            {
+                quote = c;
+            }
+            else if (c == '[')
+            {
+                depth++;
+            }
+            else if (c == ']' && --depth == 0)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isWholeLiteral(String sqlText, int start, int end)
+    {
+        return sqlText.charAt(start - 1) == '\'' && end + 1 < sqlText.length() && sqlText.charAt(end + 1) == '\'';
+    }
+
+    private static boolean isComparisonOperand(String sqlText, int start)
+    {
+        int i = start - 1;
+        while (i >= 0 && Character.isWhitespace(sqlText.charAt(i)))
+        {
+            i--;
+        }
+        if (i < 0)
+        {
+            return false;
+        }
+        if (COMPARISON_OPERATORS.indexOf(sqlText.charAt(i)) != -1)
+        {
+            return true;
+        }
+        int wordStart = i - LIKE_OPERATOR.length() + 1;
+        return wordStart > 0 && Character.isWhitespace(sqlText.charAt(wordStart - 1))
+               && sqlText.regionMatches(true, wordStart, LIKE_OPERATOR, 0, LIKE_OPERATOR.length());
+    }
+}
@@ -7,6 +7,7 @@
 
 package org.mule.runtime.module.db.internal.resolver.query;
 
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 import org.mule.runtime.core.api.MuleEvent;
 import org.mule.runtime.core.api.expression.ExpressionManager;
 import org.mule.runtime.module.db.internal.domain.connection.DbConnection;
@@ -15,23 +16,63 @@ import org.mule.runtime.module.db.internal.domain.query.QueryParamValue;
 import org.mule.runtime.module.db.internal.domain.query.QueryTemplate;
 import org.mule.runtime.module.db.internal.parser.QueryTemplateParser;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
 import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Resolves a dynamic query evaluating expressions using a given event
+ * <p/>
+ * Dynamic queries usually resolve to a small number of distinct SQL texts, so the parsed templates are kept in a
+ * bounded cache keyed by the resolved SQL text.
  */
 public class DynamicQueryResolver implements QueryResolver
 {
 
+    private static final Logger logger = LoggerFactory.getLogger(DynamicQueryResolver.class);
+
+    /**
+     * System property that defines the maximum number of parsed templates cached by each resolver
+     */
+    public static final String TEMPLATE_CACHE_SIZE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "db.dynamicQueryCacheSize";
+    private static final int DEFAULT_TEMPLATE_CACHE_SIZE = 100;
+
     private final Query query;
     private final QueryTemplateParser queryTemplateParser;
     private final ExpressionManager expressionManager;
+    private final LoadingCache<String, QueryTemplate> queryTemplates;
 
     public DynamicQueryResolver(Query query, QueryTemplateParser queryTemplateParser, ExpressionManager expressionManager)
+    {
+        this(query, queryTemplateParser, expressionManager, Integer.getInteger(TEMPLATE_CACHE_SIZE_PROPERTY, DEFAULT_TEMPLATE_CACHE_SIZE));
+    }
+
+    public DynamicQueryResolver(Query query, QueryTemplateParser queryTemplateParser, ExpressionManager expressionManager, int templateCacheSize)
     {
         this.query = query;
         this.queryTemplateParser = queryTemplateParser;
         this.expressionManager = expressionManager;
+        this.queryTemplates = CacheBuilder.newBuilder()
+                .maximumSize(templateCacheSize)
+                .recordStats()
+                .build(new CacheLoader<String, QueryTemplate>()
+                {
+                    @Override
+                    public QueryTemplate load(String sqlText) throws Exception
+                    {
+                        return queryTemplateParser.parse(sqlText);
+                    }
+                });
+
+        warnAboutBindableExpressions(query.getQueryTemplate().getSqlText());
     }
 
     @Override
@@ -41,7 +82,7 @@ public class DynamicQueryResolver implements QueryResolver
         {
             QueryTemplate queryTemplate = query.getQueryTemplate();
             String resolvedSqlText = expressionManager.parse(queryTemplate.getSqlText(), muleEvent);
-            queryTemplate = queryTemplateParser.parse(resolvedSqlText);
+            queryTemplate = getQueryTemplate(resolvedSqlText);
 
             return new Query(queryTemplate, Collections.<QueryParamValue>emptyList());
         }
@@ -50,4 +91,40 @@ public class DynamicQueryResolver implements QueryResolver
             throw new QueryResolutionException("Error parsing query", e);
         }
     }
+
+    private QueryTemplate getQueryTemplate(String resolvedSqlText)
+    {
+        try
+        {
+            return queryTemplates.getUnchecked(resolvedSqlText);
+        }
+        catch (UncheckedExecutionException e)
+        {
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return statistics of the cache of parsed query templates. A low hit rate means that the query resolves to
+     * many different SQL texts, so neither this cache nor the prepared statement cache of the driver are effective.
+     */
+    public CacheStats getTemplateCacheStats()
+    {
+        return queryTemplates.stats();
+    }
+
+    private void warnAboutBindableExpressions(String sqlText)
+    {
+        List<String> bindableExpressions = BindableExpressionDetector.detect(sqlText);
+        if (!bindableExpressions.isEmpty())
+        {
+            logger.warn("Dynamic query '{}' uses the expressions {} as values. Each value produces a different SQL text " +
+                        "that has to be parsed and prepared again, consider using a parameterized query instead",
+                        sqlText, bindableExpressions);
+        }
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.module.db.internal.domain.executor;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mule.runtime.module.db.internal.domain.connection.DbConnection;
+import org.mule.runtime.module.db.internal.domain.param.QueryParam;
+import org.mule.runtime.module.db.internal.domain.query.Query;
+import org.mule.runtime.module.db.internal.domain.query.QueryParamValue;
+import org.mule.runtime.module.db.internal.domain.query.QueryTemplate;
+import org.mule.runtime.module.db.internal.domain.query.QueryType;
+import org.mule.runtime.module.db.internal.domain.statement.StatementFactory;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+@SmallTest
+public class BulkUpdateExecutorTestCase extends AbstractMuleTestCase
+{
+
+    private final Query query = new Query(new QueryTemplate("update PLANET set NAME='Mercury'", QueryType.UPDATE, Collections.<QueryParam>emptyList()));
+    private final DbConnection connection = mock(DbConnection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+    private final StatementFactory statementFactory = mock(StatementFactory.class);
+
+    @Before
+    public void setUp() throws Exception
+    {
+        when(statementFactory.create(any(DbConnection.class), any(QueryTemplate.class))).thenReturn(statement);
+        when(statement.executeBatch()).thenReturn(new int[] {1, 1}, new int[] {1});
+    }
+
+    @Test
+    public void executesInBatches() throws Exception
+    {
+        BulkUpdateExecutor executor = new BulkUpdateExecutor(statementFactory, 2, false);
+
+        Object result = executor.execute(connection, query, createParamSets(3));
+
+        assertThat((int[]) result, equalTo(new int[] {1, 1, 1}));
+        verify(statement, times(3)).addBatch();
+        verify(statement, times(2)).executeBatch();
+        verify(connection, never()).commit();
+    }
+
+    @Test
+    public void executesSingleBatchByDefault() throws Exception
+    {
+        when(statement.executeBatch()).thenReturn(new int[] {1, 1, 1});
+        BulkUpdateExecutor executor = new BulkUpdateExecutor(statementFactory);
+
+        Object result = executor.execute(connection, query, createParamSets(3));
+
+        assertThat((int[]) result, equalTo(new int[] {1, 1, 1}));
+        verify(statement, times(1)).executeBatch();
+    }
+
+    @Test
+    public void commitsEachBatch() throws Exception
+    {
+        when(connection.getAutoCommit()).thenReturn(true);
+        BulkUpdateExecutor executor = new BulkUpdateExecutor(statementFactory, 2, true);
+
+        executor.execute(connection, query, createParamSets(3));
+
+        InOrder inOrder = inOrder(connection, statement);
+        inOrder.verify(connection).setAutoCommit(false);
+        inOrder.verify(statement).executeBatch();
+        inOrder.verify(connection).commit();
+        inOrder.verify(statement).executeBatch();
+        inOrder.verify(connection).commit();
+        inOrder.verify(connection).setAutoCommit(true);
+    }
+
+    @Test
+    public void doesNotCommitTransactedConnection() throws Exception
+    {
+        when(connection.getAutoCommit()).thenReturn(false);
+        BulkUpdateExecutor executor = new BulkUpdateExecutor(statementFactory, 2, true);
+
+        executor.execute(connection, query, createParamSets(3));
+
+        verify(connection, never()).commit();
+        verify(connection, never()).setAutoCommit(anyBoolean());
+    }
+
+    private Iterator<List<QueryParamValue>> createParamSets(int count)
+    {
+        List<List<QueryParamValue>> paramSets = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+        {
+            paramSets.add(Collections.<QueryParamValue>emptyList());
+        }
+        return paramSets.iterator();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.module.db.internal.resolver.query;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.module.db.internal.resolver.query.BindableExpressionDetector.detect;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class BindableExpressionDetectorTestCase extends AbstractMuleTestCase
+{
+
+    @Test
+    public void detectsComparisonOperands() throws Exception
+    {
+        assertThat(detect("select * from planet where id = #[payload] and position >= #[flowVars.min]"),
+                   contains("#[payload]", "#[flowVars.min]"));
+    }
+
+    @Test
+    public void detectsStringLiterals() throws Exception
+    {
+        assertThat(detect("select * from planet where name = '#[flowVars['name']]'"), contains("#[flowVars['name']]"));
+        assertThat(detect("select * from planet where name like '#[payload]'"), contains("#[payload]"));
+    }
+
+    @Test
+    public void detectsLikeOperands() throws Exception
+    {
+        assertThat(detect("select * from planet where name LIKE #[payload]"), contains("#[payload]"));
+    }
+
+    @Test
+    public void ignoresSqlFragments() throws Exception
+    {
+        assertThat(detect("select * from #[table] order by #[column]"), empty());
+        assertThat(detect("select * from planet where name = 'Mars #[payload]'"), empty());
+        assertThat(detect("select * from planet where name = 'a' #[condition]"), empty());
+        assertThat(detect("select * from planet where #[payload"), empty());
+    }
+}
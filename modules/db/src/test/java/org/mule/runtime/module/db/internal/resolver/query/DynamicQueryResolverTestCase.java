@@ -7,9 +7,12 @@
 
 package org.mule.runtime.module.db.internal.resolver.query;
 
+import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsSame.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mule.runtime.core.api.expression.ExpressionManager;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
@@ -71,4 +74,46 @@ public class DynamicQueryResolverTestCase extends AbstractQueryResolverTestCase
 
         queryResolver.resolve(null, muleEvent);
     }
+
+    @Test
+    public void reusesParsedQueryTemplate() throws Exception
+    {
+        ExpressionManager expressionManager = mock(ExpressionManager.class);
+        String staticSqlText = STATIC_SQL_TEXT;
+        when(expressionManager.parse(DYNAMIC_SQL_TEXT, muleEvent)).thenReturn(staticSqlText);
+
+        QueryTemplate expectedQueryTemplate = createQueryTemplate(staticSqlText);
+        QueryTemplateParser queryTemplateParser = mock(QueryTemplateParser.class);
+        when(queryTemplateParser.parse(staticSqlText)).thenReturn(expectedQueryTemplate);
+
+        DynamicQueryResolver queryResolver = new DynamicQueryResolver(query, queryTemplateParser, expressionManager);
+
+        queryResolver.resolve(null, muleEvent);
+        Query resolvedQuery = queryResolver.resolve(null, muleEvent);
+
+        assertThat(expectedQueryTemplate, sameInstance(resolvedQuery.getQueryTemplate()));
+        verify(queryTemplateParser, times(1)).parse(staticSqlText);
+        assertThat(queryResolver.getTemplateCacheStats().hitCount(), is(1L));
+        assertThat(queryResolver.getTemplateCacheStats().missCount(), is(1L));
+    }
+
+    @Test
+    public void evictsQueryTemplatesOverCacheSize() throws Exception
+    {
+        ExpressionManager expressionManager = mock(ExpressionManager.class);
+        when(expressionManager.parse(DYNAMIC_SQL_TEXT, muleEvent)).thenReturn("select * from a", "select * from b", "select * from a");
+
+        QueryTemplateParser queryTemplateParser = mock(QueryTemplateParser.class);
+        when(queryTemplateParser.parse("select * from a")).thenReturn(createQueryTemplate("select * from a"));
+        when(queryTemplateParser.parse("select * from b")).thenReturn(createQueryTemplate("select * from b"));
+
+        DynamicQueryResolver queryResolver = new DynamicQueryResolver(query, queryTemplateParser, expressionManager, 1);
+
+        queryResolver.resolve(null, muleEvent);
+        queryResolver.resolve(null, muleEvent);
+        queryResolver.resolve(null, muleEvent);
+
+        verify(queryTemplateParser, times(2)).parse("select * from a");
+        assertThat(queryResolver.getTemplateCacheStats().evictionCount(), is(2L));
+    }
 }
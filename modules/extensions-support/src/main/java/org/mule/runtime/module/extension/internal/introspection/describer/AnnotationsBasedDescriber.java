@@ -114,7 +114,7 @@ import org.mule.runtime.module.extension.internal.model.property.ImplementingTyp
 import org.mule.runtime.module.extension.internal.model.property.ParameterGroupModelProperty;
 import org.mule.runtime.module.extension.internal.model.property.TypeRestrictionModelProperty;
 import org.mule.runtime.module.extension.internal.runtime.exception.DefaultExceptionEnricherFactory;
-import org.mule.runtime.module.extension.internal.runtime.executor.ReflectiveOperationExecutorFactory;
+import org.mule.runtime.module.extension.internal.runtime.executor.MethodHandleOperationExecutorFactory;
 import org.mule.runtime.module.extension.internal.runtime.source.DefaultSourceFactory;
 
 import com.google.common.collect.ImmutableList;
@@ -587,7 +587,7 @@ public final class AnnotationsBasedDescriber implements Describer
 
             final OperationDeclarer operation = declarer.withOperation(operationMethod.getName())
                     .withModelProperty(new ImplementingMethodModelProperty(operationMethod))
-                    .executorsCreatedBy(new ReflectiveOperationExecutorFactory<>(actingClass, operationMethod))
+                    .executorsCreatedBy(new MethodHandleOperationExecutorFactory<>(actingClass, operationMethod))
                     .withExceptionEnricherFactory(getExceptionEnricherFactory(operationMethod))
                     .withMetadataResolverFactory(metadataResolverFactory);
 
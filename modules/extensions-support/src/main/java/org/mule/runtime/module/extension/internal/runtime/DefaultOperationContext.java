@@ -48,7 +48,7 @@ public class DefaultOperationContext implements OperationContextAdapter
 
         Map<ParameterModel, Object> parameterMap = parameters.asMap();
         this.parameters = new HashMap<>(parameterMap.size());
-        parameters.asMap().entrySet().forEach(parameter -> setParameter(parameter));
+        parameterMap.entrySet().forEach(parameter -> setParameter(parameter));
     }
 
     private void setParameter(Map.Entry<ParameterModel, Object> parameter)
@@ -22,6 +22,7 @@ import org.mule.runtime.extension.api.runtime.ExpirableConfigurationProvider;
 import org.mule.runtime.extension.api.runtime.ExpirationPolicy;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSet;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSetResult;
+import org.mule.runtime.module.extension.internal.runtime.resolver.StaticValueResolver;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolver;
 import org.mule.runtime.core.util.collection.ImmutableListCollector;
 
@@ -42,7 +43,9 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * Although each invocation to {@link #get(Object)} is guaranteed to end up in an invocation
  * to {@link #resolverSet#resolve(MuleEvent)}, the resulting {@link ResolverSetResult} might not end up
  * generating a new instance. This is so because {@link ResolverSetResult} instances are put in a cache to
- * guarantee that equivalent evaluations of the {@code resolverSet} return the same instance.
+ * guarantee that equivalent evaluations of the {@code resolverSet} return the same instance. Since the
+ * {@code resolverSet} only evaluates its {@link StaticValueResolver}s once, only the values of the other
+ * resolvers are compared when looking up the cache.
  *
  * @param <T> the generic type of the provided {@link ConfigurationInstance}
  * @since 4.0.0
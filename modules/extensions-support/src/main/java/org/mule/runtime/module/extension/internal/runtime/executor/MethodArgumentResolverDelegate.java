@@ -47,9 +47,12 @@ final class MethodArgumentResolverDelegate implements ArgumentResolverDelegate
     private static final ArgumentResolver<MuleEvent> EVENT_ARGUMENT_RESOLVER = new EventArgumentResolver();
 
 
+    private static final Object[] EMPTY = new Object[] {};
+
     private final Method method;
     private final JavaTypeLoader typeLoader = new JavaTypeLoader(this.getClass().getClassLoader());
     private ArgumentResolver<? extends Object>[] argumentResolvers;
+    private Object[] defaultValues;
 
     /**
      * Creates a new instance for the given {@code method}
@@ -68,10 +71,12 @@ final class MethodArgumentResolverDelegate implements ArgumentResolverDelegate
         if (isEmpty(parameterTypes))
         {
             argumentResolvers = new ArgumentResolver[] {};
+            defaultValues = EMPTY;
             return;
         }
 
         argumentResolvers = new ArgumentResolver[parameterTypes.length];
+        defaultValues = new Object[parameterTypes.length];
         Annotation[][] parameterAnnotations = method.getParameterAnnotations();
         final List<String> paramNames = MuleExtensionAnnotationParser.getParamNames(method);
 
@@ -108,38 +113,34 @@ final class MethodArgumentResolverDelegate implements ArgumentResolverDelegate
             }
 
             argumentResolvers[i] = argumentResolver;
+            defaultValues[i] = resolvePrimitiveTypeDefaultValue(parameterType);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Arguments which resolve to {@code null} get the default value of their type,
+     * so that primitive arguments can be passed. Since the resolvers and the default
+     * values are computed when {@code this} instance is created, {@code parameterTypes}
+     * is ignored
+     */
     @Override
     public Object[] resolve(OperationContext operationContext, Class<?>[] parameterTypes)
     {
-        Object[] parameterValues = new Object[argumentResolvers.length];
-        int i = 0;
-        for (ArgumentResolver<?> argumentResolver : argumentResolvers)
+        if (argumentResolvers.length == 0)
         {
-            parameterValues[i++] = argumentResolver.resolve(operationContext);
+            return EMPTY;
         }
 
-        return resolvePrimitiveTypes(parameterTypes, parameterValues);
-    }
-
-    private Object[] resolvePrimitiveTypes(Class<?>[] parametersType, Object[] parameterValues)
-    {
-        Object[] resolvedParameters = new Object[parameterValues.length];
-        for (int i = 0; i < parameterValues.length; i++)
+        Object[] parameterValues = new Object[argumentResolvers.length];
+        for (int i = 0; i < argumentResolvers.length; i++)
         {
-            Object parameterValue = parameterValues[i];
-            if (parameterValue == null)
-            {
-                resolvedParameters[i] = resolvePrimitiveTypeDefaultValue(parametersType[i]);
-            }
-            else
-            {
-                resolvedParameters[i] = parameterValue;
-            }
+            Object parameterValue = argumentResolvers[i].resolve(operationContext);
+            parameterValues[i] = parameterValue != null ? parameterValue : defaultValues[i];
         }
-        return resolvedParameters;
+
+        return parameterValues;
     }
 
     private Object resolvePrimitiveTypeDefaultValue(Class<?> type)
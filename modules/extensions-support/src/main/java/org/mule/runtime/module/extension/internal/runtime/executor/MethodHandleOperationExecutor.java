@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.executor;
+
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.MuleException;
+import org.mule.runtime.core.api.context.MuleContextAware;
+import org.mule.runtime.core.api.lifecycle.InitialisationException;
+import org.mule.runtime.core.api.lifecycle.Lifecycle;
+import org.mule.runtime.extension.api.runtime.OperationContext;
+import org.mule.runtime.extension.api.runtime.OperationExecutor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation of {@link OperationExecutor} which invokes an operation method
+ * over the {@link #executorDelegate} through a {@link MethodHandle} bound to it,
+ * avoiding the access checks and argument copies of reflective invocations.
+ * <p/>
+ * Exceptions are propagated the same way as in {@link ReflectiveMethodOperationExecutor}:
+ * runtime exceptions and errors as they are thrown, and checked exceptions wrapped
+ * in an {@link UndeclaredThrowableException}.
+ * <p/>
+ * All the {@link Lifecycle} events that {@code this} instance receives are propagated
+ * to the {@link #executorDelegate}
+ *
+ * @since 4.0
+ */
+public final class MethodHandleOperationExecutor implements OperationExecutor, MuleContextAware, Lifecycle
+{
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandleOperationExecutor.class);
+
+    private final MethodHandle operationHandle;
+    private final Object executorDelegate;
+    private final ArgumentResolverDelegate argumentResolverDelegate;
+
+    private MuleContext muleContext;
+
+    /**
+     * @param operationHandle          a {@link MethodHandle} of type {@code (Object, Object...)Object} which invokes the operation
+     * @param parameterCount           the number of arguments of the operation
+     * @param executorDelegate         the instance in which the operation is invoked
+     * @param argumentResolverDelegate the {@link ArgumentResolverDelegate} which provides the arguments of the operation
+     */
+    MethodHandleOperationExecutor(MethodHandle operationHandle, int parameterCount, Object executorDelegate, ArgumentResolverDelegate argumentResolverDelegate)
+    {
+        this.operationHandle = operationHandle.bindTo(executorDelegate).asSpreader(Object[].class, parameterCount);
+        this.executorDelegate = executorDelegate;
+        this.argumentResolverDelegate = argumentResolverDelegate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object execute(OperationContext operationContext) throws Exception
+    {
+        Object[] arguments = argumentResolverDelegate.resolve(operationContext, null);
+        try
+        {
+            return (Object) operationHandle.invokeExact(arguments);
+        }
+        catch (RuntimeException | Error e)
+        {
+            throw e;
+        }
+        catch (Throwable t)
+        {
+            throw new UndeclaredThrowableException(t);
+        }
+    }
+
+    @Override
+    public void initialise() throws InitialisationException
+    {
+        initialiseIfNeeded(executorDelegate, true, muleContext);
+    }
+
+    @Override
+    public void start() throws MuleException
+    {
+        startIfNeeded(executorDelegate);
+    }
+
+    @Override
+    public void stop() throws MuleException
+    {
+        stopIfNeeded(executorDelegate);
+    }
+
+    @Override
+    public void dispose()
+    {
+        disposeIfNeeded(executorDelegate, LOGGER);
+    }
+
+    @Override
+    public void setMuleContext(MuleContext context)
+    {
+        muleContext = context;
+        if (executorDelegate instanceof MuleContextAware)
+        {
+            ((MuleContextAware) executorDelegate).setMuleContext(context);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.executor;
+
+import static java.lang.invoke.MethodType.genericMethodType;
+import static org.mule.runtime.core.config.i18n.MessageFactory.createStaticMessage;
+import static org.mule.runtime.core.util.Preconditions.checkArgument;
+import org.mule.runtime.core.api.MuleRuntimeException;
+import org.mule.runtime.extension.api.runtime.OperationExecutor;
+import org.mule.runtime.extension.api.runtime.OperationExecutorFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+
+/**
+ * An implementation of {@link OperationExecutorFactory} which produces instances
+ * of {@link MethodHandleOperationExecutor}.
+ * <p/>
+ * Unlike {@link ReflectiveOperationExecutorFactory}, the {@link MethodHandle} which
+ * invokes the {@code operationMethod} and the resolvers of its arguments are created
+ * only once, when {@code this} factory is created, and shared by all the executors
+ *
+ * @param <T> the type of the class in which the implementing method is declared
+ * @since 4.0
+ */
+public final class MethodHandleOperationExecutorFactory<T> implements OperationExecutorFactory
+{
+
+    private final Class<T> implementationClass;
+    private final Method operationMethod;
+    private final MethodHandle operationHandle;
+    private final ArgumentResolverDelegate argumentResolverDelegate;
+
+    public MethodHandleOperationExecutorFactory(Class<T> implementationClass, Method operationMethod)
+    {
+        checkArgument(implementationClass != null, "implementationClass cannot be null");
+        checkArgument(operationMethod != null, "operationMethod cannot be null");
+
+        this.implementationClass = implementationClass;
+        this.operationMethod = operationMethod;
+        operationHandle = createOperationHandle(operationMethod);
+        argumentResolverDelegate = new MethodArgumentResolverDelegate(operationMethod);
+    }
+
+    /**
+     * Adapts the {@code operationMethod} to a {@link MethodHandle} of type {@code (Object, Object...)Object},
+     * which unboxes the primitive arguments and returns {@code null} for {@code void} methods
+     */
+    private static MethodHandle createOperationHandle(Method operationMethod)
+    {
+        try
+        {
+            if (!operationMethod.isAccessible())
+            {
+                operationMethod.setAccessible(true);
+            }
+            return MethodHandles.lookup()
+                    .unreflect(operationMethod)
+                    .asType(genericMethodType(operationMethod.getParameterCount() + 1));
+        }
+        catch (Exception e)
+        {
+            throw new MuleRuntimeException(createStaticMessage("Could not access operation method " + operationMethod), e);
+        }
+    }
+
+    @Override
+    public OperationExecutor createExecutor()
+    {
+        Object delegate;
+        try
+        {
+            delegate = implementationClass.newInstance();
+        }
+        catch (Exception e)
+        {
+            throw new MuleRuntimeException(createStaticMessage("Could not create instance of operation class " + implementationClass.getName()), e);
+        }
+
+        return new MethodHandleOperationExecutor(operationHandle, operationMethod.getParameterCount(), delegate, argumentResolverDelegate);
+    }
+}
@@ -14,7 +14,10 @@ import org.mule.runtime.module.extension.internal.runtime.ObjectBuilder;
 
 import com.google.common.collect.ImmutableMap;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -29,6 +32,13 @@ import java.util.Map;
  * will always be a {@link ResolverSetResult} which then can be used by a {@link ObjectBuilder}
  * to generate an actual object.
  * <p/>
+ * The {@link StaticValueResolver}s are only evaluated the first time that this set is
+ * resolved, and their values are shared by all the following results. If all the resolvers
+ * are {@link StaticValueResolver}s, the same {@link ResolverSetResult} is returned every time.
+ * Other resolvers are evaluated on each resolution even if they're not dynamic, since they
+ * may build a new mutable value every time (for example, a {@link ObjectBuilderValueResolver}
+ * or a {@link CollectionValueResolver}) which can't be shared among concurrent executions.
+ * <p/>
  * Instances of this class are to be considered thread safe and reusable
  *
  * @since 3.7.0
@@ -38,6 +48,7 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>
 
     private Map<ParameterModel, ValueResolver> resolvers = new LinkedHashMap<>();
     private boolean dynamic = false;
+    private volatile StaticValues staticValues;
 
     /**
      * Links the given {@link ValueResolver} to the given {@link ParameterModel}.
@@ -63,6 +74,7 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>
         {
             dynamic = true;
         }
+        staticValues = null;
         return this;
     }
 
@@ -78,8 +90,8 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>
     }
 
     /**
-     * Evaluates all the added {@link ValueResolver}s and returns the results into
-     * a {@link ResolverSetResult}
+     * Evaluates the added {@link ValueResolver}s and returns their results, along with
+     * the values of the {@link StaticValueResolver}s, into a {@link ResolverSetResult}
      *
      * @param event a not {@code null} {@link MuleEvent}
      * @return a {@link ResolverSetResult}
@@ -88,17 +100,90 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>
     @Override
     public ResolverSetResult resolve(MuleEvent event) throws MuleException
     {
-        ResolverSetResult.Builder builder = ResolverSetResult.newBuilder();
-        for (Map.Entry<ParameterModel, ValueResolver> entry : resolvers.entrySet())
+        StaticValues staticValues = getStaticValues(event);
+        if (staticValues.result != null)
         {
-            builder.add(entry.getKey(), entry.getValue().resolve(event));
+            return staticValues.result;
         }
 
-        return builder.build();
+        Map<ParameterModel, Object> values = new LinkedHashMap<>(staticValues.values);
+        Map<String, Object> valuesByName = new HashMap<>(staticValues.valuesByName);
+        Object[] resolvedValues = new Object[staticValues.resolvers.length];
+        for (int i = 0; i < resolvedValues.length; i++)
+        {
+            ParameterModel parameterModel = staticValues.parameters[i];
+            Object value = staticValues.resolvers[i].resolve(event);
+            values.put(parameterModel, value);
+            valuesByName.put(parameterModel.getName(), value);
+            resolvedValues[i] = value;
+        }
+
+        return new ResolverSetResult(values, valuesByName, staticValues, staticValues.hashCode, resolvedValues);
+    }
+
+    private StaticValues getStaticValues(MuleEvent event) throws MuleException
+    {
+        StaticValues values = staticValues;
+        if (values == null)
+        {
+            synchronized (this)
+            {
+                values = staticValues;
+                if (values == null)
+                {
+                    values = new StaticValues(resolvers, event);
+                    staticValues = values;
+                }
+            }
+        }
+        return values;
     }
 
     public Map<ParameterModel, ValueResolver> getResolvers()
     {
         return ImmutableMap.copyOf(resolvers);
     }
+
+    /**
+     * The values of the {@link StaticValueResolver}s, in the order in which the resolvers
+     * were added, with placeholders for the ones which need to be evaluated each time
+     */
+    private static final class StaticValues
+    {
+
+        private final Map<ParameterModel, Object> values = new LinkedHashMap<>();
+        private final Map<String, Object> valuesByName = new HashMap<>();
+        private final ParameterModel[] parameters;
+        private final ValueResolver[] resolvers;
+        private final int hashCode;
+        private final ResolverSetResult result;
+
+        private StaticValues(Map<ParameterModel, ValueResolver> resolvers, MuleEvent event) throws MuleException
+        {
+            List<ParameterModel> parameters = new ArrayList<>();
+            List<ValueResolver> evaluatedResolvers = new ArrayList<>();
+            int hashCode = 0;
+            for (Map.Entry<ParameterModel, ValueResolver> entry : resolvers.entrySet())
+            {
+                Object value = null;
+                if (entry.getValue() instanceof StaticValueResolver)
+                {
+                    value = entry.getValue().resolve(event);
+                    hashCode += ResolverSetResult.hashCode(value);
+                }
+                else
+                {
+                    parameters.add(entry.getKey());
+                    evaluatedResolvers.add(entry.getValue());
+                }
+                values.put(entry.getKey(), value);
+                valuesByName.put(entry.getKey().getName(), value);
+            }
+
+            this.parameters = parameters.toArray(new ParameterModel[parameters.size()]);
+            this.resolvers = evaluatedResolvers.toArray(new ValueResolver[evaluatedResolvers.size()]);
+            this.hashCode = hashCode;
+            result = parameters.isEmpty() ? new ResolverSetResult(values, valuesByName, this, hashCode, new Object[] {}) : null;
+        }
+    }
 }
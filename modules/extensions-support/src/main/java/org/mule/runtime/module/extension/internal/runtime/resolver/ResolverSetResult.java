@@ -11,6 +11,7 @@ import org.mule.runtime.extension.api.introspection.parameter.ParameterModel;
 
 import com.google.common.base.Objects;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -22,7 +23,9 @@ import java.util.Map;
  * <p/>
  * This classes {@link #equals(Object)} and {@link #hashCode()} methods have been redefined
  * to be consistent with the result objects. This is so that given two instances of this class
- * you can determine if the evaluations they represent have an equivalent outcome
+ * you can determine if the evaluations they represent have an equivalent outcome.
+ * Results of the same {@link ResolverSet} are only compared by the values of the
+ * resolvers which are evaluated each time, since the others always have the same value.
  * <p/>
  * Instances of this class can only be created through a {@link Builder}
  * obtained via {@link #newBuilder()}
@@ -41,7 +44,7 @@ public class ResolverSetResult
     public static final class Builder
     {
 
-        private int hashCode = 1;
+        private int hashCode = 0;
         private Map<ParameterModel, Object> values = new LinkedHashMap<>();
 
         private Builder()
@@ -59,8 +62,8 @@ public class ResolverSetResult
         public Builder add(ParameterModel parameterModel, Object value)
         {
             checkArgument(parameterModel != null, "parameter cannot be null");
-            values.put(parameterModel, value);
-            hashCode = 31 * hashCode + (value == null ? 0 : value.hashCode());
+            Object previousValue = values.put(parameterModel, value);
+            hashCode += ResolverSetResult.hashCode(value) - ResolverSetResult.hashCode(previousValue);
             return this;
         }
 
@@ -89,6 +92,8 @@ public class ResolverSetResult
     private final Map<ParameterModel, Object> evaluationResult;
     private final Map<String, Object> parameterToResult;
     private final int hashCode;
+    private final Object resolverSetValues;
+    private final Object[] resolvedValues;
 
     private ResolverSetResult(Map<ParameterModel, Object> evaluationResult, int hashCode)
     {
@@ -100,6 +105,37 @@ public class ResolverSetResult
         }
 
         this.hashCode = hashCode;
+        resolverSetValues = null;
+        resolvedValues = null;
+    }
+
+    /**
+     * Creates the result of a {@link ResolverSet}
+     *
+     * @param evaluationResult  the values of all the parameters
+     * @param parameterToResult the same values, by parameter name
+     * @param resolverSetValues identifies the evaluations of the same {@link ResolverSet} which share the values of its static resolvers
+     * @param staticHashCode    the sum of the hash codes of the values shared by those evaluations
+     * @param resolvedValues    the values of the resolvers evaluated each time, which are the only ones compared against another evaluation of the same {@link ResolverSet}
+     */
+    ResolverSetResult(Map<ParameterModel, Object> evaluationResult, Map<String, Object> parameterToResult, Object resolverSetValues, int staticHashCode, Object[] resolvedValues)
+    {
+        this.evaluationResult = Collections.unmodifiableMap(evaluationResult);
+        this.parameterToResult = parameterToResult;
+        this.resolverSetValues = resolverSetValues;
+        this.resolvedValues = resolvedValues;
+
+        int hashCode = staticHashCode;
+        for (Object value : resolvedValues)
+        {
+            hashCode += hashCode(value);
+        }
+        this.hashCode = hashCode;
+    }
+
+    static int hashCode(Object value)
+    {
+        return value == null ? 0 : value.hashCode();
     }
 
     /**
@@ -148,6 +184,11 @@ public class ResolverSetResult
         if (obj instanceof ResolverSetResult)
         {
             ResolverSetResult other = (ResolverSetResult) obj;
+            if (resolverSetValues != null && resolverSetValues == other.resolverSetValues)
+            {
+                return Arrays.equals(resolvedValues, other.resolvedValues);
+            }
+
             for (Map.Entry<ParameterModel, Object> entry : evaluationResult.entrySet())
             {
                 Object otherValue = other.get(entry.getKey());
@@ -164,7 +205,8 @@ public class ResolverSetResult
     }
 
     /**
-     * A hashCode calculated based on the results
+     * A hashCode calculated based on all the results, regardless of
+     * the order in which they were added
      *
      * @return a hashCode
      */
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.executor;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.when;
+import org.mule.runtime.core.util.ClassUtils;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.runtime.OperationContext;
+import org.mule.runtime.extension.api.runtime.OperationExecutor;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class MethodHandleOperationExecutorTestCase extends AbstractMuleTestCase
+{
+
+    private static final IOException CHECKED_EXCEPTION = new IOException();
+    private static final IllegalStateException RUNTIME_EXCEPTION = new IllegalStateException();
+
+    @Mock
+    private OperationContext operationContext;
+
+    @Test
+    public void operationWithoutParameters() throws Exception
+    {
+        assertThat((String) createExecutor("sayHello").execute(operationContext), is("hello"));
+    }
+
+    @Test
+    public void operationWithParameters() throws Exception
+    {
+        when(operationContext.getParameter(anyString())).thenReturn("Walter");
+        assertThat((String) createExecutor("greet", String.class).execute(operationContext), is("hello Walter"));
+    }
+
+    @Test
+    public void voidOperation() throws Exception
+    {
+        assertThat(createExecutor("doNothing").execute(operationContext), is(nullValue()));
+    }
+
+    @Test
+    public void primitiveArgumentsWithoutValue() throws Exception
+    {
+        assertThat((Long) createExecutor("add", int.class, long.class).execute(operationContext), is(0L));
+    }
+
+    @Test
+    public void primitiveArgumentsWithWiderType() throws Exception
+    {
+        when(operationContext.getParameter(anyString())).thenReturn(1);
+        assertThat((Long) createExecutor("add", int.class, long.class).execute(operationContext), is(2L));
+    }
+
+    @Test
+    public void runtimeExceptionIsPropagated() throws Exception
+    {
+        try
+        {
+            createExecutor("failWithRuntimeException").execute(operationContext);
+            fail("was expecting an exception");
+        }
+        catch (Exception e)
+        {
+            assertThat(e, is(RUNTIME_EXCEPTION));
+        }
+    }
+
+    @Test
+    public void checkedExceptionIsWrapped() throws Exception
+    {
+        try
+        {
+            createExecutor("failWithCheckedException").execute(operationContext);
+            fail("was expecting an exception");
+        }
+        catch (Exception e)
+        {
+            assertThat(e, is(instanceOf(UndeclaredThrowableException.class)));
+            assertThat(e.getCause(), is(CHECKED_EXCEPTION));
+        }
+    }
+
+    private OperationExecutor createExecutor(String methodName, Class<?>... parameterTypes)
+    {
+        Method method = ClassUtils.getMethod(TestOperations.class, methodName, parameterTypes);
+        return new MethodHandleOperationExecutorFactory<>(TestOperations.class, method).createExecutor();
+    }
+
+    public static class TestOperations
+    {
+
+        public String sayHello()
+        {
+            return "hello";
+        }
+
+        public String greet(String name)
+        {
+            return "hello " + name;
+        }
+
+        public void doNothing()
+        {
+        }
+
+        public long add(@Optional int a, @Optional long b)
+        {
+            return a + b;
+        }
+
+        public void failWithRuntimeException()
+        {
+            throw RUNTIME_EXCEPTION;
+        }
+
+        public void failWithCheckedException() throws IOException
+        {
+            throw CHECKED_EXCEPTION;
+        }
+    }
+}
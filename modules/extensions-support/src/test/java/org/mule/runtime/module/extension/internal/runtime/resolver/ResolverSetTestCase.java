@@ -7,12 +7,18 @@
 package org.mule.runtime.module.extension.internal.runtime.resolver;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.runtime.module.extension.internal.util.ExtensionsTestUtils.getParameter;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.MuleEvent;
+import org.mule.runtime.core.api.MuleException;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.lifecycle.Lifecycle;
 import org.mule.runtime.extension.api.introspection.parameter.ParameterModel;
@@ -20,8 +26,15 @@ import org.mule.runtime.module.extension.internal.util.ExtensionsTestUtils;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -101,6 +114,127 @@ public class ResolverSetTestCase extends AbstractMuleTestCase
         assertThat(set.isDynamic(), is(true));
     }
 
+    @Test
+    public void staticResolversAreEvaluatedOnce() throws Exception
+    {
+        ValueResolver staticResolver = spy(new StaticValueResolver<>(NAME));
+        set.add(getParameter("static", String.class), staticResolver);
+
+        for (int i = 0; i < 3; i++)
+        {
+            set.resolve(event);
+        }
+
+        verify(staticResolver).resolve(event);
+        for (ValueResolver resolver : mapping.values())
+        {
+            verify(resolver, times(3)).resolve(event);
+        }
+    }
+
+    @Test
+    public void staticSetReturnsSameResult() throws Exception
+    {
+        set = new ResolverSet();
+        set.add(getParameter("myName", String.class), new StaticValueResolver<>(NAME));
+        set.add(getParameter("age", Integer.class), new StaticValueResolver<>(AGE));
+
+        ResolverSetResult result = set.resolve(event);
+        assertThat(set.resolve(event), is(sameInstance(result)));
+        assertThat(result.get("myName"), is(NAME));
+        assertThat(result.get("age"), is(AGE));
+    }
+
+    @Test
+    public void resultsWithSameValuesAreEqual() throws Exception
+    {
+        set.add(getParameter("static", String.class), new StaticValueResolver<>(NAME));
+        ValueResolver dynamicResolver = getResolver(NAME);
+        when(dynamicResolver.isDynamic()).thenReturn(true);
+        set.add(getParameter("dynamic", String.class), dynamicResolver);
+
+        ResolverSetResult result = set.resolve(event);
+        ResolverSetResult equivalentResult = set.resolve(event);
+        when(dynamicResolver.resolve(event)).thenReturn("other");
+        ResolverSetResult differentResult = set.resolve(event);
+
+        assertThat(equivalentResult, is(not(sameInstance(result))));
+        assertThat(equivalentResult, is(result));
+        assertThat(equivalentResult.hashCode(), is(result.hashCode()));
+        assertThat(differentResult, is(not(result)));
+        assertThat(differentResult.get("dynamic"), is("other"));
+        assertThat(differentResult.get("static"), is(NAME));
+    }
+
+    @Test
+    public void resultIsEqualToBuiltResultWithSameValues() throws Exception
+    {
+        set.add(getParameter("static", String.class), new StaticValueResolver<>(NAME));
+        ResolverSetResult result = set.resolve(event);
+
+        ResolverSetResult.Builder builder = ResolverSetResult.newBuilder();
+        result.asMap().forEach(builder::add);
+        ResolverSetResult builtResult = builder.build();
+
+        assertThat(builtResult, is(result));
+        assertThat(result, is(builtResult));
+        assertThat(builtResult.hashCode(), is(result.hashCode()));
+    }
+
+    @Test
+    public void mutableValuesAreNotSharedByConcurrentResolutions() throws Exception
+    {
+        final ParameterModel listParameter = getParameter("list", List.class);
+        set.add(listParameter, new ValueResolver<List<String>>()
+        {
+            @Override
+            public List<String> resolve(MuleEvent event) throws MuleException
+            {
+                return new ArrayList<>();
+            }
+
+            @Override
+            public boolean isDynamic()
+            {
+                return false;
+            }
+        });
+
+        final int threadCount = 4;
+        final int resolutions = 100;
+        final Set<Object> lists = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch finishLatch = new CountDownLatch(threadCount);
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+
+        for (int i = 0; i < threadCount; i++)
+        {
+            new Thread(() -> {
+                try
+                {
+                    startLatch.await();
+                    for (int j = 0; j < resolutions; j++)
+                    {
+                        lists.add(set.resolve(event).get(listParameter));
+                    }
+                }
+                catch (Throwable e)
+                {
+                    errors.add(e);
+                }
+                finally
+                {
+                    finishLatch.countDown();
+                }
+            }).start();
+        }
+
+        startLatch.countDown();
+        assertThat(finishLatch.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(errors.isEmpty(), is(true));
+        assertThat(lists.size(), is(threadCount * resolutions));
+    }
+
     private void assertResult(ResolverSetResult result, Map<ParameterModel, ValueResolver> mapping) throws Exception
     {
         assertThat(result, is(notNullValue()));
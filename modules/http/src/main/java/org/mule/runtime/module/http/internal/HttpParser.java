@@ -8,12 +8,13 @@ package org.mule.runtime.module.http.internal;
 
 import static org.mule.runtime.core.util.StringUtils.WHITE_SPACE;
 import org.mule.runtime.core.api.MuleRuntimeException;
+import org.mule.runtime.module.http.internal.multipart.HttpMultipartDecoder;
 import org.mule.runtime.module.http.internal.multipart.HttpPart;
 import org.mule.runtime.core.util.StringUtils;
 
 import com.google.common.base.Charsets;
-import com.google.common.collect.Lists;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
@@ -21,28 +22,17 @@ import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Enumeration;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import javax.mail.BodyPart;
-import javax.mail.Header;
-import javax.mail.MessagingException;
 import javax.mail.internet.ContentType;
-import javax.mail.internet.MimeMultipart;
 import javax.mail.internet.ParseException;
-import javax.mail.util.ByteArrayDataSource;
-
-import org.apache.commons.io.IOUtils;
 
 public class HttpParser
 {
 
     private static final String SPACE_ENTITY = "%20";
     private static final String PLUS_SIGN = "\\+";
-    private static final String CONTENT_DISPOSITION_PART_HEADER = "Content-Disposition";
-    private static final String NAME_ATTRIBUTE = "name";
 
     public static String extractPath(String uri)
     {
@@ -68,56 +58,12 @@ public class HttpParser
 
     public static Collection<HttpPart> parseMultipartContent(InputStream content, String contentType) throws IOException
     {
-        MimeMultipart mimeMultipart = null;
-        List<HttpPart> parts = Lists.newArrayList();
-
-        try
-        {
-            mimeMultipart = new MimeMultipart(new ByteArrayDataSource(content, contentType));
-        }
-        catch (MessagingException e)
-        {
-            throw new IOException(e);
-        }
-
-        try
-        {
-            int partCount = mimeMultipart.getCount();
-
-            for (int i = 0; i < partCount; i++)
-            {
-                BodyPart part = mimeMultipart.getBodyPart(i);
-
-                String filename = part.getFileName();
-                String partName = filename;
-                String[] contentDispositions = part.getHeader(CONTENT_DISPOSITION_PART_HEADER);
-                if (contentDispositions != null)
-                {
-                    String contentDisposition = contentDispositions[0];
-                    if (contentDisposition.contains(NAME_ATTRIBUTE))
-                    {
-                        partName = contentDisposition.substring(contentDisposition.indexOf(NAME_ATTRIBUTE) + NAME_ATTRIBUTE.length() + 2);
-                        partName = partName.substring(0, partName.indexOf("\""));
-                    }
-                }
-                HttpPart httpPart = new HttpPart(partName, filename, IOUtils.toByteArray(part.getInputStream()), part.getContentType(), part.getSize());
-
-                Enumeration<Header> headers = part.getAllHeaders();
-
-                while (headers.hasMoreElements())
-                {
-                    Header header = headers.nextElement();
-                    httpPart.addHeader(header.getName(), header.getValue());
-                }
-                parts.add(httpPart);
-            }
-        }
-        catch (MessagingException e)
-        {
-            throw new IOException(e);
-        }
+        return HttpMultipartDecoder.parseMultipartContent(content, contentType);
+    }
 
-        return parts;
+    public static Collection<HttpPart> parseMultipartContent(InputStream content, String contentType, File spoolDirectory) throws IOException
+    {
+        return HttpMultipartDecoder.parseMultipartContent(content, contentType, spoolDirectory);
     }
 
     public static String sanitizePathWithStartSlash(String path)
@@ -287,6 +233,11 @@ public class HttpParser
      */
     public static String normalizePathWithSpacesOrEncodedSpaces(String path)
     {
+        if (path.indexOf('%') < 0 && path.indexOf('+') < 0)
+        {
+            // Nothing to replace, avoids compiling the patterns on every request
+            return path;
+        }
         return path.replaceAll(SPACE_ENTITY, WHITE_SPACE).replaceAll(PLUS_SIGN, WHITE_SPACE);
     }
 
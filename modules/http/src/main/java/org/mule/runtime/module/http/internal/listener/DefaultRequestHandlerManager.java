@@ -9,10 +9,10 @@ package org.mule.runtime.module.http.internal.listener;
 public class DefaultRequestHandlerManager implements RequestHandlerManager
 {
 
-    private final HttpListenerRegistry.PathMap requestHandlerOwner;
+    private final HttpListenerRegistry.ServerAddressRequestHandlerRegistry requestHandlerOwner;
     private final HttpListenerRegistry.RequestHandlerMatcherPair requestHandlerMatcherPair;
 
-    public DefaultRequestHandlerManager(HttpListenerRegistry.PathMap requestHandlerOwner, HttpListenerRegistry.RequestHandlerMatcherPair requestHandlerMatcherPair)
+    public DefaultRequestHandlerManager(HttpListenerRegistry.ServerAddressRequestHandlerRegistry requestHandlerOwner, HttpListenerRegistry.RequestHandlerMatcherPair requestHandlerMatcherPair)
     {
         this.requestHandlerOwner = requestHandlerOwner;
         this.requestHandlerMatcherPair = requestHandlerMatcherPair;
@@ -33,6 +33,6 @@ public class DefaultRequestHandlerManager implements RequestHandlerManager
     @Override
     public void dispose()
     {
-        requestHandlerOwner.removeRequestHandlerMatcherPair(requestHandlerMatcherPair);
+        requestHandlerOwner.removeRequestHandler(requestHandlerMatcherPair);
     }
 }
@@ -7,6 +7,7 @@
 package org.mule.runtime.module.http.internal.listener;
 
 
+import static org.mule.runtime.module.http.internal.multipart.HttpMultipartDecoder.getSpoolDirectory;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.MuleRuntimeException;
 import org.mule.runtime.core.api.context.MuleContextAware;
@@ -56,7 +57,7 @@ public class HttpListenerConnectionManager implements Initialisable, Disposable,
         String threadNamePrefix = ThreadNameHelper.getPrefix(muleContext) + LISTENER_THREAD_NAME_PREFIX;
         try
         {
-            httpServerManager = new GrizzlyServerManager(threadNamePrefix, httpListenerRegistry, tcpServerSocketProperties);
+            httpServerManager = new GrizzlyServerManager(threadNamePrefix, httpListenerRegistry, tcpServerSocketProperties, getSpoolDirectory(muleContext));
         }
         catch (IOException e)
         {
@@ -11,26 +11,32 @@ import org.mule.runtime.core.api.MuleRuntimeException;
 import org.mule.runtime.core.config.i18n.CoreMessages;
 import org.mule.runtime.module.http.internal.domain.request.HttpRequest;
 import org.mule.runtime.module.http.internal.listener.async.RequestHandler;
+import org.mule.runtime.module.http.internal.listener.matcher.AcceptsAllMethodsRequestMatcher;
 import org.mule.runtime.module.http.internal.listener.matcher.ListenerRequestMatcher;
 import org.mule.runtime.core.util.Preconditions;
 import org.mule.runtime.core.util.StringUtils;
 
 import com.google.common.base.Joiner;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Keeps the {@link RequestHandler}s registered for each {@link Server}.
+ * <p/>
+ * The listener paths of each server are kept in an immutable tree of path segments. Registering or removing a
+ * handler copies the nodes along the modified path and publishes the new tree, so requests are dispatched
+ * without locking while registrations are serialized. Each node has a precomputed method to handler table,
+ * so finding the handler for a request doesn't require evaluating every {@link ListenerRequestMatcher}.
+ */
 public class HttpListenerRegistry implements RequestHandlerProvider
 {
 
@@ -38,8 +44,14 @@ public class HttpListenerRegistry implements RequestHandlerProvider
     private static final String SLASH = "/";
     private Logger logger = LoggerFactory.getLogger(getClass());
 
-    private final ServerAddressMap<Server> serverAddressToServerMap = new ServerAddressMap<>();
+    /**
+     * Marks that there were handlers for the requested path but none of them accepts the requested method
+     */
+    private static final RequestHandlerMatcherPair METHOD_NOT_ALLOWED = new RequestHandlerMatcherPair(null, null);
+
     private final Map<Server, ServerAddressRequestHandlerRegistry> requestHandlerPerServerAddress = new HashMap<>();
+    // Replaced on each new server, so requests can look up the server without locking
+    private volatile ServerEntry[] servers = new ServerEntry[0];
 
     public synchronized RequestHandlerManager addRequestHandler(final Server server, final RequestHandler requestHandler, final ListenerRequestMatcher requestMatcher)
     {
@@ -48,11 +60,29 @@ public class HttpListenerRegistry implements RequestHandlerProvider
         {
             serverAddressRequestHandlerRegistry = new ServerAddressRequestHandlerRegistry();
             requestHandlerPerServerAddress.put(server, serverAddressRequestHandlerRegistry);
-            serverAddressToServerMap.put(server.getServerAddress(), server);
+            addServerEntry(new ServerEntry(server, serverAddressRequestHandlerRegistry));
         }
         return serverAddressRequestHandlerRegistry.addRequestHandler(requestMatcher, requestHandler);
     }
 
+    private void addServerEntry(ServerEntry serverEntry)
+    {
+        ServerEntry[] currentServers = servers;
+        for (int i = 0; i < currentServers.length; i++)
+        {
+            if (currentServers[i].serverAddress.equals(serverEntry.serverAddress))
+            {
+                ServerEntry[] newServers = currentServers.clone();
+                newServers[i] = serverEntry;
+                servers = newServers;
+                return;
+            }
+        }
+        ServerEntry[] newServers = Arrays.copyOf(currentServers, currentServers.length + 1);
+        newServers[currentServers.length] = serverEntry;
+        servers = newServers;
+    }
+
     @Override
     public RequestHandler getRequestHandler(String ip, int port, final HttpRequest request)
     {
@@ -60,14 +90,10 @@ public class HttpListenerRegistry implements RequestHandlerProvider
         {
             logger.debug("Looking RequestHandler for request: " + request.getPath());
         }
-        final Server server = serverAddressToServerMap.get(new ServerAddress(ip, port));
-        if (server != null && !server.isStopping() && !server.isStopped())
+        final ServerEntry serverEntry = findServerEntry(ip, port);
+        if (serverEntry != null && !serverEntry.server.isStopping() && !serverEntry.server.isStopped())
         {
-            final ServerAddressRequestHandlerRegistry serverAddressRequestHandlerRegistry = requestHandlerPerServerAddress.get( server);
-            if (serverAddressRequestHandlerRegistry != null)
-            {
-                return serverAddressRequestHandlerRegistry.findRequestHandler(request);
-            }
+            return serverEntry.requestHandlerRegistry.findRequestHandler(request);
         }
         if (logger.isDebugEnabled())
         {
@@ -76,98 +102,108 @@ public class HttpListenerRegistry implements RequestHandlerProvider
         return NoListenerRequestHandler.getInstance();
     }
 
+    private ServerEntry findServerEntry(String ip, int port)
+    {
+        final ServerEntry[] currentServers = servers;
+        for (ServerEntry serverEntry : currentServers)
+        {
+            if (serverEntry.serverAddress.getPort() == port && serverEntry.serverAddress.getIp().equals(ip))
+            {
+                return serverEntry;
+            }
+        }
+        //if there's no entry for the specific address, we need to check if there's one for all interfaces address.
+        for (ServerEntry serverEntry : currentServers)
+        {
+            if (serverEntry.serverAddress.getPort() == port && serverEntry.serverAddress.isAllInterfaces())
+            {
+                return serverEntry;
+            }
+        }
+        return null;
+    }
+
     public class ServerAddressRequestHandlerRegistry
     {
 
-        private PathMap serverRequestHandler;
-        private PathMap rootPathMap = new PathMap();
-        private PathMap catchAllPathMap = new PathMap();
-        private Set<String> paths = new HashSet<>();
-        private LoadingCache<String, Stack<PathMap>> pathMapSearchCache = CacheBuilder.newBuilder().maximumSize(1000).build(new CacheLoader<String, Stack<PathMap>>() {
-            public Stack<PathMap> load(String path) {
-                return findPossibleRequestHandlers(path);
-            }
-        });
+        /**
+         * Handlers of the "*" path
+         */
+        private volatile HandlerTable serverRequestHandlers = HandlerTable.EMPTY;
+        /**
+         * Tree of the paths starting with "/". The handlers of the "/*" path are the wildcard handlers of the root.
+         */
+        private volatile PathNode rootPathNode = PathNode.EMPTY;
+        private Set<String> paths = ConcurrentHashMap.newKeySet();
 
         public synchronized RequestHandlerManager addRequestHandler(final ListenerRequestMatcher requestMatcher, final RequestHandler requestHandler)
         {
-            pathMapSearchCache.invalidateAll();
             String requestMatcherPath = normalizePathWithSpacesOrEncodedSpaces(requestMatcher.getPath());
             Preconditions.checkArgument(requestMatcherPath.startsWith(SLASH) || requestMatcherPath.equals(WILDCARD_CHARACTER), "path parameter must start with /");
             validateCollision(requestMatcher);
             paths.add( getMethodAndPath(requestMatcher.getMethodRequestMatcher().getMethodsList(), requestMatcherPath) );
-            PathMap currentPathMap = rootPathMap;
-            final RequestHandlerMatcherPair addedRequestHandlerMatcherPair;
-            final PathMap requestHandlerOwner;
+            final RequestHandlerMatcherPair addedRequestHandlerMatcherPair = new RequestHandlerMatcherPair(requestMatcher, requestHandler);
             if (requestMatcherPath.equals(WILDCARD_CHARACTER))
             {
-                serverRequestHandler = new PathMap();
-                addedRequestHandlerMatcherPair = new RequestHandlerMatcherPair(requestMatcher, requestHandler);
-                requestHandlerOwner = serverRequestHandler;
-                serverRequestHandler.addRequestHandlerMatcherPair(addedRequestHandlerMatcherPair);
+                serverRequestHandlers = serverRequestHandlers.with(addedRequestHandlerMatcherPair);
             }
             else if (requestMatcherPath.equals("/*"))
             {
-                addedRequestHandlerMatcherPair = new RequestHandlerMatcherPair(requestMatcher, requestHandler);
-                requestHandlerOwner = catchAllPathMap;
-                catchAllPathMap.addRequestHandlerMatcherPair(addedRequestHandlerMatcherPair);
+                rootPathNode = rootPathNode.withWildcardHandlers(rootPathNode.wildcardHandlers.with(addedRequestHandlerMatcherPair));
             }
             else if (requestMatcherPath.equals(SLASH))
             {
-                addedRequestHandlerMatcherPair = new RequestHandlerMatcherPair(requestMatcher, requestHandler);
-                requestHandlerOwner = rootPathMap;
-                rootPathMap.addRequestHandlerMatcherPair(addedRequestHandlerMatcherPair);
+                rootPathNode = rootPathNode.withHandlers(rootPathNode.handlers.with(addedRequestHandlerMatcherPair));
             }
             else
             {
                 final String[] pathParts = splitPath(requestMatcherPath);
                 int insertionLevel = getPathPartsSize(requestMatcherPath);
-                for (int i = 1; i < insertionLevel - 1; i++)
-                {
-                    String currentPath = pathParts[i];
-                    PathMap pathMap = currentPathMap.getChildPathMap(currentPath);
-                    if (i != insertionLevel - 1)
-                    {
-                        if (pathMap == null)
-                        {
-                            pathMap = new PathMap();
-                            currentPathMap.addChildPathMap(currentPath, pathMap);
-                        }
-                    }
+                rootPathNode = insert(rootPathNode, pathParts, 1, insertionLevel - 1, addedRequestHandlerMatcherPair, requestMatcherPath.endsWith(WILDCARD_CHARACTER));
+            }
+            return new DefaultRequestHandlerManager(this, addedRequestHandlerMatcherPair);
+        }
 
-                    currentPathMap = pathMap;
-                }
-                String currentPath = pathParts[insertionLevel - 1];
-                PathMap pathMap = currentPathMap.getLastChildPathMap(currentPath);
-                if (pathMap == null)
-                {
-                    pathMap = new PathMap();
-                    currentPathMap.addChildPathMap(currentPath, pathMap);
-                }
-                if (requestMatcherPath.endsWith(WILDCARD_CHARACTER))
-                {
-                    addedRequestHandlerMatcherPair = new RequestHandlerMatcherPair(requestMatcher, requestHandler);
-                    pathMap.addWildcardRequestHandler(addedRequestHandlerMatcherPair);
-                    requestHandlerOwner = pathMap;
-                }
-                else
-                {
-                    addedRequestHandlerMatcherPair = new RequestHandlerMatcherPair(requestMatcher, requestHandler);
-                    pathMap.addRequestHandlerMatcherPair(addedRequestHandlerMatcherPair);
-                    requestHandlerOwner = pathMap;
-                }
+        /**
+         * Returns a copy of the given node with the handler added to the node of the last path part, creating the
+         * missing nodes along the path.
+         */
+        private PathNode insert(PathNode pathNode, String[] pathParts, int level, int insertionLevel, RequestHandlerMatcherPair requestHandlerMatcherPair, boolean wildcard)
+        {
+            final String currentPath = pathParts[Math.min(level, insertionLevel)];
+            PathNode childPathNode = pathNode.getChildPathNode(currentPath);
+            if (childPathNode == null)
+            {
+                childPathNode = PathNode.EMPTY;
             }
-            return new DefaultRequestHandlerManager(requestHandlerOwner, addedRequestHandlerMatcherPair);
+            if (level < insertionLevel)
+            {
+                childPathNode = insert(childPathNode, pathParts, level + 1, insertionLevel, requestHandlerMatcherPair, wildcard);
+            }
+            else if (wildcard)
+            {
+                childPathNode = childPathNode.withWildcardHandlers(childPathNode.wildcardHandlers.with(requestHandlerMatcherPair));
+            }
+            else
+            {
+                childPathNode = childPathNode.withHandlers(childPathNode.handlers.with(requestHandlerMatcherPair));
+            }
+            return pathNode.withChildPathNode(currentPath, childPathNode);
+        }
+
+        synchronized void removeRequestHandler(RequestHandlerMatcherPair requestHandlerMatcherPair)
+        {
+            serverRequestHandlers = serverRequestHandlers.without(requestHandlerMatcherPair);
+            rootPathNode = rootPathNode.without(requestHandlerMatcherPair);
         }
 
         private void validateCollision(ListenerRequestMatcher newListenerRequestMatcher)
         {
             final String newListenerRequestMatcherPath = newListenerRequestMatcher.getPath();
-            final Stack<PathMap> possibleRequestHandlers = findPossibleRequestHandlersFromCache(newListenerRequestMatcherPath);
-            for (PathMap possibleRequestHandler : possibleRequestHandlers)
+            final List<HandlerTable> possibleRequestHandlers = findPossibleRequestHandlers(newListenerRequestMatcherPath);
+            for (HandlerTable possibleRequestHandler : possibleRequestHandlers)
             {
-                final List<RequestHandlerMatcherPair> requestHandlerMatcherPairs = possibleRequestHandler.getRequestHandlerMatcherPairs();
-                for (RequestHandlerMatcherPair requestHandlerMatcherPair : requestHandlerMatcherPairs)
+                for (RequestHandlerMatcherPair requestHandlerMatcherPair : possibleRequestHandler.requestHandlerMatcherPairs)
                 {
                     final ListenerRequestMatcher requestMatcher = requestHandlerMatcherPair.getRequestMatcher();
                     final String possibleCollisionRequestMatcherPath = requestMatcher.getPath();
@@ -191,37 +227,79 @@ public class HttpListenerRegistry implements RequestHandlerProvider
             }
         }
 
-        public RequestHandler findRequestHandler(final HttpRequest request)
+        /**
+         * Collects the handler tables that could handle a path, from the least to the most specific one.
+         */
+        private List<HandlerTable> findPossibleRequestHandlers(String path)
         {
-            final String path = normalizePathWithSpacesOrEncodedSpaces(request.getPath());
-            Preconditions.checkArgument(path.startsWith(SLASH), "path parameter must start with /");
-            Stack<PathMap> foundPaths = findPossibleRequestHandlersFromCache(path);
-
-            boolean methodNotAllowed = false;
-            RequestHandlerMatcherPair requestHandlerMatcherPair = null;
-            while (!foundPaths.empty())
+            final PathNode root = rootPathNode;
+            List<HandlerTable> foundPaths = new ArrayList<>();
+            foundPaths.add(root.wildcardHandlers);
+            if (path.equals(WILDCARD_CHARACTER))
+            {
+                foundPaths.add(serverRequestHandlers);
+                return foundPaths;
+            }
+            if (path.equals(SLASH))
+            {
+                foundPaths.add(root.handlers);
+                return foundPaths;
+            }
+            PathNode currentPathNode = root;
+            final String[] pathParts = splitPath(path);
+            for (int i = 1; i < pathParts.length && currentPathNode != null; i++)
             {
-                final PathMap pathMap = foundPaths.pop();
-                List<RequestHandlerMatcherPair> requestHandlerMatcherPairs = pathMap.getRequestHandlerMatcherPairs();
-                requestHandlerMatcherPair = findRequestHandlerMatcherPair(requestHandlerMatcherPairs, request);
-                if (requestHandlerMatcherPair != null)
+                PathNode pathNode = currentPathNode.getChildPathNode(pathParts[i]);
+                if (pathNode == null)
                 {
-                    break;
+                    foundPaths.add(currentPathNode.wildcardHandlers);
+                    pathNode = currentPathNode.parameterChild;
                 }
-                if (!requestHandlerMatcherPairs.isEmpty())
+                if (i == pathParts.length - 1)
                 {
-                    //there were matching paths but no matching methods
-                    methodNotAllowed = true;
+                    if (pathNode != null)
+                    {
+                        foundPaths.add(pathNode.wildcardHandlers);
+                        foundPaths.add(pathNode.handlers);
+                    }
+                    else
+                    {
+                        foundPaths.add(currentPathNode.wildcardHandlers);
+                    }
                 }
+                currentPathNode = pathNode;
             }
-            if (requestHandlerMatcherPair == null)
+            return foundPaths;
+        }
+
+        public RequestHandler findRequestHandler(final HttpRequest request)
+        {
+            final String path = normalizePathWithSpacesOrEncodedSpaces(request.getPath());
+            Preconditions.checkArgument(path.startsWith(SLASH), "path parameter must start with /");
+            final String method = request.getMethod();
+            final PathNode root = rootPathNode;
+
+            RequestHandlerMatcherPair requestHandlerMatcherPair;
+            if (path.equals(SLASH))
+            {
+                requestHandlerMatcherPair = match(root.handlers, method, null);
+            }
+            else
+            {
+                // Ignores the trailing slash
+                int pathEnd = path.endsWith(SLASH) ? path.length() - 1 : path.length();
+                requestHandlerMatcherPair = findRequestHandlerMatcherPair(root, path, 1, pathEnd, method);
+            }
+            requestHandlerMatcherPair = match(root.wildcardHandlers, method, requestHandlerMatcherPair);
+
+            if (requestHandlerMatcherPair == null || requestHandlerMatcherPair == METHOD_NOT_ALLOWED)
             {
                 if (logger.isInfoEnabled())
                 {
-                    logger.info("No listener found for request: " + getMethodAndPath(request.getMethod(), request.getPath()));
+                    logger.info("No listener found for request: " + getMethodAndPath(method, request.getPath()));
                     logger.info("Available listeners are: [{}]", Joiner.on(", ").join(this.paths));
                 }
-                if(methodNotAllowed)
+                if (requestHandlerMatcherPair == METHOD_NOT_ALLOWED)
                 {
                     return NoMethodRequestHandler.getInstance();
                 }
@@ -234,85 +312,88 @@ public class HttpListenerRegistry implements RequestHandlerProvider
             return requestHandlerMatcherPair.getRequestHandler();
         }
 
-        private String getMethodAndPath(String method, String path)
-        {
-            return "(" + method + ")" + path;
-        }
-
-        private Stack<PathMap> findPossibleRequestHandlersFromCache(String path)
-        {
-            return findPossibleRequestHandlers(path);
-        }
-
-        private Stack<PathMap> findPossibleRequestHandlers(String path)
+        /**
+         * Looks for the handler of the path part that starts at the given index, trying the most specific nodes
+         * first. The path is not split, parts are compared in place so no objects are created.
+         *
+         * @return the matching handler, {@link #METHOD_NOT_ALLOWED} if there were handlers for the path but not for
+         * the method, or null if there were no handlers at all.
+         */
+        private RequestHandlerMatcherPair findRequestHandlerMatcherPair(PathNode currentPathNode, String path, int partStart, int pathEnd, String method)
         {
-            PathMap currentPathMap = rootPathMap;
-            final String[] pathParts = splitPath(path);
-            Stack<PathMap> foundPaths = new Stack<>();
-            foundPaths.add(catchAllPathMap);
-            if (path.equals(WILDCARD_CHARACTER))
+            int partEnd = path.indexOf(SLASH, partStart);
+            if (partEnd < 0 || partEnd > pathEnd)
             {
-                foundPaths.push(serverRequestHandler);
-                return foundPaths;
+                partEnd = pathEnd;
             }
-            if (path.equals(SLASH))
+
+            HandlerTable currentWildcardHandlers = null;
+            PathNode pathNode = currentPathNode.getChildPathNode(path, partStart, partEnd);
+            if (pathNode == null)
             {
-                foundPaths.push(rootPathMap);
-                return foundPaths;
+                currentWildcardHandlers = currentPathNode.wildcardHandlers;
+                pathNode = currentPathNode.parameterChild;
             }
-            for (int i = 1; i < pathParts.length && currentPathMap != null; i++)
+
+            RequestHandlerMatcherPair requestHandlerMatcherPair = null;
+            if (partEnd == pathEnd)
             {
-                String currentPath = pathParts[i];
-                PathMap pathMap = currentPathMap.getChildPathMap(currentPath);
-                if (pathMap == null)
+                if (pathNode != null)
                 {
-                    addCatchAllPathMapIfNotNull(currentPathMap, foundPaths);
-                    pathMap = currentPathMap.getCatchAllCurrentPathMap();
+                    requestHandlerMatcherPair = match(pathNode.handlers, method, null);
+                    requestHandlerMatcherPair = match(pathNode.wildcardHandlers, method, requestHandlerMatcherPair);
                 }
-                if (i == pathParts.length - 1)
+                else
                 {
-                    if (pathMap != null)
-                    {
-                        addCatchAllPathMapIfNotNull(pathMap, foundPaths);
-                        foundPaths.push(pathMap);
-                    }
-                    else
-                    {
-                        addCatchAllPathMapIfNotNull(currentPathMap, foundPaths);
-                    }
+                    requestHandlerMatcherPair = match(currentPathNode.wildcardHandlers, method, null);
                 }
-                currentPathMap = pathMap;
             }
-            return foundPaths;
+            else if (pathNode != null)
+            {
+                requestHandlerMatcherPair = findRequestHandlerMatcherPair(pathNode, path, partEnd + 1, pathEnd, method);
+            }
+            return match(currentWildcardHandlers, method, requestHandlerMatcherPair);
         }
 
-        private void addCatchAllPathMapIfNotNull(PathMap currentPathMap, Stack<PathMap> foundPaths)
+        private String getMethodAndPath(String method, String path)
         {
-            final PathMap catchAllPathMap = currentPathMap.getCatchAllPathMap();
-            if (catchAllPathMap != null)
-            {
-                foundPaths.push(catchAllPathMap);
-            }
+            return "(" + method + ")" + path;
         }
+    }
 
-        private RequestHandlerMatcherPair findRequestHandlerMatcherPair(List<RequestHandlerMatcherPair> requestHandlerMatcherPairs, HttpRequest request)
+    /**
+     * Looks for the handler of the method in the table unless a handler was already found.
+     */
+    private static RequestHandlerMatcherPair match(HandlerTable handlerTable, String method, RequestHandlerMatcherPair found)
+    {
+        if ((found != null && found != METHOD_NOT_ALLOWED) || handlerTable == null || handlerTable.isEmpty())
         {
-            for (RequestHandlerMatcherPair requestHandlerMatcherPair : requestHandlerMatcherPairs)
-            {
-                if (requestHandlerMatcherPair.getRequestMatcher().matches(request))
-                {
-                    return requestHandlerMatcherPair;
-                }
-            }
-            return null;
+            return found;
         }
+        final RequestHandlerMatcherPair requestHandlerMatcherPair = handlerTable.find(method);
+        //if there were matching paths but no matching methods
+        return requestHandlerMatcherPair != null ? requestHandlerMatcherPair : METHOD_NOT_ALLOWED;
     }
 
-    private boolean isUriParameter(String pathPart)
+    private static boolean isUriParameter(String pathPart)
     {
         return (pathPart.startsWith("{") || pathPart.startsWith("/{")) && pathPart.endsWith("}");
     }
 
+    private static boolean isParameterPathPart(String pathPart)
+    {
+        return isCatchAllPath(pathPart) || isUriParameter(pathPart);
+    }
+
+    private static boolean isParameterPathPart(String path, int start, int end)
+    {
+        if (end - start == 1)
+        {
+            return path.charAt(start) == '*';
+        }
+        return end - start > 1 && path.charAt(start) == '{' && path.charAt(end - 1) == '}';
+    }
+
     private String getLastPathPortion(String possibleCollisionRequestMatcherPath)
     {
         final String[] parts = splitPath(possibleCollisionRequestMatcherPath);
@@ -345,113 +426,324 @@ public class HttpListenerRegistry implements RequestHandlerProvider
         return path.split(SLASH, -1);
     }
 
-    public class PathMap
+    private static boolean isCatchAllPath(String path)
     {
+        return WILDCARD_CHARACTER.equals(path);
+    }
 
-        List<RequestHandlerMatcherPair> requestHandlerMatcherPairs = new ArrayList<>();
-
-        private Map<String, PathMap> subPaths = new HashMap<>();
-        private PathMap catchAllPathMap;
-        private PathMap catchAllCurrentPathMap;
-
-        public PathMap getCatchAllPathMap()
+    /**
+     * Compares a path part with a region of a path, using the same order as {@link String#compareTo(String)}.
+     */
+    private static int comparePathPart(String pathPart, String path, int start, int end)
+    {
+        final int length = Math.min(pathPart.length(), end - start);
+        for (int i = 0; i < length; i++)
         {
-            return catchAllPathMap;
+            final char pathPartChar = pathPart.charAt(i);
+            final char pathChar = path.charAt(start + i);
+            if (pathPartChar != pathChar)
+            {
+                return pathPartChar - pathChar;
+            }
         }
+        return pathPart.length() - (end - start);
+    }
 
-        public PathMap getCatchAllCurrentPathMap()
+    /**
+     * Immutable node of the tree of listener paths. Children are kept sorted by path part so they can be found
+     * through a binary search over a region of the requested path.
+     */
+    static final class PathNode
+    {
+
+        static final PathNode EMPTY = new PathNode(new String[0], new PathNode[0], null, HandlerTable.EMPTY, HandlerTable.EMPTY);
+
+        private final String[] childPathParts;
+        private final PathNode[] children;
+        /**
+         * Node for the "*" or "{uri-param}" path part
+         */
+        private final PathNode parameterChild;
+        private final HandlerTable handlers;
+        /**
+         * Handlers of the paths ending with "/*" after this node
+         */
+        private final HandlerTable wildcardHandlers;
+
+        private PathNode(String[] childPathParts, PathNode[] children, PathNode parameterChild, HandlerTable handlers, HandlerTable wildcardHandlers)
         {
-            return catchAllCurrentPathMap;
+            this.childPathParts = childPathParts;
+            this.children = children;
+            this.parameterChild = parameterChild;
+            this.handlers = handlers;
+            this.wildcardHandlers = wildcardHandlers;
         }
 
         /**
-         * @param subPath a sub part of the path
+         * @param pathPart a sub part of the path
          * @return the node with the existent mappings. null if there's no such node.
          */
-        public PathMap getChildPathMap(final String subPath)
+        PathNode getChildPathNode(String pathPart)
         {
-            if (isCatchAllPath(subPath) || isUriParameter(subPath))
+            if (isParameterPathPart(pathPart))
             {
-                return getCatchAllCurrentPathMap();
+                return parameterChild;
             }
-            PathMap pathMap = subPaths.get(subPath);
-            return pathMap;
+            int index = Arrays.binarySearch(childPathParts, pathPart);
+            return index >= 0 ? children[index] : null;
         }
 
         /**
-         * @param subPath a sub part of the path
-         * @return the node with the existent mappings. null if there's no such node.
+         * Same as {@link #getChildPathNode(String)} for the path part between start and end.
          */
-        public PathMap getLastChildPathMap(final String subPath)
+        PathNode getChildPathNode(String path, int start, int end)
         {
-            if (isCatchAllPath(subPath) || isUriParameter(subPath))
+            if (isParameterPathPart(path, start, end))
             {
-                return getCatchAllCurrentPathMap();
+                return parameterChild;
             }
-            PathMap pathMap = subPaths.get(subPath);
-            return pathMap;
+            int low = 0;
+            int high = childPathParts.length - 1;
+            while (low <= high)
+            {
+                int middle = (low + high) >>> 1;
+                int comparison = comparePathPart(childPathParts[middle], path, start, end);
+                if (comparison < 0)
+                {
+                    low = middle + 1;
+                }
+                else if (comparison > 0)
+                {
+                    high = middle - 1;
+                }
+                else
+                {
+                    return children[middle];
+                }
+            }
+            return null;
         }
 
-        public void addRequestHandlerMatcherPair(final RequestHandlerMatcherPair requestHandlerMatcherPair)
+        /**
+         * @return a copy of this node with the given child, which is removed if empty.
+         */
+        PathNode withChildPathNode(String pathPart, PathNode child)
         {
-            this.requestHandlerMatcherPairs.add(requestHandlerMatcherPair);
-        }
+            final boolean remove = child.isEmpty();
+            if (isParameterPathPart(pathPart))
+            {
+                return new PathNode(childPathParts, children, remove ? null : child, handlers, wildcardHandlers);
+            }
 
-        public void addChildPathMap(final String path, final PathMap pathMap)
-        {
-            if (path.equals(WILDCARD_CHARACTER) || path.endsWith("}"))
+            int index = Arrays.binarySearch(childPathParts, pathPart);
+            String[] newChildPathParts;
+            PathNode[] newChildren;
+            if (index >= 0 && remove)
+            {
+                newChildPathParts = new String[childPathParts.length - 1];
+                newChildren = new PathNode[children.length - 1];
+                System.arraycopy(childPathParts, 0, newChildPathParts, 0, index);
+                System.arraycopy(childPathParts, index + 1, newChildPathParts, index, childPathParts.length - index - 1);
+                System.arraycopy(children, 0, newChildren, 0, index);
+                System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            }
+            else if (index >= 0)
             {
-                catchAllCurrentPathMap = pathMap;
+                newChildPathParts = childPathParts;
+                newChildren = children.clone();
+                newChildren[index] = child;
+            }
+            else if (!remove)
+            {
+                int insertionPoint = -index - 1;
+                newChildPathParts = new String[childPathParts.length + 1];
+                newChildren = new PathNode[children.length + 1];
+                System.arraycopy(childPathParts, 0, newChildPathParts, 0, insertionPoint);
+                System.arraycopy(childPathParts, insertionPoint, newChildPathParts, insertionPoint + 1, childPathParts.length - insertionPoint);
+                System.arraycopy(children, 0, newChildren, 0, insertionPoint);
+                System.arraycopy(children, insertionPoint, newChildren, insertionPoint + 1, children.length - insertionPoint);
+                newChildPathParts[insertionPoint] = pathPart;
+                newChildren[insertionPoint] = child;
             }
             else
             {
-                subPaths.put(path, pathMap);
+                return this;
             }
+            return new PathNode(newChildPathParts, newChildren, parameterChild, handlers, wildcardHandlers);
         }
 
-        public List<RequestHandlerMatcherPair> getRequestHandlerMatcherPairs()
+        PathNode withHandlers(HandlerTable handlers)
         {
-            return requestHandlerMatcherPairs;
+            return new PathNode(childPathParts, children, parameterChild, handlers, wildcardHandlers);
         }
 
-        public void addWildcardRequestHandler(RequestHandlerMatcherPair requestHandlerMatcherPair)
+        PathNode withWildcardHandlers(HandlerTable wildcardHandlers)
+        {
+            return new PathNode(childPathParts, children, parameterChild, handlers, wildcardHandlers);
+        }
+
+        /**
+         * @return a copy of this node without the given handler, or this same node if the handler is not part of it.
+         */
+        PathNode without(RequestHandlerMatcherPair requestHandlerMatcherPair)
         {
-            if (this.catchAllPathMap == null)
+            HandlerTable newHandlers = handlers.without(requestHandlerMatcherPair);
+            if (newHandlers != handlers)
             {
-                this.catchAllPathMap = new PathMap();
+                return withHandlers(newHandlers);
             }
-            this.catchAllPathMap.addRequestHandlerMatcherPair(requestHandlerMatcherPair);
+            HandlerTable newWildcardHandlers = wildcardHandlers.without(requestHandlerMatcherPair);
+            if (newWildcardHandlers != wildcardHandlers)
+            {
+                return withWildcardHandlers(newWildcardHandlers);
+            }
+            for (int i = 0; i < children.length; i++)
+            {
+                PathNode newChild = children[i].without(requestHandlerMatcherPair);
+                if (newChild != children[i])
+                {
+                    return withChildPathNode(childPathParts[i], newChild);
+                }
+            }
+            if (parameterChild != null)
+            {
+                PathNode newParameterChild = parameterChild.without(requestHandlerMatcherPair);
+                if (newParameterChild != parameterChild)
+                {
+                    return new PathNode(childPathParts, children, newParameterChild.isEmpty() ? null : newParameterChild, handlers, wildcardHandlers);
+                }
+            }
+            return this;
         }
 
-        public boolean removeRequestHandlerMatcherPair(RequestHandlerMatcherPair requestHandlerMatcherPair)
+        boolean isEmpty()
         {
-            if (this.requestHandlerMatcherPairs.remove(requestHandlerMatcherPair))
+            return children.length == 0 && parameterChild == null && handlers.isEmpty() && wildcardHandlers.isEmpty();
+        }
+    }
+
+    /**
+     * Immutable table of the handlers registered for a path, indexed by the methods they accept.
+     */
+    static final class HandlerTable
+    {
+
+        static final HandlerTable EMPTY = new HandlerTable(new RequestHandlerMatcherPair[0]);
+
+        /**
+         * Handlers in registration order
+         */
+        private final RequestHandlerMatcherPair[] requestHandlerMatcherPairs;
+        private final String[] methods;
+        private final RequestHandlerMatcherPair[] methodRequestHandlerMatcherPairs;
+        private final RequestHandlerMatcherPair allMethodsRequestHandlerMatcherPair;
+
+        private HandlerTable(RequestHandlerMatcherPair[] requestHandlerMatcherPairs)
+        {
+            this.requestHandlerMatcherPairs = requestHandlerMatcherPairs;
+
+            // Keeps the first handler that matches each method, as if the matchers were evaluated in order
+            List<String> methods = new ArrayList<>();
+            List<RequestHandlerMatcherPair> methodRequestHandlerMatcherPairs = new ArrayList<>();
+            RequestHandlerMatcherPair allMethodsRequestHandlerMatcherPair = null;
+            for (RequestHandlerMatcherPair requestHandlerMatcherPair : requestHandlerMatcherPairs)
             {
-                return true;
+                if (allMethodsRequestHandlerMatcherPair != null)
+                {
+                    break;
+                }
+                if (requestHandlerMatcherPair.getRequestMatcher().getMethodRequestMatcher() instanceof AcceptsAllMethodsRequestMatcher)
+                {
+                    allMethodsRequestHandlerMatcherPair = requestHandlerMatcherPair;
+                }
+                else
+                {
+                    for (String method : requestHandlerMatcherPair.getRequestMatcher().getMethodRequestMatcher().getMethods())
+                    {
+                        if (!methods.contains(method))
+                        {
+                            methods.add(method);
+                            methodRequestHandlerMatcherPairs.add(requestHandlerMatcherPair);
+                        }
+                    }
+                }
             }
-            if (this.catchAllPathMap != null && this.catchAllPathMap.removeRequestHandlerMatcherPair(requestHandlerMatcherPair))
+            this.methods = methods.toArray(new String[methods.size()]);
+            this.methodRequestHandlerMatcherPairs = methodRequestHandlerMatcherPairs.toArray(new RequestHandlerMatcherPair[methodRequestHandlerMatcherPairs.size()]);
+            this.allMethodsRequestHandlerMatcherPair = allMethodsRequestHandlerMatcherPair;
+        }
+
+        /**
+         * @return the handler for the method, null if there's none
+         */
+        RequestHandlerMatcherPair find(String method)
+        {
+            for (int i = 0; i < methods.length; i++)
             {
-                return true;
+                if (methods[i].equalsIgnoreCase(method))
+                {
+                    return methodRequestHandlerMatcherPairs[i];
+                }
             }
-            if (this.catchAllCurrentPathMap != null && this.catchAllCurrentPathMap.removeRequestHandlerMatcherPair(requestHandlerMatcherPair))
+            return allMethodsRequestHandlerMatcherPair;
+        }
+
+        boolean isEmpty()
+        {
+            return requestHandlerMatcherPairs.length == 0;
+        }
+
+        HandlerTable with(RequestHandlerMatcherPair requestHandlerMatcherPair)
+        {
+            RequestHandlerMatcherPair[] newRequestHandlerMatcherPairs = Arrays.copyOf(requestHandlerMatcherPairs, requestHandlerMatcherPairs.length + 1);
+            newRequestHandlerMatcherPairs[requestHandlerMatcherPairs.length] = requestHandlerMatcherPair;
+            return new HandlerTable(newRequestHandlerMatcherPairs);
+        }
+
+        /**
+         * @return a table without the given handler, or this same table if the handler is not part of it.
+         */
+        HandlerTable without(RequestHandlerMatcherPair requestHandlerMatcherPair)
+        {
+            for (int i = 0; i < requestHandlerMatcherPairs.length; i++)
             {
-                return true;
+                if (requestHandlerMatcherPairs[i] == requestHandlerMatcherPair)
+                {
+                    if (requestHandlerMatcherPairs.length == 1)
+                    {
+                        return EMPTY;
+                    }
+                    RequestHandlerMatcherPair[] newRequestHandlerMatcherPairs = new RequestHandlerMatcherPair[requestHandlerMatcherPairs.length - 1];
+                    System.arraycopy(requestHandlerMatcherPairs, 0, newRequestHandlerMatcherPairs, 0, i);
+                    System.arraycopy(requestHandlerMatcherPairs, i + 1, newRequestHandlerMatcherPairs, i, requestHandlerMatcherPairs.length - i - 1);
+                    return new HandlerTable(newRequestHandlerMatcherPairs);
+                }
             }
-            return false;
+            return this;
         }
     }
 
-    private boolean isCatchAllPath(String path)
+    private static final class ServerEntry
     {
-        return WILDCARD_CHARACTER.equals(path);
+
+        private final Server server;
+        private final ServerAddress serverAddress;
+        private final ServerAddressRequestHandlerRegistry requestHandlerRegistry;
+
+        private ServerEntry(Server server, ServerAddressRequestHandlerRegistry requestHandlerRegistry)
+        {
+            this.server = server;
+            this.serverAddress = server.getServerAddress();
+            this.requestHandlerRegistry = requestHandlerRegistry;
+        }
     }
 
-    public class RequestHandlerMatcherPair
+    public static class RequestHandlerMatcherPair
     {
 
         private ListenerRequestMatcher requestMatcher;
         private RequestHandler requestHandler;
-        private boolean running = true;
+        private volatile boolean running = true;
 
         private RequestHandlerMatcherPair(ListenerRequestMatcher requestMatcher, RequestHandler requestHandler)
         {
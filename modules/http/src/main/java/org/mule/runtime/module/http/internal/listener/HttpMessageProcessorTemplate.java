@@ -8,6 +8,8 @@ package org.mule.runtime.module.http.internal.listener;
 
 import static org.mule.runtime.module.http.api.HttpConstants.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.mule.runtime.module.http.api.HttpConstants.Protocols.HTTP;
+import static org.mule.runtime.module.http.internal.multipart.HttpMultipartDecoder.deleteCollectedParts;
+import static org.mule.runtime.module.http.internal.multipart.HttpPartDataSource.deleteInboundParts;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.runtime.core.api.MessagingException;
 import org.mule.runtime.core.api.MuleEvent;
@@ -138,12 +140,14 @@ public class HttpMessageProcessorTemplate implements AsyncResponseFlowProcessing
             @Override
             public void responseSendFailure(Throwable throwable)
             {
+                deleteCollectedParts();
                 responseReadyCallback.responseReady(buildErrorResponse(), this);
             }
 
             @Override
             public void responseSendSuccessfully()
             {
+                deleteCollectedParts();
                 responseCompletationCallback.responseSentSuccessfully();
             }
         };
@@ -188,6 +192,16 @@ public class HttpMessageProcessorTemplate implements AsyncResponseFlowProcessing
         }
     }
 
+    /**
+     * Deletes the multipart content received with a throttled request, which is discarded without being processed
+     * so nothing else can be holding it. The content of processed requests may outlive their response, so it's only
+     * deleted once it's no longer referenced.
+     */
+    private void deleteThrottledParts()
+    {
+        deleteInboundParts(sourceMuleEvent.getMessage());
+    }
+
     private ResponseStatusCallback getLogCompletionCallback()
     {
         return new ResponseStatusCallback()
@@ -195,6 +209,7 @@ public class HttpMessageProcessorTemplate implements AsyncResponseFlowProcessing
             @Override
             public void responseSendFailure(Throwable throwable)
             {
+                deleteThrottledParts();
                 logger.info("Failure sending throttled response " + throwable.getMessage());
                 if (logger.isDebugEnabled())
                 {
@@ -205,6 +220,7 @@ public class HttpMessageProcessorTemplate implements AsyncResponseFlowProcessing
             @Override
             public void responseSendSuccessfully()
             {
+                deleteThrottledParts();
                 if (logger.isDebugEnabled())
                 {
                     logger.debug("throttled response sent successfully");
@@ -21,6 +21,7 @@ import org.mule.runtime.module.http.internal.domain.MultipartHttpEntity;
 import org.mule.runtime.module.http.internal.domain.request.HttpRequest;
 import org.mule.runtime.module.http.internal.multipart.HttpPart;
 
+import java.io.File;
 import java.io.InputStream;
 import java.util.Collection;
 
@@ -38,6 +39,7 @@ public class GrizzlyHttpRequestAdapter extends BaseHttpMessage implements HttpRe
     private final FilterChainContext filterChainContext;
     private final int contentLength;
     private final boolean isTransferEncodingChunked;
+    private final File spoolDirectory;
     private HttpProtocol protocol;
     private String uri;
     private String path;
@@ -45,9 +47,15 @@ public class GrizzlyHttpRequestAdapter extends BaseHttpMessage implements HttpRe
     private HttpEntity body;
     private ParameterMap headers;
 
-    public GrizzlyHttpRequestAdapter(FilterChainContext filterChainContext, HttpContent httpContent)
+    /**
+     * @param filterChainContext the context of the request
+     * @param httpContent        the first content of the request
+     * @param spoolDirectory     directory where large multipart parts are spooled, or {@code null} to use the default temporary directory
+     */
+    public GrizzlyHttpRequestAdapter(FilterChainContext filterChainContext, HttpContent httpContent, File spoolDirectory)
     {
         this.filterChainContext = filterChainContext;
+        this.spoolDirectory = spoolDirectory;
         this.requestPacket = (HttpRequestPacket) httpContent.getHttpHeader();
         isTransferEncodingChunked = httpContent.getHttpHeader().isChunked();
         int contentLengthAsInt = 0;
@@ -151,7 +159,7 @@ public class GrizzlyHttpRequestAdapter extends BaseHttpMessage implements HttpRe
                 final String contentTypeValue = getHeaderValueIgnoreCase(CONTENT_TYPE);
                 if (contentTypeValue != null && contentTypeValue.contains("multipart"))
                 {
-                    final Collection<HttpPart> parts = HttpParser.parseMultipartContent(requestContent, contentTypeValue);
+                    final Collection<HttpPart> parts = HttpParser.parseMultipartContent(requestContent, contentTypeValue, spoolDirectory);
                     this.body = new MultipartHttpEntity(parts);
                 }
                 else
@@ -23,6 +23,7 @@ import org.mule.runtime.module.http.internal.listener.async.HttpResponseReadyCal
 import org.mule.runtime.module.http.internal.listener.async.RequestHandler;
 import org.mule.runtime.module.http.internal.listener.async.ResponseStatusCallback;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 
@@ -42,10 +43,12 @@ public class GrizzlyRequestDispatcherFilter extends BaseFilter
 {
 
     private final RequestHandlerProvider requestHandlerProvider;
+    private final File spoolDirectory;
 
-    GrizzlyRequestDispatcherFilter(final RequestHandlerProvider requestHandlerProvider)
+    GrizzlyRequestDispatcherFilter(final RequestHandlerProvider requestHandlerProvider, File spoolDirectory)
     {
         this.requestHandlerProvider = requestHandlerProvider;
+        this.spoolDirectory = spoolDirectory;
     }
 
     @Override
@@ -77,7 +80,7 @@ public class GrizzlyRequestDispatcherFilter extends BaseFilter
             }
         }
 
-        final GrizzlyHttpRequestAdapter httpRequest = new GrizzlyHttpRequestAdapter(ctx, httpContent);
+        final GrizzlyHttpRequestAdapter httpRequest = new GrizzlyHttpRequestAdapter(ctx, httpContent, spoolDirectory);
         HttpRequestContext requestContext = createRequestContext(ctx, scheme, httpRequest);
         final RequestHandler requestHandler = requestHandlerProvider.getRequestHandler(ip, port, httpRequest);
         requestHandler.handleRequest(requestContext, new HttpResponseReadyCallback()
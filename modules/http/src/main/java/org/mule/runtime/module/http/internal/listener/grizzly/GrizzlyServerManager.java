@@ -24,6 +24,7 @@ import org.mule.runtime.module.http.internal.listener.ServerAddress;
 import org.mule.runtime.api.tls.TlsContextFactory;
 import org.mule.runtime.core.util.concurrent.NamedThreadFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -64,10 +65,10 @@ public class GrizzlyServerManager implements HttpServerManager
     private DelayedExecutor idleTimeoutDelayedExecutor;
     private boolean transportStarted;
 
-    public GrizzlyServerManager(String threadNamePrefix, HttpListenerRegistry httpListenerRegistry, TcpServerSocketProperties serverSocketProperties) throws IOException
+    public GrizzlyServerManager(String threadNamePrefix, HttpListenerRegistry httpListenerRegistry, TcpServerSocketProperties serverSocketProperties, File spoolDirectory) throws IOException
     {
         this.httpListenerRegistry = httpListenerRegistry;
-        requestHandlerFilter = new GrizzlyRequestDispatcherFilter(httpListenerRegistry);
+        requestHandlerFilter = new GrizzlyRequestDispatcherFilter(httpListenerRegistry, spoolDirectory);
         sslFilterDelegate = new GrizzlyAddressDelegateFilter<>();
         httpServerFilterDelegate = new GrizzlyAddressDelegateFilter<>();
 
@@ -0,0 +1,532 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.http.internal.multipart;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.module.http.api.HttpHeaders.Names.CONTENT_DISPOSITION;
+import static org.mule.runtime.module.http.api.HttpHeaders.Names.CONTENT_TRANSFER_ENCODING;
+import static org.mule.runtime.module.http.api.HttpHeaders.Names.CONTENT_TYPE;
+import org.mule.runtime.core.api.MuleContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.mail.MessagingException;
+import javax.mail.internet.ContentDisposition;
+import javax.mail.internet.ContentType;
+import javax.mail.internet.MimeUtility;
+import javax.mail.internet.ParseException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parses multipart content while reading it from a stream.
+ * <p/>
+ * The content of each part is spooled as it is read: it is kept in memory while it is smaller than the threshold
+ * defined by {@link #MEMORY_THRESHOLD_PROPERTY} and written to a temporary file past it, so large uploads don't
+ * need to be held in memory as a whole. Temporary files are created in the spool directory given when parsing,
+ * usually the one returned by {@link #getSpoolDirectory(MuleContext)}, and removed when the parts are deleted.
+ */
+public class HttpMultipartDecoder
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpMultipartDecoder.class);
+
+    /**
+     * System property that defines the maximum number of bytes of each part that are kept in memory.
+     */
+    public static final String MEMORY_THRESHOLD_PROPERTY = SYSTEM_PROPERTY_PREFIX + "http.multipart.memoryThreshold";
+    private static final int DEFAULT_MEMORY_THRESHOLD = 1024 * 1024;
+    private static final String SPOOL_DIRECTORY_NAME = "http-multipart";
+
+    private static final String BOUNDARY_PARAMETER = "boundary";
+    private static final String NAME_PARAMETER = "name";
+    private static final String FILENAME_PARAMETER = "filename";
+    private static final String BOUNDARY_PREFIX = "--";
+    private static final String DEFAULT_PART_CONTENT_TYPE = "text/plain";
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * @param muleContext the context of the application receiving the parts
+     * @return the directory, inside the working directory of the application, where parts too large to be kept in
+     * memory are spooled
+     */
+    public static File getSpoolDirectory(MuleContext muleContext)
+    {
+        return new File(muleContext.getConfiguration().getWorkingDirectory(), SPOOL_DIRECTORY_NAME);
+    }
+
+    public static Collection<HttpPart> parseMultipartContent(InputStream content, String contentType) throws IOException
+    {
+        return parseMultipartContent(content, contentType, null);
+    }
+
+    /**
+     * Parses the parts of multipart content.
+     *
+     * @param content        the multipart content
+     * @param contentType    the content type of the content, which defines the boundary
+     * @param spoolDirectory directory where large parts are spooled, or {@code null} to use the default temporary directory
+     * @return the parts, which must be deleted once they are no longer used
+     * @throws IOException if the content can't be read or parsed
+     */
+    public static Collection<HttpPart> parseMultipartContent(InputStream content, String contentType, File spoolDirectory) throws IOException
+    {
+        return parseMultipartContent(content, contentType, spoolDirectory, getMemoryThreshold());
+    }
+
+    static Collection<HttpPart> parseMultipartContent(InputStream content, String contentType, File spoolDirectory, int memoryThreshold) throws IOException
+    {
+        MultipartReader reader = new MultipartReader(content);
+        String boundary = getBoundary(contentType);
+
+        String line = reader.readLine();
+        while (line != null && !isBoundaryLine(line, boundary))
+        {
+            line = reader.readLine();
+        }
+        if (line == null)
+        {
+            throw new IOException("Missing start boundary");
+        }
+        if (boundary == null)
+        {
+            boundary = line.trim().substring(BOUNDARY_PREFIX.length());
+        }
+
+        List<HttpPart> parts = new ArrayList<>();
+        boolean lastPart = line.trim().endsWith(BOUNDARY_PREFIX + boundary + BOUNDARY_PREFIX);
+        byte[] delimiter = ("\n" + BOUNDARY_PREFIX + boundary).getBytes(ISO_8859_1);
+        try
+        {
+            while (!lastPart)
+            {
+                List<String[]> headers = reader.readHeaders();
+                if (headers == null)
+                {
+                    break;
+                }
+
+                PartInputStream partStream = new PartInputStream(reader, delimiter);
+                parts.add(createPart(headers, partStream, spoolDirectory, memoryThreshold));
+                partStream.skipRemaining();
+
+                String boundaryLineEnd = reader.readLine();
+                lastPart = boundaryLineEnd == null || boundaryLineEnd.startsWith(BOUNDARY_PREFIX);
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            deleteParts(parts);
+            throw e;
+        }
+
+        return parts;
+    }
+
+    private static HttpPart createPart(List<String[]> headers, PartInputStream partStream, File spoolDirectory, int memoryThreshold) throws IOException
+    {
+        String contentDisposition = getHeader(headers, CONTENT_DISPOSITION);
+        String contentType = getHeader(headers, CONTENT_TYPE);
+        String transferEncoding = getHeader(headers, CONTENT_TRANSFER_ENCODING);
+
+        String partName = null;
+        String fileName = null;
+        if (contentDisposition != null)
+        {
+            try
+            {
+                ContentDisposition disposition = new ContentDisposition(contentDisposition);
+                partName = disposition.getParameter(NAME_PARAMETER);
+                fileName = disposition.getParameter(FILENAME_PARAMETER);
+            }
+            catch (ParseException e)
+            {
+                logger.debug("Ignoring invalid part content disposition: " + contentDisposition, e);
+            }
+        }
+        if (fileName == null && contentType != null)
+        {
+            fileName = getContentTypeParameter(contentType, NAME_PARAMETER);
+        }
+        if (partName == null)
+        {
+            partName = fileName;
+        }
+
+        InputStream content = partStream;
+        if (transferEncoding != null && !isIdentityEncoding(transferEncoding))
+        {
+            try
+            {
+                content = MimeUtility.decode(partStream, transferEncoding.trim());
+            }
+            catch (MessagingException e)
+            {
+                throw new IOException(e);
+            }
+        }
+
+        SpooledHttpPartContent partContent = SpooledHttpPartContent.spool(content, memoryThreshold, spoolDirectory);
+        HttpPart part = new HttpPart(partName, fileName, partContent, contentType != null ? contentType : DEFAULT_PART_CONTENT_TYPE, partContent.getSize());
+        for (String[] header : headers)
+        {
+            part.addHeader(header[0], header[1]);
+        }
+        return part;
+    }
+
+    private static String getBoundary(String contentType) throws IOException
+    {
+        if (contentType == null)
+        {
+            return null;
+        }
+        try
+        {
+            return new ContentType(contentType).getParameter(BOUNDARY_PARAMETER);
+        }
+        catch (ParseException e)
+        {
+            throw new IOException(e);
+        }
+    }
+
+    private static boolean isBoundaryLine(String line, String boundary)
+    {
+        String trimmedLine = line.trim();
+        if (boundary == null)
+        {
+            return trimmedLine.startsWith(BOUNDARY_PREFIX) && trimmedLine.length() > BOUNDARY_PREFIX.length();
+        }
+        return trimmedLine.equals(BOUNDARY_PREFIX + boundary) || trimmedLine.equals(BOUNDARY_PREFIX + boundary + BOUNDARY_PREFIX);
+    }
+
+    private static boolean isIdentityEncoding(String transferEncoding)
+    {
+        String encoding = transferEncoding.trim();
+        return encoding.equalsIgnoreCase("7bit") || encoding.equalsIgnoreCase("8bit") || encoding.equalsIgnoreCase("binary");
+    }
+
+    private static String getHeader(List<String[]> headers, String name)
+    {
+        for (String[] header : headers)
+        {
+            if (header[0].equalsIgnoreCase(name))
+            {
+                return header[1];
+            }
+        }
+        return null;
+    }
+
+    private static String getContentTypeParameter(String contentType, String parameter)
+    {
+        try
+        {
+            return new ContentType(contentType).getParameter(parameter);
+        }
+        catch (ParseException e)
+        {
+            logger.debug("Ignoring invalid part content type: " + contentType, e);
+            return null;
+        }
+    }
+
+    /**
+     * Deletes the content of the given parts, logging the parts which can't be deleted.
+     *
+     * @param parts the parts to delete
+     */
+    public static void deleteParts(Collection<HttpPart> parts)
+    {
+        for (HttpPart part : parts)
+        {
+            try
+            {
+                part.delete();
+            }
+            catch (IOException e)
+            {
+                logger.warn("Unable to delete multipart content", e);
+            }
+        }
+    }
+
+    /**
+     * Removes the temporary files of the parts which are no longer referenced. Parts still in use, even after the
+     * response to their request has been sent, keep their files.
+     */
+    public static void deleteCollectedParts()
+    {
+        SpooledHttpPartContent.deleteCollectedSpoolFiles();
+    }
+
+    private static int getMemoryThreshold()
+    {
+        return Integer.getInteger(MEMORY_THRESHOLD_PROPERTY, DEFAULT_MEMORY_THRESHOLD);
+    }
+
+    /**
+     * Buffered reader over the multipart content that gives access to the buffered bytes so boundaries can be
+     * searched for without copying them.
+     */
+    private static final class MultipartReader
+    {
+
+        private final InputStream in;
+        private byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private int limit;
+        private boolean endOfStream;
+
+        private MultipartReader(InputStream in)
+        {
+            this.in = in;
+        }
+
+        /**
+         * Reads until at least {@code count} bytes are buffered or the end of the stream is reached.
+         */
+        private void fill(int count) throws IOException
+        {
+            if (limit - position >= count || endOfStream)
+            {
+                return;
+            }
+            if (count > buffer.length)
+            {
+                byte[] newBuffer = new byte[Math.max(count, buffer.length * 2)];
+                System.arraycopy(buffer, position, newBuffer, 0, limit - position);
+                buffer = newBuffer;
+            }
+            else if (position > 0)
+            {
+                System.arraycopy(buffer, position, buffer, 0, limit - position);
+            }
+            limit -= position;
+            position = 0;
+
+            while (limit < count)
+            {
+                int read = in.read(buffer, limit, buffer.length - limit);
+                if (read == -1)
+                {
+                    endOfStream = true;
+                    return;
+                }
+                limit += read;
+            }
+        }
+
+        /**
+         * @return the next line without its line terminator, accepting both CRLF and LF, or null at the end of
+         * the stream
+         */
+        private String readLine() throws IOException
+        {
+            StringBuilder line = null;
+            while (true)
+            {
+                fill(1);
+                if (position == limit)
+                {
+                    return line == null ? null : line.toString();
+                }
+                if (line == null)
+                {
+                    line = new StringBuilder();
+                }
+                for (int i = position; i < limit; i++)
+                {
+                    if (buffer[i] == '\n')
+                    {
+                        int end = i > position && buffer[i - 1] == '\r' ? i - 1 : i;
+                        line.append(new String(buffer, position, end - position, ISO_8859_1));
+                        position = i + 1;
+                        int length = line.length();
+                        if (end == i && length > 0 && line.charAt(length - 1) == '\r')
+                        {
+                            // The CR was in the previous chunk of the buffer
+                            line.setLength(length - 1);
+                        }
+                        return line.toString();
+                    }
+                }
+                line.append(new String(buffer, position, limit - position, ISO_8859_1));
+                position = limit;
+            }
+        }
+
+        /**
+         * @return the headers of the next part, up to the empty line that separates them from the content, or
+         * null if the stream ends before any header
+         */
+        private List<String[]> readHeaders() throws IOException
+        {
+            List<String[]> headers = new ArrayList<>();
+            String line = readLine();
+            if (line == null)
+            {
+                return null;
+            }
+            while (line != null && !line.isEmpty())
+            {
+                if ((line.charAt(0) == ' ' || line.charAt(0) == '\t') && !headers.isEmpty())
+                {
+                    String[] previous = headers.get(headers.size() - 1);
+                    previous[1] = previous[1] + " " + line.trim();
+                }
+                else
+                {
+                    int separator = line.indexOf(':');
+                    if (separator > 0)
+                    {
+                        headers.add(new String[] {line.substring(0, separator).trim(), line.substring(separator + 1).trim()});
+                    }
+                }
+                line = readLine();
+            }
+            return headers;
+        }
+    }
+
+    /**
+     * Reads the content of a part up to the next boundary delimiter. The line break before the delimiter belongs to
+     * it, so it is not part of the content.
+     */
+    private static final class PartInputStream extends InputStream
+    {
+
+        private final MultipartReader reader;
+        private final byte[] delimiter;
+        private boolean started;
+        private boolean finished;
+
+        private PartInputStream(MultipartReader reader, byte[] delimiter)
+        {
+            this.reader = reader;
+            this.delimiter = delimiter;
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            byte[] singleByte = new byte[1];
+            int read = read(singleByte, 0, 1);
+            return read == -1 ? -1 : singleByte[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException
+        {
+            if (finished)
+            {
+                return -1;
+            }
+            if (len == 0)
+            {
+                return 0;
+            }
+
+            // Leaves room for a CR before the delimiter, so it isn't returned as content before the delimiter is found
+            reader.fill(delimiter.length + 1);
+            byte[] buffer = reader.buffer;
+            int position = reader.position;
+            int limit = reader.limit;
+
+            if (!started)
+            {
+                started = true;
+                // An empty part may be directly followed by the delimiter, without a line break
+                if (startsWith(buffer, position, limit, delimiter, 1))
+                {
+                    reader.position = position + delimiter.length - 1;
+                    finished = true;
+                    return -1;
+                }
+            }
+
+            int delimiterIndex = indexOf(buffer, position, limit, delimiter);
+            int available;
+            if (delimiterIndex != -1)
+            {
+                int contentEnd = delimiterIndex > position && buffer[delimiterIndex - 1] == '\r' ? delimiterIndex - 1 : delimiterIndex;
+                available = contentEnd - position;
+                if (available == 0)
+                {
+                    reader.position = delimiterIndex + delimiter.length;
+                    finished = true;
+                    return -1;
+                }
+            }
+            else if (reader.endOfStream)
+            {
+                // Tolerates a missing end boundary
+                available = limit - position;
+                if (available == 0)
+                {
+                    finished = true;
+                    return -1;
+                }
+            }
+            else
+            {
+                available = limit - position - delimiter.length;
+            }
+
+            int count = Math.min(len, available);
+            System.arraycopy(buffer, position, b, off, count);
+            reader.position += count;
+            return count;
+        }
+
+        private void skipRemaining() throws IOException
+        {
+            byte[] skipBuffer = new byte[BUFFER_SIZE];
+            while (read(skipBuffer, 0, skipBuffer.length) != -1)
+            {
+                // Discards the content that wasn't consumed
+            }
+        }
+
+        private static int indexOf(byte[] buffer, int from, int to, byte[] pattern)
+        {
+            int last = to - pattern.length;
+            for (int i = from; i <= last; i++)
+            {
+                if (buffer[i] == pattern[0] && startsWith(buffer, i, to, pattern, 0))
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static boolean startsWith(byte[] buffer, int from, int to, byte[] pattern, int patternOffset)
+        {
+            if (to - from < pattern.length - patternOffset)
+            {
+                return false;
+            }
+            for (int i = patternOffset; i < pattern.length; i++)
+            {
+                if (buffer[from + i - patternOffset] != pattern[i])
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
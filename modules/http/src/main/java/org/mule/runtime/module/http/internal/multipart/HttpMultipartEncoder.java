@@ -6,20 +6,31 @@
  */
 package org.mule.runtime.module.http.internal.multipart;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static org.mule.runtime.module.http.api.HttpHeaders.Names.CONTENT_DISPOSITION;
+import static org.mule.runtime.module.http.api.HttpHeaders.Names.CONTENT_TRANSFER_ENCODING;
 import static org.mule.runtime.module.http.api.HttpHeaders.Names.CONTENT_TYPE;
+import static org.mule.runtime.module.http.api.HttpHeaders.Values.MULTIPART_FORM_DATA;
+import org.mule.runtime.core.util.UUID;
 import org.mule.runtime.module.http.internal.HttpParser;
 import org.mule.runtime.module.http.internal.domain.MultipartHttpEntity;
 import org.mule.runtime.core.util.IOUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.function.Function;
 
 import javax.mail.MessagingException;
+import javax.mail.internet.ContentType;
 import javax.mail.internet.InternetHeaders;
 import javax.mail.internet.MimeBodyPart;
 import javax.mail.internet.MimeMultipart;
+import javax.mail.internet.ParseException;
 
 /**
  * Creates multipart
@@ -30,6 +41,13 @@ public class HttpMultipartEncoder
     private static final String FORM_DATA = "form-data";
     public static final String ATTACHMENT = "attachment";
 
+    private static final String BOUNDARY_PARAMETER = "boundary";
+    private static final String DEFAULT_PART_CONTENT_TYPE = "application/octet-stream";
+    private static final String BINARY_TRANSFER_ENCODING = "binary";
+    private static final String BOUNDARY_PREFIX = "--";
+    private static final String CRLF = "\r\n";
+    private static final String HEADER_SEPARATOR = ": ";
+
     public static MimeMultipart createMultpartContent(MultipartHttpEntity body, String contentType)
     {
         String contentTypeSubType = HttpParser.getContentTypeSubType(contentType);
@@ -38,24 +56,7 @@ public class HttpMultipartEncoder
 
         for (HttpPart part : parts)
         {
-            final InternetHeaders internetHeaders = new InternetHeaders();
-            for (String headerName : part.getHeaderNames())
-            {
-                final Collection<String> headerValues = part.getHeaders(headerName);
-                for (String headerValue : headerValues)
-                {
-                    internetHeaders.addHeader(headerName, headerValue);
-                }
-            }
-            if (internetHeaders.getHeader(CONTENT_DISPOSITION) == null)
-            {
-                String partType = contentTypeSubType.equals(FORM_DATA) ? FORM_DATA : ATTACHMENT;
-                internetHeaders.addHeader(CONTENT_DISPOSITION, getContentDisposition(part, partType));
-            }
-            if (internetHeaders.getHeader(CONTENT_TYPE) == null && part.getContentType() != null)
-            {
-                internetHeaders.addHeader(CONTENT_TYPE, part.getContentType());
-            }
+            final InternetHeaders internetHeaders = createPartHeaders(part, contentTypeSubType);
             try
             {
                 final byte[] partContent = IOUtils.toByteArray(part.getInputStream());
@@ -69,6 +70,29 @@ public class HttpMultipartEncoder
         return mimeMultipartContent;
     }
 
+    private static InternetHeaders createPartHeaders(HttpPart part, String contentTypeSubType)
+    {
+        final InternetHeaders internetHeaders = new InternetHeaders();
+        for (String headerName : part.getHeaderNames())
+        {
+            final Collection<String> headerValues = part.getHeaders(headerName);
+            for (String headerValue : headerValues)
+            {
+                internetHeaders.addHeader(headerName, headerValue);
+            }
+        }
+        if (internetHeaders.getHeader(CONTENT_DISPOSITION) == null)
+        {
+            String partType = contentTypeSubType.equals(FORM_DATA) ? FORM_DATA : ATTACHMENT;
+            internetHeaders.addHeader(CONTENT_DISPOSITION, getContentDisposition(part, partType));
+        }
+        if (internetHeaders.getHeader(CONTENT_TYPE) == null && part.getContentType() != null)
+        {
+            internetHeaders.addHeader(CONTENT_TYPE, part.getContentType());
+        }
+        return internetHeaders;
+    }
+
     private static String getContentDisposition(HttpPart part, String partType)
     {
         StringBuilder builder = new StringBuilder();
@@ -87,10 +111,199 @@ public class HttpMultipartEncoder
 
     public static byte[] createMultipartContent(MultipartHttpEntity multipartEntity, String contentType) throws IOException, MessagingException
     {
-        MimeMultipart mimeMultipartContent = HttpMultipartEncoder.createMultpartContent(multipartEntity, contentType);
-        final ByteArrayOutputStream byteArrayOutputStream;
-        byteArrayOutputStream = new ByteArrayOutputStream();
-        mimeMultipartContent.writeTo(byteArrayOutputStream);
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (InputStream content = createMultipartContentStream(multipartEntity, contentType))
+        {
+            IOUtils.copyLarge(content, byteArrayOutputStream);
+        }
         return byteArrayOutputStream.toByteArray();
     }
+
+    /**
+     * Creates a stream that writes the multipart content as it is read, without buffering the content of the parts.
+     * Parts get the headers they already have plus a Content-Disposition and a Content-Type header if missing.
+     *
+     * @param multipartEntity the parts to write
+     * @param contentType multipart content type, including the boundary
+     * @return the multipart content
+     * @throws MessagingException if the content type doesn't define a boundary
+     */
+    public static InputStream createMultipartContentStream(MultipartHttpEntity multipartEntity, String contentType) throws MessagingException
+    {
+        final String contentTypeSubType = HttpParser.getContentTypeSubType(contentType);
+        return new MultipartInputStream(multipartEntity.getParts(), getBoundary(contentType), part ->
+        {
+            StringBuilder headers = new StringBuilder();
+            Enumeration<String> headerLines = createPartHeaders(part, contentTypeSubType).getAllHeaderLines();
+            while (headerLines.hasMoreElements())
+            {
+                headers.append(headerLines.nextElement()).append(CRLF);
+            }
+            return headers.toString();
+        });
+    }
+
+    /**
+     * Resolves the content type of a form data request: a content type that already defines a boundary is kept,
+     * otherwise a new boundary is added to it.
+     *
+     * @param requestContentType the content type of the request, may be null
+     * @return the content type to send, including the boundary
+     */
+    public static String getFormDataContentType(String requestContentType)
+    {
+        if (requestContentType == null)
+        {
+            return MULTIPART_FORM_DATA + "; " + BOUNDARY_PARAMETER + "=" + UUID.getUUID();
+        }
+        if (requestContentType.contains(BOUNDARY_PARAMETER + "="))
+        {
+            return requestContentType;
+        }
+        String separator = requestContentType.trim().endsWith(";") ? " " : "; ";
+        return requestContentType + separator + BOUNDARY_PARAMETER + "=" + UUID.getUUID();
+    }
+
+    /**
+     * Creates a stream that writes the parts as form data as it is read, without buffering the content of the
+     * parts.
+     *
+     * @param multipartEntity the parts to write
+     * @param contentType content type returned by {@link #getFormDataContentType(String)}
+     * @return the multipart content
+     * @throws MessagingException if the content type doesn't define a boundary
+     */
+    public static InputStream createFormDataContentStream(MultipartHttpEntity multipartEntity, String contentType) throws MessagingException
+    {
+        return new MultipartInputStream(multipartEntity.getParts(), getBoundary(contentType), part ->
+        {
+            StringBuilder headers = new StringBuilder();
+            headers.append(CONTENT_DISPOSITION).append(HEADER_SEPARATOR).append(getContentDisposition(part, FORM_DATA)).append(CRLF);
+            headers.append(CONTENT_TYPE).append(HEADER_SEPARATOR).append(part.getContentType() != null ? part.getContentType() : DEFAULT_PART_CONTENT_TYPE).append(CRLF);
+            headers.append(CONTENT_TRANSFER_ENCODING).append(HEADER_SEPARATOR).append(BINARY_TRANSFER_ENCODING).append(CRLF);
+            return headers.toString();
+        });
+    }
+
+    private static String getBoundary(String contentType) throws MessagingException
+    {
+        String boundary = null;
+        try
+        {
+            boundary = new ContentType(contentType).getParameter(BOUNDARY_PARAMETER);
+        }
+        catch (ParseException e)
+        {
+            throw new MessagingException("Invalid multipart content type " + contentType, e);
+        }
+        if (boundary == null)
+        {
+            throw new MessagingException("Missing boundary in multipart content type " + contentType);
+        }
+        return boundary;
+    }
+
+    /**
+     * Writes the parts one after the other, opening the stream of each part only when the previous one has been
+     * fully read.
+     */
+    private static final class MultipartInputStream extends InputStream
+    {
+
+        private final Iterator<HttpPart> parts;
+        private final String boundary;
+        private final Function<HttpPart, String> headersWriter;
+        private HttpPart nextPart;
+        private InputStream current;
+        private boolean firstPart = true;
+        private boolean finished;
+
+        private MultipartInputStream(Collection<HttpPart> parts, String boundary, Function<HttpPart, String> headersWriter)
+        {
+            this.parts = parts.iterator();
+            this.boundary = boundary;
+            this.headersWriter = headersWriter;
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            byte[] singleByte = new byte[1];
+            int read = read(singleByte, 0, 1);
+            return read == -1 ? -1 : singleByte[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException
+        {
+            if (len == 0)
+            {
+                return 0;
+            }
+            while (true)
+            {
+                if (current == null && !nextSegment())
+                {
+                    return -1;
+                }
+                int read = current.read(b, off, len);
+                if (read != -1)
+                {
+                    return read;
+                }
+                current.close();
+                current = null;
+            }
+        }
+
+        /**
+         * Moves to the next segment, which alternates between the boundary and headers of a part and its content.
+         *
+         * @return false if there's nothing else to write
+         */
+        private boolean nextSegment() throws IOException
+        {
+            if (nextPart != null)
+            {
+                current = nextPart.getInputStream();
+                nextPart = null;
+                return true;
+            }
+            if (finished)
+            {
+                return false;
+            }
+
+            String delimiter = (firstPart ? "" : CRLF) + BOUNDARY_PREFIX + boundary;
+            if (parts.hasNext())
+            {
+                nextPart = parts.next();
+                current = toStream(delimiter + CRLF + headersWriter.apply(nextPart) + CRLF);
+            }
+            else
+            {
+                current = toStream(delimiter + BOUNDARY_PREFIX + CRLF);
+                finished = true;
+            }
+            firstPart = false;
+            return true;
+        }
+
+        private static InputStream toStream(String value)
+        {
+            return new ByteArrayInputStream(value.getBytes(ISO_8859_1));
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            finished = true;
+            nextPart = null;
+            if (current != null)
+            {
+                current.close();
+                current = null;
+            }
+        }
+    }
 }
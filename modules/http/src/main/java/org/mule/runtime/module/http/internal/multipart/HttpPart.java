@@ -23,11 +23,11 @@ public class HttpPart implements Part
 
     public static final int NO_SIZE = -1;
 
-    private final byte[] content;
+    private final HttpPartContent content;
     private final String contentType;
     private final String partName;
     private final String fileName;
-    private final int size;
+    private final long size;
     private Map<String, Object> headers = new HashMap<>();
 
     public HttpPart(String partName, byte[] content, String contentType, int size)
@@ -36,6 +36,15 @@ public class HttpPart implements Part
     }
 
     public HttpPart(String partName, String fileName, byte[] content, String contentType, int size)
+    {
+        this(partName, fileName, () -> new ByteArrayInputStream(content), contentType, size);
+    }
+
+    /**
+     * Creates a part whose content is read through {@code content} every time its stream is requested, so it
+     * doesn't need to be held in memory.
+     */
+    public HttpPart(String partName, String fileName, HttpPartContent content, String contentType, long size)
     {
         this.partName = partName;
         this.fileName = fileName;
@@ -47,7 +56,7 @@ public class HttpPart implements Part
     @Override
     public void delete() throws IOException
     {
-        throw new UnsupportedOperationException();
+        content.delete();
     }
 
     @Override
@@ -109,7 +118,7 @@ public class HttpPart implements Part
     @Override
     public InputStream getInputStream() throws IOException
     {
-        return new ByteArrayInputStream(content);
+        return content.getInputStream();
     }
 
     @Override
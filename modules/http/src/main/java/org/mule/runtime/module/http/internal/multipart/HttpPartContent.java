@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.http.internal.multipart;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Content of a {@link HttpPart}. Each call to {@link #getInputStream()} returns a new stream that reads the
+ * content from the beginning, so the content doesn't need to be kept in memory as a byte array.
+ */
+public interface HttpPartContent
+{
+
+    /**
+     * @return a new stream for the content of the part
+     * @throws IOException if the content can't be accessed
+     */
+    InputStream getInputStream() throws IOException;
+
+    /**
+     * Releases the resources used to hold the content, such as temporary files.
+     *
+     * @throws IOException if the resources can't be released
+     */
+    default void delete() throws IOException
+    {
+    }
+}
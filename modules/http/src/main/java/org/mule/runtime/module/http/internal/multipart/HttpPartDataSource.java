@@ -6,13 +6,13 @@
  */
 package org.mule.runtime.module.http.internal.multipart;
 
-import org.mule.runtime.core.api.MuleRuntimeException;
+import static org.mule.runtime.module.http.internal.multipart.HttpPart.NO_SIZE;
+import org.mule.runtime.core.api.MuleMessage;
 import org.mule.runtime.core.message.ds.ByteArrayDataSource;
 import org.mule.runtime.core.message.ds.StringDataSource;
 import org.mule.runtime.module.http.internal.HttpParam;
 import org.mule.runtime.core.util.IOUtils;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -26,34 +26,37 @@ import javax.activation.DataSource;
 import javax.activation.FileDataSource;
 import javax.servlet.http.Part;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 public class HttpPartDataSource implements DataSource
 {
 
+    private static final Logger logger = LoggerFactory.getLogger(HttpPartDataSource.class);
+
     private final HttpPart part;
-    private byte[] content;
 
     private HttpPartDataSource(HttpPart part)
     {
-        try
-        {
-            this.part = part;
-            this.content = IOUtils.toByteArray(part.getInputStream());
-        }
-        catch (IOException e)
-        {
-            throw new MuleRuntimeException(e);
-        }
+        this.part = part;
     }
 
+    /**
+     * Reads the whole content of the part. Prefer {@link #getInputStream()} since parts may be too large to be
+     * held in memory.
+     */
     public byte[] getContent() throws IOException
     {
-        return this.content;
+        try (InputStream content = getInputStream())
+        {
+            return IOUtils.toByteArray(content);
+        }
     }
 
     @Override
     public InputStream getInputStream() throws IOException
     {
-        return new ByteArrayInputStream(getContent());
+        return part.getInputStream();
     }
 
     @Override
@@ -111,19 +114,67 @@ public class HttpPartDataSource implements DataSource
             }
             else
             {
-                byte[] data = IOUtils.toByteArray(dataHandlerPart.getInputStream());
                 String fileName = null;
 
                 if (dataHandlerPart.getDataSource() instanceof FileDataSource || dataHandlerPart.getDataSource() instanceof ByteArrayDataSource)
                 {
                     fileName = dataHandlerPart.getDataSource().getName();
                 }
-                httpParts.add(new HttpPart(partName, fileName, data, dataHandlerPart.getContentType(), data.length));
+                if (isInMemory(dataHandlerPart.getDataSource()))
+                {
+                    byte[] data = IOUtils.toByteArray(dataHandlerPart.getInputStream());
+                    httpParts.add(new HttpPart(partName, fileName, data, dataHandlerPart.getContentType(), data.length));
+                }
+                else
+                {
+                    long size = NO_SIZE;
+                    if (dataHandlerPart.getDataSource() instanceof FileDataSource)
+                    {
+                        size = ((FileDataSource) dataHandlerPart.getDataSource()).getFile().length();
+                    }
+                    // The content is streamed from the data handler when the part is written instead of being copied
+                    httpParts.add(new HttpPart(partName, fileName, dataHandlerPart::getInputStream, dataHandlerPart.getContentType(), size));
+                }
             }
         }
         return httpParts;
     }
 
+    /**
+     * Content which is already held in memory is copied as before, so the size of the part is known.
+     */
+    private static boolean isInMemory(DataSource dataSource)
+    {
+        return dataSource instanceof ByteArrayDataSource || dataSource instanceof StringDataSource;
+    }
+
+    /**
+     * Deletes the content of the inbound attachments of {@code message} which are parts received through HTTP,
+     * releasing their temporary files. It must only be called for messages which were never dispatched, since any copy
+     * of {@code message} or of its attachments would no longer be able to read them. Otherwise, the files are removed
+     * once the parts are no longer referenced.
+     *
+     * @param message the message which attachments are deleted
+     */
+    public static void deleteInboundParts(MuleMessage message)
+    {
+        for (String attachmentName : message.getInboundAttachmentNames())
+        {
+            DataHandler attachment = message.getInboundAttachment(attachmentName);
+            if (attachment != null && attachment.getDataSource() instanceof HttpPartDataSource)
+            {
+                try
+                {
+                    ((HttpPartDataSource) attachment.getDataSource()).getPart().delete();
+                }
+                catch (IOException e)
+                {
+                    logger.warn("Unable to delete content of part " + attachmentName, e);
+                }
+            }
+        }
+    }
+
     public HttpPart getPart()
     {
         return part;
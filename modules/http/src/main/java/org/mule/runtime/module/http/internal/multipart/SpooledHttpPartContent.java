@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.http.internal.multipart;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link HttpPartContent} read from a stream, which is kept in memory while it is smaller than a threshold and
+ * spilled to a temporary file once it goes past it.
+ * <p/>
+ * The temporary file lives as long as the content is reachable, since the part may still be read after the response
+ * to its request has been sent, e.g. from an async branch or a queue. Once the content and every stream opened from it
+ * are garbage collected, the file is removed the next time a content is spooled or the HTTP listener sends a response.
+ * Parts known not to be used anymore can be deleted right away.
+ */
+final class SpooledHttpPartContent implements HttpPartContent
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(SpooledHttpPartContent.class);
+
+    private static final String TEMP_FILE_PREFIX = "mule-http-part-";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private static final ReferenceQueue<SpooledHttpPartContent> collectedContents = new ReferenceQueue<>();
+    private static final Map<SpoolFileReference, Object> spoolFileReferences = new ConcurrentHashMap<>();
+
+    private final byte[] data;
+    private final File file;
+    private final long size;
+    private final SpoolFileReference spoolFileReference;
+
+    private SpooledHttpPartContent(byte[] data, File file, long size)
+    {
+        this.data = data;
+        this.file = file;
+        this.size = size;
+        if (file != null)
+        {
+            spoolFileReference = new SpoolFileReference(this, file);
+            spoolFileReferences.put(spoolFileReference, spoolFileReferences);
+        }
+        else
+        {
+            spoolFileReference = null;
+        }
+    }
+
+    /**
+     * Reads the whole stream, keeping up to {@code threshold} bytes in memory.
+     *
+     * @param content the stream to read
+     * @param threshold maximum number of bytes kept in memory
+     * @param directory directory where the temporary file is created, or {@code null} to use the default temporary directory
+     * @return the read content
+     * @throws IOException if the stream can't be read or the temporary file can't be written
+     */
+    static SpooledHttpPartContent spool(InputStream content, int threshold, File directory) throws IOException
+    {
+        deleteCollectedSpoolFiles();
+
+        if (directory != null && !directory.exists() && !directory.mkdirs() && !directory.exists())
+        {
+            throw new IOException("Unable to create directory " + directory.getAbsolutePath());
+        }
+
+        DeferredFileOutputStream outputStream = new DeferredFileOutputStream(threshold, TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX, directory);
+        try
+        {
+            IOUtils.copyLarge(content, outputStream);
+        }
+        catch (IOException e)
+        {
+            outputStream.close();
+            if (!outputStream.isInMemory())
+            {
+                outputStream.getFile().delete();
+            }
+            throw e;
+        }
+        outputStream.close();
+
+        if (outputStream.isInMemory())
+        {
+            return new SpooledHttpPartContent(outputStream.getData(), null, outputStream.getByteCount());
+        }
+        return new SpooledHttpPartContent(null, outputStream.getFile(), outputStream.getByteCount());
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException
+    {
+        return file == null ? new ByteArrayInputStream(data) : new SpoolFileInputStream(new FileInputStream(file));
+    }
+
+    /**
+     * @return the number of bytes of the content
+     */
+    long getSize()
+    {
+        return size;
+    }
+
+    boolean isInMemory()
+    {
+        return file == null;
+    }
+
+    /**
+     * Removes the temporary file, if any. Deleting an already deleted content does nothing.
+     */
+    @Override
+    public void delete() throws IOException
+    {
+        if (file != null)
+        {
+            spoolFileReferences.remove(spoolFileReference);
+            spoolFileReference.clear();
+            if (file.exists() && !file.delete())
+            {
+                throw new IOException("Unable to delete temporary file " + file.getAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * Removes the temporary files of the contents which have been garbage collected.
+     */
+    static void deleteCollectedSpoolFiles()
+    {
+        SpoolFileReference reference;
+        while ((reference = (SpoolFileReference) collectedContents.poll()) != null)
+        {
+            spoolFileReferences.remove(reference);
+            if (reference.file.exists() && !reference.file.delete())
+            {
+                logger.warn("Unable to delete temporary file " + reference.file.getAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * Stream over the temporary file which keeps the content reachable while it's being read, so the file isn't
+     * removed under it.
+     */
+    private final class SpoolFileInputStream extends FilterInputStream
+    {
+
+        private SpoolFileInputStream(InputStream in)
+        {
+            super(in);
+        }
+    }
+
+    /**
+     * Phantom reference to a content, which keeps the file to delete once the content is garbage collected
+     */
+    private static final class SpoolFileReference extends PhantomReference<SpooledHttpPartContent>
+    {
+
+        private final File file;
+
+        private SpoolFileReference(SpooledHttpPartContent content, File file)
+        {
+            super(content, collectedContents);
+            this.file = file;
+        }
+    }
+}
@@ -8,7 +8,10 @@ package org.mule.runtime.module.http.internal.request.grizzly;
 
 import static com.ning.http.client.Realm.AuthScheme.NTLM;
 import static org.mule.runtime.module.http.api.HttpHeaders.Names.CONNECTION;
+import static org.mule.runtime.module.http.api.HttpHeaders.Names.CONTENT_TYPE;
 import static org.mule.runtime.module.http.api.HttpHeaders.Values.CLOSE;
+import static org.mule.runtime.module.http.internal.multipart.HttpMultipartEncoder.createFormDataContentStream;
+import static org.mule.runtime.module.http.internal.multipart.HttpMultipartEncoder.getFormDataContentType;
 
 import org.mule.compatibility.transport.socket.api.TcpClientSocketProperties;
 import org.mule.runtime.api.execution.CompletionHandler;
@@ -20,7 +23,6 @@ import org.mule.runtime.core.api.context.WorkManagerSource;
 import org.mule.runtime.core.api.lifecycle.InitialisationException;
 import org.mule.runtime.core.api.lifecycle.LifecycleUtils;
 import org.mule.runtime.core.config.i18n.CoreMessages;
-import org.mule.runtime.core.util.IOUtils;
 import org.mule.runtime.core.util.StringUtils;
 import org.mule.runtime.module.http.api.requester.proxy.ProxyConfig;
 import org.mule.runtime.module.http.internal.domain.ByteArrayHttpEntity;
@@ -31,7 +33,6 @@ import org.mule.runtime.module.http.internal.domain.request.HttpRequest;
 import org.mule.runtime.module.http.internal.domain.request.HttpRequestAuthentication;
 import org.mule.runtime.module.http.internal.domain.response.HttpResponse;
 import org.mule.runtime.module.http.internal.domain.response.HttpResponseBuilder;
-import org.mule.runtime.module.http.internal.multipart.HttpPart;
 import org.mule.runtime.module.http.internal.request.HttpAuthenticationType;
 import org.mule.runtime.module.http.internal.request.HttpClient;
 import org.mule.runtime.module.http.internal.request.HttpClientConfiguration;
@@ -47,7 +48,6 @@ import com.ning.http.client.Request;
 import com.ning.http.client.RequestBuilder;
 import com.ning.http.client.Response;
 import com.ning.http.client.generators.InputStreamBodyGenerator;
-import com.ning.http.client.multipart.ByteArrayPart;
 import com.ning.http.client.providers.grizzly.GrizzlyAsyncHttpProvider;
 import com.ning.http.client.providers.grizzly.GrizzlyAsyncHttpProviderConfig;
 
@@ -57,6 +57,7 @@ import java.net.UnknownHostException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
 
+import javax.mail.MessagingException;
 import javax.net.ssl.SSLContext;
 
 import org.slf4j.Logger;
@@ -410,18 +411,16 @@ public class GrizzlyHttpClient implements HttpClient
             else if (request.getEntity() instanceof MultipartHttpEntity)
             {
                 MultipartHttpEntity multipartHttpEntity = (MultipartHttpEntity) request.getEntity();
-
-                for (HttpPart part : multipartHttpEntity.getParts())
+                String contentType = getFormDataContentType(request.getHeaderValueIgnoreCase(CONTENT_TYPE));
+                try
+                {
+                    // The parts are streamed as they are sent instead of being copied to memory first
+                    builder.setHeader(CONTENT_TYPE, contentType);
+                    builder.setBody(new InputStreamBodyGenerator(createFormDataContentStream(multipartHttpEntity, contentType)));
+                }
+                catch (MessagingException e)
                 {
-                    if (part.getFileName() != null)
-                    {
-                        builder.addBodyPart(new ByteArrayPart(part.getName(), IOUtils.toByteArray(part.getInputStream()), part.getContentType(), null, part.getFileName()));
-                    }
-                    else
-                    {
-                        byte[] content = IOUtils.toByteArray(part.getInputStream());
-                        builder.addBodyPart(new ByteArrayPart(part.getName(), content, part.getContentType(), null));
-                    }
+                    throw new IOException(e);
                 }
             }
         }
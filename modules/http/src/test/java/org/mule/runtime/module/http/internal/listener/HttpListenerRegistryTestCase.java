@@ -283,6 +283,43 @@ public class HttpListenerRegistryTestCase extends AbstractMuleTestCase
         assertThat(requestHandler, is(instanceOf(NoListenerRequestHandler.class)));
     }
 
+    @Test
+    public void noMethodFound()
+    {
+        httpListenerRegistry = new HttpListenerRegistry();
+        httpListenerRegistry.addRequestHandler(testServer, mock(RequestHandler.class), new ListenerRequestMatcher(new MethodRequestMatcher(GET_METHOD), ANOTHER_PATH));
+        final HttpRequest request = createMockRequestWithPath(ANOTHER_PATH);
+        when(request.getMethod()).thenReturn(POST_METHOD);
+        assertThat(httpListenerRegistry.getRequestHandler(TEST_IP, TEST_PORT, request), is(instanceOf(NoMethodRequestHandler.class)));
+    }
+
+    @Test
+    public void stoppedRequestHandlerIsUnavailable()
+    {
+        httpListenerRegistry = new HttpListenerRegistry();
+        final RequestHandlerManager requestHandlerManager = httpListenerRegistry.addRequestHandler(testServer, mockRequestHandler, new ListenerRequestMatcher(AcceptsAllMethodsRequestMatcher.instance(), ANOTHER_PATH));
+        requestHandlerManager.stop();
+        assertThat(httpListenerRegistry.getRequestHandler(TEST_IP, TEST_PORT, createMockRequestWithPath(ANOTHER_PATH)), is(instanceOf(ServiceTemporarilyUnavailableListenerRequestHandler.class)));
+        requestHandlerManager.start();
+        assertThat(httpListenerRegistry.getRequestHandler(TEST_IP, TEST_PORT, createMockRequestWithPath(ANOTHER_PATH)), is(mockRequestHandler));
+    }
+
+    @Test
+    public void disposedRequestHandlerIsNotRouted()
+    {
+        httpListenerRegistry = new HttpListenerRegistry();
+        final RequestHandler catchAllRequestHandler = mock(RequestHandler.class);
+        httpListenerRegistry.addRequestHandler(testServer, catchAllRequestHandler, new ListenerRequestMatcher(AcceptsAllMethodsRequestMatcher.instance(), FIRST_LEVEL_CATCH_ALL));
+        final RequestHandlerManager requestHandlerManager = httpListenerRegistry.addRequestHandler(testServer, mockRequestHandler, new ListenerRequestMatcher(AcceptsAllMethodsRequestMatcher.instance(), SECOND_LEVEL_PATH));
+        assertThat(httpListenerRegistry.getRequestHandler(TEST_IP, TEST_PORT, createMockRequestWithPath(SECOND_LEVEL_PATH)), is(mockRequestHandler));
+        requestHandlerManager.dispose();
+        assertThat(httpListenerRegistry.getRequestHandler(TEST_IP, TEST_PORT, createMockRequestWithPath(SECOND_LEVEL_PATH)), is(catchAllRequestHandler));
+
+        // The path can be registered again once disposed
+        httpListenerRegistry.addRequestHandler(testServer, mockRequestHandler, new ListenerRequestMatcher(AcceptsAllMethodsRequestMatcher.instance(), SECOND_LEVEL_PATH));
+        assertThat(httpListenerRegistry.getRequestHandler(TEST_IP, TEST_PORT, createMockRequestWithPath(SECOND_LEVEL_PATH)), is(mockRequestHandler));
+    }
+
     private void routePath(String requestPath, String listenerPath)
     {
         assertThat(httpListenerRegistry.getRequestHandler(TEST_IP, TEST_PORT, createMockRequestWithPath(requestPath)), is(requestHandlerPerPath.get(listenerPath)));
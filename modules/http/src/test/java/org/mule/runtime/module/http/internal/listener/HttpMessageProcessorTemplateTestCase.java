@@ -6,6 +6,9 @@
  */
 package org.mule.runtime.module.http.internal.listener;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.core.IsSame.sameInstance;
 import static org.junit.Assert.assertThat;
@@ -22,6 +25,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.runtime.api.metadata.DataType.STRING_DATA_TYPE;
 import static org.mule.runtime.module.http.api.HttpConstants.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.mule.runtime.module.http.internal.multipart.HttpMultipartDecoder.parseMultipartContent;
+import static org.mule.runtime.module.http.internal.multipart.HttpPartDataSource.createDataHandlerFrom;
 import org.mule.runtime.core.api.MessagingException;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.MuleEvent;
@@ -30,16 +35,30 @@ import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.core.api.processor.MessageProcessor;
 import org.mule.runtime.core.config.i18n.CoreMessages;
 import org.mule.runtime.core.execution.ResponseCompletionCallback;
+import org.mule.runtime.core.util.concurrent.Latch;
 import org.mule.runtime.module.http.internal.domain.response.HttpResponse;
 import org.mule.runtime.module.http.internal.listener.async.HttpResponseReadyCallback;
 import org.mule.runtime.module.http.internal.listener.async.ResponseStatusCallback;
+import org.mule.runtime.module.http.internal.multipart.HttpPart;
+import org.mule.runtime.module.http.internal.multipart.HttpPartContent;
+import org.mule.runtime.module.http.internal.multipart.HttpPartDataSource;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
 import org.mule.runtime.api.message.NullPayload;
 
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import javax.activation.DataHandler;
+
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 
 @SmallTest
@@ -47,6 +66,12 @@ public class HttpMessageProcessorTemplateTestCase extends AbstractMuleTestCase
 {
 
     private static final String TEST_MESSAGE = "";
+    private static final String MULTIPART_CONTENT_TYPE = "multipart/form-data; boundary=xyz";
+    private static final int LARGE_PART_SIZE = 2 * 1024 * 1024;
+    private static final long READ_TIMEOUT = 5000;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
     @Test
     public void statusCodeOnFailures() throws Exception
@@ -125,6 +150,91 @@ public class HttpMessageProcessorTemplateTestCase extends AbstractMuleTestCase
         assertThat(httpResponseCaptor.getValue().getStatusCode(), is(INTERNAL_SERVER_ERROR.getStatusCode()));
     }
 
+    @Test
+    public void requestPartsCanBeReadAfterResponseIsSent() throws Exception
+    {
+        byte[] data = new byte[LARGE_PART_SIZE];
+        Arrays.fill(data, (byte) 'a');
+        String value = new String(data, ISO_8859_1);
+        String content = "--xyz\r\n" +
+                         "Content-Disposition: form-data; name=\"part\"\r\n" +
+                         "\r\n" +
+                         value + "\r\n" +
+                         "--xyz--\r\n";
+        Collection<HttpPart> parts = parseMultipartContent(new ByteArrayInputStream(content.getBytes(ISO_8859_1)), MULTIPART_CONTENT_TYPE, temporaryFolder.getRoot());
+        MuleEvent testEvent = createMockEvent();
+        mockInboundAttachments(testEvent, createDataHandlerFrom(parts));
+
+        HttpResponseReadyCallback responseReadyCallback = mock(HttpResponseReadyCallback.class);
+        ArgumentCaptor<ResponseStatusCallback> statusCallbackCaptor = ArgumentCaptor.forClass(ResponseStatusCallback.class);
+        doNothing().when(responseReadyCallback).responseReady(any(HttpResponse.class), statusCallbackCaptor.capture());
+
+        HttpMessageProcessorTemplate httpMessageProcessorTemplate = new HttpMessageProcessorTemplate(
+                testEvent,
+                mock(MessageProcessor.class),
+                responseReadyCallback,
+                null,
+                HttpResponseBuilder.emptyInstance(mock(MuleContext.class)));
+
+        // Like an async branch, which holds the part and reads it after the response has gone out
+        final DataHandler part = testEvent.getMessage().getInboundAttachment("part");
+        final Latch responseSent = new Latch();
+        ExecutorService asyncBranch = newSingleThreadExecutor();
+        try
+        {
+            Future<byte[]> readContent = asyncBranch.submit(() ->
+            {
+                responseSent.await();
+                return ((HttpPartDataSource) part.getDataSource()).getContent();
+            });
+
+            httpMessageProcessorTemplate.sendFailureResponseToClient(
+                    new MessagingException(CoreMessages.createStaticMessage(TEST_MESSAGE), testEvent), mock(ResponseCompletionCallback.class));
+            statusCallbackCaptor.getValue().responseSendSuccessfully();
+            responseSent.release();
+
+            assertThat(new String(readContent.get(READ_TIMEOUT, MILLISECONDS), ISO_8859_1), is(value));
+        }
+        finally
+        {
+            asyncBranch.shutdownNow();
+        }
+    }
+
+    @Test
+    public void deletesThrottledRequestPartsOnceResponseIsSent() throws Exception
+    {
+        MuleEvent testEvent = createMockEvent();
+        HttpPartContent partContent = mock(HttpPartContent.class);
+        mockInboundAttachments(testEvent, createDataHandlerFrom(Collections.singletonList(new HttpPart("part", null, partContent, "text/plain", 0))));
+
+        HttpResponseReadyCallback responseReadyCallback = mock(HttpResponseReadyCallback.class);
+        ArgumentCaptor<ResponseStatusCallback> statusCallbackCaptor = ArgumentCaptor.forClass(ResponseStatusCallback.class);
+        doNothing().when(responseReadyCallback).responseReady(any(HttpResponse.class), statusCallbackCaptor.capture());
+
+        HttpMessageProcessorTemplate httpMessageProcessorTemplate = new HttpMessageProcessorTemplate(
+                testEvent,
+                mock(MessageProcessor.class),
+                responseReadyCallback,
+                null,
+                HttpResponseBuilder.emptyInstance(mock(MuleContext.class)));
+
+        httpMessageProcessorTemplate.discardMessageOnThrottlingExceeded();
+        verify(partContent, never()).delete();
+
+        statusCallbackCaptor.getValue().responseSendSuccessfully();
+        verify(partContent).delete();
+    }
+
+    private void mockInboundAttachments(MuleEvent testEvent, Map<String, DataHandler> attachments)
+    {
+        when(testEvent.getMessage().getInboundAttachmentNames()).thenReturn(attachments.keySet());
+        for (Map.Entry<String, DataHandler> attachment : attachments.entrySet())
+        {
+            when(testEvent.getMessage().getInboundAttachment(attachment.getKey())).thenReturn(attachment.getValue());
+        }
+    }
+
     private MuleEvent createMockEvent()
     {
         MuleMessage testMessage = mock(MuleMessage.class);
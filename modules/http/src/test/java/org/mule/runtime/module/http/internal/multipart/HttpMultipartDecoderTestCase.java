@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.http.internal.multipart;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.module.http.internal.multipart.HttpMultipartDecoder.deleteCollectedParts;
+import static org.mule.runtime.module.http.internal.multipart.HttpMultipartDecoder.parseMultipartContent;
+import org.mule.runtime.core.util.IOUtils;
+import org.mule.runtime.module.http.internal.domain.MultipartHttpEntity;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class HttpMultipartDecoderTestCase extends AbstractMuleTestCase
+{
+
+    private static final String CONTENT_TYPE = "multipart/form-data; boundary=xyz";
+    private static final int COLLECTION_TIMEOUT = 10000;
+    private static final int COLLECTION_POLLING_INTERVAL = 100;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void parsesParts() throws Exception
+    {
+        List<HttpPart> parts = parse("--xyz\r\n" +
+                                     "Content-Disposition: form-data; name=\"field\"\r\n" +
+                                     "\r\n" +
+                                     "value\r\n" +
+                                     "--xyz\r\n" +
+                                     "Content-Disposition: form-data; name=\"file\"; filename=\"file.txt\"\r\n" +
+                                     "Content-Type: text/csv\r\n" +
+                                     "\r\n" +
+                                     "a,b\r\nc,d\r\n" +
+                                     "--xyz--\r\n", 1024);
+
+        assertThat(parts, hasSize(2));
+        assertThat(parts.get(0).getName(), is("field"));
+        assertThat(parts.get(0).getFileName(), is(nullValue()));
+        assertThat(parts.get(0).getContentType(), is("text/plain"));
+        assertThat(content(parts.get(0)), is("value"));
+        assertThat(parts.get(1).getName(), is("file"));
+        assertThat(parts.get(1).getFileName(), is("file.txt"));
+        assertThat(parts.get(1).getContentType(), is("text/csv"));
+        assertThat(parts.get(1).getHeader("Content-Type"), is("text/csv"));
+        assertThat(content(parts.get(1)), is("a,b\r\nc,d"));
+        assertThat(parts.get(1).getSize(), is(8L));
+    }
+
+    @Test
+    public void skipsPreambleAndEpilogue() throws Exception
+    {
+        List<HttpPart> parts = parse("preamble\r\n" +
+                                     "--xyz\r\n" +
+                                     "Content-Disposition: form-data; name=\"field\"\r\n" +
+                                     "\r\n" +
+                                     "value\r\n" +
+                                     "--xyz--\r\n" +
+                                     "epilogue", 1024);
+
+        assertThat(parts, hasSize(1));
+        assertThat(content(parts.get(0)), is("value"));
+    }
+
+    @Test
+    public void acceptsLineFeedsAndFoldedHeaders() throws Exception
+    {
+        List<HttpPart> parts = parse("--xyz\n" +
+                                     "Content-Disposition: form-data;\n" +
+                                     " name=\"field\"\n" +
+                                     "\n" +
+                                     "value\n" +
+                                     "--xyz--\n", 1024);
+
+        assertThat(parts, hasSize(1));
+        assertThat(parts.get(0).getName(), is("field"));
+        assertThat(content(parts.get(0)), is("value"));
+    }
+
+    @Test
+    public void decodesTransferEncoding() throws Exception
+    {
+        List<HttpPart> parts = parse("--xyz\r\n" +
+                                     "Content-Disposition: form-data; name=\"field\"\r\n" +
+                                     "Content-Transfer-Encoding: base64\r\n" +
+                                     "\r\n" +
+                                     "dmFsdWU=\r\n" +
+                                     "--xyz--\r\n", 1024);
+
+        assertThat(content(parts.get(0)), is("value"));
+    }
+
+    @Test
+    public void spoolsLargePartsToDisk() throws Exception
+    {
+        byte[] data = new byte[64 * 1024];
+        Arrays.fill(data, (byte) 'a');
+        String value = new String(data, ISO_8859_1);
+
+        List<HttpPart> parts = parse("--xyz\r\n" +
+                                     "Content-Disposition: form-data; name=\"field\"\r\n" +
+                                     "\r\n" +
+                                     value + "\r\n" +
+                                     "--xyz--\r\n", 1024);
+
+        File spoolDirectory = getSpoolDirectory();
+        assertThat(parts.get(0).getSize(), is((long) data.length));
+        assertThat(content(parts.get(0)), is(value));
+        assertThat(spoolDirectory.listFiles(), arrayWithSize(1));
+
+        parts.get(0).delete();
+        assertThat(spoolDirectory.listFiles(), arrayWithSize(0));
+        parts.get(0).delete();
+    }
+
+    @Test
+    public void deletesSpoolFileOnceContentIsNoLongerReferenced() throws Exception
+    {
+        byte[] data = new byte[64 * 1024];
+        Arrays.fill(data, (byte) 'a');
+        String value = new String(data, ISO_8859_1);
+
+        List<HttpPart> parts = parse("--xyz\r\n" +
+                                     "Content-Disposition: form-data; name=\"field\"\r\n" +
+                                     "\r\n" +
+                                     value + "\r\n" +
+                                     "--xyz--\r\n", 1024);
+
+        final File spoolDirectory = getSpoolDirectory();
+        InputStream content = parts.get(0).getInputStream();
+        parts = null;
+
+        // The open stream keeps the content, and so its file, alive
+        System.gc();
+        deleteCollectedParts();
+        assertThat(spoolDirectory.listFiles(), arrayWithSize(1));
+        assertThat(new String(IOUtils.toByteArray(content), ISO_8859_1), is(value));
+        content.close();
+        content = null;
+
+        new PollingProber(COLLECTION_TIMEOUT, COLLECTION_POLLING_INTERVAL).check(new JUnitLambdaProbe(() ->
+        {
+            System.gc();
+            deleteCollectedParts();
+            return spoolDirectory.listFiles().length == 0;
+        }, "Spool file was not deleted once its content was collected"));
+    }
+
+    @Test
+    public void toleratesMissingEndBoundary() throws Exception
+    {
+        List<HttpPart> parts = parse("--xyz\r\n" +
+                                     "Content-Disposition: form-data; name=\"field\"\r\n" +
+                                     "\r\n" +
+                                     "value", 1024);
+
+        assertThat(parts, hasSize(1));
+        assertThat(content(parts.get(0)), is("value"));
+    }
+
+    @Test(expected = IOException.class)
+    public void failsWithoutStartBoundary() throws Exception
+    {
+        parse("value", 1024);
+    }
+
+    @Test
+    public void decodesEncodedContent() throws Exception
+    {
+        List<HttpPart> parts = new ArrayList<>();
+        parts.add(new HttpPart("field", "value\r\n--xy".getBytes(), "text/plain", 11));
+        parts.add(new HttpPart("file", "file.bin", new byte[] {0, 13, 10, 45, 45}, "application/octet-stream", 5));
+        InputStream encoded = HttpMultipartEncoder.createMultipartContentStream(new MultipartHttpEntity(parts), CONTENT_TYPE);
+
+        List<HttpPart> decoded = new ArrayList<>(parseMultipartContent(encoded, CONTENT_TYPE, getSpoolDirectory(), 2));
+
+        assertThat(decoded, hasSize(2));
+        assertThat(content(decoded.get(0)), is("value\r\n--xy"));
+        assertThat(decoded.get(1).getFileName(), is("file.bin"));
+        assertThat(IOUtils.toByteArray(decoded.get(1).getInputStream()), equalTo(new byte[] {0, 13, 10, 45, 45}));
+    }
+
+    private List<HttpPart> parse(String content, int memoryThreshold) throws IOException
+    {
+        return new ArrayList<>(parseMultipartContent(new ByteArrayInputStream(content.getBytes(ISO_8859_1)), CONTENT_TYPE, getSpoolDirectory(), memoryThreshold));
+    }
+
+    private File getSpoolDirectory()
+    {
+        return new File(temporaryFolder.getRoot(), "spool");
+    }
+
+    private String content(HttpPart part) throws IOException
+    {
+        return new String(IOUtils.toByteArray(part.getInputStream()), ISO_8859_1);
+    }
+}
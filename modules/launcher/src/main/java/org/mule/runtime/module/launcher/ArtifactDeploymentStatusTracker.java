@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.module.launcher;
 
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
 import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -27,25 +29,47 @@ public class ArtifactDeploymentStatusTracker  extends AbstractDeploymentListener
     }
 
     protected Map<String, DeploymentState> deploymentStates = new ConcurrentHashMap<String, DeploymentState>();
+    private final Map<String, Long> deploymentStartTimes = new ConcurrentHashMap<String, Long>();
+    private final Map<String, Long> deploymentTimes = new ConcurrentHashMap<String, Long>();
 
     public Map<String, DeploymentState> getDeploymentStates()
     {
         return Collections.unmodifiableMap(deploymentStates);
     }
 
+    /**
+     * @return the milliseconds taken by the last finished deployment of each artifact
+     */
+    public Map<String, Long> getDeploymentTimes()
+    {
+        return Collections.unmodifiableMap(deploymentTimes);
+    }
+
     public void onDeploymentStart(String artifactName)
     {
         deploymentStates.put(artifactName, DeploymentState.DEPLOYING);
+        deploymentStartTimes.put(artifactName, System.nanoTime());
     }
 
     public void onDeploymentSuccess(String artifactName)
     {
         deploymentStates.put(artifactName, DeploymentState.DEPLOYED);
+        recordDeploymentTime(artifactName);
     }
 
     public void onDeploymentFailure(String artifactName, Throwable failureCause)
     {
         deploymentStates.put(artifactName, DeploymentState.FAILED);
+        recordDeploymentTime(artifactName);
+    }
+
+    private void recordDeploymentTime(String artifactName)
+    {
+        Long startTime = deploymentStartTimes.remove(artifactName);
+        if (startTime != null)
+        {
+            deploymentTimes.put(artifactName, NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        }
     }
 
 }
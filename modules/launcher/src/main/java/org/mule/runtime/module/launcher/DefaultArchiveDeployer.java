@@ -7,6 +7,7 @@
 package org.mule.runtime.module.launcher;
 
 import static org.mule.runtime.core.util.SplashScreen.miniSplash;
+import static org.mule.runtime.module.launcher.ParallelDeploymentExecutor.isDeployingOnBehalfOf;
 import org.mule.runtime.core.config.i18n.CoreMessages;
 import org.mule.runtime.core.config.i18n.MessageFactory;
 import org.mule.runtime.core.util.CollectionUtils;
@@ -24,6 +25,7 @@ import java.net.URL;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -50,7 +52,7 @@ public class DefaultArchiveDeployer<T extends DeployableArtifact> implements Arc
     private final ArtifactDeployer<T> deployer;
     private final ArtifactArchiveInstaller artifactArchiveInstaller;
     private final ReentrantLock deploymentLock;
-    private final Map<String, ZombieFile> artifactZombieMap = new HashMap<String, ZombieFile>();
+    private final Map<String, ZombieFile> artifactZombieMap = new ConcurrentHashMap<String, ZombieFile>();
     private final File artifactDir;
     private final ObservableList<T> artifacts;
     private final ArtifactDeploymentTemplate deploymentTemplate;
@@ -207,7 +209,7 @@ public class DefaultArchiveDeployer<T extends DeployableArtifact> implements Arc
         logRequestToUndeployArtifact(artifact);
         try
         {
-            if (!deploymentLock.tryLock(0, TimeUnit.SECONDS))
+            if (!lockDeployment())
             {
                 return;
             }
@@ -234,6 +236,16 @@ public class DefaultArchiveDeployer<T extends DeployableArtifact> implements Arc
         }
     }
 
+    /**
+     * Tries to get the deployment lock, unless the current thread deploys on behalf of its owner
+     *
+     * @return true if the deployment can proceed
+     */
+    private boolean lockDeployment() throws InterruptedException
+    {
+        return isDeployingOnBehalfOf(deploymentLock) || deploymentLock.tryLock(0, TimeUnit.SECONDS);
+    }
+
     ArtifactDeployer getDeployer()
     {
         return deployer;
@@ -317,7 +329,7 @@ public class DefaultArchiveDeployer<T extends DeployableArtifact> implements Arc
     {
         try
         {
-            if (!deploymentLock.tryLock(0, TimeUnit.SECONDS))
+            if (!lockDeployment())
             {
                 return;
             }
@@ -387,7 +399,6 @@ public class DefaultArchiveDeployer<T extends DeployableArtifact> implements Arc
 
     private void addZombieFile(String artifactName, File marker)
     {
-        // no sync required as deploy operations are single-threaded
         if (marker == null)
         {
             return;
@@ -467,7 +478,7 @@ public class DefaultArchiveDeployer<T extends DeployableArtifact> implements Arc
     {
         try
         {
-            if (!deploymentLock.tryLock(0, TimeUnit.SECONDS))
+            if (!lockDeployment())
             {
                 throw new IOException(ANOTHER_DEPLOYMENT_OPERATION_IS_IN_PROGRESS);
             }
@@ -497,7 +508,7 @@ public class DefaultArchiveDeployer<T extends DeployableArtifact> implements Arc
     {
         try
         {
-            if (!deploymentLock.tryLock(0, TimeUnit.SECONDS))
+            if (!lockDeployment())
             {
                 return;
             }
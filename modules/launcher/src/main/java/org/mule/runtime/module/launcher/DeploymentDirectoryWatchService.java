@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.launcher;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.module.launcher.DefaultArchiveDeployer.ZIP_FILE_SUFFIX;
+import static org.mule.runtime.module.launcher.DeploymentDirectoryWatcher.ARTIFACT_ANCHOR_SUFFIX;
+import org.mule.runtime.core.util.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Notifies the changes done on the deployment directories using the file system
+ * {@link WatchService}, so they don't need to be scanned periodically.
+ * <p/>
+ * Watches the deployment directories, to find added, removed and updated artifacts, and the
+ * directories of each artifact along with their subdirectories, to find changes on its config
+ * resources and on artifacts still being copied. Changes are reported by the name of the
+ * artifact they belong to.
+ */
+class DeploymentDirectoryWatchService
+{
+
+    /**
+     * Time without new events before reporting the changes, so files being copied are reported
+     * once they are complete
+     */
+    static final long SETTLE_TIME_MS = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(DeploymentDirectoryWatchService.class);
+
+    private final WatchService watchService;
+    private final Map<WatchKey, WatchedDirectory> watchedDirectories = new ConcurrentHashMap<>();
+    private final long maxBatchTime;
+
+    /**
+     * Creates a new instance
+     *
+     * @param maxBatchTime milliseconds after which changes are reported even if new events keep
+     *                     arriving, so changes are checked at least as often as when scanning
+     * @throws IOException if the file system doesn't provide a native watch service
+     */
+    DeploymentDirectoryWatchService(long maxBatchTime) throws IOException
+    {
+        this.maxBatchTime = maxBatchTime;
+        watchService = FileSystems.getDefault().newWatchService();
+
+        // the JDK polls the file system when there is no native support, less often than the scanner
+        if (watchService.getClass().getSimpleName().startsWith("Polling"))
+        {
+            watchService.close();
+            throw new IOException("File system doesn't support native file change notifications");
+        }
+    }
+
+    /**
+     * Watches the files and directories added, removed or updated on a deployment directory.
+     *
+     * @param deploymentDirectory directory where the artifacts are deployed
+     * @throws IOException if the directory cannot be watched
+     */
+    void watchDeploymentDirectory(File deploymentDirectory) throws IOException
+    {
+        watch(deploymentDirectory, new WatchedDirectory(deploymentDirectory, null));
+    }
+
+    /**
+     * Watches a directory containing files of an artifact, and its subdirectories, including the
+     * ones created later. Watching stops when the directory is removed.
+     *
+     * @param deploymentDirectory directory where the artifact is deployed
+     * @param artifactName        name of the artifact
+     * @param directory           directory to watch
+     * @throws IOException if the directory cannot be watched
+     */
+    void watchArtifactDirectory(File deploymentDirectory, String artifactName, File directory) throws IOException
+    {
+        final WatchedDirectory watchedDirectory = new WatchedDirectory(deploymentDirectory, artifactName);
+        Files.walkFileTree(directory.toPath(), new SimpleFileVisitor<Path>()
+        {
+            @Override
+            public FileVisitResult preVisitDirectory(Path subdirectory, BasicFileAttributes attributes) throws IOException
+            {
+                watch(subdirectory.toFile(), watchedDirectory);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void watch(File directory, WatchedDirectory watchedDirectory) throws IOException
+    {
+        WatchKey key = directory.toPath().register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+        watchedDirectories.put(key, watchedDirectory);
+    }
+
+    /**
+     * Waits for changes on the watched directories. Once there is one, waits for the changes to
+     * settle, for at most the max batch time. If changes are still arriving by then, every
+     * artifact is reported as changed.
+     *
+     * @param timeout milliseconds to wait for a change. Negative to wait until there is one.
+     * @return the changes found, which are empty if the timeout elapses before any change
+     * @throws InterruptedException if interrupted while waiting
+     * @throws java.nio.file.ClosedWatchServiceException if closed while waiting
+     */
+    Changes waitForChanges(long timeout) throws InterruptedException
+    {
+        Changes changes = new Changes();
+
+        WatchKey key = timeout < 0 ? watchService.take() : watchService.poll(timeout, MILLISECONDS);
+        long batchStart = System.nanoTime();
+        while (key != null)
+        {
+            processEvents(key, changes);
+            if (System.nanoTime() - batchStart >= MILLISECONDS.toNanos(maxBatchTime))
+            {
+                // files keep changing, like logs written inside an artifact, so all of them are checked
+                changes.all = true;
+                break;
+            }
+            key = watchService.poll(SETTLE_TIME_MS, MILLISECONDS);
+        }
+
+        return changes;
+    }
+
+    private void processEvents(WatchKey key, Changes changes)
+    {
+        WatchedDirectory watchedDirectory = watchedDirectories.get(key);
+
+        for (WatchEvent<?> event : key.pollEvents())
+        {
+            if (event.kind() == OVERFLOW)
+            {
+                changes.all = true;
+            }
+            else if (watchedDirectory != null)
+            {
+                Path fileName = (Path) event.context();
+                if (watchedDirectory.artifactName == null)
+                {
+                    String artifactName = getArtifactName(fileName.toString());
+                    changes.add(watchedDirectory.deploymentDirectory, artifactName);
+
+                    File file = new File(watchedDirectory.deploymentDirectory, fileName.toString());
+                    if (event.kind() == ENTRY_CREATE && file.isDirectory())
+                    {
+                        watchNewArtifactDirectory(watchedDirectory.deploymentDirectory, artifactName, file);
+                    }
+                }
+                else
+                {
+                    changes.add(watchedDirectory.deploymentDirectory, watchedDirectory.artifactName);
+
+                    File file = ((Path) key.watchable()).resolve(fileName).toFile();
+                    if (event.kind() == ENTRY_CREATE && file.isDirectory())
+                    {
+                        watchNewArtifactDirectory(watchedDirectory.deploymentDirectory, watchedDirectory.artifactName, file);
+                    }
+                }
+            }
+        }
+
+        if (!key.reset())
+        {
+            watchedDirectories.remove(key);
+        }
+    }
+
+    private void watchNewArtifactDirectory(File deploymentDirectory, String artifactName, File directory)
+    {
+        try
+        {
+            watchArtifactDirectory(deploymentDirectory, artifactName, directory);
+        }
+        catch (IOException e)
+        {
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Cannot watch artifact directory " + directory, e);
+            }
+        }
+    }
+
+    private String getArtifactName(String fileName)
+    {
+        return StringUtils.removeEnd(StringUtils.removeEnd(fileName, ZIP_FILE_SUFFIX), ARTIFACT_ANCHOR_SUFFIX);
+    }
+
+    /**
+     * Stops watching the directories. Threads waiting for changes get a
+     * {@link java.nio.file.ClosedWatchServiceException}.
+     */
+    void close()
+    {
+        try
+        {
+            watchService.close();
+        }
+        catch (IOException e)
+        {
+            logger.warn("Error closing deployment directory watch service", e);
+        }
+        watchedDirectories.clear();
+    }
+
+    /**
+     * Artifacts changed on each deployment directory
+     */
+    static class Changes
+    {
+
+        private final Map<File, Set<String>> changedArtifacts = new HashMap<>();
+        private boolean all;
+
+        /**
+         * @return changes including every artifact, used when the changes are unknown
+         */
+        static Changes all()
+        {
+            Changes changes = new Changes();
+            changes.all = true;
+            return changes;
+        }
+
+        boolean isEmpty()
+        {
+            return !all && changedArtifacts.isEmpty();
+        }
+
+        /**
+         * @param deploymentDirectory directory where the artifact is deployed
+         * @param artifactName        name of the artifact
+         * @return true if the artifact may have changed
+         */
+        boolean isChanged(File deploymentDirectory, String artifactName)
+        {
+            return all || changedArtifacts.getOrDefault(deploymentDirectory, Collections.emptySet()).contains(artifactName);
+        }
+
+        /**
+         * Adds the changes found later
+         *
+         * @param changes changes to add
+         */
+        void merge(Changes changes)
+        {
+            all |= changes.all;
+            for (Map.Entry<File, Set<String>> entry : changes.changedArtifacts.entrySet())
+            {
+                for (String artifactName : entry.getValue())
+                {
+                    add(entry.getKey(), artifactName);
+                }
+            }
+        }
+
+        private void add(File deploymentDirectory, String artifactName)
+        {
+            changedArtifacts.computeIfAbsent(deploymentDirectory, directory -> new HashSet<>()).add(artifactName);
+        }
+    }
+
+    private static class WatchedDirectory
+    {
+
+        private final File deploymentDirectory;
+        private final String artifactName;
+
+        WatchedDirectory(File deploymentDirectory, String artifactName)
+        {
+            this.deploymentDirectory = deploymentDirectory;
+            this.artifactName = artifactName;
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.mule.runtime.core.util.ArrayUtils;
 import org.mule.runtime.core.util.CollectionUtils;
 import org.mule.runtime.core.util.StringUtils;
 import org.mule.runtime.module.artifact.Artifact;
+import org.mule.runtime.module.launcher.DeploymentDirectoryWatchService.Changes;
 import org.mule.runtime.module.launcher.application.Application;
 import org.mule.runtime.module.launcher.artifact.DeployableArtifact;
 import org.mule.runtime.module.launcher.descriptor.DeployableArtifactDescriptor;
@@ -26,13 +27,19 @@ import org.mule.runtime.module.launcher.util.ObservableList;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -54,12 +61,24 @@ import org.slf4j.LoggerFactory;
  * It will periodically scan the artifact directories in order to process new deployments,
  * remove artifacts that were previously deployed but the anchor file was removed and redeploy
  * those applications which configuration has changed.
+ * <p/>
+ * When the file system supports it, the artifact directories are scanned only after being
+ * notified of a change by a {@link DeploymentDirectoryWatchService}, and only the artifacts
+ * that changed are checked for redeployment. Periodic scanning is used otherwise, or when
+ * {@link #WATCH_DEPLOYMENT_DIRECTORIES_PROPERTY} is false.
+ * <p/>
+ * When {@link #PARALLEL_DEPLOYMENT_PROPERTY} is enabled, the artifacts found at startup are
+ * deployed in parallel: first all the domains, and then all the applications, as they depend
+ * on their domains.
  */
 public class DeploymentDirectoryWatcher implements Runnable
 {
 
     public static final String ARTIFACT_ANCHOR_SUFFIX = "-anchor.txt";
     public static final String CHANGE_CHECK_INTERVAL_PROPERTY = "mule.launcher.changeCheckInterval";
+    public static final String PARALLEL_DEPLOYMENT_PROPERTY = "mule.launcher.parallelDeployment";
+    public static final String PARALLEL_DEPLOYMENT_THREADS_PROPERTY = "mule.launcher.parallelDeployment.threads";
+    public static final String WATCH_DEPLOYMENT_DIRECTORIES_PROPERTY = "mule.launcher.watchDeploymentDirectories";
     public static final IOFileFilter ZIP_ARTIFACT_FILTER = new AndFileFilter(new SuffixFileFilter(ZIP_FILE_SUFFIX), FileFileFilter.FILE);
     protected static final int DEFAULT_CHANGES_CHECK_INTERVAL_MS = 5000;
 
@@ -75,6 +94,7 @@ public class DeploymentDirectoryWatcher implements Runnable
     private final File appsDir;
     private final File domainsDir;
     private ScheduledExecutorService artifactDirMonitorTimer;
+    private volatile DeploymentDirectoryWatchService watchService;
 
     protected volatile boolean dirty;
 
@@ -99,6 +119,10 @@ public class DeploymentDirectoryWatcher implements Runnable
                     }
                     dirty = true;
                 }
+                if (e instanceof ElementAddedEvent)
+                {
+                    watchArtifact(appsDir, (Artifact) e.getNewValue());
+                }
             }
         });
         domains.addPropertyChangeListener(new PropertyChangeListener()
@@ -113,6 +137,10 @@ public class DeploymentDirectoryWatcher implements Runnable
                     }
                     dirty = true;
                 }
+                if (e instanceof ElementAddedEvent)
+                {
+                    watchArtifact(domainsDir, (Artifact) e.getNewValue());
+                }
             }
         });
         this.applicationTimestampListener = new ArtifactTimestampListener(applications);
@@ -122,7 +150,8 @@ public class DeploymentDirectoryWatcher implements Runnable
     /**
      * Starts the process of deployment / undeployment of artifact.
      * <p/>
-     * It wil schedule a task for periodically scan the deployment directories.
+     * It wil schedule a task for periodically scan the deployment directories, or to scan
+     * them when notified of a change.
      */
     public void start()
     {
@@ -133,22 +162,41 @@ public class DeploymentDirectoryWatcher implements Runnable
         final Map<String, Object> options = StartupContext.get().getStartupOptions();
         String appString = (String) options.get("app");
 
+        ParallelDeploymentExecutor parallelDeploymentExecutor = null;
         try
         {
+            if (isParallelDeploymentEnabled())
+            {
+                parallelDeploymentExecutor = new ParallelDeploymentExecutor(deploymentLock, getParallelDeploymentThreads());
+            }
 
             String[] explodedDomains = domainsDir.list(DirectoryFileFilter.DIRECTORY);
             String[] packagedDomains = domainsDir.list(ZIP_ARTIFACT_FILTER);
 
-            deployPackedDomains(packagedDomains);
-            deployExplodedDomains(explodedDomains);
+            if (parallelDeploymentExecutor != null)
+            {
+                deployInParallel(parallelDeploymentExecutor, packagedDomains, explodedDomains, domainArchiveDeployer);
+            }
+            else
+            {
+                deployPackedDomains(packagedDomains);
+                deployExplodedDomains(explodedDomains);
+            }
 
             if (appString == null)
             {
                 String[] explodedApps = appsDir.list(DirectoryFileFilter.DIRECTORY);
                 String[] packagedApps = appsDir.list(ZIP_ARTIFACT_FILTER);
 
-                deployPackedApps(packagedApps);
-                deployExplodedApps(explodedApps);
+                if (parallelDeploymentExecutor != null)
+                {
+                    deployInParallel(parallelDeploymentExecutor, packagedApps, explodedApps, applicationArchiveDeployer);
+                }
+                else
+                {
+                    deployPackedApps(packagedApps);
+                    deployExplodedApps(explodedApps);
+                }
             }
             else
             {
@@ -179,6 +227,10 @@ public class DeploymentDirectoryWatcher implements Runnable
         }
         finally
         {
+            if (parallelDeploymentExecutor != null)
+            {
+                parallelDeploymentExecutor.dispose();
+            }
             if (deploymentLock.isHeldByCurrentThread())
             {
                 deploymentLock.unlock();
@@ -221,9 +273,10 @@ public class DeploymentDirectoryWatcher implements Runnable
 
     private void stopArtifacts(List<? extends DeployableArtifact> artifacts)
     {
-        Collections.reverse(artifacts);
+        List<DeployableArtifact> reversedArtifacts = new ArrayList<>(artifacts);
+        Collections.reverse(reversedArtifacts);
 
-        for (DeployableArtifact artifact : artifacts)
+        for (DeployableArtifact artifact : reversedArtifacts)
         {
             try
             {
@@ -250,11 +303,38 @@ public class DeploymentDirectoryWatcher implements Runnable
         }
     }
 
+    private static boolean isParallelDeploymentEnabled()
+    {
+        return Boolean.getBoolean(PARALLEL_DEPLOYMENT_PROPERTY);
+    }
+
+    private static int getParallelDeploymentThreads()
+    {
+        return Math.max(1, Integer.getInteger(PARALLEL_DEPLOYMENT_THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+    }
+
+    private static boolean isWatchDeploymentDirectoriesEnabled()
+    {
+        return Boolean.parseBoolean(System.getProperty(WATCH_DEPLOYMENT_DIRECTORIES_PROPERTY, "true"));
+    }
+
     private void scheduleChangeMonitor()
     {
         final int reloadIntervalMs = getChangesCheckIntervalMs();
         artifactDirMonitorTimer = Executors.newSingleThreadScheduledExecutor(new ArtifactDeployerMonitorThreadFactory());
 
+        final DeploymentDirectoryWatchService watchService = isWatchDeploymentDirectoriesEnabled() ? createWatchService(reloadIntervalMs) : null;
+        if (watchService != null)
+        {
+            artifactDirMonitorTimer.execute(() -> watchDeploymentDirectories(watchService, reloadIntervalMs));
+
+            if (logger.isInfoEnabled())
+            {
+                logger.info(miniSplash("Mule is up and kicking (watching for changes)"));
+            }
+            return;
+        }
+
         artifactDirMonitorTimer.scheduleWithFixedDelay(this,
                                                        0,
                                                        reloadIntervalMs,
@@ -266,6 +346,122 @@ public class DeploymentDirectoryWatcher implements Runnable
         }
     }
 
+    private DeploymentDirectoryWatchService createWatchService(int reloadIntervalMs)
+    {
+        DeploymentDirectoryWatchService watchService = null;
+        try
+        {
+            watchService = new DeploymentDirectoryWatchService(reloadIntervalMs);
+            watchService.watchDeploymentDirectory(domainsDir);
+            watchService.watchDeploymentDirectory(appsDir);
+        }
+        catch (IOException e)
+        {
+            if (watchService != null)
+            {
+                watchService.close();
+            }
+            logger.info("Cannot watch the deployment directories, they will be scanned periodically: " + e.getMessage());
+            return null;
+        }
+
+        this.watchService = watchService;
+
+        // artifacts that failed to deploy are redeployed once their directories change
+        watchArtifactDirectories(domainsDir);
+        watchArtifactDirectories(appsDir);
+        for (Domain domain : domains)
+        {
+            watchArtifact(domainsDir, domain);
+        }
+        for (Application application : applications)
+        {
+            watchArtifact(appsDir, application);
+        }
+
+        return watchService;
+    }
+
+    private void watchArtifactDirectories(File deploymentDir)
+    {
+        for (String artifactName : deploymentDir.list(DirectoryFileFilter.DIRECTORY))
+        {
+            watchArtifactDirectory(deploymentDir, artifactName, new File(deploymentDir, artifactName));
+        }
+    }
+
+    private void watchArtifact(File deploymentDir, Artifact artifact)
+    {
+        if (watchService == null)
+        {
+            return;
+        }
+
+        Set<File> artifactDirectories = new HashSet<>();
+        artifactDirectories.add(new File(deploymentDir, artifact.getArtifactName()));
+        for (File resourceFile : artifact.getResourceFiles())
+        {
+            artifactDirectories.add(resourceFile.getParentFile());
+        }
+
+        for (File artifactDirectory : artifactDirectories)
+        {
+            if (artifactDirectory.isDirectory())
+            {
+                watchArtifactDirectory(deploymentDir, artifact.getArtifactName(), artifactDirectory);
+            }
+        }
+    }
+
+    private void watchArtifactDirectory(File deploymentDir, String artifactName, File artifactDirectory)
+    {
+        DeploymentDirectoryWatchService watchService = this.watchService;
+        if (watchService == null)
+        {
+            return;
+        }
+
+        try
+        {
+            watchService.watchArtifactDirectory(deploymentDir, artifactName, artifactDirectory);
+        }
+        catch (IOException | ClosedWatchServiceException e)
+        {
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Cannot watch artifact directory " + artifactDirectory, e);
+            }
+        }
+    }
+
+    private void watchDeploymentDirectories(DeploymentDirectoryWatchService watchService, int retryIntervalMs)
+    {
+        // changes done before watching the directories are not notified
+        Changes pendingChanges = Changes.all();
+        try
+        {
+            while (true)
+            {
+                if (!pendingChanges.isEmpty() && checkForChanges(pendingChanges))
+                {
+                    pendingChanges = new Changes();
+                }
+
+                // if another deployment operation is in progress, checks again later
+                pendingChanges.merge(watchService.waitForChanges(pendingChanges.isEmpty() ? -1 : retryIntervalMs));
+            }
+        }
+        catch (InterruptedException e)
+        {
+            // preserve the flag for the thread
+            Thread.currentThread().interrupt();
+        }
+        catch (ClosedWatchServiceException e)
+        {
+            // stopped
+        }
+    }
+
     private void deployPackedApps(String[] zips)
     {
         for (String zip : zips)
@@ -281,6 +477,27 @@ public class DeploymentDirectoryWatcher implements Runnable
         }
     }
 
+    private void deployInParallel(ParallelDeploymentExecutor parallelDeploymentExecutor, String[] zips, String[] explodedArtifacts, ArchiveDeployer<?> archiveDeployer)
+    {
+        List<Runnable> deployments = new ArrayList<>();
+        Set<String> packagedArtifacts = new HashSet<>();
+        for (String zip : zips)
+        {
+            packagedArtifacts.add(StringUtils.removeEnd(zip, ZIP_FILE_SUFFIX));
+            deployments.add(() -> archiveDeployer.deployPackagedArtifact(zip));
+        }
+        for (String explodedArtifact : explodedArtifacts)
+        {
+            // deploying the archive replaces the exploded artifact, so both can't run at the same time
+            if (!packagedArtifacts.contains(explodedArtifact))
+            {
+                deployments.add(() -> archiveDeployer.deployExplodedArtifact(explodedArtifact));
+            }
+        }
+
+        parallelDeploymentExecutor.execute(deployments);
+    }
+
     private void deployExplodedApps(String[] apps)
     {
         for (String addedApp : apps)
@@ -296,6 +513,11 @@ public class DeploymentDirectoryWatcher implements Runnable
         }
     }
 
+    public void run()
+    {
+        checkForChanges(Changes.all());
+    }
+
     // Cycle is:
     //   undeployArtifact removed apps
     //   undeployArtifact removed domains
@@ -304,7 +526,11 @@ public class DeploymentDirectoryWatcher implements Runnable
     //   redeploy modified apps
     //   deploy archives apps
     //   deploy exploded apps
-    public void run()
+    /**
+     * @param changes artifacts that could have changed. Only those are checked for redeployment
+     * @return false if the check was skipped because another deployment operation was in progress
+     */
+    private boolean checkForChanges(Changes changes)
     {
         try
         {
@@ -321,7 +547,7 @@ public class DeploymentDirectoryWatcher implements Runnable
                     logger.debug("Another deployment operation in progress, will skip this cycle. Owner thread: " +
                                  ((DebuggableReentrantLock) deploymentLock).getOwner());
                 }
-                return;
+                return false;
             }
 
             undeployRemovedApps();
@@ -333,7 +559,7 @@ public class DeploymentDirectoryWatcher implements Runnable
 
             final String[] domainZips = domainsDir.list(ZIP_ARTIFACT_FILTER);
 
-            redeployModifiedDomains();
+            redeployModifiedDomains(changes);
 
             deployPackedDomains(domainZips);
 
@@ -345,7 +571,7 @@ public class DeploymentDirectoryWatcher implements Runnable
 
             deployExplodedDomains(domains);
 
-            redeployModifiedApplications();
+            redeployModifiedApplications(changes);
 
             // list new apps
             String[] apps = appsDir.list(DirectoryFileFilter.DIRECTORY);
@@ -362,11 +588,16 @@ public class DeploymentDirectoryWatcher implements Runnable
 
             deployExplodedApps(apps);
         }
-        catch (Exception e)
+        catch (InterruptedException e)
         {
             // preserve the flag for the thread
             Thread.currentThread().interrupt();
         }
+        catch (Exception e)
+        {
+            // keeps checking on the next change
+            logger.error("Error checking for changes on the deployment directories", e);
+        }
         finally
         {
             if (deploymentLock.isHeldByCurrentThread())
@@ -375,6 +606,7 @@ public class DeploymentDirectoryWatcher implements Runnable
             }
             dirty = false;
         }
+        return true;
     }
 
     public <T extends Artifact> T findArtifact(String artifactName, ObservableList<T> artifacts)
@@ -520,21 +752,22 @@ public class DeploymentDirectoryWatcher implements Runnable
         return appNames.toArray(ArrayUtils.EMPTY_STRING_ARRAY);
     }
 
-    private void redeployModifiedDomains()
+    private void redeployModifiedDomains(Changes changes)
     {
-        Collection redeployableDomains = getArtifactsToRedeploy(domains);
+        Collection redeployableDomains = getArtifactsToRedeploy(domains, domainsDir, changes);
         redeployModifiedArtifacts(redeployableDomains, domainTimestampListener, domainArchiveDeployer);
     }
 
-    private void redeployModifiedApplications()
+    private void redeployModifiedApplications(Changes changes)
     {
-        Collection redeployableApplications = getArtifactsToRedeploy(applications);
+        Collection redeployableApplications = getArtifactsToRedeploy(applications, appsDir, changes);
         redeployModifiedArtifacts(redeployableApplications, applicationTimestampListener, applicationArchiveDeployer);
     }
 
-    private <T extends DeployableArtifact> Collection getArtifactsToRedeploy(Collection<T> collection)
+    private <T extends DeployableArtifact> Collection getArtifactsToRedeploy(Collection<T> collection, File deploymentDir, Changes changes)
     {
-        return CollectionUtils.select(collection, object -> ((DeployableArtifactDescriptor) ((DeployableArtifact) object).getDescriptor()).isRedeploymentEnabled());
+        return CollectionUtils.select(collection, object -> ((DeployableArtifactDescriptor) ((DeployableArtifact) object).getDescriptor()).isRedeploymentEnabled()
+                                                            && changes.isChanged(deploymentDir, ((DeployableArtifact) object).getArtifactName()));
     }
 
     private <T extends Artifact> void redeployModifiedArtifacts(Collection<T> artifacts, ArtifactTimestampListener<T> artifactTimestampListener, ArchiveDeployer<T> artifactArchiveDeployer)
@@ -560,6 +793,13 @@ public class DeploymentDirectoryWatcher implements Runnable
 
     private void stopAppDirMonitorTimer()
     {
+        DeploymentDirectoryWatchService watchService = this.watchService;
+        if (watchService != null)
+        {
+            this.watchService = null;
+            watchService.close();
+        }
+
         if (artifactDirMonitorTimer != null)
         {
             artifactDirMonitorTimer.shutdown();
@@ -577,7 +817,7 @@ public class DeploymentDirectoryWatcher implements Runnable
     private static class ArtifactTimestampListener<T extends Artifact> implements PropertyChangeListener
     {
 
-        private Map<String, ArtifactResourcesTimestamp<T>> artifactConfigResourcesTimestaps = new HashMap<String, ArtifactResourcesTimestamp<T>>();
+        private Map<String, ArtifactResourcesTimestamp<T>> artifactConfigResourcesTimestaps = new ConcurrentHashMap<String, ArtifactResourcesTimestamp<T>>();
 
         public ArtifactTimestampListener(ObservableList<T> artifacts)
         {
@@ -17,6 +17,11 @@ import java.util.List;
 public class MuleApplicationClassLoader extends MuleArtifactClassLoader implements ApplicationClassLoader
 {
 
+    static
+    {
+        registerAsParallelCapable();
+    }
+
     private NativeLibraryFinder nativeLibraryFinder;
 
     public MuleApplicationClassLoader(String appName, ClassLoader parentCl, NativeLibraryFinder nativeLibraryFinder, List<URL> urls, ClassLoaderLookupPolicy lookupPolicy)
@@ -40,6 +40,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.collections.CollectionUtils;
@@ -61,8 +62,9 @@ public class MuleDeploymentService implements DeploymentService
     // fair lock
     private final ReentrantLock deploymentLock = new DebuggableReentrantLock(true);
 
-    private final ObservableList<Application> applications = new ObservableList<>();
-    private final ObservableList<Domain> domains = new ObservableList<>();
+    // artifacts can be deployed in parallel
+    private final ObservableList<Application> applications = new ObservableList<>(new CopyOnWriteArrayList<>());
+    private final ObservableList<Domain> domains = new ObservableList<>(new CopyOnWriteArrayList<>());
     private final List<StartupListener> startupListeners = new ArrayList<>();
 
     /**
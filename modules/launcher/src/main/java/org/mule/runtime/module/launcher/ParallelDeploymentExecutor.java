@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.launcher;
+
+import static org.mule.runtime.core.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.util.Preconditions.checkState;
+import org.mule.runtime.core.util.concurrent.NamedThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs deployment tasks concurrently on behalf of the thread holding the deployment lock.
+ * <p/>
+ * While the tasks run, the owner of the lock waits for them, and {@link DefaultArchiveDeployer}
+ * considers that the threads running them hold the lock, so deployment operations started by
+ * any other thread are still rejected.
+ */
+public class ParallelDeploymentExecutor
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelDeploymentExecutor.class);
+
+    private static final ThreadLocal<ReentrantLock> delegatedLock = new ThreadLocal<>();
+
+    private final ReentrantLock deploymentLock;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a new instance
+     *
+     * @param deploymentLock lock held by the thread that executes the tasks. Non null.
+     * @param threads        maximum number of tasks running at the same time. Greater than zero.
+     */
+    public ParallelDeploymentExecutor(ReentrantLock deploymentLock, int threads)
+    {
+        checkArgument(deploymentLock != null, "Deployment lock cannot be null");
+        checkArgument(threads > 0, "Threads must be greater than zero");
+
+        this.deploymentLock = deploymentLock;
+        this.executor = Executors.newFixedThreadPool(threads, new NamedThreadFactory("Mule.app.deployer"));
+    }
+
+    /**
+     * Runs the tasks and waits for all of them to finish. As when deploying sequentially, a task
+     * failing doesn't stop the others.
+     *
+     * @param tasks tasks to run. Each one must deploy a different artifact.
+     */
+    public void execute(Collection<Runnable> tasks)
+    {
+        checkState(deploymentLock.isHeldByCurrentThread(), "Parallel deployment requires holding the deployment lock");
+
+        List<Future<?>> futures = new ArrayList<>(tasks.size());
+        for (Runnable task : tasks)
+        {
+            futures.add(executor.submit(() -> {
+                delegatedLock.set(deploymentLock);
+                try
+                {
+                    task.run();
+                }
+                finally
+                {
+                    delegatedLock.remove();
+                }
+            }));
+        }
+
+        // the lock can't be released while the tasks are still deploying
+        boolean interrupted = false;
+        for (Future<?> future : futures)
+        {
+            while (true)
+            {
+                try
+                {
+                    future.get();
+                    break;
+                }
+                catch (InterruptedException e)
+                {
+                    interrupted = true;
+                }
+                catch (ExecutionException e)
+                {
+                    logger.debug("Error deploying artifact in parallel", e.getCause());
+                    break;
+                }
+            }
+        }
+
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops the threads used to run the tasks.
+     */
+    public void dispose()
+    {
+        executor.shutdown();
+    }
+
+    /**
+     * @param deploymentLock a deployment lock
+     * @return true if the current thread runs a task on behalf of the thread holding the given lock
+     */
+    static boolean isDeployingOnBehalfOf(ReentrantLock deploymentLock)
+    {
+        return delegatedLock.get() == deploymentLock;
+    }
+}
@@ -36,6 +36,12 @@ public class CompositeArtifactClassLoader extends CompositeClassLoader implement
 {
 
     protected static final Logger logger = LoggerFactory.getLogger(CompositeApplicationClassLoader.class);
+
+    static
+    {
+        registerAsParallelCapable();
+    }
+
     private final String artifactName;
     private final List<ArtifactClassLoader> artifactClassLoaders;
 
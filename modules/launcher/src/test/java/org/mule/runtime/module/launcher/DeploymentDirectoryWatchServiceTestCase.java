@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.launcher;
+
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeNoException;
+import static org.mule.runtime.module.launcher.DeploymentDirectoryWatchService.SETTLE_TIME_MS;
+import static org.mule.runtime.module.launcher.DeploymentDirectoryWatcher.ARTIFACT_ANCHOR_SUFFIX;
+import org.mule.runtime.module.launcher.DeploymentDirectoryWatchService.Changes;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class DeploymentDirectoryWatchServiceTestCase extends AbstractMuleTestCase
+{
+
+    private static final long TIMEOUT = 5000;
+    private static final long MAX_BATCH_TIME = 500;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File appsDir;
+    private DeploymentDirectoryWatchService watchService;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        try
+        {
+            watchService = new DeploymentDirectoryWatchService(MAX_BATCH_TIME);
+        }
+        catch (IOException e)
+        {
+            assumeNoException(e);
+        }
+        appsDir = folder.newFolder("apps");
+        watchService.watchDeploymentDirectory(appsDir);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        if (watchService != null)
+        {
+            watchService.close();
+        }
+    }
+
+    @Test
+    public void reportsAddedArchive() throws Exception
+    {
+        new File(appsDir, "app.zip").createNewFile();
+
+        Changes changes = watchService.waitForChanges(TIMEOUT);
+
+        assertThat(changes.isChanged(appsDir, "app"), is(true));
+        assertThat(changes.isChanged(appsDir, "otherApp"), is(false));
+    }
+
+    @Test
+    public void reportsRemovedAnchor() throws Exception
+    {
+        File anchor = new File(appsDir, "app" + ARTIFACT_ANCHOR_SUFFIX);
+        anchor.createNewFile();
+        watchService.waitForChanges(TIMEOUT);
+
+        anchor.delete();
+
+        assertThat(watchService.waitForChanges(TIMEOUT).isChanged(appsDir, "app"), is(true));
+    }
+
+    @Test
+    public void reportsChangesInsideAddedArtifactDirectory() throws Exception
+    {
+        File appDir = new File(appsDir, "app");
+        appDir.mkdir();
+        watchService.waitForChanges(TIMEOUT);
+
+        new File(appDir, "mule-config.xml").createNewFile();
+
+        assertThat(watchService.waitForChanges(TIMEOUT).isChanged(appsDir, "app"), is(true));
+    }
+
+    @Test
+    public void reportsChangesOnArtifactResources() throws Exception
+    {
+        File resourcesDir = folder.newFolder("resources");
+        watchService.watchArtifactDirectory(appsDir, "app", resourcesDir);
+
+        new File(resourcesDir, "mule-config.xml").createNewFile();
+
+        assertThat(watchService.waitForChanges(TIMEOUT).isChanged(appsDir, "app"), is(true));
+    }
+
+    @Test
+    public void reportsChangesInsideSubdirectoriesOfArtifact() throws Exception
+    {
+        File appDir = folder.newFolder("app");
+        File classesDir = new File(appDir, "classes");
+        classesDir.mkdir();
+        watchService.watchArtifactDirectory(appsDir, "app", appDir);
+
+        new File(classesDir, "mule-config.xml").createNewFile();
+
+        assertThat(watchService.waitForChanges(TIMEOUT).isChanged(appsDir, "app"), is(true));
+    }
+
+    @Test
+    public void reportsChangesInsideSubdirectoriesAddedToArtifact() throws Exception
+    {
+        File appDir = new File(appsDir, "app");
+        appDir.mkdir();
+        watchService.waitForChanges(TIMEOUT);
+        File libDir = new File(appDir, "lib");
+        libDir.mkdir();
+        watchService.waitForChanges(TIMEOUT);
+
+        new File(libDir, "library.jar").createNewFile();
+
+        assertThat(watchService.waitForChanges(TIMEOUT).isChanged(appsDir, "app"), is(true));
+    }
+
+    @Test
+    public void reportsAllChangesWhenEventsDoNotSettle() throws Exception
+    {
+        File logsDir = folder.newFolder("logs");
+        watchService.watchArtifactDirectory(appsDir, "app", logsDir);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            int i = 0;
+            while (writing.get())
+            {
+                try
+                {
+                    new File(logsDir, "log" + i++).createNewFile();
+                    Thread.sleep(SETTLE_TIME_MS / 5);
+                }
+                catch (IOException | InterruptedException e)
+                {
+                    return;
+                }
+            }
+        });
+        writer.start();
+        try
+        {
+            long start = System.currentTimeMillis();
+            Changes changes = watchService.waitForChanges(TIMEOUT);
+
+            assertThat(System.currentTimeMillis() - start, lessThan(TIMEOUT));
+            assertThat(changes.isChanged(appsDir, "otherApp"), is(true));
+        }
+        finally
+        {
+            writing.set(false);
+            writer.join();
+        }
+    }
+
+    @Test
+    public void returnsNoChangesAfterTimeout() throws Exception
+    {
+        assertThat(watchService.waitForChanges(10).isEmpty(), is(true));
+    }
+
+    @Test(expected = ClosedWatchServiceException.class)
+    public void stopsWaitingWhenClosed() throws Exception
+    {
+        watchService.close();
+
+        watchService.waitForChanges(TIMEOUT);
+    }
+}
@@ -25,6 +25,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeNoException;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeast;
@@ -300,6 +301,35 @@ public class DeploymentServiceTestCase extends AbstractMuleContextTestCase
         deploysAppAndVerifyAnchorFileIsCreatedAfterDeploymentEnds(deployPackagedWaitAppAction);
     }
 
+    @Test
+    public void deploysAppZipAfterStartupWithoutWaitingForScan() throws Exception
+    {
+        try
+        {
+            new DeploymentDirectoryWatchService(60000).close();
+        }
+        catch (IOException e)
+        {
+            assumeNoException(e);
+        }
+
+        // only a notified change can deploy the app before the prober times out
+        System.setProperty(DeploymentDirectoryWatcher.CHANGE_CHECK_INTERVAL_PROPERTY, "60000");
+        try
+        {
+            deploymentService.start();
+
+            addPackedAppFromBuilder(dummyAppDescriptorFileBuilder);
+
+            assertApplicationDeploymentSuccess(applicationDeploymentListener, dummyAppDescriptorFileBuilder.getId());
+            assertApplicationAnchorFileExists(dummyAppDescriptorFileBuilder.getId());
+        }
+        finally
+        {
+            System.setProperty(DeploymentDirectoryWatcher.CHANGE_CHECK_INTERVAL_PROPERTY, changeChangeInterval.getValue());
+        }
+    }
+
     @Test
     public void deploysAppZipAfterStartup() throws Exception
     {
@@ -1589,6 +1619,38 @@ public class DeploymentServiceTestCase extends AbstractMuleContextTestCase
         assertDomainAnchorFileExists(emptyDomainFileBuilder.getId());
     }
 
+    @Test
+    public void deploysDomainsAndAppsInParallelOnStartup() throws Exception
+    {
+        addPackedDomainFromBuilder(dummyDomainFileBuilder);
+        addExplodedDomainFromBuilder(emptyDomainFileBuilder);
+        addPackedAppFromBuilder(dummyDomainApp1FileBuilder);
+        addExplodedAppFromBuilder(dummyDomainApp2FileBuilder);
+        addPackedAppFromBuilder(dummyAppDescriptorFileBuilder);
+        addExplodedAppFromBuilder(emptyAppFileBuilder);
+
+        System.setProperty(DeploymentDirectoryWatcher.PARALLEL_DEPLOYMENT_PROPERTY, "true");
+        try
+        {
+            deploymentService.start();
+        }
+        finally
+        {
+            System.clearProperty(DeploymentDirectoryWatcher.PARALLEL_DEPLOYMENT_PROPERTY);
+        }
+
+        assertDeploymentSuccess(domainDeploymentListener, dummyDomainFileBuilder.getId());
+        assertDeploymentSuccess(domainDeploymentListener, emptyDomainFileBuilder.getId());
+        assertApplicationDeploymentSuccess(applicationDeploymentListener, dummyDomainApp1FileBuilder.getId());
+        assertApplicationDeploymentSuccess(applicationDeploymentListener, dummyDomainApp2FileBuilder.getId());
+        assertApplicationDeploymentSuccess(applicationDeploymentListener, dummyAppDescriptorFileBuilder.getId());
+        assertApplicationDeploymentSuccess(applicationDeploymentListener, emptyAppFileBuilder.getId());
+
+        assertDomainDir(NONE, new String[] {DEFAULT_DOMAIN_NAME, dummyDomainFileBuilder.getId(), emptyDomainFileBuilder.getId()}, true);
+        assertAppsDir(NONE, new String[] {dummyDomainApp1FileBuilder.getId(), dummyDomainApp2FileBuilder.getId(), dummyAppDescriptorFileBuilder.getId(), emptyAppFileBuilder.getId()}, true);
+        assertThat(findApp(dummyDomainApp1FileBuilder.getId(), 4).getDomain().getArtifactName(), is(dummyDomainFileBuilder.getId()));
+    }
+
     @Test
     public void deploysPackagedDomainAndVerifyAnchorFileIsCreatedAfterDeploymentEnds() throws Exception
     {
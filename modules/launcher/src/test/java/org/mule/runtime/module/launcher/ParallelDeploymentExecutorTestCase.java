@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.launcher;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.module.launcher.ParallelDeploymentExecutor.isDeployingOnBehalfOf;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class ParallelDeploymentExecutorTestCase extends AbstractMuleTestCase
+{
+
+    private final ReentrantLock deploymentLock = new ReentrantLock();
+    private ParallelDeploymentExecutor executor;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        executor = new ParallelDeploymentExecutor(deploymentLock, 2);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        executor.dispose();
+    }
+
+    @Test
+    public void runsAllTasksOnBehalfOfLockOwner() throws Exception
+    {
+        List<String> deployed = Collections.synchronizedList(new ArrayList<>());
+        List<Runnable> tasks = new ArrayList<>();
+        for (String artifact : asList("app1", "app2", "app3"))
+        {
+            tasks.add(() -> {
+                if (isDeployingOnBehalfOf(deploymentLock))
+                {
+                    deployed.add(artifact);
+                }
+            });
+        }
+
+        deploymentLock.lock();
+        try
+        {
+            executor.execute(tasks);
+        }
+        finally
+        {
+            deploymentLock.unlock();
+        }
+
+        assertThat(deployed, containsInAnyOrder("app1", "app2", "app3"));
+        assertThat(isDeployingOnBehalfOf(deploymentLock), is(false));
+    }
+
+    @Test
+    public void continuesAfterFailedTask() throws Exception
+    {
+        List<String> deployed = Collections.synchronizedList(new ArrayList<>());
+
+        deploymentLock.lock();
+        try
+        {
+            executor.execute(asList(() -> {
+                throw new IllegalStateException("Broken app");
+            }, () -> deployed.add("app")));
+        }
+        finally
+        {
+            deploymentLock.unlock();
+        }
+
+        assertThat(deployed, containsInAnyOrder("app"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void requiresDeploymentLock() throws Exception
+    {
+        executor.execute(Collections.<Runnable> singletonList(() -> {
+        }));
+    }
+}
@@ -8,6 +8,7 @@
 package org.mule.runtime.module.launcher;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import org.mule.runtime.module.artifact.classloader.ClassLoaderLookupPolicy;
 import org.mule.runtime.module.artifact.classloader.FineGrainedControlClassLoader;
@@ -41,13 +42,34 @@ public class SynchronizedClassLoaderTestCase extends AbstractMuleTestCase
         doLoadClassSynchronizationTest(new MuleApplicationClassLoader("test", new TestClassLoader(), null, Collections.emptyList(), lookupPolicy));
     }
 
+    @Test
+    public void loadsDifferentClassesConcurrentlyInFineGrainedControlClassLoader() throws Exception
+    {
+        ClassLoader classLoader = new FineGrainedControlClassLoader(new URL[] {}, new TestClassLoader(), lookupPolicy);
+
+        Thread thread1 = new Thread(new LoadClass(classLoader, "org.mule.Foo"));
+        Thread thread2 = new Thread(new LoadClass(classLoader, "org.mule.Bar"));
+
+        try
+        {
+            thread1.start();
+            thread2.start();
+
+            assertTrue("Classes are not loaded concurrently", onExclusionZone.await(5, TimeUnit.SECONDS));
+        }
+        finally
+        {
+            onTestComplete.countDown();
+        }
+    }
+
     private void doLoadClassSynchronizationTest(ClassLoader classLoader) throws InterruptedException
     {
 
-        LoadClass loadClass1 = new LoadClass(classLoader);
+        LoadClass loadClass1 = new LoadClass(classLoader, "org.mule.Foo");
         Thread thread1 = new Thread(loadClass1);
 
-        LoadClass loadClass2 = new LoadClass(classLoader);
+        LoadClass loadClass2 = new LoadClass(classLoader, "org.mule.Foo");
         Thread thread2 = new Thread(loadClass2);
 
         try
@@ -69,18 +91,20 @@ public class SynchronizedClassLoaderTestCase extends AbstractMuleTestCase
     {
 
         private final ClassLoader classLoader;
+        private final String className;
         private boolean error;
 
-        public LoadClass(ClassLoader classLoader)
+        public LoadClass(ClassLoader classLoader, String className)
         {
             this.classLoader = classLoader;
+            this.className = className;
         }
 
         public void run()
         {
             try
             {
-                classLoader.loadClass("org.mule.Foo");
+                classLoader.loadClass(className);
             }
             catch (Exception e)
             {
@@ -16,6 +16,8 @@ import org.mule.runtime.core.construct.AbstractFlowConstruct;
 import org.mule.runtime.core.context.notification.MuleContextNotification;
 import org.mule.runtime.core.context.notification.NotificationException;
 import org.mule.runtime.core.management.stats.FlowConstructStatistics;
+import org.mule.runtime.core.registry.TypeBasedTransformerResolver;
+import org.mule.runtime.core.transformer.graph.GraphTransformerResolver;
 import org.mule.runtime.core.util.StringUtils;
 import org.mule.runtime.module.management.i18n.ManagementMessages;
 import org.mule.runtime.module.management.mbean.ApplicationService;
@@ -27,6 +29,8 @@ import org.mule.runtime.module.management.mbean.MuleService;
 import org.mule.runtime.module.management.mbean.MuleServiceMBean;
 import org.mule.runtime.module.management.mbean.StatisticsService;
 import org.mule.runtime.module.management.mbean.StatisticsServiceMBean;
+import org.mule.runtime.module.management.mbean.TransformerResolverService;
+import org.mule.runtime.module.management.mbean.TransformerResolverServiceMBean;
 import org.mule.runtime.module.management.support.AutoDiscoveryJmxSupportFactory;
 import org.mule.runtime.module.management.support.JmxSupport;
 import org.mule.runtime.module.management.support.JmxSupportFactory;
@@ -410,6 +414,23 @@ public abstract class AbstractJmxAgent extends AbstractAgent
         }
     }
 
+    protected void registerTransformerResolverService() throws NotCompliantMBeanException, MBeanRegistrationException,
+        InstanceAlreadyExistsException, MalformedObjectNameException
+    {
+        for (TypeBasedTransformerResolver transformerResolver : muleContext.getRegistry().lookupObjects(TypeBasedTransformerResolver.class))
+        {
+            if (transformerResolver.getGraphTransformerResolver() instanceof GraphTransformerResolver)
+            {
+                ObjectName on = jmxSupport.getObjectName(String.format("%s:%s", jmxSupport.getDomainName(muleContext, !containerMode), TransformerResolverServiceMBean.DEFAULT_JMX_NAME));
+                TransformerResolverServiceMBean service = new TransformerResolverService((GraphTransformerResolver) transformerResolver.getGraphTransformerResolver());
+                ClassloaderSwitchingMBeanWrapper mBean = new ClassloaderSwitchingMBeanWrapper(service, TransformerResolverServiceMBean.class, muleContext.getExecutionClassLoader());
+                logger.debug("Registering transformer resolver with name: " + on);
+                mBeanServer.registerMBean(mBean, on);
+                return;
+            }
+        }
+    }
+
     public boolean isCreateServer()
     {
         return createServer;
@@ -28,6 +28,7 @@ public class JmxApplicationAgent extends AbstractJmxAgent
         registerConfigurationService();
         registerFlowConstructServices();
         registerApplicationServices();
+        registerTransformerResolverService();
     }
 
 }
@@ -8,11 +8,14 @@ package org.mule.runtime.module.management.mbean;
 
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.construct.AbstractFlowConstruct;
+import org.mule.runtime.core.management.stats.ComponentStatistics;
 import org.mule.runtime.core.management.stats.FlowConstructStatistics;
 import org.mule.runtime.module.management.support.AutoDiscoveryJmxSupportFactory;
 import org.mule.runtime.module.management.support.JmxSupport;
 import org.mule.runtime.module.management.support.JmxSupportFactory;
 
+import java.util.Set;
+
 import javax.management.MBeanRegistration;
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
@@ -121,6 +124,33 @@ public class FlowConstructService implements FlowConstructServiceMBean, MBeanReg
         return statistics.getTotalProcessingTime();
     }
 
+    public long getProcessingTimeP50()
+    {
+        return statistics.getProcessingTimePercentile(50);
+    }
+
+    public long getProcessingTimeP99()
+    {
+        return statistics.getProcessingTimePercentile(99);
+    }
+
+    public long getProcessingTimeP999()
+    {
+        return statistics.getProcessingTimePercentile(99.9);
+    }
+
+    public String[] getMessageProcessorPaths()
+    {
+        Set<String> paths = statistics.getMessageProcessorStatistics().keySet();
+        return paths.toArray(new String[paths.size()]);
+    }
+
+    public long getMessageProcessorProcessingTimePercentile(String processorPath, double percentile)
+    {
+        ComponentStatistics processorStatistics = statistics.getMessageProcessorStatistics().get(processorPath);
+        return processorStatistics == null ? 0 : processorStatistics.getExecutionTimePercentile(percentile);
+    }
+
     public long getExecutionErrors()
     {
         return statistics.getExecutionErrors();
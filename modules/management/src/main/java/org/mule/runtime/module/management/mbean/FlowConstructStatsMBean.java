@@ -31,6 +31,24 @@ public interface FlowConstructStatsMBean
 
     long getTotalProcessingTime();
 
+    long getProcessingTimeP50();
+
+    long getProcessingTimeP99();
+
+    long getProcessingTimeP999();
+
+    /**
+     * @return the paths of the message processors with processing time statistics
+     */
+    String[] getMessageProcessorPaths();
+
+    /**
+     * @param processorPath the path of a message processor, as returned by {@link #getMessageProcessorPaths()}
+     * @param percentile the percentile, between 0 and 100
+     * @return the processing time of the message processor at the given percentile, or zero if it has no statistics
+     */
+    long getMessageProcessorProcessingTimePercentile(String processorPath, double percentile);
+
     long getFatalErrors();
 
     long getExecutionErrors();
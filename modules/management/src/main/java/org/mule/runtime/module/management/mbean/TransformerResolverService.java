@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.management.mbean;
+
+import org.mule.runtime.core.transformer.graph.GraphTransformerResolver;
+
+/**
+ * <code>TransformerResolverService</code> exposes the cache statistics of a
+ * {@link GraphTransformerResolver} as a management service.
+ */
+public class TransformerResolverService implements TransformerResolverServiceMBean
+{
+
+    private final GraphTransformerResolver resolver;
+
+    public TransformerResolverService(GraphTransformerResolver resolver)
+    {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public long getCacheHits()
+    {
+        return resolver.getCacheHits();
+    }
+
+    @Override
+    public long getCacheMisses()
+    {
+        return resolver.getCacheMisses();
+    }
+
+    @Override
+    public double getCacheHitRatio()
+    {
+        long hits = resolver.getCacheHits();
+        long total = hits + resolver.getCacheMisses();
+        return total == 0 ? 0 : (hits * 100.0) / total;
+    }
+
+    @Override
+    public int getCacheSize()
+    {
+        return resolver.getCacheSize();
+    }
+
+    @Override
+    public int getCacheMaxSize()
+    {
+        return resolver.getCacheMaxSize();
+    }
+
+    @Override
+    public void clearCache()
+    {
+        resolver.clearCache();
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.management.mbean;
+
+/**
+ * <code>TransformerResolverServiceMBean</code> is a JMX interface for monitoring the cache
+ * of converter chains used for automatic transformation.
+ */
+public interface TransformerResolverServiceMBean
+{
+    String DEFAULT_JMX_NAME = "type=Transformers,name=TransformerResolver";
+
+    long getCacheHits();
+
+    long getCacheMisses();
+
+    /**
+     * @return percentage of resolutions served from the cache
+     */
+    double getCacheHitRatio();
+
+    int getCacheSize();
+
+    int getCacheMaxSize();
+
+    /**
+     * Discards every cached resolution and resets the counters
+     */
+    void clearCache();
+}
@@ -7,8 +7,14 @@
 package org.mule.runtime.config.spring;
 
 import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.config.MuleProperties;
 import org.mule.runtime.core.api.serialization.DefaultObjectSerializer;
 import org.mule.runtime.core.api.serialization.ObjectSerializer;
+import org.mule.runtime.core.config.i18n.CoreMessages;
+import org.mule.runtime.core.serialization.internal.AbstractObjectSerializer;
+import org.mule.runtime.core.serialization.internal.CompactObjectSerializer;
+import org.mule.runtime.core.serialization.internal.JavaObjectSerializer;
+import org.mule.runtime.core.util.StringUtils;
 
 import org.springframework.beans.factory.SmartFactoryBean;
 
@@ -22,6 +28,12 @@ import org.springframework.beans.factory.SmartFactoryBean;
  * {@link DefaultObjectSerializer} qualified, this factory
  * bean will be used to resolve injections requests for
  * such qualifier
+ * <p/>
+ * When the configuration doesn't define a default serializer, the one
+ * created by {@link #createObjectSerializer(String, MuleContext)} for the
+ * value of the {@link MuleProperties#MULE_DEFAULT_OBJECT_SERIALIZER} system
+ * property is used: {@value #JAVA_OBJECT_SERIALIZER} (the default) or
+ * {@value #COMPACT_OBJECT_SERIALIZER}
  *
  * @since 3.7.0
  */
@@ -29,6 +41,9 @@ import org.springframework.beans.factory.SmartFactoryBean;
 public class DefaultObjectSerializerFactoryBean implements SmartFactoryBean<ObjectSerializer>
 {
 
+    public static final String JAVA_OBJECT_SERIALIZER = "java";
+    public static final String COMPACT_OBJECT_SERIALIZER = "compact";
+
     private final MuleContext muleContext;
 
     public DefaultObjectSerializerFactoryBean(MuleContext muleContext)
@@ -36,6 +51,33 @@ public class DefaultObjectSerializerFactoryBean implements SmartFactoryBean<Obje
         this.muleContext = muleContext;
     }
 
+    /**
+     * Creates one of the {@link ObjectSerializer}s provided by Mule
+     *
+     * @param name        {@value #JAVA_OBJECT_SERIALIZER}, {@value #COMPACT_OBJECT_SERIALIZER}, or {@code null} for the default one
+     * @param muleContext the context the serializer belongs to
+     * @return a new {@link ObjectSerializer}
+     * @throws IllegalArgumentException if there is no serializer with such name
+     */
+    public static ObjectSerializer createObjectSerializer(String name, MuleContext muleContext)
+    {
+        AbstractObjectSerializer serializer;
+        if (StringUtils.isBlank(name) || JAVA_OBJECT_SERIALIZER.equalsIgnoreCase(name.trim()))
+        {
+            serializer = new JavaObjectSerializer();
+        }
+        else if (COMPACT_OBJECT_SERIALIZER.equalsIgnoreCase(name.trim()))
+        {
+            serializer = new CompactObjectSerializer();
+        }
+        else
+        {
+            throw new IllegalArgumentException(CoreMessages.propertyHasInvalidValue(MuleProperties.MULE_DEFAULT_OBJECT_SERIALIZER, name).toString());
+        }
+        serializer.setMuleContext(muleContext);
+        return serializer;
+    }
+
     @Override
     public ObjectSerializer getObject() throws Exception
     {
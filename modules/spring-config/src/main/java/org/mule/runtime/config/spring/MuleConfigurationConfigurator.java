@@ -22,7 +22,6 @@ import org.mule.runtime.core.api.serialization.ObjectSerializer;
 import org.mule.runtime.core.config.DefaultMuleConfiguration;
 import org.mule.runtime.core.config.i18n.CoreMessages;
 import org.mule.runtime.core.config.i18n.MessageFactory;
-import org.mule.runtime.core.serialization.internal.JavaObjectSerializer;
 
 import java.util.List;
 
@@ -133,8 +132,8 @@ public class MuleConfigurationConfigurator implements MuleContextAware, SmartFac
         ObjectSerializer configuredSerializer = config.getDefaultObjectSerializer();
         if (configuredSerializer == null)
         {
-            configuredSerializer = new JavaObjectSerializer();
-            ((MuleContextAware) configuredSerializer).setMuleContext(muleContext);
+            configuredSerializer = DefaultObjectSerializerFactoryBean.createObjectSerializer(
+                    System.getProperty(MuleProperties.MULE_DEFAULT_OBJECT_SERIALIZER), muleContext);
             config.setDefaultObjectSerializer(configuredSerializer);
         }
 
@@ -355,6 +355,8 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
                                                  .withSetterParameterDefinition("batchSize", fromSimpleParameter("batchSize").build())
                                                  .withSetterParameterDefinition("rootMessageVariableName", fromSimpleParameter("rootMessageVariableName").build())
                                                  .withSetterParameterDefinition("counterVariableName", fromSimpleParameter("counterVariableName").build())
+                                                 .withSetterParameterDefinition("maxConcurrency", fromSimpleParameter("maxConcurrency").build())
+                                                 .withSetterParameterDefinition("preserveOrder", fromSimpleParameter("preserveOrder").build())
                                                  .withSetterParameterDefinition(MESSAGE_PROCESSORS, fromChildCollectionConfiguration(MessageProcessor.class).build())
                                                  .build());
         componentBuildingDefinitions.add(baseDefinition.copy()
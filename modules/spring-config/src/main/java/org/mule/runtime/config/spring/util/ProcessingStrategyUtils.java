@@ -11,6 +11,7 @@ import org.mule.runtime.core.construct.flow.DefaultFlowProcessingStrategy;
 import org.mule.runtime.core.processor.strategy.AsynchronousProcessingStrategy;
 import org.mule.runtime.core.processor.strategy.NonBlockingProcessingStrategy;
 import org.mule.runtime.core.processor.strategy.SynchronousProcessingStrategy;
+import org.mule.runtime.core.processor.strategy.VirtualThreadProcessingStrategy;
 
 import org.apache.commons.lang.StringUtils;
 import org.springframework.beans.factory.config.RuntimeBeanReference;
@@ -26,6 +27,7 @@ public class ProcessingStrategyUtils
     public static String SYNC_PROCESSING_STRATEGY = "synchronous";
     public static String NON_BLOCKING_PROCESSING_STRATEGY = "non-blocking";
     public static String ASYNC_PROCESSING_STRATEGY = "asynchronous";
+    public static String VIRTUAL_THREAD_PROCESSING_STRATEGY = "virtual-thread";
 
     public static void configureProcessingStrategy(Element element,
                                                    BeanDefinitionBuilder builder,
@@ -62,6 +64,10 @@ public class ProcessingStrategyUtils
         {
             return new AsynchronousProcessingStrategy();
         }
+        else if (VIRTUAL_THREAD_PROCESSING_STRATEGY.equals(processingStrategy))
+        {
+            return new VirtualThreadProcessingStrategy();
+        }
         return null;
     }
 
@@ -10,9 +10,11 @@ import org.mule.runtime.core.RequestContext;
 import org.mule.runtime.core.api.MuleEvent;
 import org.mule.runtime.core.api.lifecycle.InitialisationException;
 import org.mule.runtime.module.xml.transformer.XmlToDomDocument;
+import org.mule.runtime.module.xml.util.XMLResourcePool;
 import org.mule.runtime.module.xml.util.XMLUtils;
 import org.mule.runtime.core.transformer.types.DataTypeFactory;
 
+import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 
 import org.w3c.dom.Document;
@@ -20,6 +22,7 @@ import org.w3c.dom.Node;
 
 /**
  * Common filter functionality for filters which need to convert payloads to {@link Document}s.
+ * Payloads are parsed using a pool of the {@link DocumentBuilder}s created by the configured factory.
  */
 public abstract class AbstractJaxpFilter
 {
@@ -27,7 +30,9 @@ public abstract class AbstractJaxpFilter
     private XmlToDomDocument xmlToDom = new XmlToDomDocument();
 
     private DocumentBuilderFactory documentBuilderFactory;
-    
+
+    private volatile XMLResourcePool<DocumentBuilder> documentBuilders;
+
     public AbstractJaxpFilter()
     {
         super();
@@ -54,7 +59,9 @@ public abstract class AbstractJaxpFilter
 
     public Node toDOMNode(Object src, MuleEvent event) throws Exception
     {
-        Node node = XMLUtils.toDOMNode(src, event, getDocumentBuilderFactory());
+        XMLResourcePool<DocumentBuilder> documentBuilders = this.documentBuilders;
+        Node node = documentBuilders != null ? XMLUtils.toDOMNode(src, event, documentBuilders)
+                                             : XMLUtils.toDOMNode(src, event, getDocumentBuilderFactory());
         return node == null ? (Node) xmlToDom.transform(src) : node;
     }
 
@@ -77,5 +84,6 @@ public abstract class AbstractJaxpFilter
     public void setDocumentBuilderFactory(DocumentBuilderFactory documentBuilderFactory)
     {
         this.documentBuilderFactory = documentBuilderFactory;
+        this.documentBuilders = documentBuilderFactory != null ? XMLResourcePool.documentBuilders(documentBuilderFactory) : null;
     }
 }
@@ -9,6 +9,7 @@ package org.mule.runtime.module.xml.transformer;
 import org.mule.runtime.core.api.MuleEvent;
 import org.mule.runtime.core.api.transformer.DiscoverableTransformer;
 import org.mule.runtime.core.api.transformer.TransformerException;
+import org.mule.runtime.module.xml.util.XMLResourcePool;
 import org.mule.runtime.module.xml.util.XMLUtils;
 
 import javax.xml.stream.XMLStreamReader;
@@ -24,11 +25,15 @@ import org.xml.sax.ContentHandler;
 
 /**
  * <code>XmlToDomDocument</code> transforms a XML String to org.w3c.dom.Document.
+ * <p/>
+ * The identity transformers used to build the result are reused by each thread.
  */
 public class XmlToDomDocument extends AbstractXmlTransformer implements DiscoverableTransformer
 {
     private int priorityWeighting = DiscoverableTransformer.DEFAULT_PRIORITY_WEIGHTING;
 
+    private final XMLResourcePool<Transformer> identityTransformers = XMLResourcePool.identityTransformers();
+
     @Override
     public Object transformMessage(MuleEvent event, String encoding) throws TransformerException
     {
@@ -72,9 +77,16 @@ public class XmlToDomDocument extends AbstractXmlTransformer implements Discover
                 }
             }
 
-            Transformer idTransformer = XMLUtils.getTransformer();
-            idTransformer.setOutputProperty(OutputKeys.ENCODING, encoding);
-            idTransformer.transform(sourceDoc, holder.getResult());
+            Transformer idTransformer = identityTransformers.borrow();
+            try
+            {
+                idTransformer.setOutputProperty(OutputKeys.ENCODING, encoding);
+                idTransformer.transform(sourceDoc, holder.getResult());
+            }
+            finally
+            {
+                identityTransformers.release(idTransformer);
+            }
 
             return holder.getResultObject();
         }
@@ -15,6 +15,7 @@ import org.mule.runtime.core.api.transformer.TransformerException;
 import org.mule.runtime.core.config.i18n.CoreMessages;
 import org.mule.runtime.module.xml.i18n.XmlMessages;
 import org.mule.runtime.module.xml.util.LocalURIResolver;
+import org.mule.runtime.module.xml.util.XMLResourcePool;
 import org.mule.runtime.module.xml.util.XMLUtils;
 import org.mule.runtime.core.util.ClassUtils;
 import org.mule.runtime.core.util.IOUtils;
@@ -24,25 +25,25 @@ import java.io.StringReader;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Semaphore;
 
 import javax.xml.transform.ErrorListener;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Result;
 import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.TransformerFactoryConfigurationError;
 import javax.xml.transform.URIResolver;
 import javax.xml.transform.stream.StreamSource;
 
-import org.apache.commons.pool.BasePoolableObjectFactory;
-import org.apache.commons.pool.impl.GenericObjectPool;
-
 /**
  * <code>XsltTransformer</code> performs an XSLT transform on a DOM (or other XML-ish)
  * object.
  * <p/>
- * This transformer maintains a pool of {@link javax.xml.transform.Transformer} objects to speed up processing of concurrent requests.
- * The pool can be configured using {@link #setMaxIdleTransformers(int)}.
+ * The stylesheet is compiled once, and each thread reuses its own {@link javax.xml.transform.Transformer} to speed up
+ * processing of concurrent requests. The number of concurrent transformations can be limited using
+ * {@link #setMaxActiveTransformers(int)}.
  * <p/>
  * Parameter can also be set as part of the transformation context and these can be mapped to content in the current message using
  * property extractors or can be fixed values.
@@ -89,17 +90,18 @@ import org.apache.commons.pool.impl.GenericObjectPool;
 
 public class XsltTransformer extends AbstractXmlTransformer
 {
-    // keep at least 1 XSLT Transformer ready by default
-    private static final int MIN_IDLE_TRANSFORMERS = 1;
-    // keep max. 32 XSLT Transformers around by default
+    // kept for compatibility, each thread keeps one idle XSLT Transformer
     private static final int MAX_IDLE_TRANSFORMERS = 32;
-    // MAX_IDLE is also the total limit
-    private static final int MAX_ACTIVE_TRANSFORMERS = MAX_IDLE_TRANSFORMERS;
+    // no limit of concurrent transformations by default
+    private static final int UNLIMITED_ACTIVE_TRANSFORMERS = -1;
 
     //Saxon shipped with Mule
     public static final String PREFERRED_TRANSFORMER_FACTORY = "net.sf.saxon.TransformerFactoryImpl";
 
-    protected final GenericObjectPool transformerPool;
+    protected volatile XMLResourcePool<javax.xml.transform.Transformer> transformerPool;
+    private volatile Semaphore activeTransformers;
+    private volatile int maxActiveTransformers = UNLIMITED_ACTIVE_TRANSFORMERS;
+    private volatile int maxIdleTransformers = MAX_IDLE_TRANSFORMERS;
 
     /**
      * Default to Saxon
@@ -114,10 +116,6 @@ public class XsltTransformer extends AbstractXmlTransformer
     public XsltTransformer()
     {
         super();
-        transformerPool = new GenericObjectPool(new PooledXsltTransformerFactory());
-        transformerPool.setMinIdle(MIN_IDLE_TRANSFORMERS);
-        transformerPool.setMaxIdle(MAX_IDLE_TRANSFORMERS);
-        transformerPool.setMaxActive(MAX_ACTIVE_TRANSFORMERS);
         contextProperties = new HashMap<String, Object>();
     }
 
@@ -138,7 +136,15 @@ public class XsltTransformer extends AbstractXmlTransformer
                 this.uriResolver = new LocalURIResolver(xslFile);
             }
 
-            transformerPool.addObject();
+            TransformerFactory factory = createTransformerFactory();
+            factory.setURIResolver(getUriResolver());
+            Templates templates = factory.newTemplates(getStreamSource());
+            transformerPool = XMLResourcePool.transformers(templates);
+
+            if (maxActiveTransformers > 0)
+            {
+                activeTransformers = new Semaphore(maxActiveTransformers);
+            }
         }
         catch (Throwable te)
         {
@@ -220,10 +226,15 @@ public class XsltTransformer extends AbstractXmlTransformer
     {
         DefaultErrorListener errorListener = new DefaultErrorListener(this);
         javax.xml.transform.Transformer transformer = null;
+        Semaphore activeTransformers = this.activeTransformers;
 
+        if (activeTransformers != null)
+        {
+            activeTransformers.acquire();
+        }
         try
         {
-            transformer = (javax.xml.transform.Transformer) transformerPool.borrowObject();
+            transformer = transformerPool.borrow();
 
             transformer.setErrorListener(errorListener);
             transformer.setOutputProperty(OutputKeys.ENCODING, outputEncoding);
@@ -258,7 +269,11 @@ public class XsltTransformer extends AbstractXmlTransformer
         {
             if (transformer != null)
             {
-                transformerPool.returnObject(transformer);
+                transformerPool.release(transformer);
+            }
+            if (activeTransformers != null)
+            {
+                activeTransformers.release();
             }
         }
     }
@@ -333,58 +348,32 @@ public class XsltTransformer extends AbstractXmlTransformer
         }
     }
 
-    protected class PooledXsltTransformerFactory extends BasePoolableObjectFactory
+    private TransformerFactory createTransformerFactory() throws Exception
     {
-        @Override
-        public Object makeObject() throws Exception
-        {
-            StreamSource source = XsltTransformer.this.getStreamSource();
-            String factoryClassName = XsltTransformer.this.getXslTransformerFactory();
-            TransformerFactory factory;
+        String factoryClassName = getXslTransformerFactory();
 
-            if (PREFERRED_TRANSFORMER_FACTORY.equals(factoryClassName) && !ClassUtils.isClassOnPath(factoryClassName, getClass()))
-            {
-                logger.warn("Preferred Transfomer Factory " + PREFERRED_TRANSFORMER_FACTORY + " not on classpath and no default is set, defaulting to JDK");
-                factoryClassName = null;
-            }
+        if (PREFERRED_TRANSFORMER_FACTORY.equals(factoryClassName) && !ClassUtils.isClassOnPath(factoryClassName, getClass()))
+        {
+            logger.warn("Preferred Transfomer Factory " + PREFERRED_TRANSFORMER_FACTORY + " not on classpath and no default is set, defaulting to JDK");
+            factoryClassName = null;
+        }
 
-            if (StringUtils.isNotEmpty(factoryClassName))
+        if (StringUtils.isNotEmpty(factoryClassName))
+        {
+            return (TransformerFactory) ClassUtils.instanciateClass(factoryClassName, ClassUtils.NO_ARGS, this.getClass());
+        }
+        else
+        {
+            // fall back to JDK default
+            try
             {
-
-                factory = (TransformerFactory) ClassUtils.instanciateClass(factoryClassName,
-                        ClassUtils.NO_ARGS, this.getClass());
+                return TransformerFactory.newInstance();
             }
-            else
+            catch (TransformerFactoryConfigurationError e)
             {
-                // fall back to JDK default
-                try
-                {
-                    factory = TransformerFactory.newInstance();
-                }
-                catch (TransformerFactoryConfigurationError e)
-                {
-                    System.setProperty("javax.xml.transform.TransformerFactory", XMLUtils.TRANSFORMER_FACTORY_JDK5);
-                    factory = TransformerFactory.newInstance();
-                }
+                System.setProperty("javax.xml.transform.TransformerFactory", XMLUtils.TRANSFORMER_FACTORY_JDK5);
+                return TransformerFactory.newInstance();
             }
-
-            factory.setURIResolver(getUriResolver());
-
-            return factory.newTransformer(source);
-        }
-
-        @Override
-        public void passivateObject(Object object) throws Exception
-        {
-            javax.xml.transform.Transformer transformer = (javax.xml.transform.Transformer) object;
-
-            // Clear transformation parameters before returning transformer to the pool
-            transformer.clearParameters();
-
-            // Clean up transformer before return it to the pool
-            transformer.reset();
-
-            super.passivateObject(transformer);
         }
     }
 
@@ -431,42 +420,43 @@ public class XsltTransformer extends AbstractXmlTransformer
     }
 
     /**
-     * @return The current maximum number of allowable active transformer objects in
-     *         the pool
+     * @return The maximum number of concurrent transformations, or a negative value
+     *         if there is no limit
      */
     public int getMaxActiveTransformers()
     {
-        return transformerPool.getMaxActive();
+        return maxActiveTransformers;
     }
 
     /**
-     * Sets the the current maximum number of active transformer objects allowed in the
-     * pool
+     * Sets the maximum number of concurrent transformations. Takes effect when the
+     * transformer is initialised.
      *
-     * @param maxActiveTransformers New maximum size to set
+     * @param maxActiveTransformers New maximum to set, a negative value means no limit
      */
     public void setMaxActiveTransformers(int maxActiveTransformers)
     {
-        transformerPool.setMaxActive(maxActiveTransformers);
+        this.maxActiveTransformers = maxActiveTransformers;
     }
 
     /**
-     * @return The current maximum number of allowable idle transformer objects in the
-     *         pool
+     * @return The configured maximum number of idle transformer objects
+     * @deprecated each thread keeps one idle transformer, so this value is ignored
      */
+    @Deprecated
     public int getMaxIdleTransformers()
     {
-        return transformerPool.getMaxIdle();
+        return maxIdleTransformers;
     }
 
     /**
-     * Sets the the current maximum number of idle transformer objects allowed in the pool
-     *
      * @param maxIdleTransformers New maximum size to set
+     * @deprecated each thread keeps one idle transformer, so this value is ignored
      */
+    @Deprecated
     public void setMaxIdleTransformers(int maxIdleTransformers)
     {
-        transformerPool.setMaxIdle(maxIdleTransformers);
+        this.maxIdleTransformers = maxIdleTransformers;
     }
 
     /**
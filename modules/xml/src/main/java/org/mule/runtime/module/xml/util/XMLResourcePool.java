@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.xml.util;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of JAXP objects that keeps an idle instance per thread.
+ * <p/>
+ * JAXP objects such as {@link DocumentBuilder}, {@link XPath} or {@link Transformer} are expensive to create but
+ * can't be used concurrently. This pool lends each thread the instance it used last time, without any locking.
+ * When a thread borrows again before releasing, as it happens with nested transformations, a new instance is created
+ * for the nested use. Instances are reset when released, and discarded if they can't be reset.
+ * <p/>
+ * Instances must always be released in the thread that borrowed them:
+ * <pre>
+ * DocumentBuilder builder = documentBuilders.borrow();
+ * try
+ * {
+ *     return builder.parse(source);
+ * }
+ * finally
+ * {
+ *     documentBuilders.release(builder);
+ * }
+ * </pre>
+ *
+ * @param <T> the type of the pooled objects
+ */
+public class XMLResourcePool<T>
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(XMLResourcePool.class);
+
+    private final ResourceFactory<T> factory;
+    private final ThreadLocal<T> idleResource = new ThreadLocal<>();
+
+    public XMLResourcePool(ResourceFactory<T> factory)
+    {
+        this.factory = factory;
+    }
+
+    /**
+     * @return the idle instance of the current thread, or a new one if there is none
+     * @throws Exception if a new instance can't be created
+     */
+    public T borrow() throws Exception
+    {
+        T resource = idleResource.get();
+        if (resource == null)
+        {
+            return factory.create();
+        }
+
+        // Keeps the entry in the thread map, so the next release doesn't need to create it again
+        idleResource.set(null);
+        return resource;
+    }
+
+    /**
+     * Resets the given instance and keeps it as the idle instance of the current thread.
+     *
+     * @param resource an instance obtained from {@link #borrow()} in the current thread
+     */
+    public void release(T resource)
+    {
+        try
+        {
+            factory.reset(resource);
+        }
+        catch (RuntimeException e)
+        {
+            logger.debug("Discarding pooled XML resource that can't be reset", e);
+            return;
+        }
+
+        if (idleResource.get() == null)
+        {
+            idleResource.set(resource);
+        }
+    }
+
+    /**
+     * Creates a pool of the document builders created by the given factory
+     */
+    public static XMLResourcePool<DocumentBuilder> documentBuilders(final DocumentBuilderFactory documentBuilderFactory)
+    {
+        return new XMLResourcePool<>(new ResourceFactory<DocumentBuilder>()
+        {
+            @Override
+            public DocumentBuilder create() throws Exception
+            {
+                synchronized (documentBuilderFactory)
+                {
+                    // Factories are not thread safe, and the pooled factories are shared
+                    return documentBuilderFactory.newDocumentBuilder();
+                }
+            }
+
+            @Override
+            public void reset(DocumentBuilder documentBuilder)
+            {
+                documentBuilder.reset();
+            }
+        });
+    }
+
+    /**
+     * Creates a pool of the transformers of the given compiled stylesheet
+     */
+    public static XMLResourcePool<Transformer> transformers(final Templates templates)
+    {
+        return new XMLResourcePool<>(new ResourceFactory<Transformer>()
+        {
+            @Override
+            public Transformer create() throws Exception
+            {
+                return templates.newTransformer();
+            }
+
+            @Override
+            public void reset(Transformer transformer)
+            {
+                transformer.clearParameters();
+                transformer.reset();
+            }
+        });
+    }
+
+    /**
+     * Creates a pool of identity transformers, which copy the source to the result
+     */
+    public static XMLResourcePool<Transformer> identityTransformers()
+    {
+        return new XMLResourcePool<>(new ResourceFactory<Transformer>()
+        {
+            @Override
+            public Transformer create() throws Exception
+            {
+                return XMLUtils.getTransformer();
+            }
+
+            @Override
+            public void reset(Transformer transformer)
+            {
+                transformer.reset();
+            }
+        });
+    }
+
+    /**
+     * Creates a pool of the XPath objects created by the given factory. Resetting an {@link XPath} also removes its
+     * namespace context and variable resolver, so they have to be set again on each borrowed instance.
+     */
+    public static XMLResourcePool<XPath> xpaths(final XPathFactory xpathFactory)
+    {
+        return new XMLResourcePool<>(new ResourceFactory<XPath>()
+        {
+            @Override
+            public XPath create() throws Exception
+            {
+                synchronized (xpathFactory)
+                {
+                    return xpathFactory.newXPath();
+                }
+            }
+
+            @Override
+            public void reset(XPath xpath)
+            {
+                xpath.reset();
+            }
+        });
+    }
+
+    /**
+     * Creates and resets the objects kept by a {@link XMLResourcePool}
+     */
+    public interface ResourceFactory<T>
+    {
+
+        /**
+         * @return a new instance
+         * @throws Exception if the instance can't be created
+         */
+        T create() throws Exception;
+
+        /**
+         * Restores the given instance to the state it had when created
+         *
+         * @param resource the instance to reset
+         */
+        void reset(T resource);
+    }
+}
@@ -30,6 +30,7 @@ import java.util.Iterator;
 import java.util.List;
 
 import javax.xml.namespace.NamespaceContext;
+import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
@@ -81,6 +82,8 @@ public class XMLUtils extends org.mule.runtime.core.util.XMLUtils
     public static final String JAXP_PROPERTIES_SCHEMA_LANGUAGE = "http://java.sun.com/xml/jaxp/properties/schemaLanguage";
     public static final String JAXP_PROPERTIES_SCHEMA_LANGUAGE_VALUE = "http://www.w3.org/2001/XMLSchema";
 
+    private static final XMLResourcePool<DocumentBuilder> NAMESPACE_AWARE_DOCUMENT_BUILDERS = XMLResourcePool.documentBuilders(createNamespaceAwareDocumentBuilderFactory());
+
     /**
      * Converts a DOM to an XML string.
      * @param dom the dome object to convert
@@ -457,13 +460,45 @@ public class XMLUtils extends org.mule.runtime.core.util.XMLUtils
 
     public static Node toDOMNode(Object src, MuleEvent event) throws Exception
     {
-        DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
-        builderFactory.setNamespaceAware(true);
+        return toDOMNode(src, event, NAMESPACE_AWARE_DOCUMENT_BUILDERS);
+    }
 
-        return toDOMNode(src, event, builderFactory);
+    public static Node toDOMNode(Object src, MuleEvent event, final DocumentBuilderFactory factory) throws Exception
+    {
+        return toDOMNode(src, event, new DocumentParser()
+        {
+            @Override
+            public Document parse(InputSource source) throws Exception
+            {
+                return factory.newDocumentBuilder().parse(source);
+            }
+        });
+    }
+
+    /**
+     * Converts the source to a DOM node, parsing it with a document builder borrowed from the given pool if needed.
+     */
+    public static Node toDOMNode(Object src, MuleEvent event, final XMLResourcePool<DocumentBuilder> documentBuilders) throws Exception
+    {
+        return toDOMNode(src, event, new DocumentParser()
+        {
+            @Override
+            public Document parse(InputSource source) throws Exception
+            {
+                DocumentBuilder documentBuilder = documentBuilders.borrow();
+                try
+                {
+                    return documentBuilder.parse(source);
+                }
+                finally
+                {
+                    documentBuilders.release(documentBuilder);
+                }
+            }
+        });
     }
 
-    public static Node toDOMNode(Object src, MuleEvent event, DocumentBuilderFactory factory) throws Exception
+    private static Node toDOMNode(Object src, MuleEvent event, DocumentParser parser) throws Exception
     {
         if (src instanceof Node)
         {
@@ -471,7 +506,7 @@ public class XMLUtils extends org.mule.runtime.core.util.XMLUtils
         }
         else if (src instanceof InputSource)
         {
-            return factory.newDocumentBuilder().parse((InputSource) src);
+            return parser.parse((InputSource) src);
         }
         else if (src instanceof org.dom4j.Document)
         {
@@ -484,21 +519,20 @@ public class XMLUtils extends org.mule.runtime.core.util.XMLUtils
             handler.write(event, output);
             InputStream stream = new ByteArrayInputStream(output.toByteArray());
 
-            return factory.newDocumentBuilder().parse(stream);
+            return parser.parse(new InputSource(stream));
         }
         else if (src instanceof byte[])
         {
             ByteArrayInputStream stream = new ByteArrayInputStream((byte[]) src);
-            return factory.newDocumentBuilder().parse(stream);
+            return parser.parse(new InputSource(stream));
         }
         else if (src instanceof InputStream)
         {
-            return factory.newDocumentBuilder().parse((InputStream) src);
+            return parser.parse(new InputSource((InputStream) src));
         }
         else if (src instanceof String)
         {
-            return factory.newDocumentBuilder().parse(
-                    new InputSource(new StringReader((String) src)));
+            return parser.parse(new InputSource(new StringReader((String) src)));
         }
         else if (src instanceof XMLStreamReader)
         {
@@ -510,7 +544,7 @@ public class XMLUtils extends org.mule.runtime.core.util.XMLUtils
                 xsr.nextTag();
             }
 
-            return factory.newDocumentBuilder().parse(new InputSource());
+            return parser.parse(new InputSource());
         }
         else if (src instanceof DelayedResult)
         {
@@ -525,6 +559,21 @@ public class XMLUtils extends org.mule.runtime.core.util.XMLUtils
         }
     }
 
+    private static DocumentBuilderFactory createNamespaceAwareDocumentBuilderFactory()
+    {
+        DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
+        builderFactory.setNamespaceAware(true);
+        return builderFactory;
+    }
+
+    /**
+     * Parses an XML document
+     */
+    private interface DocumentParser
+    {
+
+        Document parse(InputSource source) throws Exception;
+    }
 
     /**
      * Copies the reader to the writer. The start and end document methods must
@@ -11,6 +11,7 @@ import org.mule.runtime.core.api.MuleEvent;
 import org.mule.runtime.core.api.MuleRuntimeException;
 import org.mule.runtime.module.xml.i18n.XmlMessages;
 import org.mule.runtime.module.xml.util.NamespaceManager;
+import org.mule.runtime.module.xml.util.XMLResourcePool;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
@@ -57,14 +58,17 @@ import org.w3c.dom.Node;
  * we can determine the corresponding event for each thread evaluating an XPath expression. Notice that
  * because xpath evaluation is an operation that happens in RAM memory (basically because the DOM {@link Node}
  * needs to be completely loaded), we can use a {@link ThreadLocal} without risking failure if this is
- * executed in a non-blocking environment.
+ * executed in a non-blocking environment. The previous event of the thread is restored after each evaluation,
+ * so that evaluations can be nested, and the thread entry is kept to avoid creating it again on every evaluation.
+ *
+ * Expressions are compiled using {@link XPath} objects that each thread reuses through a {@link XMLResourcePool}.
  *
  * @since 3.6.0
  */
 public abstract class JaxpXPathEvaluator implements XPathEvaluator, XPathVariableResolver
 {
 
-    private final XPathFactory xpathFactory;
+    private final XMLResourcePool<XPath> xpathPool;
     private final Map<String, String> prefixToNamespaceMap = new HashMap<>();
     private final ThreadLocal<MuleEvent> evaluationEvent = new ThreadLocal<>();
 
@@ -83,7 +87,7 @@ public abstract class JaxpXPathEvaluator implements XPathEvaluator, XPathVariabl
 
     public JaxpXPathEvaluator()
     {
-        xpathFactory = createXPathFactory();
+        xpathPool = XMLResourcePool.xpaths(createXPathFactory());
         namespaceContext = newNamespaceContext();
     }
 
@@ -110,6 +114,7 @@ public abstract class JaxpXPathEvaluator implements XPathEvaluator, XPathVariabl
     @Override
     public Object evaluate(String xpathExpression, Node input, XPathReturnType returnType, MuleEvent event)
     {
+        MuleEvent previousEvent = evaluationEvent.get();
         try
         {
             evaluationEvent.set(event);
@@ -122,7 +127,7 @@ public abstract class JaxpXPathEvaluator implements XPathEvaluator, XPathVariabl
         }
         finally
         {
-            evaluationEvent.remove();
+            evaluationEvent.set(previousEvent);
         }
     }
 
@@ -177,18 +182,28 @@ public abstract class JaxpXPathEvaluator implements XPathEvaluator, XPathVariabl
         return ImmutableMap.copyOf(prefixToNamespaceMap);
     }
 
-    protected XPath newXPath()
-    {
-        XPath xpath = xpathFactory.newXPath();
-        xpath.setNamespaceContext(namespaceContext);
-        xpath.setXPathVariableResolver(this);
-
-        return xpath;
-    }
-
     protected XPathExpression compile(String expression) throws XPathExpressionException
     {
-        return newXPath().compile(expression);
+        XPath xpath;
+        try
+        {
+            xpath = xpathPool.borrow();
+        }
+        catch (Exception e)
+        {
+            throw new MuleRuntimeException(XmlMessages.failedToProcessXPath(expression), e);
+        }
+
+        try
+        {
+            xpath.setNamespaceContext(namespaceContext);
+            xpath.setXPathVariableResolver(this);
+            return xpath.compile(expression);
+        }
+        finally
+        {
+            xpathPool.release(xpath);
+        }
     }
 
     protected NamespaceContext newNamespaceContext()
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.xml.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.StringReader;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+@SmallTest
+public class XMLResourcePoolTestCase extends AbstractMuleTestCase
+{
+
+    private final CountingFactory factory = new CountingFactory();
+    private final XMLResourcePool<Object> pool = new XMLResourcePool<>(factory);
+
+    @Test
+    public void reusesReleasedResource() throws Exception
+    {
+        Object resource = pool.borrow();
+        pool.release(resource);
+
+        assertThat(pool.borrow(), is(sameInstance(resource)));
+        assertThat(factory.created.get(), is(1));
+        assertThat(factory.reset.get(), is(1));
+    }
+
+    @Test
+    public void createsResourceForNestedBorrow() throws Exception
+    {
+        Object outer = pool.borrow();
+        Object nested = pool.borrow();
+        pool.release(nested);
+        pool.release(outer);
+
+        assertThat(nested, is(not(sameInstance(outer))));
+        assertThat(pool.borrow(), is(sameInstance(nested)));
+    }
+
+    @Test
+    public void discardsResourceThatCantBeReset() throws Exception
+    {
+        Object resource = pool.borrow();
+        factory.failReset = true;
+        pool.release(resource);
+
+        assertThat(pool.borrow(), is(not(sameInstance(resource))));
+    }
+
+    @Test
+    public void keepsResourcePerThread() throws Exception
+    {
+        Object resource = pool.borrow();
+        pool.release(resource);
+
+        final AtomicReference<Object> otherThreadResource = new AtomicReference<>();
+        Thread thread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    otherThreadResource.set(pool.borrow());
+                }
+                catch (Exception e)
+                {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        thread.start();
+        thread.join();
+
+        assertThat(otherThreadResource.get(), is(not(sameInstance(resource))));
+        assertThat(pool.borrow(), is(sameInstance(resource)));
+    }
+
+    @Test
+    public void parsesWithPooledDocumentBuilders() throws Exception
+    {
+        DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+        documentBuilderFactory.setNamespaceAware(true);
+        XMLResourcePool<DocumentBuilder> documentBuilders = XMLResourcePool.documentBuilders(documentBuilderFactory);
+
+        Document first = (Document) XMLUtils.toDOMNode("<a xmlns='urn:test'/>", null, documentBuilders);
+        Document second = (Document) XMLUtils.toDOMNode(new InputSource(new StringReader("<b/>")), null, documentBuilders);
+
+        assertThat(first.getDocumentElement().getNamespaceURI(), is("urn:test"));
+        assertThat(second.getDocumentElement().getLocalName(), is("b"));
+    }
+
+    private static class CountingFactory implements XMLResourcePool.ResourceFactory<Object>
+    {
+
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicInteger reset = new AtomicInteger();
+        private volatile boolean failReset;
+
+        @Override
+        public Object create()
+        {
+            created.incrementAndGet();
+            return new Object();
+        }
+
+        @Override
+        public void reset(Object resource)
+        {
+            if (failReset)
+            {
+                throw new IllegalStateException();
+            }
+            reset.incrementAndGet();
+        }
+    }
+}
@@ -24,11 +24,13 @@ import static org.mule.runtime.module.http.api.HttpHeaders.Names.TRANSFER_ENCODI
 import static org.mule.runtime.module.http.api.HttpHeaders.Values.CHUNKED;
 import static org.mule.runtime.module.http.api.HttpHeaders.Values.MULTIPART_FORM_DATA;
 import org.mule.extension.http.api.HttpRequestAttributes;
+import org.mule.runtime.core.api.DefaultMuleException;
 import org.mule.runtime.core.api.MuleEvent;
 import org.mule.runtime.core.api.MuleException;
 import org.mule.runtime.core.api.MuleMessage;
 import org.mule.runtime.core.api.processor.MessageProcessor;
 import org.mule.runtime.core.util.IOUtils;
+import org.mule.runtime.core.util.concurrent.Latch;
 import org.mule.runtime.module.http.api.HttpHeaders;
 import org.mule.runtime.module.http.functional.AbstractHttpTestCase;
 import org.mule.runtime.module.http.internal.HttpParser;
@@ -39,6 +41,7 @@ import org.mule.tck.junit4.rule.SystemProperty;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -72,6 +75,7 @@ public class HttpListenerAttachmentsTestCase extends AbstractHttpTestCase
     private static final String FILE_BODY_FIELD_FILENAME = "file.ext";
     private static final boolean DO_NOT_USE_CHUNKED_MODE = false;
     private static final boolean USE_CHUNKED_MODE = true;
+    private static final Latch responseReceived = new Latch();
     @Rule
     public DynamicPort listenPort = new DynamicPort("port");
     @Rule
@@ -88,6 +92,8 @@ public class HttpListenerAttachmentsTestCase extends AbstractHttpTestCase
     public SystemProperty formDataChunkedPath = new SystemProperty("multipartChunked", "multipartChunked");
     @Rule
     public SystemProperty multipartResponse = new SystemProperty("multipartResponse", "multipartResponse");
+    @Rule
+    public SystemProperty asyncPath = new SystemProperty("asyncPath", "asyncPath");
 
 
     @Override
@@ -160,6 +166,25 @@ public class HttpListenerAttachmentsTestCase extends AbstractHttpTestCase
         }
     }
 
+    @Test
+    public void asyncBranchReadsLargePartAfterResponseIsSent() throws Exception
+    {
+        try (CloseableHttpClient httpClient = HttpClients.createDefault())
+        {
+            HttpPost httpPost = new HttpPost(getUrl(asyncPath.getValue()));
+            httpPost.setEntity(getMultipartEntity(true));
+            try (CloseableHttpResponse response = httpClient.execute(httpPost))
+            {
+                assertThat(IOUtils.toString(response.getEntity().getContent()), is("received"));
+            }
+        }
+        responseReceived.release();
+
+        MuleMessage asyncMessage = muleContext.getClient().request("test://async", RECEIVE_TIMEOUT);
+        assertThat(asyncMessage, is(notNullValue()));
+        assertThat(asyncMessage.getPayload(), Is.<Object>is(FILE_BODY_FIELD_VALUE));
+    }
+
     private String getResponseWithExpectedAttachmentFrom(String path, String requiredHeader) throws MuleException, IOException
     {
         try (CloseableHttpClient httpClient = HttpClients.createDefault())
@@ -303,6 +328,45 @@ public class HttpListenerAttachmentsTestCase extends AbstractHttpTestCase
         }
     }
 
+    public static class AwaitResponseMessageProcessor implements MessageProcessor
+    {
+        @Override
+        public MuleEvent process(MuleEvent event) throws MuleException
+        {
+            try
+            {
+                responseReceived.await();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            return event;
+        }
+    }
+
+    public static class ReadFilePartMessageProcessor implements MessageProcessor
+    {
+        @Override
+        public MuleEvent process(MuleEvent event) throws MuleException
+        {
+            DataHandler filePart = ((HttpRequestAttributes) event.getMessage().getAttributes()).getParts().get(FILE_BODY_FIELD_NAME);
+            try (InputStream content = filePart.getInputStream())
+            {
+                String value = IOUtils.toString(content);
+                event.setMessage(event.getMessage().transform(msg -> {
+                    msg.setPayload(value);
+                    return msg;
+                }));
+            }
+            catch (IOException e)
+            {
+                throw new DefaultMuleException(e);
+            }
+            return event;
+        }
+    }
+
     public static class ConvertPartsMessageProcessor implements MessageProcessor
     {
         @Override
@@ -150,6 +150,52 @@ public class MuleEventCopyPerformanceTestCase extends AbstractMuleContextTestCas
         }
     }
 
+    /**
+     * Simulates a flow of 20 processors where each one receives a copy of the event, as it happens on async
+     * boundaries and routes, and sets a flow variable and an outbound property.
+     */
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void copyAndWriteIn20ProcessorFlowWith10FlowVarsAnd10Properties() throws Exception
+    {
+        DefaultMuleEvent original = createMuleEventWithFlowVarsAndProperties(10);
+        for (int i = 0; i < 1000; i++)
+        {
+            event = original;
+            for (int j = 1; j <= 20; j++)
+            {
+                event = (DefaultMuleEvent) event.newThreadCopy();
+                event.setFlowVariable("processor" + j, "val");
+                int finalJ = j;
+                event.setMessage(event.getMessage().transform(msg -> {
+                    msg.setOutboundProperty("processor" + finalJ, "val");
+                    return msg;
+                }));
+            }
+        }
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void copyAndWriteIn20ProcessorFlowWith50FlowVarsAnd50Properties() throws Exception
+    {
+        DefaultMuleEvent original = createMuleEventWithFlowVarsAndProperties(50);
+        for (int i = 0; i < 1000; i++)
+        {
+            event = original;
+            for (int j = 1; j <= 20; j++)
+            {
+                event = (DefaultMuleEvent) event.newThreadCopy();
+                event.setFlowVariable("processor" + j, "val");
+                int finalJ = j;
+                event.setMessage(event.getMessage().transform(msg -> {
+                    msg.setOutboundProperty("processor" + finalJ, "val");
+                    return msg;
+                }));
+            }
+        }
+    }
+
     protected DefaultMuleEvent createMuleEvent() throws Exception
     {
         return new DefaultMuleEvent(new DefaultMuleMessage(payload, muleContext),
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.context.notification;
+
+import org.mule.runtime.core.api.MuleEvent;
+import org.mule.runtime.core.api.context.notification.ConnectionNotificationListener;
+import org.mule.runtime.core.api.context.notification.MessageProcessorNotificationListener;
+import org.mule.runtime.core.api.processor.MessageProcessor;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ServerNotificationManagerPerformanceTestCase extends AbstractMuleContextTestCase
+{
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    private final AtomicLong received = new AtomicLong();
+
+    private ServerNotificationManager notificationManager;
+    private MuleEvent event;
+    private MessageProcessor processor;
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 120;
+    }
+
+    @Before
+    public void before() throws Exception
+    {
+        notificationManager = muleContext.getNotificationManager();
+        notificationManager.addInterfaceToType(MessageProcessorNotificationListener.class, MessageProcessorNotification.class);
+        notificationManager.addListener(new MessageProcessorNotificationListener<MessageProcessorNotification>()
+        {
+            @Override
+            public void onNotification(MessageProcessorNotification notification)
+            {
+                received.incrementAndGet();
+            }
+        });
+        notificationManager.addListener(new ConnectionNotificationListener<ConnectionNotification>()
+        {
+            @Override
+            public void onNotification(ConnectionNotification notification)
+            {
+                received.incrementAndGet();
+            }
+        });
+        event = getTestEvent("");
+        processor = muleEvent -> muleEvent;
+    }
+
+    /**
+     * Notifications delivered synchronously through the routing table of the notification class
+     */
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void fireBlockingNotifications() throws Exception
+    {
+        for (int i = 0; i < 1000; i++)
+        {
+            notificationManager.fireNotification(new MessageProcessorNotification(event.getFlowConstruct(), event, processor, null,
+                                                                                  MessageProcessorNotification.MESSAGE_PROCESSOR_PRE_INVOKE, "/flow/0"));
+        }
+    }
+
+    /**
+     * Notifications queued in the ring buffer and delivered by the notification manager work
+     */
+    @Test
+    @PerfTest(duration = 15000, threads = 4, warmUp = 5000)
+    public void fireAsyncNotifications() throws Exception
+    {
+        for (int i = 0; i < 1000; i++)
+        {
+            notificationManager.fireNotification(new ConnectionNotification(null, "connector", ConnectionNotification.CONNECTION_CONNECTED));
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.el.mvel;
+
+import org.mule.runtime.core.DefaultMuleEvent;
+import org.mule.runtime.core.DefaultMuleMessage;
+import org.mule.runtime.core.MessageExchangePattern;
+import org.mule.runtime.core.api.MuleEvent;
+import org.mule.runtime.core.construct.Flow;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.io.Serializable;
+import java.util.Collections;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Compares the evaluation of simple expressions through the fast path against the full MVEL evaluation.
+ */
+public class MVELSimpleExpressionPerformanceTestCase extends AbstractMuleContextTestCase
+{
+
+    private static final int ITERATIONS = 10000;
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    private MVELExpressionLanguage expressionLanguage;
+    private MuleEvent event;
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 180;
+    }
+
+    @Before
+    public void before()
+    {
+        expressionLanguage = (MVELExpressionLanguage) muleContext.getExpressionLanguage();
+        event = new DefaultMuleEvent(new DefaultMuleMessage("Tom,Fennelly,Male,4,Ireland",
+                                                            Collections.<String, Serializable>singletonMap("host", "localhost"),
+                                                            null, null, muleContext),
+                                     MessageExchangePattern.ONE_WAY, (Flow) null);
+        event.setFlowVariable("id", "1234");
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void payloadFastPath()
+    {
+        evaluate("#[payload]", true);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void payloadMvel()
+    {
+        evaluate("#[payload]", false);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void flowVarFastPath()
+    {
+        evaluate("#[flowVars.id]", true);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void flowVarMvel()
+    {
+        evaluate("#[flowVars.id]", false);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void inboundPropertyFastPath()
+    {
+        evaluate("#[message.inboundProperties['host']]", true);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void inboundPropertyMvel()
+    {
+        evaluate("#[message.inboundProperties['host']]", false);
+    }
+
+    private void evaluate(String expression, boolean fastPath)
+    {
+        expressionLanguage.setFastPathEnabled(fastPath);
+        for (int i = 0; i < ITERATIONS; i++)
+        {
+            expressionLanguage.evaluate(expression, event);
+        }
+    }
+}
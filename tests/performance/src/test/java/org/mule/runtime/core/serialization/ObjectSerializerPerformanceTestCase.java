@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.serialization;
+
+import org.mule.runtime.core.api.MuleEvent;
+import org.mule.runtime.core.api.serialization.ObjectSerializer;
+import org.mule.runtime.core.serialization.internal.AbstractObjectSerializer;
+import org.mule.runtime.core.serialization.internal.CompactObjectSerializer;
+import org.mule.runtime.core.serialization.internal.JavaObjectSerializer;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ObjectSerializerPerformanceTestCase extends AbstractMuleContextTestCase
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ObjectSerializerPerformanceTestCase.class);
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    private ObjectSerializer javaSerializer;
+    private ObjectSerializer compactSerializer;
+    private MuleEvent event;
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 120;
+    }
+
+    @Before
+    public void before() throws Exception
+    {
+        javaSerializer = createSerializer(new JavaObjectSerializer());
+        compactSerializer = createSerializer(new CompactObjectSerializer());
+        event = getTestEvent("payload");
+        for (int i = 0; i < 10; i++)
+        {
+            event.setFlowVariable("var" + i, "value" + i);
+            event.getSession().setProperty("prop" + i, i);
+        }
+        logger.info("Serialized event size: java={} bytes, compact={} bytes", javaSerializer.serialize(event).length,
+                    compactSerializer.serialize(event).length);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void javaSerialization() throws Exception
+    {
+        roundTrip(javaSerializer);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void compactSerialization() throws Exception
+    {
+        roundTrip(compactSerializer);
+    }
+
+    private void roundTrip(ObjectSerializer serializer)
+    {
+        for (int i = 0; i < 1000; i++)
+        {
+            serializer.deserialize(serializer.serialize(event));
+        }
+    }
+
+    private ObjectSerializer createSerializer(AbstractObjectSerializer serializer)
+    {
+        serializer.setMuleContext(muleContext);
+        return serializer;
+    }
+}
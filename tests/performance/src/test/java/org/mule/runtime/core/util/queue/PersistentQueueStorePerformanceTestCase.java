@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.queue;
+
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Compares the throughput of the dual file and the segmented log persistent queue stores.
+ */
+public class PersistentQueueStorePerformanceTestCase extends AbstractMuleContextTestCase
+{
+
+    private static final int NUMBER_OF_MESSAGES = 1000;
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    @Rule
+    public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+    private final String payload = "{\"id\": 1, \"name\": \"A persistent queue test payload\"}";
+    private DualRandomAccessFileQueueStoreDelegate dualFileQueueStore;
+    private SegmentedMappedFileQueueStoreDelegate segmentedLogQueueStore;
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 120;
+    }
+
+    @Before
+    public void before()
+    {
+        String workingDirectoryPath = workingDirectory.getRoot().getAbsolutePath();
+        dualFileQueueStore = new DualRandomAccessFileQueueStoreDelegate("dualFileQueue", workingDirectoryPath, muleContext, 0);
+        segmentedLogQueueStore = new SegmentedMappedFileQueueStoreDelegate("segmentedLogQueue", workingDirectoryPath, muleContext, 0);
+    }
+
+    @After
+    public void after()
+    {
+        dualFileQueueStore.dispose();
+        segmentedLogQueueStore.dispose();
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void dualFileOfferAndPoll() throws Exception
+    {
+        offerAndPoll(dualFileQueueStore);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void segmentedLogOfferAndPoll() throws Exception
+    {
+        offerAndPoll(segmentedLogQueueStore);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 4, warmUp = 5000)
+    public void dualFileOfferAndPollConcurrently() throws Exception
+    {
+        offerAndPoll(dualFileQueueStore);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 4, warmUp = 5000)
+    public void segmentedLogOfferAndPollConcurrently() throws Exception
+    {
+        offerAndPoll(segmentedLogQueueStore);
+    }
+
+    private void offerAndPoll(QueueStoreDelegate queueStore) throws InterruptedException
+    {
+        for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+        {
+            queueStore.offer(payload, 0, 0);
+        }
+        for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+        {
+            queueStore.poll(0);
+        }
+    }
+}
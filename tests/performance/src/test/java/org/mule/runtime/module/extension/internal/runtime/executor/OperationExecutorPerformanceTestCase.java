@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.executor;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.mule.runtime.core.api.MuleEvent;
+import org.mule.runtime.core.util.ClassUtils;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.introspection.operation.RuntimeOperationModel;
+import org.mule.runtime.extension.api.introspection.parameter.ParameterModel;
+import org.mule.runtime.extension.api.runtime.OperationExecutor;
+import org.mule.runtime.module.extension.internal.runtime.DefaultOperationContext;
+import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSetResult;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class OperationExecutorPerformanceTestCase extends AbstractMuleTestCase
+{
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    private DefaultOperationContext operationContext;
+    private OperationExecutor reflectiveExecutor;
+    private OperationExecutor methodHandleExecutor;
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 120;
+    }
+
+    @Before
+    public void before() throws Exception
+    {
+        Method operationMethod = ClassUtils.getMethod(TestOperations.class, "concat", new Class<?>[] {String.class, int.class, long.class});
+
+        Map<ParameterModel, Object> parameters = new HashMap<>();
+        for (java.lang.reflect.Parameter parameter : operationMethod.getParameters())
+        {
+            ParameterModel parameterModel = mock(ParameterModel.class);
+            when(parameterModel.getName()).thenReturn(parameter.getName());
+            parameters.put(parameterModel, parameter.getType().equals(String.class) ? "value" : null);
+        }
+        ResolverSetResult resolverSetResult = mock(ResolverSetResult.class);
+        when(resolverSetResult.asMap()).thenReturn(parameters);
+        operationContext = new DefaultOperationContext(null, resolverSetResult, mock(RuntimeOperationModel.class), mock(MuleEvent.class));
+
+        reflectiveExecutor = new ReflectiveOperationExecutorFactory<>(TestOperations.class, operationMethod).createExecutor();
+        methodHandleExecutor = new MethodHandleOperationExecutorFactory<>(TestOperations.class, operationMethod).createExecutor();
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void reflectiveExecutor() throws Exception
+    {
+        execute(reflectiveExecutor);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void methodHandleExecutor() throws Exception
+    {
+        execute(methodHandleExecutor);
+    }
+
+    private void execute(OperationExecutor executor) throws Exception
+    {
+        for (int i = 0; i < 10000; i++)
+        {
+            executor.execute(operationContext);
+        }
+    }
+
+    public static class TestOperations
+    {
+
+        public String concat(String value, @Optional int times, @Optional long offset)
+        {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.http.internal.listener;
+
+import static org.mockito.Mockito.mock;
+import org.mule.runtime.module.http.internal.domain.request.HttpRequest;
+import org.mule.runtime.module.http.internal.domain.request.HttpRequestBuilder;
+import org.mule.runtime.module.http.internal.listener.async.RequestHandler;
+import org.mule.runtime.module.http.internal.listener.matcher.AcceptsAllMethodsRequestMatcher;
+import org.mule.runtime.module.http.internal.listener.matcher.ListenerRequestMatcher;
+import org.mule.runtime.module.http.internal.listener.matcher.MethodRequestMatcher;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Measures the dispatch of requests by a {@link HttpListenerRegistry} with 1000 registered listener paths,
+ * mixing static paths, uri parameters, wildcards and method specific listeners.
+ */
+public class HttpListenerRegistryPerformanceTestCase extends AbstractMuleTestCase
+{
+
+    private static final String TEST_IP = "127.0.0.1";
+    private static final int TEST_PORT = 10000;
+    private static final int PATHS = 1000;
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    private HttpListenerRegistry httpListenerRegistry;
+    private HttpRequest[] requests;
+    private HttpRequest[] missingRequests;
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 180;
+    }
+
+    @Before
+    public void before()
+    {
+        Server server = new TestServer(new ServerAddress(TEST_IP, TEST_PORT));
+        httpListenerRegistry = new HttpListenerRegistry();
+        requests = new HttpRequest[PATHS];
+        missingRequests = new HttpRequest[PATHS];
+        for (int i = 0; i < PATHS; i++)
+        {
+            switch (i % 4)
+            {
+                case 0:
+                    register(server, "/api/resource" + i + "/items", AcceptsAllMethodsRequestMatcher.instance());
+                    requests[i] = request("GET", "/api/resource" + i + "/items");
+                    break;
+                case 1:
+                    register(server, "/api/resource" + i + "/{id}", new MethodRequestMatcher("GET"));
+                    register(server, "/api/resource" + i + "/{id}", new MethodRequestMatcher("POST"));
+                    requests[i] = request("POST", "/api/resource" + i + "/42");
+                    break;
+                case 2:
+                    register(server, "/api/resource" + i + "/*", AcceptsAllMethodsRequestMatcher.instance());
+                    requests[i] = request("GET", "/api/resource" + i + "/some/nested/path");
+                    break;
+                default:
+                    register(server, "/api/v" + i + "/orders/{orderId}/lines", new MethodRequestMatcher("GET", "PUT"));
+                    requests[i] = request("PUT", "/api/v" + i + "/orders/1234/lines");
+            }
+            missingRequests[i] = request("GET", "/unknown/resource" + i);
+        }
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void dispatch()
+    {
+        dispatch(requests);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 8, warmUp = 5000)
+    public void concurrentDispatch()
+    {
+        dispatch(requests);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void dispatchWithoutListener()
+    {
+        dispatch(missingRequests);
+    }
+
+    private void dispatch(HttpRequest[] requests)
+    {
+        for (HttpRequest request : requests)
+        {
+            httpListenerRegistry.getRequestHandler(TEST_IP, TEST_PORT, request);
+        }
+    }
+
+    private void register(Server server, String path, MethodRequestMatcher methodRequestMatcher)
+    {
+        httpListenerRegistry.addRequestHandler(server, mock(RequestHandler.class), new ListenerRequestMatcher(methodRequestMatcher, path));
+    }
+
+    private HttpRequest request(String method, String path)
+    {
+        return new HttpRequestBuilder().setMethod(method).setUri(path).build();
+    }
+
+    /**
+     * Avoids recording the invocations done by the registry on every request, as a mock would
+     */
+    private static class TestServer implements Server
+    {
+
+        private final ServerAddress serverAddress;
+
+        private TestServer(ServerAddress serverAddress)
+        {
+            this.serverAddress = serverAddress;
+        }
+
+        @Override
+        public void start()
+        {
+        }
+
+        @Override
+        public void stop()
+        {
+        }
+
+        @Override
+        public ServerAddress getServerAddress()
+        {
+            return serverAddress;
+        }
+
+        @Override
+        public boolean isStopping()
+        {
+            return false;
+        }
+
+        @Override
+        public boolean isStopped()
+        {
+            return false;
+        }
+
+        @Override
+        public RequestHandlerManager addRequestHandler(ListenerRequestMatcher listenerRequestMatcher, RequestHandler requestHandler)
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.launcher.application;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import org.mule.runtime.module.artifact.classloader.ArtifactClassLoader;
+import org.mule.runtime.module.artifact.classloader.ArtifactClassLoaderFilter;
+import org.mule.runtime.module.artifact.classloader.ClassLoaderLookupPolicy;
+import org.mule.runtime.module.artifact.classloader.FilteringArtifactClassLoader;
+import org.mule.runtime.module.artifact.classloader.MuleArtifactClassLoader;
+import org.mule.runtime.module.artifact.classloader.MuleClassLoaderLookupPolicy;
+import org.mule.runtime.module.launcher.MuleApplicationClassLoader;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Measures class and resource lookups on a class loader hierarchy like the one built when deploying an
+ * application with {@link #PLUGINS} plugins.
+ */
+public class ApplicationClassLoaderPerformanceTestCase extends AbstractMuleTestCase
+{
+
+    private static final int PLUGINS = 50;
+
+    private static final String[] CONTAINER_CLASSES = {
+            "org.mule.runtime.core.DefaultMuleEvent",
+            "org.mule.runtime.core.DefaultMuleMessage",
+            "org.mule.runtime.core.api.MuleContext",
+            "org.mule.runtime.core.util.IOUtils",
+            "org.apache.commons.lang.StringUtils"
+    };
+
+    // probed by frameworks like Spring or CXF to detect optional features
+    private static final String[] MISSING_CLASSES = {
+            "org.springframework.aop.framework.MissingProxyFactory",
+            "org.apache.cxf.missing.MissingFeature",
+            "javax.missing.MissingApi",
+            "org.mule.runtime.core.MissingClass"
+    };
+
+    private static final String[] MISSING_RESOURCES = {
+            "META-INF/services/org.mule.missing.Service",
+            "META-INF/spring.missing",
+            "log4j2-missing.xml"
+    };
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ClassLoaderLookupPolicy lookupPolicy;
+    private URL[] pluginUrls;
+    private URL appUrl;
+    private List<ArtifactClassLoader> deployedClassLoaders;
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 120;
+    }
+
+    @Before
+    public void before() throws Exception
+    {
+        lookupPolicy = new MuleClassLoaderLookupPolicy(emptyMap(), singleton("java."));
+
+        pluginUrls = new URL[PLUGINS];
+        for (int i = 0; i < PLUGINS; i++)
+        {
+            File pluginFolder = folder.newFolder("plugin" + i);
+            File resourceFolder = new File(pluginFolder, "plugin" + i);
+            resourceFolder.mkdirs();
+            new File(resourceFolder, "plugin.properties").createNewFile();
+            pluginUrls[i] = pluginFolder.toURI().toURL();
+        }
+        appUrl = folder.newFolder("app").toURI().toURL();
+
+        deployedClassLoaders = createClassLoaders();
+    }
+
+    @After
+    public void after()
+    {
+        dispose(deployedClassLoaders);
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void deployApplicationWithFiftyPlugins() throws Exception
+    {
+        List<ArtifactClassLoader> classLoaders = createClassLoaders();
+        try
+        {
+            lookup(getApplicationClassLoader(classLoaders));
+        }
+        finally
+        {
+            dispose(classLoaders);
+        }
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 1, warmUp = 5000)
+    public void lookupOnDeployedApplication() throws Exception
+    {
+        lookup(getApplicationClassLoader(deployedClassLoaders));
+    }
+
+    @Test
+    @PerfTest(duration = 15000, threads = 4, warmUp = 5000)
+    public void concurrentLookupOnDeployedApplication() throws Exception
+    {
+        lookup(getApplicationClassLoader(deployedClassLoaders));
+    }
+
+    private void lookup(ClassLoader classLoader) throws ClassNotFoundException
+    {
+        for (String className : CONTAINER_CLASSES)
+        {
+            classLoader.loadClass(className);
+        }
+
+        // startup usually probes the same names from several places
+        for (int i = 0; i < 3; i++)
+        {
+            for (String className : MISSING_CLASSES)
+            {
+                try
+                {
+                    classLoader.loadClass(className);
+                }
+                catch (ClassNotFoundException e)
+                {
+                    // expected
+                }
+            }
+            for (String resource : MISSING_RESOURCES)
+            {
+                classLoader.getResource(resource);
+            }
+        }
+
+        for (int i = 0; i < PLUGINS; i++)
+        {
+            classLoader.getResource("plugin" + i + "/plugin.properties");
+        }
+    }
+
+    /**
+     * @return the created class loaders, the one used by the application being the first
+     */
+    private List<ArtifactClassLoader> createClassLoaders() throws IOException
+    {
+        ClassLoader containerClassLoader = getClass().getClassLoader();
+
+        List<ArtifactClassLoader> classLoaders = new LinkedList<>();
+        List<ArtifactClassLoader> filteringPluginClassLoaders = new LinkedList<>();
+        for (int i = 0; i < PLUGINS; i++)
+        {
+            MuleArtifactClassLoader pluginClassLoader = new MuleArtifactClassLoader("plugin" + i, new URL[] {pluginUrls[i]}, containerClassLoader, lookupPolicy);
+            ArtifactClassLoaderFilter filter = new ArtifactClassLoaderFilter(singleton("org.mule.plugin" + i), singleton("plugin" + i));
+            filteringPluginClassLoaders.add(new FilteringArtifactClassLoader(pluginClassLoader, filter));
+            classLoaders.add(pluginClassLoader);
+        }
+        CompositeArtifactClassLoader pluginsClassLoader = new CompositeArtifactClassLoader("appPlugins", containerClassLoader, filteringPluginClassLoaders, lookupPolicy);
+
+        MuleApplicationClassLoader applicationClassLoader = new MuleApplicationClassLoader("app", pluginsClassLoader, null, singletonList(appUrl), lookupPolicy);
+        classLoaders.add(0, new CompositeApplicationClassLoader("app", pluginsClassLoader, singletonList(applicationClassLoader), lookupPolicy));
+
+        return classLoaders;
+    }
+
+    private ClassLoader getApplicationClassLoader(List<ArtifactClassLoader> classLoaders)
+    {
+        return classLoaders.get(0).getClassLoader();
+    }
+
+    private void dispose(List<ArtifactClassLoader> classLoaders)
+    {
+        for (ArtifactClassLoader classLoader : classLoaders)
+        {
+            classLoader.dispose();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.xml;
+
+import org.mule.runtime.core.transformer.types.DataTypeFactory;
+import org.mule.runtime.module.xml.transformer.XsltTransformer;
+import org.mule.runtime.module.xml.util.XMLUtils;
+import org.mule.runtime.module.xml.xpath.SaxonXpathEvaluator;
+import org.mule.runtime.module.xml.xpath.XPathEvaluator;
+import org.mule.runtime.module.xml.xpath.XPathReturnType;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Measures the throughput of XSLT transformations and XPath evaluations on a catalog of 100 entries when running
+ * from 1 to 64 concurrent threads, all of them sharing the same transformer and evaluator.
+ */
+public class XmlProcessingPerformanceTestCase extends AbstractMuleContextTestCase
+{
+
+    private static final int ENTRIES = 100;
+    private static final String XPATH_EXPRESSION = "count(/catalog/cd[price > 10 and country = 'UK'])";
+    private static final String XSLT = "<xsl:stylesheet version=\"2.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">" +
+                                       "<xsl:template match=\"/\">" +
+                                       "<titles><xsl:for-each select=\"catalog/cd[country = 'UK']\">" +
+                                       "<title year=\"{year}\"><xsl:value-of select=\"title\"/></title>" +
+                                       "</xsl:for-each></titles>" +
+                                       "</xsl:template>" +
+                                       "</xsl:stylesheet>";
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule();
+
+    private String catalog;
+    private XsltTransformer xsltTransformer;
+    private XPathEvaluator xpathEvaluator;
+
+    @Override
+    public int getTestTimeoutSecs()
+    {
+        return 120;
+    }
+
+    @Override
+    protected void doSetUp() throws Exception
+    {
+        StringBuilder builder = new StringBuilder("<catalog>");
+        for (int i = 0; i < ENTRIES; i++)
+        {
+            builder.append("<cd><title>Title ").append(i).append("</title>")
+                   .append("<country>").append(i % 2 == 0 ? "UK" : "USA").append("</country>")
+                   .append("<price>").append(5 + i % 10).append(".90</price>")
+                   .append("<year>").append(1980 + i % 30).append("</year></cd>");
+        }
+        catalog = builder.append("</catalog>").toString();
+
+        xsltTransformer = new XsltTransformer();
+        xsltTransformer.setReturnDataType(DataTypeFactory.STRING);
+        xsltTransformer.setXslt(XSLT);
+        xsltTransformer.setMuleContext(muleContext);
+        xsltTransformer.initialise();
+
+        xpathEvaluator = new SaxonXpathEvaluator();
+    }
+
+    @Test
+    @PerfTest(duration = 10000, threads = 1, warmUp = 3000)
+    public void xslt1Thread() throws Exception
+    {
+        xsltTransformer.transform(catalog);
+    }
+
+    @Test
+    @PerfTest(duration = 10000, threads = 4, warmUp = 3000)
+    public void xslt4Threads() throws Exception
+    {
+        xsltTransformer.transform(catalog);
+    }
+
+    @Test
+    @PerfTest(duration = 10000, threads = 16, warmUp = 3000)
+    public void xslt16Threads() throws Exception
+    {
+        xsltTransformer.transform(catalog);
+    }
+
+    @Test
+    @PerfTest(duration = 10000, threads = 64, warmUp = 3000)
+    public void xslt64Threads() throws Exception
+    {
+        xsltTransformer.transform(catalog);
+    }
+
+    @Test
+    @PerfTest(duration = 10000, threads = 1, warmUp = 3000)
+    public void xpath1Thread() throws Exception
+    {
+        evaluateXPath();
+    }
+
+    @Test
+    @PerfTest(duration = 10000, threads = 4, warmUp = 3000)
+    public void xpath4Threads() throws Exception
+    {
+        evaluateXPath();
+    }
+
+    @Test
+    @PerfTest(duration = 10000, threads = 16, warmUp = 3000)
+    public void xpath16Threads() throws Exception
+    {
+        evaluateXPath();
+    }
+
+    @Test
+    @PerfTest(duration = 10000, threads = 64, warmUp = 3000)
+    public void xpath64Threads() throws Exception
+    {
+        evaluateXPath();
+    }
+
+    private void evaluateXPath() throws Exception
+    {
+        // Parses the payload on each evaluation, as XPath filters and functions do
+        xpathEvaluator.evaluate(XPATH_EXPRESSION, XMLUtils.toDOMNode(catalog, null), XPathReturnType.NUMBER, null);
+    }
+}
@@ -0,0 +1,787 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.compatibility.transport.tcp;
+
+import org.mule.compatibility.core.api.endpoint.InboundEndpoint;
+import org.mule.compatibility.core.api.transport.Connector;
+import org.mule.compatibility.core.connector.EndpointConnectException;
+import org.mule.compatibility.core.transport.AbstractMessageReceiver;
+import org.mule.compatibility.core.transport.AbstractReceiverWorker;
+import org.mule.compatibility.transport.tcp.i18n.TcpMessages;
+import org.mule.runtime.core.api.MuleException;
+import org.mule.runtime.core.api.MutableMuleMessage;
+import org.mule.runtime.core.api.config.MuleProperties;
+import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.lifecycle.CreateException;
+import org.mule.runtime.core.api.transaction.Transaction;
+import org.mule.runtime.core.api.transaction.TransactionException;
+import org.mule.runtime.core.connector.ConnectException;
+import org.mule.runtime.core.util.concurrent.NamedThreadFactory;
+import org.mule.runtime.core.util.concurrent.ThreadNameHelper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.resource.spi.work.WorkException;
+import javax.resource.spi.work.WorkManager;
+
+/**
+ * <code>NioTcpMessageReceiver</code> acts like a TCP server to receive socket requests, serving all the connections
+ * from a few selector threads instead of dedicating a thread to each connection.
+ * <p/>
+ * Each selector thread owns a direct buffer that is used to read from all its connections, so idle connections don't
+ * hold any buffer. The messages are delimited as they arrive by the {@link TcpMessageFramer} of the connector
+ * protocol, which must be a {@link NonBlockingTcpProtocol}, and processed in the receiver work manager. The messages
+ * of a connection are processed one at a time, so responses are sent in the same order as requests. Reading from a
+ * connection is suspended while too many of its messages are waiting to be processed.
+ */
+public class NioTcpMessageReceiver extends AbstractMessageReceiver
+{
+
+    /**
+     * Maximum number of reads from a connection on each selection, so a busy connection doesn't starve the others
+     */
+    private static final int MAX_READS_PER_SELECTION = 16;
+
+    /**
+     * Number of messages of a connection waiting to be processed at which reading from it is suspended
+     */
+    private static final int MAX_PENDING_MESSAGES = 32;
+
+    private static final long SELECT_TIMEOUT = 1000;
+    private static final long STOP_TIMEOUT = 5000;
+
+    protected final AtomicBoolean disposing = new AtomicBoolean(false);
+
+    private final TcpConnector tcpConnector;
+    private final NonBlockingTcpProtocol protocol;
+    private final AtomicInteger nextSelectorLoop = new AtomicInteger();
+    private ServerSocketChannel serverSocketChannel;
+    private SelectionKey acceptKey;
+    private SelectorLoop[] selectorLoops = new SelectorLoop[0];
+
+    public NioTcpMessageReceiver(Connector connector, FlowConstruct flowConstruct, InboundEndpoint endpoint)
+            throws CreateException
+    {
+        super(connector, flowConstruct, endpoint);
+        tcpConnector = (TcpConnector) connector;
+
+        TcpProtocol tcpProtocol = tcpConnector.getTcpProtocol();
+        if (!(tcpProtocol instanceof NonBlockingTcpProtocol))
+        {
+            throw new CreateException(TcpMessages.protocolNotSupportedByNio(tcpProtocol.getClass()), this);
+        }
+        // The receiver binds its own channel, so a factory that wraps the server sockets, as the SSL one does,
+        // would be silently ignored
+        if (tcpConnector.getServerSocketFactory().getClass() != TcpServerSocketFactory.class)
+        {
+            throw new CreateException(TcpMessages.nioRequiresPlainServerSockets(), this);
+        }
+        protocol = (NonBlockingTcpProtocol) tcpProtocol;
+    }
+
+    @Override
+    protected void doConnect() throws ConnectException
+    {
+        disposing.set(false);
+
+        URI uri = endpoint.getEndpointURI().getUri();
+
+        try
+        {
+            serverSocketChannel = tcpConnector.getServerSocketChannel(uri);
+            serverSocketChannel.configureBlocking(false);
+        }
+        catch (Exception e)
+        {
+            closeServerSocketChannel();
+            throw new EndpointConnectException(TcpMessages.failedToBindToUri(uri), e, this);
+        }
+
+        try
+        {
+            startSelectorLoops();
+        }
+        catch (IOException e)
+        {
+            stopSelectorLoops();
+            closeServerSocketChannel();
+            throw new EndpointConnectException(e, this);
+        }
+    }
+
+    private void startSelectorLoops() throws IOException
+    {
+        selectorLoops = new SelectorLoop[tcpConnector.getNioSelectorThreads()];
+        for (int i = 0; i < selectorLoops.length; i++)
+        {
+            selectorLoops[i] = new SelectorLoop();
+        }
+
+        // Connections are accepted by the first loop, once the receiver is started. A receiver that reconnects
+        // is already started.
+        acceptKey = serverSocketChannel.register(selectorLoops[0].selector, isStarted() ? SelectionKey.OP_ACCEPT : 0);
+
+        ThreadFactory threadFactory = new NamedThreadFactory(ThreadNameHelper.receiver(endpoint.getMuleContext(), connector.getName()) + ".selector",
+                                                             connector.getClass().getClassLoader());
+        for (SelectorLoop selectorLoop : selectorLoops)
+        {
+            selectorLoop.thread = threadFactory.newThread(selectorLoop);
+            selectorLoop.thread.start();
+        }
+    }
+
+    @Override
+    protected void doDisconnect() throws ConnectException
+    {
+        // this will cause the selector threads to quit
+        disposing.set(true);
+
+        stopSelectorLoops();
+        closeServerSocketChannel();
+    }
+
+    private void stopSelectorLoops()
+    {
+        for (SelectorLoop selectorLoop : selectorLoops)
+        {
+            if (selectorLoop != null)
+            {
+                selectorLoop.stop();
+            }
+        }
+        selectorLoops = new SelectorLoop[0];
+    }
+
+    private void closeServerSocketChannel()
+    {
+        try
+        {
+            if (serverSocketChannel != null)
+            {
+                if (logger.isDebugEnabled())
+                {
+                    logger.debug("Closing: " + serverSocketChannel);
+                }
+                serverSocketChannel.close();
+            }
+        }
+        catch (IOException e)
+        {
+            logger.warn("Failed to close server socket: " + e.getMessage(), e);
+        }
+        serverSocketChannel = null;
+    }
+
+    @Override
+    protected void doStart() throws MuleException
+    {
+        setAcceptInterest(SelectionKey.OP_ACCEPT);
+    }
+
+    @Override
+    protected void doStop() throws MuleException
+    {
+        setAcceptInterest(0);
+    }
+
+    private void setAcceptInterest(final int interestOps)
+    {
+        final SelectionKey key = acceptKey;
+        if (key != null && selectorLoops.length > 0)
+        {
+            selectorLoops[0].execute(() ->
+            {
+                if (key.isValid())
+                {
+                    key.interestOps(interestOps);
+                }
+            });
+        }
+    }
+
+    @Override
+    protected void doDispose()
+    {
+        disposing.set(true);
+        stopSelectorLoops();
+        closeServerSocketChannel();
+        logger.info("Closed Tcp port");
+    }
+
+    private void accept()
+    {
+        try
+        {
+            SocketChannel channel;
+            while ((channel = serverSocketChannel.accept()) != null)
+            {
+                try
+                {
+                    tcpConnector.configureSocket(TcpConnector.SERVER, channel.socket());
+                    channel.configureBlocking(false);
+                }
+                catch (IOException e)
+                {
+                    logger.warn("Failed to configure accepted socket: " + e.getMessage(), e);
+                    closeQuietly(channel);
+                    continue;
+                }
+
+                final SocketChannel acceptedChannel = channel;
+                final SelectorLoop selectorLoop = selectorLoops[Math.floorMod(nextSelectorLoop.getAndIncrement(), selectorLoops.length)];
+                selectorLoop.execute(() -> selectorLoop.register(acceptedChannel));
+            }
+        }
+        catch (IOException e)
+        {
+            if (!disposing.get())
+            {
+                endpoint.getMuleContext().getExceptionListener().handleException(new EndpointConnectException(e, this));
+            }
+        }
+    }
+
+    private long getIdleTimeout()
+    {
+        // Blocking receivers close the connections that don't send data within the socket timeout
+        if (tcpConnector.getKeepAliveTimeout() > 0)
+        {
+            return tcpConnector.getKeepAliveTimeout();
+        }
+        return Math.max(tcpConnector.getServerSoTimeout(), 0);
+    }
+
+    private void closeQuietly(SocketChannel channel)
+    {
+        try
+        {
+            channel.close();
+        }
+        catch (IOException e)
+        {
+            logger.debug("Socket close failed with: " + e);
+        }
+    }
+
+    /**
+     * Selects the ready connections of a thread, reading their data and writing their responses
+     */
+    private class SelectorLoop implements Runnable
+    {
+
+        private final Selector selector;
+        private final ByteBuffer readBuffer;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private volatile boolean running = true;
+        private Thread thread;
+        private long lastExpiryCheck = System.currentTimeMillis();
+
+        SelectorLoop() throws IOException
+        {
+            selector = Selector.open();
+            readBuffer = ByteBuffer.allocateDirect(tcpConnector.getNioBufferSize());
+        }
+
+        /**
+         * Runs the given task in the selector thread, which is the only one that touches the selection keys
+         */
+        void execute(Runnable task)
+        {
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        void register(SocketChannel channel)
+        {
+            try
+            {
+                Connection connection = new Connection(this, channel);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            }
+            catch (IOException e)
+            {
+                logger.warn("Failed to register accepted socket: " + e.getMessage(), e);
+                closeQuietly(channel);
+            }
+        }
+
+        void stop()
+        {
+            running = false;
+            selector.wakeup();
+
+            if (thread == null)
+            {
+                closeSelector();
+            }
+            else if (thread != Thread.currentThread())
+            {
+                try
+                {
+                    // Channels are only released once their keys are deregistered by the selector thread
+                    thread.join(STOP_TIMEOUT);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                while (running)
+                {
+                    selector.select(SELECT_TIMEOUT);
+                    runTasks();
+
+                    Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                    while (selectedKeys.hasNext())
+                    {
+                        SelectionKey key = selectedKeys.next();
+                        selectedKeys.remove();
+                        process(key);
+                    }
+
+                    expireIdleConnections();
+                }
+            }
+            catch (Exception e)
+            {
+                if (running && !disposing.get())
+                {
+                    endpoint.getMuleContext().getExceptionListener().handleException(e);
+                }
+            }
+            finally
+            {
+                closeSelector();
+            }
+        }
+
+        private void runTasks()
+        {
+            Runnable task;
+            while ((task = tasks.poll()) != null)
+            {
+                task.run();
+            }
+        }
+
+        private void process(SelectionKey key)
+        {
+            if (!key.isValid())
+            {
+                return;
+            }
+
+            if (key.isAcceptable())
+            {
+                accept();
+                return;
+            }
+
+            Connection connection = (Connection) key.attachment();
+            try
+            {
+                if (key.isReadable())
+                {
+                    connection.read();
+                }
+                if (key.isValid() && key.isWritable())
+                {
+                    connection.flush();
+                }
+            }
+            catch (RuntimeException e)
+            {
+                // only the failing connection is closed, the selector keeps serving the others
+                endpoint.getMuleContext().getExceptionListener().handleException(e);
+                connection.close();
+            }
+        }
+
+        private void expireIdleConnections()
+        {
+            long idleTimeout = getIdleTimeout();
+            long now = System.currentTimeMillis();
+            if (idleTimeout <= 0 || now - lastExpiryCheck < SELECT_TIMEOUT)
+            {
+                return;
+            }
+            lastExpiryCheck = now;
+
+            for (SelectionKey key : selector.keys())
+            {
+                if (key.attachment() instanceof Connection && ((Connection) key.attachment()).isIdle(now, idleTimeout))
+                {
+                    ((Connection) key.attachment()).close();
+                }
+            }
+        }
+
+        private void closeSelector()
+        {
+            for (SelectionKey key : selector.keys())
+            {
+                if (key.attachment() instanceof Connection)
+                {
+                    ((Connection) key.attachment()).close();
+                }
+            }
+
+            try
+            {
+                selector.close();
+            }
+            catch (IOException e)
+            {
+                logger.warn("Failed to close selector: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * The state of an accepted connection. Reads, writes and key changes happen in the selector thread, while the
+     * messages are processed by a single {@link NioTcpWorker} at a time.
+     */
+    private class Connection
+    {
+
+        private final SelectorLoop selectorLoop;
+        private final SocketChannel channel;
+        private final SocketAddress remoteAddress;
+        private final TcpMessageFramer framer = protocol.createFramer();
+        private final Queue<byte[]> messages = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingMessages = new AtomicInteger();
+        private final AtomicBoolean processing = new AtomicBoolean(false);
+        private final Queue<ByteBuffer> writes = new ArrayDeque<>();
+        private SelectionKey key;
+        private boolean readSuspended;
+        private long lastActivity = System.currentTimeMillis();
+        private volatile boolean inputClosed;
+        private volatile boolean closed;
+
+        Connection(SelectorLoop selectorLoop, SocketChannel channel)
+        {
+            this.selectorLoop = selectorLoop;
+            this.channel = channel;
+            this.remoteAddress = channel.socket().getRemoteSocketAddress();
+        }
+
+        void read()
+        {
+            ByteBuffer buffer = selectorLoop.readBuffer;
+            for (int reads = 0; reads < MAX_READS_PER_SELECTION && !readSuspended; reads++)
+            {
+                buffer.clear();
+                int count;
+                try
+                {
+                    count = channel.read(buffer);
+                }
+                catch (IOException e)
+                {
+                    if (logger.isDebugEnabled())
+                    {
+                        logger.debug("Failed to read from " + remoteAddress + ": " + e.getMessage());
+                    }
+                    close();
+                    return;
+                }
+
+                if (count < 0)
+                {
+                    endOfStream();
+                    return;
+                }
+                if (count == 0)
+                {
+                    enqueue(framer.endOfData());
+                    return;
+                }
+
+                lastActivity = System.currentTimeMillis();
+                buffer.flip();
+                try
+                {
+                    for (byte[] message = framer.frame(buffer); message != null; message = framer.frame(buffer))
+                    {
+                        enqueue(message);
+                    }
+                }
+                catch (IOException e)
+                {
+                    // The peer doesn't follow the protocol, so the rest of its data can't be trusted
+                    endpoint.getMuleContext().getExceptionListener().handleException(e);
+                    close();
+                    return;
+                }
+            }
+        }
+
+        private void endOfStream()
+        {
+            inputClosed = true;
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            enqueue(framer.endOfStream());
+            closeIfDone();
+        }
+
+        private void enqueue(byte[] message)
+        {
+            if (message == null)
+            {
+                return;
+            }
+
+            messages.add(message);
+            if (pendingMessages.incrementAndGet() >= MAX_PENDING_MESSAGES && !readSuspended && !inputClosed)
+            {
+                readSuspended = true;
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            }
+            schedule();
+        }
+
+        private void resumeReading()
+        {
+            if (key.isValid() && readSuspended && !inputClosed && pendingMessages.get() < MAX_PENDING_MESSAGES)
+            {
+                readSuspended = false;
+                key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+            }
+        }
+
+        /**
+         * Schedules a worker for the pending messages, unless one is already processing them
+         */
+        void schedule()
+        {
+            if (!closed && !messages.isEmpty() && processing.compareAndSet(false, true))
+            {
+                try
+                {
+                    getWorkManager().scheduleWork(new NioTcpWorker(this), WorkManager.INDEFINITE, null, connector);
+                }
+                catch (WorkException e)
+                {
+                    processing.set(false);
+                    endpoint.getMuleContext().getExceptionListener().handleException(e);
+                    closeLater();
+                }
+            }
+        }
+
+        byte[] pollMessage()
+        {
+            if (closed)
+            {
+                return null;
+            }
+
+            byte[] message = messages.poll();
+            if (message != null && pendingMessages.decrementAndGet() == MAX_PENDING_MESSAGES / 2)
+            {
+                selectorLoop.execute(this::resumeReading);
+            }
+            return message;
+        }
+
+        void workerFinished()
+        {
+            processing.set(false);
+            // Messages may have arrived after the worker polled the last one
+            schedule();
+
+            if (inputClosed)
+            {
+                selectorLoop.execute(this::closeIfDone);
+            }
+        }
+
+        void write(final byte[] data)
+        {
+            selectorLoop.execute(() ->
+            {
+                if (key.isValid())
+                {
+                    writes.add(ByteBuffer.wrap(data));
+                    flush();
+                }
+            });
+        }
+
+        void flush()
+        {
+            try
+            {
+                ByteBuffer buffer;
+                while ((buffer = writes.peek()) != null)
+                {
+                    channel.write(buffer);
+                    if (buffer.hasRemaining())
+                    {
+                        // Continue once the socket can take more data
+                        key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    writes.poll();
+                }
+
+                lastActivity = System.currentTimeMillis();
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                closeIfDone();
+            }
+            catch (IOException e)
+            {
+                if (logger.isDebugEnabled())
+                {
+                    logger.debug("Failed to write to " + remoteAddress + ": " + e.getMessage());
+                }
+                close();
+            }
+        }
+
+        boolean isIdle(long now, long idleTimeout)
+        {
+            return !processing.get() && messages.isEmpty() && writes.isEmpty() && now - lastActivity > idleTimeout;
+        }
+
+        private void closeIfDone()
+        {
+            if (inputClosed && messages.isEmpty() && !processing.get() && writes.isEmpty())
+            {
+                close();
+            }
+        }
+
+        void closeLater()
+        {
+            closed = true;
+            selectorLoop.execute(this::close);
+        }
+
+        void close()
+        {
+            closed = true;
+            if (!channel.isOpen())
+            {
+                return;
+            }
+
+            if (logger.isDebugEnabled())
+            {
+                logger.debug("Closing listener: " + remoteAddress);
+            }
+            key.cancel();
+            messages.clear();
+            writes.clear();
+            closeQuietly(channel);
+        }
+    }
+
+    /**
+     * Processes the pending messages of a connection, one at a time
+     */
+    protected class NioTcpWorker extends AbstractReceiverWorker
+    {
+
+        private final Connection connection;
+
+        private NioTcpWorker(Connection connection)
+        {
+            super(new ArrayList<Object>(1), NioTcpMessageReceiver.this);
+            this.connection = connection;
+        }
+
+        @Override
+        protected void doRun()
+        {
+            byte[] data;
+            while (!disposing.get() && (data = connection.pollMessage()) != null)
+            {
+                Object message;
+                try
+                {
+                    message = protocol.read(new ByteArrayInputStream(data));
+                }
+                catch (IOException e)
+                {
+                    endpoint.getMuleContext().getExceptionListener().handleException(e);
+                    connection.closeLater();
+                    return;
+                }
+
+                if (message != null)
+                {
+                    messages.add(message);
+                    super.doRun();
+                }
+            }
+        }
+
+        @Override
+        protected void bindTransaction(Transaction tx) throws TransactionException
+        {
+            //nothing to do
+        }
+
+        @Override
+        protected void handleResults(List messages) throws Exception
+        {
+            //should send back only if remote synch is set or no outbound endpoints
+            if (endpoint.getExchangePattern().hasResponse())
+            {
+                for (Object o : messages)
+                {
+                    ByteArrayOutputStream response = new ByteArrayOutputStream();
+                    protocol.write(response, o);
+                    connection.write(response.toByteArray());
+                }
+            }
+        }
+
+        @Override
+        protected void preRouteMuleMessage(final MutableMuleMessage message) throws Exception
+        {
+            super.preRouteMuleMessage(message);
+
+            if (connection.remoteAddress != null)
+            {
+                message.setOutboundProperty(MuleProperties.MULE_REMOTE_CLIENT_ADDRESS, connection.remoteAddress.toString());
+            }
+        }
+
+        @Override
+        public void release()
+        {
+            connection.workerFinished();
+        }
+    }
+}
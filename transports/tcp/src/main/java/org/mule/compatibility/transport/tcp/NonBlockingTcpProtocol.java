@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.compatibility.transport.tcp;
+
+/**
+ * A {@link TcpProtocol} that can find where its messages end in the data received from a non blocking channel,
+ * so it can be used by the {@link NioTcpMessageReceiver}.
+ * <p/>
+ * The framer only delimits messages. Each complete message is then read using {@link #read(java.io.InputStream)}
+ * over its bytes, so subclasses that post-process what they read keep working.
+ */
+public interface NonBlockingTcpProtocol extends TcpProtocol
+{
+
+    /**
+     * @return a new framer, which keeps the state of a single connection
+     */
+    TcpMessageFramer createFramer();
+}
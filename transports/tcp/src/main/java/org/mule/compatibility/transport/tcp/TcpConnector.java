@@ -7,8 +7,10 @@
 package org.mule.compatibility.transport.tcp;
 
 import org.mule.compatibility.core.api.endpoint.ImmutableEndpoint;
+import org.mule.compatibility.core.api.endpoint.InboundEndpoint;
 import org.mule.compatibility.core.api.transport.Connector;
 import org.mule.compatibility.core.api.transport.MessageDispatcherFactory;
+import org.mule.compatibility.core.api.transport.MessageReceiver;
 import org.mule.compatibility.core.config.i18n.TransportCoreMessages;
 import org.mule.compatibility.core.transport.AbstractConnector;
 import org.mule.compatibility.core.transport.ConfigurableKeyedObjectPool;
@@ -18,6 +20,7 @@ import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.MuleException;
 import org.mule.runtime.core.api.MuleMessage;
 import org.mule.runtime.core.api.config.MuleProperties;
+import org.mule.runtime.core.api.construct.FlowConstruct;
 import org.mule.runtime.core.api.lifecycle.InitialisationException;
 import org.mule.runtime.core.model.streaming.CallbackOutputStream;
 import org.mule.runtime.core.util.concurrent.ThreadNameHelper;
@@ -31,6 +34,7 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.URI;
+import java.nio.channels.ServerSocketChannel;
 
 import org.apache.commons.pool.impl.GenericKeyedObjectPool;
 
@@ -53,6 +57,7 @@ public class TcpConnector extends AbstractConnector
     public static final int DEFAULT_BUFFER_SIZE = INT_VALUE_NOT_SET;
     public static final int DEFAULT_BACKLOG = INT_VALUE_NOT_SET;
     public static final int DEFAULT_WAIT_TIMEOUT = INT_VALUE_NOT_SET;
+    public static final int DEFAULT_NIO_BUFFER_SIZE = 8192;
 
     // to clarify arg to configureSocket
     public static final boolean SERVER = false;
@@ -76,6 +81,14 @@ public class TcpConnector extends AbstractConnector
     private ExpiryMonitor keepAliveMonitor;
     private Boolean failOnUnresolvedHost = Boolean.TRUE;
 
+    /**
+     * If set, inbound endpoints are served by a {@link NioTcpMessageReceiver}, which uses a few selector threads
+     * instead of a thread per connection.
+     */
+    private boolean nio = false;
+    private int nioSelectorThreads = Runtime.getRuntime().availableProcessors();
+    private int nioBufferSize = DEFAULT_NIO_BUFFER_SIZE;
+
     /** 
      * If set, the socket is not closed after sending a message.  This attribute 
      * only applies when sending data over a socket (Client).
@@ -274,6 +287,16 @@ public class TcpConnector extends AbstractConnector
         }
     }
 
+    @Override
+    protected MessageReceiver createReceiver(FlowConstruct flowConstruct, InboundEndpoint endpoint) throws Exception
+    {
+        if (isNio())
+        {
+            return new NioTcpMessageReceiver(this, flowConstruct, endpoint);
+        }
+        return super.createReceiver(flowConstruct, endpoint);
+    }
+
     @Override
     protected void doConnect() throws Exception
     {
@@ -502,6 +525,11 @@ public class TcpConnector extends AbstractConnector
         return getServerSocketFactory().createServerSocket(uri, getReceiveBacklog(), isReuseAddress());
     }
 
+    protected ServerSocketChannel getServerSocketChannel(URI uri) throws IOException
+    {
+        return ((TcpServerSocketFactory) getServerSocketFactory()).createServerSocketChannel(uri, getReceiveBacklog(), isReuseAddress());
+    }
+
     private static int valueOrDefault(int value, int threshhold, int deflt)
     {
         if (value < threshhold)
@@ -596,4 +624,34 @@ public class TcpConnector extends AbstractConnector
         this.failOnUnresolvedHost = failOnUnresolvedHost;
     }
 
+    public boolean isNio()
+    {
+        return nio;
+    }
+
+    public void setNio(boolean nio)
+    {
+        this.nio = nio;
+    }
+
+    public int getNioSelectorThreads()
+    {
+        return nioSelectorThreads;
+    }
+
+    public void setNioSelectorThreads(int nioSelectorThreads)
+    {
+        this.nioSelectorThreads = valueOrDefault(nioSelectorThreads, 1, Runtime.getRuntime().availableProcessors());
+    }
+
+    public int getNioBufferSize()
+    {
+        return nioBufferSize;
+    }
+
+    public void setNioBufferSize(int nioBufferSize)
+    {
+        this.nioBufferSize = valueOrDefault(nioBufferSize, 1, DEFAULT_NIO_BUFFER_SIZE);
+    }
+
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.compatibility.transport.tcp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Delimits the messages of a {@link NonBlockingTcpProtocol} in the data received from a connection, as it arrives.
+ * Framers keep the data of incomplete messages, so each connection needs its own instance. They are only used by
+ * one thread at a time.
+ */
+public interface TcpMessageFramer
+{
+
+    /**
+     * Consumes data from the buffer until a message is complete.
+     *
+     * @param buffer the received data, ready to be read. Data after a complete message is left in the buffer.
+     * @return the bytes of the complete message, as sent by the peer, or null if all the data in the buffer was
+     *         consumed without completing a message
+     * @throws IOException if the data doesn't follow the protocol
+     */
+    byte[] frame(ByteBuffer buffer) throws IOException;
+
+    /**
+     * Called when all the data currently available in the connection has been consumed.
+     *
+     * @return the bytes of a message that is complete at this point, or null if there is none
+     */
+    byte[] endOfData();
+
+    /**
+     * Called when the peer closes the connection.
+     *
+     * @return the remaining bytes, even if they don't form a complete message, so the protocol can decide how to
+     *         read them, or null if there are none
+     */
+    byte[] endOfStream();
+}
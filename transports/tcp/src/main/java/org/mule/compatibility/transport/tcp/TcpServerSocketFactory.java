@@ -15,6 +15,7 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.URI;
+import java.nio.channels.ServerSocketChannel;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,7 +30,7 @@ public class TcpServerSocketFactory implements SimpleServerSocketFactory
         String host = StringUtils.defaultIfEmpty(uri.getHost(), "localhost");
         InetAddress inetAddress = InetAddress.getByName(host);
 
-        if ((inetAddress.equals(NetworkUtils.getLocalHost()) || host.trim().equals("localhost")) && TcpPropertyHelper.isBindingLocalhostToAllLocalInterfaces())
+        if (isBoundToAllLocalInterfaces(host, inetAddress))
         {
             logger.warn(TcpMessages.localhostBoundToAllLocalInterfaces().toString());
             return createServerSocket(uri.getPort(), backlog, reuse);
@@ -40,6 +41,49 @@ public class TcpServerSocketFactory implements SimpleServerSocketFactory
         }
     }
 
+    /**
+     * Creates a server socket channel bound to the given address, for receivers that use non blocking sockets
+     *
+     * @param uri The address and port to bind to
+     * @param backlog The backlog (or {@link org.mule.compatibility.core.api.transport.Connector#INT_VALUE_NOT_SET})
+     * @param reuse Whether to reuse addresses (null for default)
+     * @return A new, bound server socket channel
+     * @throws IOException
+     */
+    public ServerSocketChannel createServerSocketChannel(URI uri, int backlog, Boolean reuse) throws IOException
+    {
+        String host = StringUtils.defaultIfEmpty(uri.getHost(), "localhost");
+        InetAddress inetAddress = InetAddress.getByName(host);
+
+        InetSocketAddress address;
+        if (isBoundToAllLocalInterfaces(host, inetAddress))
+        {
+            logger.warn(TcpMessages.localhostBoundToAllLocalInterfaces().toString());
+            address = new InetSocketAddress(uri.getPort());
+        }
+        else
+        {
+            address = new InetSocketAddress(inetAddress, uri.getPort());
+        }
+
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        try
+        {
+            configure(channel.socket(), reuse, address, backlog);
+            return channel;
+        }
+        catch (IOException e)
+        {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private boolean isBoundToAllLocalInterfaces(String host, InetAddress inetAddress)
+    {
+        return (inetAddress.equals(NetworkUtils.getLocalHost()) || host.trim().equals("localhost")) && TcpPropertyHelper.isBindingLocalhostToAllLocalInterfaces();
+    }
+
     @Override
     public ServerSocket createServerSocket(InetAddress address, int port, int backlog, Boolean reuse) throws IOException
     {
@@ -48,6 +48,16 @@ public class TcpMessages extends MessageFactory
     {
         return factory.createMessage(BUNDLE_PATH, 6, TcpPropertyHelper.MULE_TCP_BIND_LOCALHOST_TO_ALL_LOCAL_INTERFACES_PROPERTY);
     }
+
+    public static Message protocolNotSupportedByNio(Class c)
+    {
+        return factory.createMessage(BUNDLE_PATH, 7, c.getName());
+    }
+
+    public static Message nioRequiresPlainServerSockets()
+    {
+        return factory.createMessage(BUNDLE_PATH, 8);
+    }
 }
 
 
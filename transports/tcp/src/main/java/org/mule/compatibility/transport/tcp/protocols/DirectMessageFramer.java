@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.compatibility.transport.tcp.protocols;
+
+import org.mule.compatibility.transport.tcp.TcpMessageFramer;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Framer of the {@link DirectProtocol}: a message is all the data available in the connection at a given time.
+ */
+public class DirectMessageFramer implements TcpMessageFramer
+{
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private byte[] data = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    @Override
+    public byte[] frame(ByteBuffer buffer)
+    {
+        int length = buffer.remaining();
+        if (size + length > data.length)
+        {
+            data = Arrays.copyOf(data, Math.max(size + length, data.length * 2));
+        }
+        buffer.get(data, size, length);
+        size += length;
+        return null;
+    }
+
+    @Override
+    public byte[] endOfData()
+    {
+        return takeData();
+    }
+
+    @Override
+    public byte[] endOfStream()
+    {
+        return takeData();
+    }
+
+    protected byte[] takeData()
+    {
+        if (size == 0)
+        {
+            return null;
+        }
+
+        byte[] message = Arrays.copyOf(data, size);
+        size = 0;
+        if (data.length > INITIAL_CAPACITY)
+        {
+            // Don't keep large buffers on idle connections
+            data = new byte[INITIAL_CAPACITY];
+        }
+        return message;
+    }
+}
@@ -6,6 +6,9 @@
  */
 package org.mule.compatibility.transport.tcp.protocols;
 
+import org.mule.compatibility.transport.tcp.NonBlockingTcpProtocol;
+import org.mule.compatibility.transport.tcp.TcpMessageFramer;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.MessageFormat;
@@ -24,7 +27,7 @@ import org.slf4j.LoggerFactory;
  *
  * <p>Writing simply writes the data to the socket.</p>
  */
-public class DirectProtocol extends AbstractByteProtocol
+public class DirectProtocol extends AbstractByteProtocol implements NonBlockingTcpProtocol
 {
 
     protected static final int UNLIMITED = -1;
@@ -50,6 +53,12 @@ public class DirectProtocol extends AbstractByteProtocol
         return read(is, UNLIMITED);
     }
 
+    @Override
+    public TcpMessageFramer createFramer()
+    {
+        return new DirectMessageFramer();
+    }
+
     public Object read(InputStream is, int limit) throws IOException
     {
         // this can grow on repeated reads
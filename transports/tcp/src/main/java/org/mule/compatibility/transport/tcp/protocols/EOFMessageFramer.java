@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.compatibility.transport.tcp.protocols;
+
+/**
+ * Framer of the {@link EOFProtocol}: a message is all the data received until the peer closes the connection.
+ */
+public class EOFMessageFramer extends DirectMessageFramer
+{
+
+    @Override
+    public byte[] endOfData()
+    {
+        return null;
+    }
+}
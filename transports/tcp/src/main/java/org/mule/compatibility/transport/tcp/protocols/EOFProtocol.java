@@ -6,6 +6,8 @@
  */
 package org.mule.compatibility.transport.tcp.protocols;
 
+import org.mule.compatibility.transport.tcp.TcpMessageFramer;
+
 /**
  * The EOFProtocol class is an application level tcp protocol that does nothing.
  * Reading is terminated by the stream being closed by the client.
@@ -26,4 +28,10 @@ public class EOFProtocol extends DirectProtocol
         return true;
     }
 
+    @Override
+    public TcpMessageFramer createFramer()
+    {
+        return new EOFMessageFramer();
+    }
+
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.compatibility.transport.tcp.protocols;
+
+import org.mule.compatibility.transport.tcp.TcpMessageFramer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Framer of the {@link LengthProtocol}: a message is an integer with the length of the data, followed by the data.
+ * The data of a message is kept in an array of its exact size, allocated once the length is known.
+ */
+public class LengthMessageFramer implements TcpMessageFramer
+{
+
+    private static final int SIZE_INT = 4;
+
+    /**
+     * Largest data length whose message, including its header, fits in an array allocatable by the JVM
+     */
+    private static final int MAX_LENGTH = Integer.MAX_VALUE - 8 - SIZE_INT;
+
+    private final int maxMessageLength;
+    private final byte[] header = new byte[SIZE_INT];
+    private int headerSize;
+    private byte[] message;
+    private int messageSize;
+
+    /**
+     * @param maxMessageLength the maximum length of the data of a message, or {@link LengthProtocol#NO_MAX_LENGTH}
+     */
+    public LengthMessageFramer(int maxMessageLength)
+    {
+        this.maxMessageLength = maxMessageLength;
+    }
+
+    @Override
+    public byte[] frame(ByteBuffer buffer) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            if (message == null)
+            {
+                header[headerSize++] = buffer.get();
+                if (headerSize < SIZE_INT)
+                {
+                    continue;
+                }
+                startMessage();
+            }
+
+            int length = Math.min(buffer.remaining(), message.length - messageSize);
+            buffer.get(message, messageSize, length);
+            messageSize += length;
+
+            if (messageSize == message.length)
+            {
+                byte[] complete = message;
+                message = null;
+                headerSize = 0;
+                return complete;
+            }
+        }
+        return null;
+    }
+
+    private void startMessage() throws IOException
+    {
+        int length = ((header[0] & 0xFF) << 24) | ((header[1] & 0xFF) << 16) | ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
+
+        // Same check as LengthProtocol, done before allocating the message
+        if (length < 0 || (maxMessageLength > 0 && length > maxMessageLength))
+        {
+            throw new IOException("Length " + length + " exceeds limit: " + maxMessageLength);
+        }
+        if (length > MAX_LENGTH)
+        {
+            throw new IOException("Length " + length + " exceeds the maximum supported: " + MAX_LENGTH);
+        }
+
+        message = new byte[SIZE_INT + length];
+        System.arraycopy(header, 0, message, 0, SIZE_INT);
+        messageSize = SIZE_INT;
+    }
+
+    @Override
+    public byte[] endOfData()
+    {
+        return null;
+    }
+
+    @Override
+    public byte[] endOfStream()
+    {
+        byte[] remaining = null;
+        if (message != null)
+        {
+            remaining = Arrays.copyOf(message, messageSize);
+        }
+        else if (headerSize > 0)
+        {
+            remaining = Arrays.copyOf(header, headerSize);
+        }
+        message = null;
+        headerSize = 0;
+        return remaining;
+    }
+}
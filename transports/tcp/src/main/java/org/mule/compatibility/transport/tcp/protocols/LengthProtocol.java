@@ -6,6 +6,8 @@
  */
 package org.mule.compatibility.transport.tcp.protocols;
 
+import org.mule.compatibility.transport.tcp.TcpMessageFramer;
+
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -111,6 +113,12 @@ public class LengthProtocol extends DirectProtocol
         return true;
     }
 
+    @Override
+    public TcpMessageFramer createFramer()
+    {
+        return new LengthMessageFramer(getMaxMessageLength());
+    }
+
     public int getMaxMessageLength()
     {
         return maxMessageLength;
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.compatibility.transport.tcp.protocols;
+
+import org.mule.compatibility.transport.tcp.TcpMessageFramer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Framer of the {@link SafeProtocol}: a message is the length framed cookie followed by the length framed data.
+ */
+public class SafeMessageFramer implements TcpMessageFramer
+{
+
+    private final LengthMessageFramer cookieFramer = new LengthMessageFramer(SafeProtocol.COOKIE.length());
+    private final LengthMessageFramer dataFramer;
+    private byte[] cookie;
+
+    public SafeMessageFramer(int maxMessageLength)
+    {
+        dataFramer = new LengthMessageFramer(maxMessageLength);
+    }
+
+    @Override
+    public byte[] frame(ByteBuffer buffer) throws IOException
+    {
+        if (cookie == null)
+        {
+            cookie = cookieFramer.frame(buffer);
+            if (cookie == null)
+            {
+                return null;
+            }
+        }
+
+        byte[] data = dataFramer.frame(buffer);
+        if (data == null)
+        {
+            return null;
+        }
+
+        byte[] message = concat(cookie, data);
+        cookie = null;
+        return message;
+    }
+
+    @Override
+    public byte[] endOfData()
+    {
+        return null;
+    }
+
+    @Override
+    public byte[] endOfStream()
+    {
+        if (cookie == null)
+        {
+            return cookieFramer.endOfStream();
+        }
+
+        byte[] data = dataFramer.endOfStream();
+        byte[] remaining = data == null ? cookie : concat(cookie, data);
+        cookie = null;
+        return remaining;
+    }
+
+    private static byte[] concat(byte[] first, byte[] second)
+    {
+        byte[] result = new byte[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
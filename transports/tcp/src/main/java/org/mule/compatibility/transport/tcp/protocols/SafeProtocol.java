@@ -6,6 +6,8 @@
  */
 package org.mule.compatibility.transport.tcp.protocols;
 
+import org.mule.compatibility.transport.tcp.NonBlockingTcpProtocol;
+import org.mule.compatibility.transport.tcp.TcpMessageFramer;
 import org.mule.compatibility.transport.tcp.TcpProtocol;
 import org.mule.runtime.core.ResponseOutputStream;
 import org.mule.runtime.core.api.serialization.DefaultObjectSerializer;
@@ -25,12 +27,13 @@ import javax.inject.Inject;
  * You should probably change to LengthProtocol.
  * Remember - both sender and receiver must use the same protocol.
  */
-public class SafeProtocol implements TcpProtocol
+public class SafeProtocol implements NonBlockingTcpProtocol
 {
 
     public static final String COOKIE = "You are using SafeProtocol";
     private TcpProtocol delegate = new LengthProtocol();
     private TcpProtocol cookieProtocol = new LengthProtocol(COOKIE.length());
+    private int maxMessageLength = LengthProtocol.NO_MAX_LENGTH;
 
     @Override
     public Object read(InputStream is) throws IOException
@@ -58,6 +61,12 @@ public class SafeProtocol implements TcpProtocol
         delegate.write(os, data);
     }
 
+    @Override
+    public TcpMessageFramer createFramer()
+    {
+        return new SafeMessageFramer(maxMessageLength);
+    }
+
     @Override
     public ResponseOutputStream createResponse(Socket socket) throws IOException
     {
@@ -118,6 +127,7 @@ public class SafeProtocol implements TcpProtocol
 
     public void setMaxMessageLength(int maxMessageLength)
     {
+        this.maxMessageLength = maxMessageLength;
         delegate = new LengthProtocol(maxMessageLength);
     }
 
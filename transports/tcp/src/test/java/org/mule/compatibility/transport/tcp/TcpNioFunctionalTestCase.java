@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.compatibility.transport.tcp;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.mule.compatibility.transport.tcp.protocols.LengthProtocol;
+import org.mule.functional.junit4.FunctionalTestCase;
+import org.mule.tck.junit4.rule.DynamicPort;
+
+import java.io.BufferedInputStream;
+import java.io.DataOutputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+public class TcpNioFunctionalTestCase extends FunctionalTestCase
+{
+
+    private static final String TEST_MESSAGE = "Test TCP Request";
+    private static final int CLIENTS = 8;
+    private static final int MESSAGES_PER_CLIENT = 50;
+
+    @Rule
+    public DynamicPort dynamicPort = new DynamicPort("port1");
+
+    @Override
+    protected String getConfigFile()
+    {
+        return "tcp-nio-functional-test-flow.xml";
+    }
+
+    @Test
+    public void usesNioReceiver() throws Exception
+    {
+        TcpConnector connector = (TcpConnector) muleContext.getRegistry().lookupObject("nioConnector");
+
+        assertThat(connector.getReceivers().values().iterator().next(), is(instanceOf(NioTcpMessageReceiver.class)));
+    }
+
+    @Test
+    public void send() throws Exception
+    {
+        String result = getPayloadAsString(muleContext.getClient().send("tcp://localhost:" + dynamicPort.getNumber() + "?connector=clientConnector", TEST_MESSAGE, null));
+
+        assertThat(result, is(TEST_MESSAGE + " Received"));
+    }
+
+    @Test
+    public void respondsInOrderToPipelinedRequestsFromConcurrentClients() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        try
+        {
+            List<Future<Void>> clients = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++)
+            {
+                final int client = i;
+                clients.add(executor.submit(new Callable<Void>()
+                {
+                    @Override
+                    public Void call() throws Exception
+                    {
+                        pipelineRequests(client);
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<Void> client : clients)
+            {
+                client.get();
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private void pipelineRequests(int client) throws Exception
+    {
+        LengthProtocol protocol = new LengthProtocol();
+        try (Socket socket = new Socket("localhost", dynamicPort.getNumber()))
+        {
+            // All the requests are sent before reading any response, so they are read from the socket together
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            for (int i = 0; i < MESSAGES_PER_CLIENT; i++)
+            {
+                protocol.write(out, message(client, i));
+            }
+            out.flush();
+
+            BufferedInputStream in = new BufferedInputStream(socket.getInputStream());
+            for (int i = 0; i < MESSAGES_PER_CLIENT; i++)
+            {
+                assertThat(new String((byte[]) protocol.read(in)), is(message(client, i) + " Received"));
+            }
+        }
+    }
+
+    private String message(int client, int i)
+    {
+        return TEST_MESSAGE + " " + client + "-" + i;
+    }
+}
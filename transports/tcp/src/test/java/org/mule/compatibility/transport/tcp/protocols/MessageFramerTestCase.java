@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.compatibility.transport.tcp.protocols;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import org.mule.compatibility.transport.tcp.TcpMessageFramer;
+import org.mule.compatibility.transport.tcp.TcpProtocol;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+@SmallTest
+public class MessageFramerTestCase extends AbstractMuleTestCase
+{
+
+    private static final byte[] FIRST = "first message".getBytes();
+    private static final byte[] SECOND = "second".getBytes();
+
+    @Test
+    public void framesLengthMessageSplitAcrossReads() throws Exception
+    {
+        LengthProtocol protocol = new LengthProtocol();
+        byte[] data = write(protocol, FIRST);
+        TcpMessageFramer framer = protocol.createFramer();
+
+        assertThat(framer.frame(ByteBuffer.wrap(data, 0, 2)), is(nullValue()));
+        assertThat(framer.frame(ByteBuffer.wrap(data, 2, 5)), is(nullValue()));
+        byte[] frame = framer.frame(ByteBuffer.wrap(data, 7, data.length - 7));
+
+        assertThat(frame, is(data));
+        assertThat((byte[]) protocol.read(new ByteArrayInputStream(frame)), is(FIRST));
+    }
+
+    @Test
+    public void framesPipelinedLengthMessages() throws Exception
+    {
+        LengthProtocol protocol = new LengthProtocol();
+        ByteBuffer buffer = ByteBuffer.wrap(concat(write(protocol, FIRST), write(protocol, SECOND)));
+        TcpMessageFramer framer = protocol.createFramer();
+
+        assertThat((byte[]) protocol.read(new ByteArrayInputStream(framer.frame(buffer))), is(FIRST));
+        assertThat((byte[]) protocol.read(new ByteArrayInputStream(framer.frame(buffer))), is(SECOND));
+        assertThat(framer.frame(buffer), is(nullValue()));
+        assertThat(framer.endOfStream(), is(nullValue()));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsLengthOverLimit() throws Exception
+    {
+        LengthProtocol protocol = new LengthProtocol();
+        byte[] data = write(protocol, FIRST);
+
+        new LengthProtocol(FIRST.length - 1).createFramer().frame(ByteBuffer.wrap(data));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOversizedLengthWithoutLimit() throws Exception
+    {
+        byte[] header = ByteBuffer.allocate(4).putInt(Integer.MAX_VALUE - 1).array();
+
+        new LengthProtocol().createFramer().frame(ByteBuffer.wrap(header));
+    }
+
+    @Test(expected = IOException.class)
+    public void returnsIncompleteLengthMessageOnEndOfStream() throws Exception
+    {
+        LengthProtocol protocol = new LengthProtocol();
+        byte[] data = write(protocol, FIRST);
+        TcpMessageFramer framer = protocol.createFramer();
+
+        framer.frame(ByteBuffer.wrap(data, 0, data.length - 1));
+        byte[] remaining = framer.endOfStream();
+
+        assertThat(remaining, is(Arrays.copyOf(data, data.length - 1)));
+        protocol.read(new ByteArrayInputStream(remaining));
+    }
+
+    @Test
+    public void framesSafeMessages() throws Exception
+    {
+        SafeProtocol protocol = new SafeProtocol();
+        byte[] first = write(protocol, FIRST);
+        ByteBuffer buffer = ByteBuffer.wrap(concat(first, write(protocol, SECOND)));
+        TcpMessageFramer framer = protocol.createFramer();
+
+        assertThat(framer.frame(ByteBuffer.wrap(first, 0, 10)), is(nullValue()));
+        buffer.position(10);
+        assertThat((byte[]) protocol.read(new ByteArrayInputStream(framer.frame(buffer))), is(FIRST));
+        assertThat((byte[]) protocol.read(new ByteArrayInputStream(framer.frame(buffer))), is(SECOND));
+    }
+
+    @Test
+    public void framesDirectMessageWhenNoMoreDataIsAvailable() throws Exception
+    {
+        TcpMessageFramer framer = new DirectProtocol().createFramer();
+
+        assertThat(framer.frame(ByteBuffer.wrap(FIRST)), is(nullValue()));
+        assertThat(framer.frame(ByteBuffer.wrap(SECOND)), is(nullValue()));
+
+        assertThat(framer.endOfData(), is(concat(FIRST, SECOND)));
+        assertThat(framer.endOfData(), is(nullValue()));
+    }
+
+    @Test
+    public void framesEOFMessageWhenStreamEnds() throws Exception
+    {
+        TcpMessageFramer framer = new EOFProtocol().createFramer();
+
+        framer.frame(ByteBuffer.wrap(FIRST));
+        assertThat(framer.endOfData(), is(nullValue()));
+        framer.frame(ByteBuffer.wrap(SECOND));
+
+        assertThat(framer.endOfStream(), is(concat(FIRST, SECOND)));
+    }
+
+    private byte[] write(TcpProtocol protocol, byte[] data) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        protocol.write(out, data);
+        return out.toByteArray();
+    }
+
+    private byte[] concat(byte[] first, byte[] second)
+    {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}